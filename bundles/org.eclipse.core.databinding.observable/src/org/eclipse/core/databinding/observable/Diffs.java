@@ -25,9 +25,12 @@ import java.util.Set;
 
 import org.eclipse.core.databinding.observable.list.ListDiff;
 import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.list.ListDiffRange;
+import org.eclipse.core.databinding.observable.list.RangeListDiff;
 import org.eclipse.core.databinding.observable.map.MapDiff;
 import org.eclipse.core.databinding.observable.set.SetDiff;
 import org.eclipse.core.databinding.observable.value.ValueDiff;
+import org.eclipse.core.internal.databinding.observable.ListDiffComputer;
 import org.eclipse.core.internal.databinding.observable.Util;
 
 /**
@@ -212,9 +215,26 @@ public class Diffs {
 		return new UnmodifiableValueDiff<V>(diff);
 	}
 
+	/**
+	 * Lists whose sizes multiply to at most this value are diffed with the
+	 * move detecting algorithm; larger lists with the O((N+M)D) algorithm
+	 * first.
+	 */
+	private static final int SMALL_LIST_DIFF_LIMIT = 1024;
+
 	/**
 	 * Returns a {@link ListDiff} describing the change between the specified
 	 * old and new list states.
+	 * <p>
+	 * Moved elements are reported as adjacent remove and add entries, so that
+	 * {@link ListDiff#accept} reports them as moves. Larger lists are first
+	 * diffed in O((N+M)D) time, where N and M are the sizes of the lists and D
+	 * the number of inserted and removed elements. If no element was moved,
+	 * which includes pure insertions and removals, the diff is a
+	 * {@link RangeListDiff}; otherwise only the region between the common
+	 * prefix and suffix of the lists is diffed again by the move detecting
+	 * algorithm.
+	 * </p>
 	 *
 	 * @param <E>
 	 *            the list element type
@@ -227,12 +247,78 @@ public class Diffs {
 	 * @since 1.6
 	 */
 	public static <E> ListDiff<E> computeListDiff(List<? extends E> oldList, List<? extends E> newList) {
+		if ((long) oldList.size() * newList.size() > SMALL_LIST_DIFF_LIMIT) {
+			List<ListDiffRange<E>> ranges = ListDiffComputer.<E> computeDiffRanges(oldList, newList, false);
+			if (!hasMovedElements(ranges)) {
+				return new RangeListDiff<>(ranges);
+			}
+			// the ranges are bounded by the common prefix and suffix
+			int start = ranges.get(0).getPosition();
+			ListDiffRange<E> last = ranges.get(ranges.size() - 1);
+			int newEnd = last.getPosition() + last.getAddedCount();
+			int oldEnd = oldList.size() - (newList.size() - newEnd);
+			List<ListDiffEntry<E>> diffEntries = new ArrayList<>();
+			createListDiffs(new ArrayList<E>(oldList.subList(start, oldEnd)), newList.subList(start, newEnd),
+					diffEntries);
+			for (int i = 0; i < diffEntries.size(); i++) {
+				ListDiffEntry<E> entry = diffEntries.get(i);
+				diffEntries.set(i,
+						createListDiffEntry(entry.getPosition() + start, entry.isAddition(), entry.getElement()));
+			}
+			return createListDiff(diffEntries);
+		}
 		List<ListDiffEntry<E>> diffEntries = new ArrayList<>();
 		createListDiffs(new ArrayList<E>(oldList), newList, diffEntries);
 		ListDiff<E> listDiff = createListDiff(diffEntries);
 		return listDiff;
 	}
 
+	/**
+	 * Returns whether an element removed by one of the given ranges is added
+	 * by one of them, i.e. was moved.
+	 */
+	private static <E> boolean hasMovedElements(List<ListDiffRange<E>> ranges) {
+		Set<E> removed = new HashSet<>();
+		for (ListDiffRange<E> range : ranges) {
+			removed.addAll(range.getRemovedElements());
+		}
+		if (removed.isEmpty()) {
+			return false;
+		}
+		for (ListDiffRange<E> range : ranges) {
+			for (E element : range.getAddedElements()) {
+				if (removed.contains(element)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a {@link ListDiff} describing the change between the specified
+	 * old and new list states, comparing the elements by identity instead of
+	 * with {@link Object#equals(Object)}.
+	 * <p>
+	 * The diff is computed in O((N+M)D) time, where N and M are the sizes of
+	 * the lists and D the number of inserted and removed elements. The diff is
+	 * a {@link RangeListDiff}.
+	 * </p>
+	 *
+	 * @param <E>
+	 *            the list element type
+	 *
+	 * @param oldList
+	 *            the old list state
+	 * @param newList
+	 *            the new list state
+	 * @return the differences between oldList and newList
+	 * @since 1.7
+	 */
+	public static <E> ListDiff<E> computeIdentityListDiff(List<? extends E> oldList, List<? extends E> newList) {
+		return new RangeListDiff<>(ListDiffComputer.<E> computeDiffRanges(oldList, newList, true));
+	}
+
 	/**
 	 * Returns a lazily computed {@link ListDiff} describing the change between
 	 * the specified old and new list states.
@@ -12,10 +12,9 @@
  *******************************************************************************/
 package org.eclipse.core.databinding.observable;
 
-import java.util.Set;
+import java.util.Arrays;
 
 import org.eclipse.core.databinding.util.Policy;
-import org.eclipse.core.internal.databinding.identity.IdentitySet;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -61,20 +60,152 @@ import org.eclipse.core.runtime.Status;
 public class ObservableTracker {
 
 	/**
-	 * Threadlocal storage pointing to the current Set of IObservables, or null
-	 * if none. Note that this is actually the top of a stack. Whenever a method
-	 * changes the current value, it remembers the old value as a local variable
-	 * and restores the old value when the method exits.
+	 * The tracking state of a thread. The fields of the frame are the top of a
+	 * stack: whenever a method changes them, it remembers the old values as
+	 * local variables and restores them when the method exits. The observable
+	 * collectors are pooled by nesting depth and reused between runs.
 	 */
-	private static ThreadLocal<IChangeListener> currentChangeListener = new ThreadLocal<>();
+	private static final class TrackingFrame {
+		IChangeListener changeListener;
 
-	private static ThreadLocal<IStaleListener> currentStaleListener = new ThreadLocal<>();
+		IStaleListener staleListener;
 
-	private static ThreadLocal<Set<IObservable>> currentGetterCalledSet = new ThreadLocal<>();
+		ObservableCollector getterCalledCollector;
 
-	private static ThreadLocal<Set<IObservable>> currentObservableCreatedSet = new ThreadLocal<>();
+		ObservableCollector observableCreatedCollector;
 
-	private static ThreadLocal<Integer> currentIgnoreCount = new ThreadLocal<>();
+		int ignoreCount;
+
+		private ObservableCollector[] collectors = new ObservableCollector[4];
+
+		private int depth;
+
+		ObservableCollector pushCollector() {
+			if (depth == collectors.length) {
+				ObservableCollector[] newCollectors = new ObservableCollector[depth * 2];
+				System.arraycopy(collectors, 0, newCollectors, 0, depth);
+				collectors = newCollectors;
+			}
+			ObservableCollector collector = collectors[depth];
+			if (collector == null) {
+				collector = collectors[depth] = new ObservableCollector();
+			}
+			depth++;
+			return collector;
+		}
+
+		void popCollector() {
+			collectors[--depth].clear();
+		}
+	}
+
+	/**
+	 * An insertion ordered identity set of observables, which can be cleared
+	 * and refilled without allocating.
+	 */
+	private static final class ObservableCollector {
+		/**
+		 * Sizes up to which duplicates are found by a linear scan instead of
+		 * the hash table.
+		 */
+		private static final int LINEAR_SCAN_LIMIT = 8;
+
+		/**
+		 * Capacity above which the arrays are released when cleared, so that
+		 * a single large run does not pin memory.
+		 */
+		private static final int MAX_RETAINED_CAPACITY = 1024;
+
+		private IObservable[] elements = new IObservable[LINEAR_SCAN_LIMIT];
+
+		/** Open addressing table of indices into elements, plus one. */
+		private int[] table;
+
+		private int size;
+
+		boolean add(IObservable observable) {
+			if (size < LINEAR_SCAN_LIMIT) {
+				for (int i = 0; i < size; i++) {
+					if (elements[i] == observable) {
+						return false;
+					}
+				}
+			} else {
+				if (table == null || size * 2 >= table.length) {
+					rehash();
+				}
+				int mask = table.length - 1;
+				int slot = System.identityHashCode(observable) & mask;
+				for (int index; (index = table[slot]) != 0; slot = (slot + 1) & mask) {
+					if (elements[index - 1] == observable) {
+						return false;
+					}
+				}
+				table[slot] = size + 1;
+			}
+			if (size == elements.length) {
+				IObservable[] newElements = new IObservable[size * 2];
+				System.arraycopy(elements, 0, newElements, 0, size);
+				elements = newElements;
+			}
+			elements[size++] = observable;
+			if (size == LINEAR_SCAN_LIMIT) {
+				rehash();
+			}
+			return true;
+		}
+
+		private void rehash() {
+			int capacity = Integer.highestOneBit(Math.max(size, LINEAR_SCAN_LIMIT) * 4);
+			if (table == null || table.length < capacity) {
+				table = new int[capacity];
+			} else {
+				Arrays.fill(table, 0);
+			}
+			int mask = table.length - 1;
+			for (int i = 0; i < size; i++) {
+				int slot = System.identityHashCode(elements[i]) & mask;
+				while (table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = i + 1;
+			}
+		}
+
+		/**
+		 * Returns the collected observables, reusing the given array if it
+		 * holds the same observables in the same order.
+		 */
+		IObservable[] toArray(IObservable[] previous) {
+			if (previous != null && previous.length == size) {
+				boolean same = true;
+				for (int i = 0; i < size && same; i++) {
+					same = previous[i] == elements[i];
+				}
+				if (same) {
+					return previous;
+				}
+			}
+			IObservable[] result = new IObservable[size];
+			System.arraycopy(elements, 0, result, 0, size);
+			return result;
+		}
+
+		void clear() {
+			if (elements.length > MAX_RETAINED_CAPACITY) {
+				elements = new IObservable[LINEAR_SCAN_LIMIT];
+				table = null;
+			} else {
+				Arrays.fill(elements, 0, size, null);
+				if (table != null && size >= LINEAR_SCAN_LIMIT) {
+					Arrays.fill(table, 0);
+				}
+			}
+			size = 0;
+		}
+	}
+
+	private static final ThreadLocal<TrackingFrame> currentFrame = ThreadLocal.withInitial(TrackingFrame::new);
 
 	/**
 	 * Invokes the given runnable, and returns the set of IObservables that were
@@ -93,31 +224,62 @@ public class ObservableTracker {
 	 */
 	public static IObservable[] runAndMonitor(Runnable runnable,
 			IChangeListener changeListener, IStaleListener staleListener) {
+		return runAndMonitor(runnable, changeListener, staleListener, null);
+	}
+
+	/**
+	 * Invokes the given runnable, and returns the IObservables that were read
+	 * by the runnable, in the order they were first read. No listener is
+	 * registered with the observables; callers recomputing a value typically
+	 * compare the result with the observables of the previous run, and only
+	 * add and remove the listeners of the observables that changed.
+	 * <p>
+	 * If the runnable read the same observables, in the same order, as the
+	 * ones in <code>previousDependencies</code>, that array is returned
+	 * instead of a new one, so that an unchanged recompute does not allocate.
+	 * </p>
+	 *
+	 * @param runnable
+	 *            runnable to execute
+	 * @param previousDependencies
+	 *            the observables read by the previous run, or
+	 *            <code>null</code>
+	 * @return an array of unique observable objects, which may be
+	 *         <code>previousDependencies</code>
+	 * @since 1.7
+	 */
+	public static IObservable[] runAndMonitor(Runnable runnable, IObservable[] previousDependencies) {
+		return runAndMonitor(runnable, null, null, previousDependencies);
+	}
+
+	private static IObservable[] runAndMonitor(Runnable runnable, IChangeListener changeListener,
+			IStaleListener staleListener, IObservable[] previousDependencies) {
+		TrackingFrame frame = currentFrame.get();
 		// Remember the previous value in the listener stack
-		Set<IObservable> lastObservableSet = currentGetterCalledSet.get();
-		IChangeListener lastChangeListener = currentChangeListener.get();
-		IStaleListener lastStaleListener = currentStaleListener.get();
-		Integer lastIgnore = currentIgnoreCount.get();
+		ObservableCollector lastCollector = frame.getterCalledCollector;
+		IChangeListener lastChangeListener = frame.changeListener;
+		IStaleListener lastStaleListener = frame.staleListener;
+		int lastIgnore = frame.ignoreCount;
 
-		Set<IObservable> observableSet = new IdentitySet<>();
+		ObservableCollector collector = frame.pushCollector();
 		// Push the new listeners to the top of the stack
-		currentGetterCalledSet.set(observableSet);
-		currentChangeListener.set(changeListener);
-		currentStaleListener.set(staleListener);
-		currentIgnoreCount.set(null);
+		frame.getterCalledCollector = collector;
+		frame.changeListener = changeListener;
+		frame.staleListener = staleListener;
+		frame.ignoreCount = 0;
 		try {
 			runnable.run();
+			return collector.toArray(previousDependencies);
 		} finally {
 			// Pop the new listener off the top of the stack (by restoring the
 			// previous listener)
-			currentGetterCalledSet.set(lastObservableSet);
-			currentChangeListener.set(lastChangeListener);
-			currentStaleListener.set(lastStaleListener);
-			checkUnmatchedIgnore(runnable);
-			currentIgnoreCount.set(lastIgnore);
+			frame.getterCalledCollector = lastCollector;
+			frame.changeListener = lastChangeListener;
+			frame.staleListener = lastStaleListener;
+			checkUnmatchedIgnore(frame, runnable);
+			frame.ignoreCount = lastIgnore;
+			frame.popCollector();
 		}
-
-		return observableSet.toArray(new IObservable[observableSet.size()]);
 	}
 
 	/**
@@ -137,34 +299,35 @@ public class ObservableTracker {
 	 * @since 1.2
 	 */
 	public static IObservable[] runAndCollect(Runnable runnable) {
-		Set<IObservable> lastObservableCreatedSet = currentObservableCreatedSet.get();
-		Integer lastIgnore = currentIgnoreCount.get();
+		TrackingFrame frame = currentFrame.get();
+		ObservableCollector lastCollector = frame.observableCreatedCollector;
+		int lastIgnore = frame.ignoreCount;
 
-		Set<IObservable> observableSet = new IdentitySet<>();
+		ObservableCollector collector = frame.pushCollector();
 		// Push the new listeners to the top of the stack
-		currentObservableCreatedSet.set(observableSet);
-		currentIgnoreCount.set(null);
+		frame.observableCreatedCollector = collector;
+		frame.ignoreCount = 0;
 		try {
 			runnable.run();
+			return collector.toArray(null);
 		} finally {
 			// Pop the new listener off the top of the stack (by restoring the
 			// previous listener)
-			currentObservableCreatedSet.set(lastObservableCreatedSet);
-			checkUnmatchedIgnore(runnable);
-			currentIgnoreCount.set(lastIgnore);
+			frame.observableCreatedCollector = lastCollector;
+			checkUnmatchedIgnore(frame, runnable);
+			frame.ignoreCount = lastIgnore;
+			frame.popCollector();
 		}
-
-		return observableSet.toArray(new IObservable[observableSet.size()]);
 	}
 
-	private static void checkUnmatchedIgnore(Runnable runnable) {
-		if (isIgnore()) {
+	private static void checkUnmatchedIgnore(TrackingFrame frame, Runnable runnable) {
+		if (frame.ignoreCount > 0) {
 			Policy.getLog()
 					.log(new Status(
 							IStatus.ERROR,
 							Policy.JFACE_DATABINDING,
 							"There were " //$NON-NLS-1$
-									+ currentIgnoreCount.get()
+									+ frame.ignoreCount
 									+ " unmatched setIgnore(true) invocations in runnable " //$NON-NLS-1$
 									+ runnable));
 		}
@@ -191,15 +354,13 @@ public class ObservableTracker {
 	 * @since 1.3
 	 */
 	public static void setIgnore(boolean ignore) {
-		Integer lastCount = currentIgnoreCount.get();
-
-		int newCount = (lastCount == null ? 0 : lastCount.intValue())
-				+ (ignore ? 1 : -1);
+		TrackingFrame frame = currentFrame.get();
+		int newCount = frame.ignoreCount + (ignore ? 1 : -1);
 
 		if (newCount < 0)
 			throw new IllegalStateException("Ignore count is already zero"); //$NON-NLS-1$
 
-		currentIgnoreCount.set(newCount == 0 ? null : Integer.valueOf(newCount));
+		frame.ignoreCount = newCount;
 	}
 
 	/**
@@ -228,10 +389,6 @@ public class ObservableTracker {
 				+ Integer.toHexString(System.identityHashCode(observable));
 	}
 
-	private static boolean isIgnore() {
-		return currentIgnoreCount.get() != null;
-	}
-
 	/**
 	 * Notifies the ObservableTracker that an observable was read from. The
 	 * JavaDoc for methods that invoke this method should include the following
@@ -251,16 +408,17 @@ public class ObservableTracker {
 			Assert.isTrue(false, "Getter called outside realm of observable " //$NON-NLS-1$
 					+ toString(observable));
 
-		if (isIgnore())
+		TrackingFrame frame = currentFrame.get();
+		if (frame.ignoreCount > 0)
 			return;
 
-		Set<IObservable> getterCalledSet = currentGetterCalledSet.get();
-		if (getterCalledSet != null && getterCalledSet.add(observable)) {
+		ObservableCollector getterCalledCollector = frame.getterCalledCollector;
+		if (getterCalledCollector != null && getterCalledCollector.add(observable)) {
 			// If anyone is listening for observable usage...
-			IChangeListener changeListener = currentChangeListener.get();
+			IChangeListener changeListener = frame.changeListener;
 			if (changeListener != null)
 				observable.addChangeListener(changeListener);
-			IStaleListener staleListener = currentStaleListener.get();
+			IStaleListener staleListener = frame.staleListener;
 			if (staleListener != null)
 				observable.addStaleListener(staleListener);
 		}
@@ -274,11 +432,12 @@ public class ObservableTracker {
 	 * @since 1.2
 	 */
 	public static void observableCreated(IObservable observable) {
-		if (isIgnore())
+		TrackingFrame frame = currentFrame.get();
+		if (frame.ignoreCount > 0)
 			return;
-		Set<IObservable> observableCreatedSet = currentObservableCreatedSet.get();
-		if (observableCreatedSet != null) {
-			observableCreatedSet.add(observable);
+		ObservableCollector observableCreatedCollector = frame.observableCreatedCollector;
+		if (observableCreatedCollector != null) {
+			observableCreatedCollector.add(observable);
 		}
 	}
 }
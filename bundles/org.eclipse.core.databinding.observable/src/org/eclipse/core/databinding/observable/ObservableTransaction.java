@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of changes made to the observables of a realm, started by
+ * {@link Realm#batch(Runnable)}.
+ * <p>
+ * While a transaction is running, the observables supporting it, such as
+ * {@link org.eclipse.core.databinding.observable.list.WritableList},
+ * {@link org.eclipse.core.databinding.observable.set.WritableSet} and
+ * {@link org.eclipse.core.databinding.observable.map.WritableMap}, do not
+ * notify their listeners. Instead, they register a commit action the first
+ * time they change; when the outermost batch completes, the commit actions
+ * are run in registration order and each observable fires a single event
+ * describing all of its changes.
+ * </p>
+ * <p>
+ * Other observables can take part in the transaction by deferring their
+ * notifications with {@link #addCommitAction(IObservable, Runnable)}.
+ * Transactions must only be accessed from their realm.
+ * </p>
+ *
+ * @since 1.7
+ */
+public final class ObservableTransaction {
+
+	private final Realm realm;
+
+	private final Map<IObservable, Runnable> commitActions = new LinkedHashMap<>();
+
+	private ObservableTransaction(Realm realm) {
+		this.realm = realm;
+	}
+
+	/**
+	 * Returns the running transaction of the given realm, or
+	 * <code>null</code> if no batch is running in the realm.
+	 *
+	 * @param realm
+	 *            the realm
+	 * @return the running transaction of the realm, or <code>null</code>
+	 */
+	public static ObservableTransaction getCurrent(Realm realm) {
+		return realm.transaction;
+	}
+
+	/**
+	 * Runs the given runnable as a transaction of the given realm, or as part
+	 * of the running transaction if there is one.
+	 */
+	static void run(Realm realm, Runnable runnable) {
+		if (realm.transaction != null) {
+			runnable.run();
+			return;
+		}
+		ObservableTransaction transaction = new ObservableTransaction(realm);
+		realm.transaction = transaction;
+		try {
+			runnable.run();
+		} finally {
+			realm.transaction = null;
+			transaction.commit();
+		}
+	}
+
+	/**
+	 * @return the realm of this transaction
+	 */
+	public Realm getRealm() {
+		return realm;
+	}
+
+	/**
+	 * Registers the action notifying the listeners of the given observable
+	 * about its changes, to be run when this transaction commits. Only the
+	 * first action registered for an observable is kept.
+	 *
+	 * @param observable
+	 *            the changed observable
+	 * @param action
+	 *            the action firing the observable's change events
+	 * @return <code>true</code> if the action was registered,
+	 *         <code>false</code> if an action was already registered for the
+	 *         observable
+	 */
+	public boolean addCommitAction(IObservable observable, Runnable action) {
+		return commitActions.putIfAbsent(observable, action) == null;
+	}
+
+	/**
+	 * Runs the commit actions, outside of the transaction so that listeners
+	 * changing other observables notify their own listeners right away. All
+	 * the actions are run even if one of them fails.
+	 */
+	private void commit() {
+		List<Runnable> actions = new ArrayList<>(commitActions.values());
+		commitActions.clear();
+		RuntimeException failure = null;
+		for (Runnable action : actions) {
+			try {
+				action.run();
+			} catch (RuntimeException e) {
+				if (failure == null) {
+					failure = e;
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+}
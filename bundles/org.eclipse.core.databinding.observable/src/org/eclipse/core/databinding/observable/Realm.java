@@ -19,6 +19,7 @@ import java.util.TimerTask;
 
 import org.eclipse.core.databinding.util.Policy;
 import org.eclipse.core.internal.databinding.observable.Queue;
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
@@ -117,6 +118,11 @@ public abstract class Realm {
 
 	private Thread workerThread;
 
+	/**
+	 * The running transaction, only accessed from within this realm.
+	 */
+	ObservableTransaction transaction;
+
 	private volatile Timer timer;
 
 	Queue workQueue = new Queue();
@@ -321,6 +327,23 @@ public abstract class Realm {
 		}
 	}
 
+	/**
+	 * Runs the given runnable as a batch of changes: the observables of this
+	 * realm that support {@link ObservableTransaction transactions} notify
+	 * their listeners once, when the batch completes, with a single diff
+	 * describing all of their changes, instead of once per change. Batches can
+	 * be nested, in which case the listeners are notified when the outermost
+	 * batch completes. Must be called from within this realm.
+	 *
+	 * @param runnable
+	 *            the runnable changing the observables
+	 * @since 1.7
+	 */
+	public void batch(Runnable runnable) {
+		Assert.isTrue(isCurrent(), "Batches must be run within their realm"); //$NON-NLS-1$
+		ObservableTransaction.run(this, runnable);
+	}
+
 	/**
 	 * Sets the provided <code>realm</code> as the default for the duration of
 	 * {@link Runnable#run()} and resets the previous realm after completion.
@@ -27,6 +27,7 @@ import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.StaleEvent;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.internal.databinding.observable.DependencyListeners;
 
 /**
  * A lazily calculated list that automatically computes and registers listeners
@@ -85,6 +86,13 @@ public abstract class ComputedList<E> extends AbstractObservableList<E> {
 
 	private IObservable[] dependencies = new IObservable[0];
 
+	/**
+	 * Dependencies of the previous computation which are still listened to
+	 * while this computed list is dirty, so that the next computation only has
+	 * to update the listeners of the dependencies that changed.
+	 */
+	private IObservable[] retainedDependencies = null;
+
 	/**
 	 * Creates a computed list in the default realm and with an unknown (null)
 	 * element type.
@@ -200,8 +208,12 @@ public abstract class ComputedList<E> extends AbstractObservableList<E> {
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-					privateInterface, privateInterface, null);
+			IObservable[] oldDependencies = retainedDependencies;
+			IObservable[] newDependencies = ObservableTracker.runAndMonitor(privateInterface, oldDependencies);
+			DependencyListeners.update(oldDependencies, newDependencies, privateInterface, privateInterface);
+			// only forget the old dependencies once their listeners are
+			// updated, so that they can still be removed if calculate() threw
+			retainedDependencies = null;
 
 			// If any dependencies are stale, a stale event will be fired here
 			// even if we were already stale before recomputing. This is in case
@@ -214,12 +226,6 @@ public abstract class ComputedList<E> extends AbstractObservableList<E> {
 				}
 			}
 
-			if (!stale) {
-				for (IObservable newDependency : newDependencies) {
-					newDependency.addStaleListener(privateInterface);
-				}
-			}
-
 			dependencies = newDependencies;
 
 			dirty = false;
@@ -248,7 +254,12 @@ public abstract class ComputedList<E> extends AbstractObservableList<E> {
 
 			makeStale();
 
-			stopListening();
+			if (hasListeners()) {
+				retainedDependencies = dependencies;
+				dependencies = null;
+			} else {
+				stopListening();
+			}
 
 			// copy the old list
 			final List<E> oldList = new ArrayList<E>(cachedList);
@@ -270,13 +281,20 @@ public abstract class ComputedList<E> extends AbstractObservableList<E> {
 	}
 
 	private void stopListening() {
-		if (dependencies != null) {
-			for (IObservable observable : dependencies) {
-				observable.removeChangeListener(privateInterface);
-				observable.removeStaleListener(privateInterface);
-			}
-			dependencies = null;
+		DependencyListeners.removeAll(dependencies, privateInterface, privateInterface);
+		DependencyListeners.removeAll(retainedDependencies, privateInterface, privateInterface);
+		dependencies = null;
+		retainedDependencies = null;
+	}
+
+	@Override
+	protected void lastListenerRemoved() {
+		// while dirty, the dependencies of the last computation are only kept
+		// for the listeners, so release them with the last one
+		if (dirty) {
+			stopListening();
 		}
+		super.lastListenerRemoved();
 	}
 
 	private void makeStale() {
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A change of a contiguous range of a list: the removal of a run of elements
+ * starting at a position, the insertion of a run of elements at a position,
+ * or the replacement of a run of elements by another one.
+ * <p>
+ * As a sequence of {@link ListDiffEntry list diff entries}, a range is the
+ * removal of its removed elements, from the last to the first position,
+ * followed by the addition of its added elements, from the first to the last
+ * position.
+ * </p>
+ *
+ * @param <E>
+ *            the type of the elements in this range
+ *
+ * @see RangeListDiff
+ * @since 1.7
+ */
+public final class ListDiffRange<E> {
+
+	private final int position;
+
+	private final List<E> removedElements;
+
+	private final List<E> addedElements;
+
+	/**
+	 * Creates a range replacing the given removed elements, found at the given
+	 * position, by the given added elements.
+	 *
+	 * @param position
+	 *            the 0-based position of the range
+	 * @param removedElements
+	 *            the elements removed from the list, may be empty
+	 * @param addedElements
+	 *            the elements added to the list, may be empty
+	 */
+	public ListDiffRange(int position, List<? extends E> removedElements, List<? extends E> addedElements) {
+		this.position = position;
+		this.removedElements = Collections.unmodifiableList(removedElements);
+		this.addedElements = Collections.unmodifiableList(addedElements);
+	}
+
+	/**
+	 * Returns a range inserting the given elements at the given position.
+	 *
+	 * @param position
+	 *            the 0-based position of the first inserted element
+	 * @param elements
+	 *            the inserted elements
+	 * @return the range
+	 */
+	public static <E> ListDiffRange<E> insert(int position, List<? extends E> elements) {
+		return new ListDiffRange<>(position, Collections.<E> emptyList(), elements);
+	}
+
+	/**
+	 * Returns a range removing the given elements from the given position.
+	 *
+	 * @param position
+	 *            the 0-based position of the first removed element
+	 * @param elements
+	 *            the removed elements
+	 * @return the range
+	 */
+	public static <E> ListDiffRange<E> remove(int position, List<? extends E> elements) {
+		return new ListDiffRange<>(position, elements, Collections.<E> emptyList());
+	}
+
+	/**
+	 * @return the 0-based position of the range
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return the unmodifiable list of the removed elements, in list order
+	 */
+	public List<E> getRemovedElements() {
+		return removedElements;
+	}
+
+	/**
+	 * @return the unmodifiable list of the added elements, in list order
+	 */
+	public List<E> getAddedElements() {
+		return addedElements;
+	}
+
+	/**
+	 * @return the number of removed elements
+	 */
+	public int getRemovedCount() {
+		return removedElements.size();
+	}
+
+	/**
+	 * @return the number of added elements
+	 */
+	public int getAddedCount() {
+		return addedElements.size();
+	}
+
+	/**
+	 * @return true if this range only inserts elements
+	 */
+	public boolean isInsertion() {
+		return removedElements.isEmpty() && !addedElements.isEmpty();
+	}
+
+	/**
+	 * @return true if this range only removes elements
+	 */
+	public boolean isRemoval() {
+		return addedElements.isEmpty() && !removedElements.isEmpty();
+	}
+
+	/**
+	 * @return true if this range both removes and adds elements
+	 */
+	public boolean isReplacement() {
+		return !removedElements.isEmpty() && !addedElements.isEmpty();
+	}
+
+	/**
+	 * @return true if this range neither removes nor adds elements
+	 */
+	public boolean isEmpty() {
+		return removedElements.isEmpty() && addedElements.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		buffer
+			.append(this.getClass().getName())
+			.append("{position [") //$NON-NLS-1$
+			.append(position)
+			.append("], removed [") //$NON-NLS-1$
+			.append(removedElements.size())
+			.append("], added [") //$NON-NLS-1$
+			.append(addedElements.size())
+			.append("]}"); //$NON-NLS-1$
+		return buffer.toString();
+	}
+}
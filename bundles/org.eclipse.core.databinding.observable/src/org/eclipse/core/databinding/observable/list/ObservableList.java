@@ -15,6 +15,7 @@
 
 package org.eclipse.core.databinding.observable.list;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -23,6 +24,7 @@ import java.util.ListIterator;
 import org.eclipse.core.databinding.observable.AbstractObservable;
 import org.eclipse.core.databinding.observable.Diffs;
 import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.ObservableTransaction;
 import org.eclipse.core.databinding.observable.Realm;
 
 /**
@@ -53,6 +55,12 @@ public abstract class ObservableList<E> extends AbstractObservable implements
 
 	private Object elementType;
 
+	/**
+	 * State of the list before its first change in the running
+	 * {@link ObservableTransaction transaction}, or <code>null</code>.
+	 */
+	private List<E> batchOldList;
+
 	protected ObservableList(List<E> wrappedList, Object elementType) {
 		this(Realm.getDefault(), wrappedList, elementType);
 	}
@@ -77,11 +85,59 @@ public abstract class ObservableList<E> extends AbstractObservable implements
 	}
 
 	protected void fireListChange(ListDiff<E> diff) {
+		ObservableTransaction transaction = ObservableTransaction.getCurrent(getRealm());
+		if (transaction != null && hasListeners()) {
+			// defer the notification to the end of the batch, which only needs
+			// the state of the list before its first change
+			if (batchOldList == null) {
+				batchOldList = new ArrayList<E>(wrappedList);
+				undo(diff, batchOldList);
+				transaction.addCommitAction(this, this::commitBatch);
+			}
+			return;
+		}
 		// fire general change event first
 		super.fireChange();
 		fireEvent(new ListChangeEvent<E>(this, diff));
 	}
 
+	private void commitBatch() {
+		List<E> oldList = batchOldList;
+		batchOldList = null;
+		if (isDisposed()) {
+			return;
+		}
+		ListDiff<E> diff = Diffs.computeListDiff(oldList, wrappedList);
+		if (!diff.isEmpty()) {
+			fireListChange(diff);
+		}
+	}
+
+	/**
+	 * Reverts the given diff on the given list.
+	 */
+	private static <E> void undo(ListDiff<E> diff, List<E> list) {
+		if (diff instanceof RangeListDiff) {
+			List<ListDiffRange<E>> ranges = ((RangeListDiff<E>) diff).getRanges();
+			for (int i = ranges.size() - 1; i >= 0; i--) {
+				ListDiffRange<E> range = ranges.get(i);
+				int position = range.getPosition();
+				list.subList(position, position + range.getAddedCount()).clear();
+				list.addAll(position, range.getRemovedElements());
+			}
+			return;
+		}
+		ListDiffEntry<E>[] differences = diff.getDifferences();
+		for (int i = differences.length - 1; i >= 0; i--) {
+			ListDiffEntry<E> entry = differences[i];
+			if (entry.isAddition()) {
+				list.remove(entry.getPosition());
+			} else {
+				list.add(entry.getPosition(), entry.getElement());
+			}
+		}
+	}
+
 	@Override
 	public boolean contains(Object o) {
 		getterCalled();
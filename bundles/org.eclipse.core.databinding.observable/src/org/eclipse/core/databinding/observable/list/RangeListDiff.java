@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.Diffs;
+
+/**
+ * A {@link ListDiff} made of {@link ListDiffRange ranges} instead of one
+ * {@link ListDiffEntry} per added or removed element, so that bulk changes
+ * of large lists can be described and applied in a few steps.
+ * <p>
+ * The ranges are to be processed in order: the position of each range is
+ * relative to the list once the preceding ranges are applied. The entries
+ * returned by {@link #getDifferences()} are only created the first time they
+ * are requested; clients that can handle ranges should check for this type
+ * and use {@link #getRanges()} instead.
+ * </p>
+ *
+ * @param <E>
+ *            the type of the elements in this diff
+ *
+ * @since 1.7
+ */
+public final class RangeListDiff<E> extends ListDiff<E> {
+
+	private final List<ListDiffRange<E>> ranges;
+
+	private ListDiffEntry<E>[] differences;
+
+	/**
+	 * Creates a diff made of the given ranges.
+	 *
+	 * @param ranges
+	 *            the ranges, in the order they are to be processed
+	 */
+	public RangeListDiff(List<ListDiffRange<E>> ranges) {
+		this.ranges = Collections.unmodifiableList(ranges);
+	}
+
+	/**
+	 * Creates a diff made of a single range.
+	 *
+	 * @param range
+	 *            the range
+	 */
+	public RangeListDiff(ListDiffRange<E> range) {
+		this(Collections.singletonList(range));
+	}
+
+	/**
+	 * @return the unmodifiable list of ranges, in the order they are to be
+	 *         processed
+	 */
+	public List<ListDiffRange<E>> getRanges() {
+		return ranges;
+	}
+
+	@Override
+	public ListDiffEntry<E>[] getDifferences() {
+		if (differences == null) {
+			int count = 0;
+			for (ListDiffRange<E> range : ranges) {
+				count += range.getRemovedCount() + range.getAddedCount();
+			}
+			List<ListDiffEntry<E>> entries = new ArrayList<>(count);
+			for (ListDiffRange<E> range : ranges) {
+				int position = range.getPosition();
+				List<E> removed = range.getRemovedElements();
+				for (int i = removed.size() - 1; i >= 0; i--) {
+					entries.add(Diffs.createListDiffEntry(position + i, false, removed.get(i)));
+				}
+				List<E> added = range.getAddedElements();
+				for (int i = 0; i < added.size(); i++) {
+					entries.add(Diffs.createListDiffEntry(position + i, true, added.get(i)));
+				}
+			}
+			@SuppressWarnings("unchecked")
+			ListDiffEntry<E>[] result = entries.toArray(new ListDiffEntry[entries.size()]);
+			differences = result;
+		}
+		return differences;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (ListDiffRange<E> range : ranges) {
+			if (!range.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void applyTo(List<E> list) {
+		for (ListDiffRange<E> range : ranges) {
+			int position = range.getPosition();
+			int removedCount = range.getRemovedCount();
+			List<E> added = range.getAddedElements();
+			if (removedCount == added.size()) {
+				for (int i = 0; i < removedCount; i++) {
+					list.set(position + i, added.get(i));
+				}
+				continue;
+			}
+			if (removedCount == 1) {
+				list.remove(position);
+			} else if (removedCount > 0) {
+				list.subList(position, position + removedCount).clear();
+			}
+			list.addAll(position, added);
+		}
+	}
+}
@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
 
 import org.eclipse.core.databinding.observable.Diffs;
 import org.eclipse.core.databinding.observable.Realm;
@@ -193,28 +192,19 @@ public class WritableList<E> extends ObservableList<E> {
 	@Override
 	public boolean addAll(Collection<? extends E> c) {
 		checkRealm();
-		List<ListDiffEntry<E>> entries = new ArrayList<ListDiffEntry<E>>(
-				c.size());
+		List<E> elements = new ArrayList<E>(c);
 		int addIndex = wrappedList.size();
-		for (E element : c) {
-			entries.add(Diffs.createListDiffEntry(addIndex++, true, element));
-		}
-		boolean added = wrappedList.addAll(c);
-		fireListChange(Diffs.createListDiff(entries));
+		boolean added = wrappedList.addAll(elements);
+		fireListChange(new RangeListDiff<E>(ListDiffRange.insert(addIndex, elements)));
 		return added;
 	}
 
 	@Override
 	public boolean addAll(int index, Collection<? extends E> c) {
 		checkRealm();
-		List<ListDiffEntry<E>> entries = new ArrayList<ListDiffEntry<E>>(
-				c.size());
-		int addIndex = index;
-		for (E element : c) {
-			entries.add(Diffs.createListDiffEntry(addIndex++, true, element));
-		}
-		boolean added = wrappedList.addAll(index, c);
-		fireListChange(Diffs.createListDiff(entries));
+		List<E> elements = new ArrayList<E>(c);
+		boolean added = wrappedList.addAll(index, elements);
+		fireListChange(new RangeListDiff<E>(ListDiffRange.insert(index, elements)));
 		return added;
 	}
 
@@ -277,18 +267,12 @@ public class WritableList<E> extends ObservableList<E> {
 	@Override
 	public void clear() {
 		checkRealm();
-		// We remove the elements from back to front which is typically much
-		// faster on common list implementations like ArrayList.
-		List<ListDiffEntry<E>> entries = new ArrayList<ListDiffEntry<E>>(
-				wrappedList.size());
-		for (ListIterator<E> it = wrappedList.listIterator(wrappedList.size()); it
-				.hasPrevious();) {
-			int elementIndex = it.previousIndex();
-			E element = it.previous();
-			entries.add(Diffs.createListDiffEntry(elementIndex, false, element));
-		}
+		// The entries of the range remove the elements from back to front
+		// which is typically much faster on common list implementations like
+		// ArrayList.
+		List<E> elements = new ArrayList<E>(wrappedList);
 		wrappedList.clear();
-		fireListChange(Diffs.createListDiff(entries));
+		fireListChange(new RangeListDiff<E>(ListDiffRange.remove(0, elements)));
 	}
 
 	/**
@@ -16,11 +16,16 @@
 package org.eclipse.core.databinding.observable.map;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.eclipse.core.databinding.observable.AbstractObservable;
+import org.eclipse.core.databinding.observable.Diffs;
 import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.ObservableTransaction;
 import org.eclipse.core.databinding.observable.Realm;
 
 /**
@@ -44,6 +49,17 @@ public class ObservableMap<K, V> extends AbstractObservable implements IObservab
 
 	private boolean stale = false;
 
+	/**
+	 * Marks the keys that had no value before the running transaction.
+	 */
+	private static final Object NO_VALUE = new Object();
+
+	/**
+	 * The keys changed in the running {@link ObservableTransaction
+	 * transaction}, mapped to their value before it, or <code>null</code>.
+	 */
+	private Map<K, Object> batchOldValues;
+
 	/**
 	 * @param wrappedMap
 	 */
@@ -93,12 +109,78 @@ public class ObservableMap<K, V> extends AbstractObservable implements IObservab
 	protected void fireMapChange(MapDiff<K, V> diff) {
 		checkRealm();
 
+		ObservableTransaction transaction = ObservableTransaction.getCurrent(getRealm());
+		if (transaction != null && hasListeners()) {
+			// defer the notification to the end of the batch, remembering the
+			// value of each changed key before the batch
+			if (batchOldValues == null) {
+				batchOldValues = new HashMap<>();
+				transaction.addCommitAction(this, this::commitBatch);
+			}
+			for (K key : diff.getAddedKeys()) {
+				recordBatchOldValue(key, NO_VALUE);
+			}
+			for (K key : diff.getRemovedKeys()) {
+				recordBatchOldValue(key, diff.getOldValue(key));
+			}
+			for (K key : diff.getChangedKeys()) {
+				recordBatchOldValue(key, diff.getOldValue(key));
+			}
+			return;
+		}
+
 		// fire general change event first
 		super.fireChange();
 
 		fireEvent(new MapChangeEvent<>(this, diff));
 	}
 
+	/**
+	 * Remember the value of the given key before the batch, unless the key
+	 * already changed earlier in the batch. Unlike putIfAbsent, this keeps a
+	 * recorded <code>null</code> value.
+	 */
+	private void recordBatchOldValue(K key, Object oldValue) {
+		if (!batchOldValues.containsKey(key)) {
+			batchOldValues.put(key, oldValue);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void commitBatch() {
+		Map<K, Object> oldValues = batchOldValues;
+		batchOldValues = null;
+		if (isDisposed()) {
+			return;
+		}
+		Set<K> addedKeys = new HashSet<>();
+		Set<K> removedKeys = new HashSet<>();
+		Set<K> changedKeys = new HashSet<>();
+		Map<K, V> diffOldValues = new HashMap<>();
+		Map<K, V> diffNewValues = new HashMap<>();
+		for (Map.Entry<K, Object> entry : oldValues.entrySet()) {
+			K key = entry.getKey();
+			boolean hadValue = entry.getValue() != NO_VALUE;
+			boolean hasValue = wrappedMap.containsKey(key);
+			if (hadValue) {
+				diffOldValues.put(key, (V) entry.getValue());
+			}
+			if (hasValue) {
+				diffNewValues.put(key, wrappedMap.get(key));
+			}
+			if (!hadValue && hasValue) {
+				addedKeys.add(key);
+			} else if (hadValue && !hasValue) {
+				removedKeys.add(key);
+			} else if (hadValue && !Objects.equals(entry.getValue(), diffNewValues.get(key))) {
+				changedKeys.add(key);
+			}
+		}
+		if (!addedKeys.isEmpty() || !removedKeys.isEmpty() || !changedKeys.isEmpty()) {
+			fireMapChange(Diffs.createMapDiff(addedKeys, removedKeys, changedKeys, diffOldValues, diffNewValues));
+		}
+	}
+
 	@Override
 	public boolean containsKey(Object key) {
 		getterCalled();
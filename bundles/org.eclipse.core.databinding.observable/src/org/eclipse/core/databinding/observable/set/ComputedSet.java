@@ -26,6 +26,7 @@ import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.StaleEvent;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.internal.databinding.observable.DependencyListeners;
 
 /**
  * A lazily calculated set that automatically computes and registers listeners
@@ -81,6 +82,13 @@ public abstract class ComputedSet<E> extends AbstractObservableSet<E> {
 
 	private IObservable[] dependencies = new IObservable[0];
 
+	/**
+	 * Dependencies of the previous computation which are still listened to
+	 * while this computed set is dirty, so that the next computation only has
+	 * to update the listeners of the dependencies that changed.
+	 */
+	private IObservable[] retainedDependencies = null;
+
 	/**
 	 * Creates a computed set in the default realm and with an unknown (null)
 	 * element type.
@@ -194,8 +202,12 @@ public abstract class ComputedSet<E> extends AbstractObservableSet<E> {
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-privateInterface, privateInterface, null);
+			IObservable[] oldDependencies = retainedDependencies;
+			IObservable[] newDependencies = ObservableTracker.runAndMonitor(privateInterface, oldDependencies);
+			DependencyListeners.update(oldDependencies, newDependencies, privateInterface, privateInterface);
+			// only forget the old dependencies once their listeners are
+			// updated, so that they can still be removed if calculate() threw
+			retainedDependencies = null;
 
 			// If any dependencies are stale, a stale event will be fired here
 			// even if we were already stale before recomputing. This is in case
@@ -208,12 +220,6 @@ privateInterface, privateInterface, null);
 				}
 			}
 
-			if (!stale) {
-				for (IObservable newDependency : newDependencies) {
-					newDependency.addStaleListener(privateInterface);
-				}
-			}
-
 			dependencies = newDependencies;
 
 			dirty = false;
@@ -243,7 +249,12 @@ privateInterface, privateInterface, null);
 			final Set<E> oldSet = new HashSet<>(cachedSet);
 			makeStale();
 
-			stopListening();
+			if (hasListeners()) {
+				retainedDependencies = dependencies;
+				dependencies = null;
+			} else {
+				stopListening();
+			}
 
 			// Fire the "dirty" event. This implementation recomputes the new
 			// set lazily.
@@ -270,13 +281,20 @@ privateInterface, privateInterface, null);
 	}
 
 	private void stopListening() {
-		if (dependencies != null) {
-			for (IObservable observable : dependencies) {
-				observable.removeChangeListener(privateInterface);
-				observable.removeStaleListener(privateInterface);
-			}
-			dependencies = null;
+		DependencyListeners.removeAll(dependencies, privateInterface, privateInterface);
+		DependencyListeners.removeAll(retainedDependencies, privateInterface, privateInterface);
+		dependencies = null;
+		retainedDependencies = null;
+	}
+
+	@Override
+	protected void lastListenerRemoved() {
+		// while dirty, the dependencies of the last computation are only kept
+		// for the listeners, so release them with the last one
+		if (dirty) {
+			stopListening();
 		}
+		super.lastListenerRemoved();
 	}
 
 	private void makeStale() {
@@ -15,11 +15,16 @@
 package org.eclipse.core.databinding.observable.set;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.databinding.observable.AbstractObservable;
+import org.eclipse.core.databinding.observable.Diffs;
 import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.ObservableTransaction;
 import org.eclipse.core.databinding.observable.Realm;
 
 /**
@@ -47,6 +52,13 @@ public abstract class ObservableSet<E> extends AbstractObservable implements
 
 	protected Object elementType;
 
+	/**
+	 * The elements changed in the running {@link ObservableTransaction
+	 * transaction}, mapped to whether they were in the set before it, or
+	 * <code>null</code>.
+	 */
+	private Map<E, Boolean> batchOriginalElements;
+
 	protected ObservableSet(Set<E> wrappedSet, Object elementType) {
 		this(Realm.getDefault(), wrappedSet, elementType);
 	}
@@ -68,12 +80,47 @@ public abstract class ObservableSet<E> extends AbstractObservable implements
 	}
 
 	protected void fireSetChange(SetDiff<E> diff) {
+		ObservableTransaction transaction = ObservableTransaction.getCurrent(getRealm());
+		if (transaction != null && hasListeners()) {
+			// defer the notification to the end of the batch, remembering
+			// whether each changed element was in the set before the batch
+			if (batchOriginalElements == null) {
+				batchOriginalElements = new HashMap<>();
+				transaction.addCommitAction(this, this::commitBatch);
+			}
+			for (E element : diff.getAdditions()) {
+				batchOriginalElements.putIfAbsent(element, Boolean.FALSE);
+			}
+			for (E element : diff.getRemovals()) {
+				batchOriginalElements.putIfAbsent(element, Boolean.TRUE);
+			}
+			return;
+		}
 		// fire general change event first
 		super.fireChange();
 
 		fireEvent(new SetChangeEvent<>(this, diff));
 	}
 
+	private void commitBatch() {
+		Map<E, Boolean> originalElements = batchOriginalElements;
+		batchOriginalElements = null;
+		if (isDisposed()) {
+			return;
+		}
+		Set<E> additions = new HashSet<>();
+		Set<E> removals = new HashSet<>();
+		for (Map.Entry<E, Boolean> entry : originalElements.entrySet()) {
+			boolean contained = entry.getValue().booleanValue();
+			if (contained != wrappedSet.contains(entry.getKey())) {
+				(contained ? removals : additions).add(entry.getKey());
+			}
+		}
+		if (!additions.isEmpty() || !removals.isEmpty()) {
+			fireSetChange(Diffs.createSetDiff(additions, removals));
+		}
+	}
+
 	@Override
 	public boolean contains(Object o) {
 		getterCalled();
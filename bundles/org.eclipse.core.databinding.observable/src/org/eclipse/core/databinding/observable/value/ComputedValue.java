@@ -24,6 +24,7 @@ import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.StaleEvent;
 import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.internal.databinding.observable.DependencyListeners;
 
 /**
  * A Lazily calculated value that automatically computes and registers listeners
@@ -82,6 +83,13 @@ public abstract class ComputedValue<T> extends AbstractObservableValue<T> {
 	 */
 	private IObservable[] dependencies = null;
 
+	/**
+	 * Dependencies of the previous computation which are still listened to
+	 * while this computed value is dirty, so that the next computation only
+	 * has to update the listeners of the dependencies that changed.
+	 */
+	private IObservable[] retainedDependencies = null;
+
 	/**
 	 * Factory method to create {@link ComputedValue} objects in an easy manner.
 	 * <br/>
@@ -195,16 +203,18 @@ public abstract class ComputedValue<T> extends AbstractObservableValue<T> {
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-					privateInterface, privateInterface, null);
+			IObservable[] oldDependencies = retainedDependencies;
+			IObservable[] newDependencies = ObservableTracker.runAndMonitor(privateInterface, oldDependencies);
+			DependencyListeners.update(oldDependencies, newDependencies, privateInterface, privateInterface);
+			// only forget the old dependencies once their listeners are
+			// updated, so that they can still be removed if calculate() threw
+			retainedDependencies = null;
 
 			stale = false;
 			for (IObservable observable : newDependencies) {
-				// Add a change listener to the new dependency.
 				if (observable.isStale()) {
 					stale = true;
-				} else {
-					observable.addStaleListener(privateInterface);
+					break;
 				}
 			}
 
@@ -230,7 +240,12 @@ public abstract class ComputedValue<T> extends AbstractObservableValue<T> {
 		if (!dirty) {
 			dirty = true;
 
-			stopListening();
+			if (hasListeners()) {
+				retainedDependencies = dependencies;
+				dependencies = null;
+			} else {
+				stopListening();
+			}
 
 			// copy the old value
 			final T oldValue = cachedValue;
@@ -256,13 +271,20 @@ public abstract class ComputedValue<T> extends AbstractObservableValue<T> {
 	 */
 	private void stopListening() {
 		// Stop listening for dependency changes.
-		if (dependencies != null) {
-			for (IObservable observable : dependencies) {
-				observable.removeChangeListener(privateInterface);
-				observable.removeStaleListener(privateInterface);
-			}
-			dependencies = null;
+		DependencyListeners.removeAll(dependencies, privateInterface, privateInterface);
+		DependencyListeners.removeAll(retainedDependencies, privateInterface, privateInterface);
+		dependencies = null;
+		retainedDependencies = null;
+	}
+
+	@Override
+	protected void lastListenerRemoved() {
+		// while dirty, the dependencies of the last computation are only kept
+		// for the listeners, so release them with the last one
+		if (dirty) {
+			stopListening();
 		}
+		super.lastListenerRemoved();
 	}
 
 	@Override
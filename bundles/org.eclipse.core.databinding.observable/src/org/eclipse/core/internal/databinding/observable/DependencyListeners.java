@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.eclipse.core.databinding.observable.IChangeListener;
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.IStaleListener;
+import org.eclipse.core.internal.databinding.identity.IdentitySet;
+
+/**
+ * Moves the listeners of a computed observable from the dependencies of its
+ * previous computation to the ones of its new computation, only adding and
+ * removing the listeners of the dependencies that changed.
+ */
+public class DependencyListeners {
+
+	/**
+	 * Products of the dependency counts up to which the dependencies are
+	 * compared pairwise instead of through a set.
+	 */
+	private static final int PAIRWISE_LIMIT = 64;
+
+	/**
+	 * Removes the listeners from the observables only found in
+	 * <code>oldDependencies</code> and adds them to the ones only found in
+	 * <code>newDependencies</code>.
+	 *
+	 * @param oldDependencies
+	 *            the dependencies the listeners are registered with, or
+	 *            <code>null</code> if there are none
+	 * @param newDependencies
+	 *            the dependencies the listeners must be registered with
+	 * @param changeListener
+	 *            the change listener, or <code>null</code>
+	 * @param staleListener
+	 *            the stale listener, or <code>null</code>
+	 */
+	public static void update(IObservable[] oldDependencies, IObservable[] newDependencies,
+			IChangeListener changeListener, IStaleListener staleListener) {
+		if (oldDependencies == newDependencies) {
+			return;
+		}
+		if (oldDependencies == null || oldDependencies.length == 0) {
+			for (IObservable observable : newDependencies) {
+				addListeners(observable, changeListener, staleListener);
+			}
+			return;
+		}
+		if (isSame(oldDependencies, newDependencies)) {
+			return;
+		}
+		if (oldDependencies.length * newDependencies.length <= PAIRWISE_LIMIT) {
+			for (IObservable observable : oldDependencies) {
+				if (!contains(newDependencies, observable)) {
+					removeListeners(observable, changeListener, staleListener);
+				}
+			}
+			for (IObservable observable : newDependencies) {
+				if (!contains(oldDependencies, observable)) {
+					addListeners(observable, changeListener, staleListener);
+				}
+			}
+			return;
+		}
+		Set<IObservable> oldSet = new IdentitySet<>(Arrays.asList(oldDependencies));
+		Set<IObservable> newSet = new IdentitySet<>(Arrays.asList(newDependencies));
+		for (IObservable observable : oldDependencies) {
+			if (!newSet.contains(observable)) {
+				removeListeners(observable, changeListener, staleListener);
+			}
+		}
+		for (IObservable observable : newDependencies) {
+			if (!oldSet.contains(observable)) {
+				addListeners(observable, changeListener, staleListener);
+			}
+		}
+	}
+
+	/**
+	 * Removes the listeners from all the given dependencies.
+	 *
+	 * @param dependencies
+	 *            the dependencies, or <code>null</code>
+	 * @param changeListener
+	 *            the change listener, or <code>null</code>
+	 * @param staleListener
+	 *            the stale listener, or <code>null</code>
+	 */
+	public static void removeAll(IObservable[] dependencies, IChangeListener changeListener,
+			IStaleListener staleListener) {
+		if (dependencies != null) {
+			for (IObservable observable : dependencies) {
+				removeListeners(observable, changeListener, staleListener);
+			}
+		}
+	}
+
+	private static boolean isSame(IObservable[] oldDependencies, IObservable[] newDependencies) {
+		if (oldDependencies.length != newDependencies.length) {
+			return false;
+		}
+		for (int i = 0; i < oldDependencies.length; i++) {
+			if (oldDependencies[i] != newDependencies[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean contains(IObservable[] observables, IObservable observable) {
+		for (IObservable element : observables) {
+			if (element == observable) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void addListeners(IObservable observable, IChangeListener changeListener,
+			IStaleListener staleListener) {
+		if (changeListener != null) {
+			observable.addChangeListener(changeListener);
+		}
+		if (staleListener != null) {
+			observable.addStaleListener(staleListener);
+		}
+	}
+
+	private static void removeListeners(IObservable observable, IChangeListener changeListener,
+			IStaleListener staleListener) {
+		if (changeListener != null) {
+			observable.removeChangeListener(changeListener);
+		}
+		if (staleListener != null) {
+			observable.removeStaleListener(staleListener);
+		}
+	}
+}
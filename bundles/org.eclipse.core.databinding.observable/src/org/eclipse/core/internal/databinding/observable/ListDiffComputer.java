@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.list.ListDiffRange;
+
+/**
+ * Computes the {@link ListDiffRange ranges} transforming a list into another
+ * one in O((N+M)D) time and O(D) space, where N and M are the sizes of the
+ * lists and D the number of inserted and removed elements, using the linear
+ * space refinement of the algorithm of E. Myers, "An O(ND) Difference
+ * Algorithm and Its Variations": the middle snake of the shortest edit script
+ * is found by searching from both ends of the lists at once, and the parts
+ * before and after it are diffed recursively.
+ * <p>
+ * The common prefix and suffix of the lists are skipped first, so that pure
+ * insertions and removals, and edits confined to one region of a large list,
+ * are found in linear time without running the algorithm. When the edit
+ * distance exceeds {@link #MAX_EDIT_DISTANCE}, the changed region is replaced
+ * as a whole instead of being diffed further, which bounds the time spent on
+ * unrelated lists.
+ * </p>
+ * <p>
+ * Each changed region is reported as one range, i.e. as the
+ * {@link ListDiffEntry entries} removing its old elements, from the last to
+ * the first position, followed by the ones adding its new elements, from the
+ * first to the last position.
+ * </p>
+ */
+public class ListDiffComputer {
+
+	/**
+	 * Maximum edit distance searched by the algorithm. Beyond it the changed
+	 * region is replaced as a whole.
+	 */
+	static final int MAX_EDIT_DISTANCE = 1000;
+
+	private final Object[] oldElements;
+
+	private final Object[] newElements;
+
+	private final boolean identity;
+
+	private final List<ListDiffRange<Object>> ranges = new ArrayList<>();
+
+	/**
+	 * The furthest x reached on each diagonal by the forward and the backward
+	 * searches, shared by all the searches of one diff.
+	 */
+	private int[] forward;
+
+	private int[] backward;
+
+	private int diagonalOffset;
+
+	/**
+	 * The middle snake found by the last search.
+	 */
+	private int snakeOldStart;
+
+	private int snakeNewStart;
+
+	private int snakeOldEnd;
+
+	private int snakeNewEnd;
+
+	/**
+	 * The end of the last run of common elements reported.
+	 */
+	private int commonOldEnd;
+
+	private int commonNewEnd;
+
+	private ListDiffComputer(Object[] oldElements, Object[] newElements, boolean identity) {
+		this.oldElements = oldElements;
+		this.newElements = newElements;
+		this.identity = identity;
+	}
+
+	/**
+	 * Returns the ranges transforming <code>oldList</code> into
+	 * <code>newList</code>.
+	 *
+	 * @param oldList
+	 *            the old list state
+	 * @param newList
+	 *            the new list state
+	 * @param identity
+	 *            <code>true</code> to compare the elements by identity,
+	 *            <code>false</code> to compare them with
+	 *            {@link Object#equals(Object)}
+	 * @return the ranges, in the order they are to be processed
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> List<ListDiffRange<E>> computeDiffRanges(List<? extends E> oldList,
+			List<? extends E> newList, boolean identity) {
+		ListDiffComputer computer = new ListDiffComputer(oldList.toArray(), newList.toArray(), identity);
+		computer.compute();
+		return (List<ListDiffRange<E>>) (List<?>) computer.ranges;
+	}
+
+	private boolean same(Object oldElement, Object newElement) {
+		return identity ? oldElement == newElement : Util.equals(oldElement, newElement);
+	}
+
+	private void compute() {
+		int oldEnd = oldElements.length;
+		int newEnd = newElements.length;
+		int start = 0;
+		while (start < oldEnd && start < newEnd && same(oldElements[start], newElements[start])) {
+			start++;
+		}
+		while (oldEnd > start && newEnd > start && same(oldElements[oldEnd - 1], newElements[newEnd - 1])) {
+			oldEnd--;
+			newEnd--;
+		}
+		if (start == oldEnd && start == newEnd) {
+			return;
+		}
+		if (start == oldEnd || start == newEnd) {
+			// pure insertion or removal run
+			addRange(start, start, oldEnd, start, newEnd);
+			return;
+		}
+
+		int maxSteps = (Math.min(oldEnd - start + newEnd - start, MAX_EDIT_DISTANCE) + 1) / 2;
+		diagonalOffset = maxSteps + 1;
+		forward = new int[2 * maxSteps + 3];
+		backward = new int[2 * maxSteps + 3];
+		if (findMiddleSnake(start, oldEnd, start, newEnd, maxSteps) > MAX_EDIT_DISTANCE) {
+			addRange(start, start, oldEnd, start, newEnd);
+			return;
+		}
+		commonOldEnd = start;
+		commonNewEnd = start;
+		diffAroundMiddleSnake(start, oldEnd, start, newEnd);
+		addChangedRange(oldEnd, newEnd);
+	}
+
+	/**
+	 * Reports the common elements and the changed ranges of the old elements
+	 * [oldStart, oldEnd) and the new elements [newStart, newEnd), in order.
+	 */
+	private void diff(int oldStart, int oldEnd, int newStart, int newEnd) {
+		int prefix = 0;
+		while (oldStart + prefix < oldEnd && newStart + prefix < newEnd
+				&& same(oldElements[oldStart + prefix], newElements[newStart + prefix])) {
+			prefix++;
+		}
+		addCommon(oldStart, newStart, prefix);
+		oldStart += prefix;
+		newStart += prefix;
+		int suffix = 0;
+		while (oldEnd - suffix > oldStart && newEnd - suffix > newStart
+				&& same(oldElements[oldEnd - suffix - 1], newElements[newEnd - suffix - 1])) {
+			suffix++;
+		}
+		oldEnd -= suffix;
+		newEnd -= suffix;
+		if (oldStart < oldEnd && newStart < newEnd) {
+			// the edit distance is at least 2, and the parts before and after
+			// the middle snake are both smaller
+			findMiddleSnake(oldStart, oldEnd, newStart, newEnd, Integer.MAX_VALUE);
+			diffAroundMiddleSnake(oldStart, oldEnd, newStart, newEnd);
+		}
+		addCommon(oldEnd, newEnd, suffix);
+	}
+
+	private void diffAroundMiddleSnake(int oldStart, int oldEnd, int newStart, int newEnd) {
+		int snakeOldStart = this.snakeOldStart;
+		int snakeNewStart = this.snakeNewStart;
+		int snakeOldEnd = this.snakeOldEnd;
+		int snakeNewEnd = this.snakeNewEnd;
+		diff(oldStart, snakeOldStart, newStart, snakeNewStart);
+		addCommon(snakeOldStart, snakeNewStart, snakeOldEnd - snakeOldStart);
+		diff(snakeOldEnd, oldEnd, snakeNewEnd, newEnd);
+	}
+
+	/**
+	 * Finds the middle snake of the shortest edit script transforming the old
+	 * elements [oldStart, oldEnd) into the new elements [newStart, newEnd),
+	 * searching at most <code>maxSteps</code> edits from each end.
+	 *
+	 * @return the edit distance, or {@link Integer#MAX_VALUE} if it exceeds
+	 *         <code>2 * maxSteps</code>
+	 */
+	private int findMiddleSnake(int oldStart, int oldEnd, int newStart, int newEnd, int maxSteps) {
+		int n = oldEnd - oldStart;
+		int m = newEnd - newStart;
+		int delta = n - m;
+		boolean odd = (delta & 1) != 0;
+		int offset = diagonalOffset;
+		// forward[offset + k] is the furthest x reached on diagonal k = x - y,
+		// backward[offset + c] the furthest distance x from the ends reached
+		// on the reverse diagonal c, which is the diagonal delta - c
+		forward[offset + 1] = 0;
+		backward[offset + 1] = 0;
+		int steps = Math.min(maxSteps, (n + m + 1) / 2);
+		for (int d = 0; d <= steps; d++) {
+			for (int k = -d; k <= d; k += 2) {
+				int x;
+				if (k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])) {
+					x = forward[offset + k + 1];
+				} else {
+					x = forward[offset + k - 1] + 1;
+				}
+				int y = x - k;
+				int startX = x;
+				int startY = y;
+				while (x < n && y < m && same(oldElements[oldStart + x], newElements[newStart + y])) {
+					x++;
+					y++;
+				}
+				forward[offset + k] = x;
+				if (odd && k - delta >= 1 - d && k - delta <= d - 1 && x + backward[offset + delta - k] >= n) {
+					setMiddleSnake(oldStart + startX, newStart + startY, oldStart + x, newStart + y);
+					return 2 * d - 1;
+				}
+			}
+			for (int c = -d; c <= d; c += 2) {
+				int x;
+				if (c == -d || (c != d && backward[offset + c - 1] < backward[offset + c + 1])) {
+					x = backward[offset + c + 1];
+				} else {
+					x = backward[offset + c - 1] + 1;
+				}
+				int y = x - c;
+				int startX = x;
+				int startY = y;
+				while (x < n && y < m && same(oldElements[oldEnd - x - 1], newElements[newEnd - y - 1])) {
+					x++;
+					y++;
+				}
+				backward[offset + c] = x;
+				if (!odd && delta - c >= -d && delta - c <= d && x + forward[offset + delta - c] >= n) {
+					setMiddleSnake(oldEnd - x, newEnd - y, oldEnd - startX, newEnd - startY);
+					return 2 * d;
+				}
+			}
+		}
+		return Integer.MAX_VALUE;
+	}
+
+	private void setMiddleSnake(int oldStart, int newStart, int oldEnd, int newEnd) {
+		snakeOldStart = oldStart;
+		snakeNewStart = newStart;
+		snakeOldEnd = oldEnd;
+		snakeNewEnd = newEnd;
+	}
+
+	/**
+	 * Reports the run of <code>count</code> common elements starting at the
+	 * given old and new positions, after the changed range before it.
+	 */
+	private void addCommon(int oldStart, int newStart, int count) {
+		if (count == 0) {
+			return;
+		}
+		addChangedRange(oldStart, newStart);
+		commonOldEnd = oldStart + count;
+		commonNewEnd = newStart + count;
+	}
+
+	/**
+	 * Adds the range replacing the elements between the end of the last run
+	 * of common elements and the given old and new positions, if any.
+	 */
+	private void addChangedRange(int oldEnd, int newEnd) {
+		if (oldEnd != commonOldEnd || newEnd != commonNewEnd) {
+			addRange(commonNewEnd, commonOldEnd, oldEnd, commonNewEnd, newEnd);
+		}
+	}
+
+	/**
+	 * Adds the range replacing the old elements [oldStart, oldEnd) by the new
+	 * elements [newStart, newEnd) at the given position.
+	 */
+	private void addRange(int position, int oldStart, int oldEnd, int newStart, int newEnd) {
+		ranges.add(new ListDiffRange<>(position, Arrays.asList(oldElements).subList(oldStart, oldEnd),
+				Arrays.asList(newElements).subList(newStart, newEnd)));
+	}
+}
@@ -21,6 +21,7 @@ import org.eclipse.core.databinding.observable.IObservable;
 import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.sideeffect.ISideEffect;
+import org.eclipse.core.internal.databinding.observable.DependencyListeners;
 import org.eclipse.core.runtime.Assert;
 
 /**
@@ -91,6 +92,10 @@ public final class SideEffect implements ISideEffect {
 	 * Dependencies which we are currently listening for change events from
 	 */
 	private IObservable[] dependencies;
+	/**
+	 * True while the runnable is running
+	 */
+	private boolean updating;
 	private Realm realm;
 
 	private PrivateInterface privateInterface = new PrivateInterface();
@@ -181,19 +186,22 @@ public final class SideEffect implements ISideEffect {
 	private void update() {
 		if (dirty && pauseDepth <= 0) {
 			dirty = false;
-			// Hold a reference to the old dependencies to prevent them from
-			// being garbage collected until we've computed the new set. In the
-			// event that a dependency is lazily created, this prevents it from
-			// being destroyed and immediately recreated.
-
-			// Stop listening for dependency changes.
-			stopListening();
-
-			// This line will do the following:
-			// - Run the calculate method
-			// - While doing so, add any observable that is touched to the
-			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(runnable, null, null);
+			// Keep listening to the old dependencies while running, so that
+			// only the listeners of the dependencies that changed need to be
+			// updated afterwards. Holding on to them also prevents lazily
+			// created dependencies from being destroyed and immediately
+			// recreated. Their changes are ignored while running.
+			updating = true;
+			IObservable[] newDependencies;
+			try {
+				// This line will do the following:
+				// - Run the calculate method
+				// - While doing so, add any observable that is touched to the
+				// dependencies list
+				newDependencies = ObservableTracker.runAndMonitor(runnable, dependencies);
+			} finally {
+				updating = false;
+			}
 
 			// If the side-effect disposed itself, exit without attaching any
 			// listeners.
@@ -201,10 +209,7 @@ public final class SideEffect implements ISideEffect {
 				return;
 			}
 
-			for (IObservable next : newDependencies) {
-				next.addChangeListener(privateInterface);
-			}
-
+			DependencyListeners.update(dependencies, newDependencies, privateInterface, null);
 			dependencies = newDependencies;
 		}
 	}
@@ -334,7 +339,9 @@ public final class SideEffect implements ISideEffect {
 	private class PrivateInterface implements IChangeListener, Runnable {
 		@Override
 		public void handleChange(ChangeEvent event) {
-			markDirtyInternal();
+			if (!updating) {
+				markDirtyInternal();
+			}
 		}
 
 		@Override
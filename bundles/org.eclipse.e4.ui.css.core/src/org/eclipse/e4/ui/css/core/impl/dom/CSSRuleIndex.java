@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSElementSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.w3c.css.sac.AttributeCondition;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.css.sac.SiblingSelector;
+import org.w3c.dom.Element;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleRule;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * Index of the selectors of a {@link StyleSheetList}, bucketed by the
+ * rightmost simple selector (id, CSS class, element name or universal).
+ * <p>
+ * A selector can only match an element when the element carries the key of
+ * the bucket the selector was filed under, so {@link #getCandidates(Element)}
+ * only returns the selectors which may match. The candidates are returned in
+ * style sheet order, so the cascade computed from them is identical to the
+ * one computed from a linear scan of all the rules.
+ * </p>
+ */
+public class CSSRuleIndex {
+
+	/**
+	 * A selector of a style rule, together with its position in the style
+	 * sheet list.
+	 */
+	public static final class Entry {
+
+		private static final Comparator<Entry> ORDER = (e1, e2) -> Integer.compare(e1.order, e2.order);
+
+		final ExtendedSelector selector;
+
+		final CSSStyleRule rule;
+
+		final int order;
+
+		Entry(ExtendedSelector selector, CSSStyleRule rule, int order) {
+			this.selector = selector;
+			this.rule = rule;
+			this.order = order;
+		}
+
+		public ExtendedSelector getSelector() {
+			return selector;
+		}
+
+		public CSSStyleRule getRule() {
+			return rule;
+		}
+	}
+
+	private final List<Entry> universalEntries = new ArrayList<>();
+
+	private final Map<String, List<Entry>> elementNameEntries = new HashMap<>();
+
+	private final Map<String, List<Entry>> classEntries = new HashMap<>();
+
+	private final Map<String, List<Entry>> idEntries = new HashMap<>();
+
+	private int size;
+
+	/**
+	 * Creates a new index over the style rules of the given style sheets.
+	 */
+	public CSSRuleIndex(StyleSheetList styleSheetList) {
+		int l = styleSheetList.getLength();
+		for (int i = 0; i < l; i++) {
+			CSSStyleSheet styleSheet = (CSSStyleSheet) styleSheetList.item(i);
+			CSSRuleList ruleList = styleSheet.getCssRules();
+			int rulesSize = ruleList.getLength();
+			for (int j = 0; j < rulesSize; j++) {
+				addRule(ruleList.item(j));
+			}
+		}
+	}
+
+	private void addRule(CSSRule rule) {
+		if (rule.getType() != CSSRule.STYLE_RULE || !(rule instanceof ExtendedCSSRule)) {
+			return;
+		}
+		SelectorList selectorList = ((ExtendedCSSRule) rule).getSelectorList();
+		int l = selectorList.getLength();
+		for (int i = 0; i < l; i++) {
+			Selector selector = selectorList.item(i);
+			if (selector instanceof ExtendedSelector) {
+				Entry entry = new Entry((ExtendedSelector) selector, (CSSStyleRule) rule, size++);
+				addEntry(entry);
+			}
+		}
+	}
+
+	private void addEntry(Entry entry) {
+		Selector subject = getSubjectSelector(entry.selector);
+		if (subject instanceof ConditionalSelector) {
+			ConditionalSelector conditionalSelector = (ConditionalSelector) subject;
+			String id = findConditionValue(conditionalSelector.getCondition(), CSSIdConditionImpl.class);
+			if (id != null) {
+				put(idEntries, id, entry);
+				return;
+			}
+			String cssClass = findConditionValue(conditionalSelector.getCondition(), CSSClassConditionImpl.class);
+			if (cssClass != null) {
+				put(classEntries, cssClass, entry);
+				return;
+			}
+			subject = conditionalSelector.getSimpleSelector();
+		}
+		if (subject instanceof CSSElementSelectorImpl) {
+			String name = ((CSSElementSelectorImpl) subject).getLocalName();
+			if (name != null) {
+				put(elementNameEntries, name, entry);
+				return;
+			}
+		}
+		universalEntries.add(entry);
+	}
+
+	private static void put(Map<String, List<Entry>> map, String key, Entry entry) {
+		List<Entry> entries = map.get(key);
+		if (entries == null) {
+			entries = new ArrayList<>(2);
+			map.put(key, entries);
+		}
+		entries.add(entry);
+	}
+
+	/**
+	 * Return the selector which is matched against the element itself, i.e.
+	 * the rightmost compound selector of a combinator chain.
+	 */
+	private static Selector getSubjectSelector(Selector selector) {
+		Selector subject = selector;
+		while (true) {
+			if (subject instanceof DescendantSelector) {
+				subject = ((DescendantSelector) subject).getSimpleSelector();
+			} else if (subject instanceof SiblingSelector) {
+				subject = ((SiblingSelector) subject).getSiblingSelector();
+			} else {
+				return subject;
+			}
+		}
+	}
+
+	/**
+	 * Search the given condition, descending into <code>AND</code>
+	 * conditions only, for a condition of the given type and return its value.
+	 */
+	private static String findConditionValue(Condition condition, Class<? extends Condition> type) {
+		if (condition.getClass() == type) {
+			String value = ((AttributeCondition) condition).getValue();
+			if (value != null) {
+				return value;
+			}
+		}
+		if (condition.getConditionType() == Condition.SAC_AND_CONDITION
+				&& condition instanceof CombinatorCondition) {
+			CombinatorCondition combinator = (CombinatorCondition) condition;
+			String value = findConditionValue(combinator.getFirstCondition(), type);
+			if (value == null) {
+				value = findConditionValue(combinator.getSecondCondition(), type);
+			}
+			return value;
+		}
+		return null;
+	}
+
+	/**
+	 * Return the total number of indexed selectors.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the selectors which may match the given element, in style sheet
+	 * order. Every selector of the index which is not returned is guaranteed
+	 * not to match the element.
+	 */
+	public List<Entry> getCandidates(Element elt) {
+		List<List<Entry>> buckets = new ArrayList<>(4);
+		addBucket(buckets, universalEntries);
+
+		String elementName = (elt.getPrefix() == null) ? elt.getNodeName() : elt.getLocalName();
+		if (elementName != null) {
+			addBucket(buckets, elementNameEntries.get(elementName));
+		}
+
+		String id;
+		String cssClass;
+		if (elt instanceof CSSStylableElement) {
+			CSSStylableElement stylableElement = (CSSStylableElement) elt;
+			id = stylableElement.getCSSId();
+			cssClass = stylableElement.getCSSClass();
+		} else {
+			id = elt.getAttribute("id");
+			cssClass = elt.getAttribute("class");
+		}
+		if (id != null && !idEntries.isEmpty()) {
+			addBucket(buckets, idEntries.get(id));
+		}
+		if (cssClass != null && !classEntries.isEmpty()) {
+			addClassBuckets(buckets, cssClass);
+		}
+
+		switch (buckets.size()) {
+		case 0:
+			return Collections.emptyList();
+		case 1:
+			return buckets.get(0);
+		default:
+			List<Entry> candidates = new ArrayList<>();
+			for (List<Entry> bucket : buckets) {
+				candidates.addAll(bucket);
+			}
+			// every bucket is already sorted, the merge only has to
+			// interleave the runs
+			candidates.sort(Entry.ORDER);
+			return candidates;
+		}
+	}
+
+	/**
+	 * Add the bucket of each class of the given space separated class list.
+	 * The separators are the same as the ones used by
+	 * {@link CSSClassConditionImpl}.
+	 */
+	private void addClassBuckets(List<List<Entry>> buckets, String cssClass) {
+		int length = cssClass.length();
+		int start = -1;
+		for (int i = 0; i <= length; i++) {
+			boolean separator = i == length || Character.isSpaceChar(cssClass.charAt(i));
+			if (separator) {
+				if (start != -1) {
+					addBucket(buckets, classEntries.get(cssClass.substring(start, i)));
+					start = -1;
+				}
+			} else if (start == -1) {
+				start = i;
+			}
+		}
+	}
+
+	private static void addBucket(List<List<Entry>> buckets, List<Entry> bucket) {
+		if (bucket == null || bucket.isEmpty()) {
+			return;
+		}
+		// the same class may be listed several times on an element
+		for (List<Entry> existing : buckets) {
+			if (existing == bucket) {
+				return;
+			}
+		}
+		buckets.add(bucket);
+	}
+}
@@ -25,6 +25,12 @@ public class CSSStyleSheetImpl extends AbstractCSSNode implements CSSStyleSheet
 
 	private CSSRuleList rules = null;
 
+	/**
+	 * Incremented each time the rules change, so that the rule index of the
+	 * document can tell whether it is out of date.
+	 */
+	private int modificationCount;
+
 	public CSSStyleSheetImpl() {
 		super();
 	}
@@ -35,6 +41,7 @@ public class CSSStyleSheetImpl extends AbstractCSSNode implements CSSStyleSheet
 	public void deleteRule(int position) throws DOMException {
 		try {
 			((CSSRuleListImpl) rules).remove(position);
+			modificationCount++;
 		} catch (IndexOutOfBoundsException ex) {
 			throw new DOMExceptionImpl(DOMException.INDEX_SIZE_ERR, DOMExceptionImpl.ARRAY_OUT_OF_BOUNDS, ex.getMessage());
 		}
@@ -112,5 +119,10 @@ public class CSSStyleSheetImpl extends AbstractCSSNode implements CSSStyleSheet
 
 	public void setRuleList(CSSRuleList rules) {
 		this.rules = rules;
+		modificationCount++;
+	}
+
+	int getModificationCount() {
+		return modificationCount;
 	}
 }
@@ -43,6 +43,18 @@ public class DocumentCSSImpl implements ExtendedDocumentCSS {
 	 */
 	private Map<Integer, List<?>> styleDeclarationMap;
 
+	/**
+	 * Index of the style rules, built lazily and discarded each time the
+	 * style sheet list or the rules of a style sheet change.
+	 */
+	private CSSRuleIndex ruleIndex;
+
+	/**
+	 * The sum of the modification counts of the style sheets when the rule
+	 * index was built.
+	 */
+	private int ruleIndexModificationCount;
+
 	@Override
 	public StyleSheetList getStyleSheets() {
 		return styleSheetList;
@@ -56,12 +68,43 @@ public class DocumentCSSImpl implements ExtendedDocumentCSS {
 	@Override
 	public void addStyleSheet(StyleSheet styleSheet) {
 		styleSheetList.addStyleSheet(styleSheet);
+		this.ruleIndex = null;
 	}
 
 	@Override
 	public void removeAllStyleSheets() {
 		styleSheetList.removeAllStyleSheets();
 		this.styleDeclarationMap = null;
+		this.ruleIndex = null;
+	}
+
+	/**
+	 * Return the index of the style rules of all the style sheets of this
+	 * document. The index is built on first access after a style sheet was
+	 * added or removed, or after a rule was deleted from a style sheet.
+	 *
+	 * @return the rule index, never <code>null</code>
+	 */
+	public CSSRuleIndex getRuleIndex() {
+		int modificationCount = getModificationCount();
+		if (ruleIndex == null || ruleIndexModificationCount != modificationCount) {
+			ruleIndex = new CSSRuleIndex(styleSheetList);
+			ruleIndexModificationCount = modificationCount;
+		}
+		return ruleIndex;
+	}
+
+	private int getModificationCount() {
+		int modificationCount = 0;
+		int length = styleSheetList.getLength();
+		for (int i = 0; i < length; i++) {
+			StyleSheet styleSheet = styleSheetList.item(i);
+			if (styleSheet instanceof CSSStyleSheetImpl) {
+				// the counts only grow, so their sum changes with any of them
+				modificationCount += ((CSSStyleSheetImpl) styleSheet).getModificationCount();
+			}
+		}
+		return modificationCount;
 	}
 
 	@Override
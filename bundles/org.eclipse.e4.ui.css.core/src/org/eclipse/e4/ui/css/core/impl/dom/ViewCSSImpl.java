@@ -59,6 +59,20 @@ public class ViewCSSImpl implements ViewCSS {
 	 */
 	@Override
 	public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
+		if (documentCSS instanceof DocumentCSSImpl) {
+			// Only test the selectors whose rightmost simple selector can
+			// match the element
+			CSSRuleIndex ruleIndex = ((DocumentCSSImpl) documentCSS).getRuleIndex();
+			StyleCollector collector = new StyleCollector();
+			for (CSSRuleIndex.Entry candidate : ruleIndex.getCandidates(elt)) {
+				ExtendedSelector selector = candidate.getSelector();
+				if (selector.match(elt, pseudoElt)) {
+					collector.add(candidate.getRule().getStyle(), selector.getSpecificity());
+				}
+			}
+			return collector.getComputedStyle();
+		}
+
 		// Loop over the CSS styleSheet list
 		StyleSheetList styleSheetList = documentCSS.getStyleSheets();
 		int l = styleSheetList.getLength();
@@ -79,10 +93,8 @@ public class ViewCSSImpl implements ViewCSS {
 	}
 
 	public CSSStyleDeclaration getComputedStyle(List<CSSRule> ruleList, Element elt, String pseudoElt) {
-		List<StyleWrapper> styleDeclarations = null;
-		StyleWrapper firstStyleDeclaration = null;
+		StyleCollector collector = new StyleCollector();
 		int length = ruleList.size();
-		int position = 0;
 		for (int i = 0; i < length; i++) {
 			CSSRule rule = ruleList.get(i);
 			if (rule.getType() == CSSRule.STYLE_RULE) {
@@ -97,23 +109,7 @@ public class ViewCSSImpl implements ViewCSS {
 						if (selector instanceof ExtendedSelector) {
 							ExtendedSelector extendedSelector = (ExtendedSelector) selector;
 							if (extendedSelector.match(elt, pseudoElt)) {
-								CSSStyleDeclaration style = styleRule
-										.getStyle();
-								int specificity = extendedSelector
-										.getSpecificity();
-								StyleWrapper wrapper = new StyleWrapper(style,
-										specificity, position++);
-								if (firstStyleDeclaration == null) {
-									firstStyleDeclaration = wrapper;
-								} else {
-									// There is several Style Declarations which
-									// match the current element
-									if (styleDeclarations == null) {
-										styleDeclarations = new ArrayList<>();
-										styleDeclarations.add(firstStyleDeclaration);
-									}
-									styleDeclarations.add(wrapper);
-								}
+								collector.add(styleRule.getStyle(), extendedSelector.getSpecificity());
 							}
 						} else {
 							// TODO : selector is not batik ExtendedSelector,
@@ -126,14 +122,46 @@ public class ViewCSSImpl implements ViewCSS {
 				}
 			}
 		}
-		if (styleDeclarations != null) {
-			// There is several Style Declarations wich match
-			// the element, merge the CSS Property value.
-			return new CSSComputedStyleImpl(styleDeclarations);
+		return collector.getComputedStyle();
+	}
+
+	/**
+	 * Collects the style declarations which match an element, in style sheet
+	 * order.
+	 */
+	private static class StyleCollector {
+
+		private List<StyleWrapper> styleDeclarations;
+
+		private StyleWrapper firstStyleDeclaration;
+
+		private int position;
+
+		void add(CSSStyleDeclaration style, int specificity) {
+			StyleWrapper wrapper = new StyleWrapper(style, specificity, position++);
+			if (firstStyleDeclaration == null) {
+				firstStyleDeclaration = wrapper;
+			} else {
+				// There is several Style Declarations which
+				// match the current element
+				if (styleDeclarations == null) {
+					styleDeclarations = new ArrayList<>();
+					styleDeclarations.add(firstStyleDeclaration);
+				}
+				styleDeclarations.add(wrapper);
+			}
 		}
-		if (firstStyleDeclaration != null) {
-			return firstStyleDeclaration.style;
+
+		CSSStyleDeclaration getComputedStyle() {
+			if (styleDeclarations != null) {
+				// There is several Style Declarations wich match
+				// the element, merge the CSS Property value.
+				return new CSSComputedStyleImpl(styleDeclarations);
+			}
+			if (firstStyleDeclaration != null) {
+				return firstStyleDeclaration.style;
+			}
+			return null;
 		}
-		return null;
 	}
 }
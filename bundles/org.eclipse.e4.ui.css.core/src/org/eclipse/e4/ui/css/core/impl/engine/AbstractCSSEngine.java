@@ -100,6 +100,12 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	 */
 	private static final String ARCHIVE_IDENTIFIER = "!";
 
+	/**
+	 * Key of the element context data holding the converted resources which
+	 * were used when styles were last applied to the element.
+	 */
+	private static final String USED_RESOURCES_KEY = "org.eclipse.e4.ui.css.core.usedResources";
+
 	/**
 	 * Default {@link IResourcesLocatorManager} used to get InputStream, Reader
 	 * resource like Image.
@@ -116,6 +122,12 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	 */
 	private ViewCSS viewCSS;
 
+	/**
+	 * Cache of the computed styles, by element signature. <code>null</code>
+	 * when the document CSS is not a {@link DocumentCSSImpl}.
+	 */
+	private ComputedStyleCache computedStyleCache;
+
 	/**
 	 * {@link IElementProvider} used to retrieve w3c Element linked to the
 	 * widget.
@@ -150,6 +162,39 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	private ResourceRegistryKeyFactory keyFactory;
 
+	/**
+	 * The resources converted while styles are applied to an element, or
+	 * <code>null</code> outside of the styling of an element.
+	 */
+	private UsedResources usedResources;
+
+	/**
+	 * The property, qualified by its pseudo instance, which is being applied
+	 * while styles are applied to an element.
+	 */
+	private String currentResourceProperty;
+
+	/**
+	 * The resources converted while styles are applied to an element, by the
+	 * property they were converted for, and the properties which were applied.
+	 */
+	private static class UsedResources {
+		final Map<String, List<Object>> resources = new HashMap<>();
+
+		final Set<String> appliedProperties = new HashSet<>();
+
+		void add(String property, Object resource) {
+			List<Object> propertyResources = resources.get(property);
+			if (propertyResources == null) {
+				propertyResources = new ArrayList<>(1);
+				resources.put(property, propertyResources);
+			}
+			if (!containsIdentical(propertyResources, resource)) {
+				propertyResources.add(resource);
+			}
+		}
+	}
+
 	public AbstractCSSEngine() {
 		this(new DocumentCSSImpl());
 	}
@@ -157,6 +202,9 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	public AbstractCSSEngine(ExtendedDocumentCSS documentCSS) {
 		this.documentCSS = documentCSS;
 		this.viewCSS = new ViewCSSImpl(documentCSS);
+		if (documentCSS instanceof DocumentCSSImpl) {
+			this.computedStyleCache = new ComputedStyleCache((DocumentCSSImpl) documentCSS, viewCSS);
+		}
 		keyFactory = new ResourceRegistryKeyFactory();
 	}
 
@@ -379,57 +427,30 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 			/*
 			 * Compute new Style to apply.
 			 */
-			CSSStyleDeclaration style = viewCSS.getComputedStyle(elt, null);
-			if (computeDefaultStyle) {
-				if (applyStylesToChildNodes) {
-					this.computeDefaultStyle = computeDefaultStyle;
-				}
-				/*
-				 * Apply default style.
-				 */
-				applyDefaultStyleDeclaration(element, false, style, null);
-			}
-
-			/*
-			 * Manage static pseudo instances
-			 */
+			CSSStyleDeclaration style = getComputedStyle(elt, null);
 			String[] pseudoInstances = getStaticPseudoInstances(elt);
+			CSSStyleDeclaration[] stylesWithPseudoInstance = null;
 			if (pseudoInstances != null) {
-				// there are static pseudo instances defined, loop for it and
-				// apply styles for each pseudo instance.
-				for (String pseudoInstance : pseudoInstances) {
-					CSSStyleDeclaration styleWithPseudoInstance = viewCSS
-							.getComputedStyle(elt, pseudoInstance);
-					if (computeDefaultStyle) {
-						/*
-						 * Apply default style for the current pseudo instance.
-						 */
-						applyDefaultStyleDeclaration(element, false,
-								styleWithPseudoInstance, pseudoInstance);
-					}
-
-					if (styleWithPseudoInstance != null) {
-						CSSRule parentRule = styleWithPseudoInstance.getParentRule();
-						if (parentRule instanceof ExtendedCSSRule) {
-							applyConditionalPseudoStyle((ExtendedCSSRule) parentRule, pseudoInstance, element, styleWithPseudoInstance);
-						} else {
-							//							applyStyleDeclaration(element, styleWithPseudoInstance,
-							//									pseudoInstance);
-							applyStyleDeclaration(elt, styleWithPseudoInstance, pseudoInstance);
-						}
-					}
+				stylesWithPseudoInstance = new CSSStyleDeclaration[pseudoInstances.length];
+				for (int i = 0; i < pseudoInstances.length; i++) {
+					stylesWithPseudoInstance[i] = getComputedStyle(elt, pseudoInstances[i]);
 				}
 			}
 
-			if (style != null) {
-				//applyStyleDeclaration(element, style, null);
-				applyStyleDeclaration(elt, style, null);
-			}
+			CSSElementContext elementContext = getCSSElementContext(element);
+			UsedResources previousResources = usedResources;
+			String previousProperty = currentResourceProperty;
+			usedResources = elementContext != null ? new UsedResources() : null;
+			currentResourceProperty = null;
 			try {
-				// Apply inline style
-				applyInlineStyle(elt, false);
-			} catch (Exception e) {
-				handleExceptions(e);
+				applyComputedStyles(element, elt, style, pseudoInstances, stylesWithPseudoInstance,
+						applyStylesToChildNodes, computeDefaultStyle);
+			} finally {
+				if (elementContext != null) {
+					updateUsedResources(elementContext, usedResources);
+				}
+				usedResources = previousResources;
+				currentResourceProperty = previousProperty;
 			}
 
 			if (applyStylesToChildNodes) {
@@ -449,6 +470,157 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	}
 
+	private void applyComputedStyles(Object element, Element elt, CSSStyleDeclaration style,
+			String[] pseudoInstances, CSSStyleDeclaration[] stylesWithPseudoInstance,
+			boolean applyStylesToChildNodes, boolean computeDefaultStyle) {
+		if (computeDefaultStyle) {
+			if (applyStylesToChildNodes) {
+				this.computeDefaultStyle = computeDefaultStyle;
+			}
+			/*
+			 * Apply default style.
+			 */
+			applyDefaultStyleDeclaration(element, false, style, null);
+		}
+
+		/*
+		 * Manage static pseudo instances
+		 */
+		if (pseudoInstances != null) {
+			// there are static pseudo instances defined, loop for it and
+			// apply styles for each pseudo instance.
+			for (int i = 0; i < pseudoInstances.length; i++) {
+				String pseudoInstance = pseudoInstances[i];
+				CSSStyleDeclaration styleWithPseudoInstance = stylesWithPseudoInstance[i];
+				if (computeDefaultStyle) {
+					/*
+					 * Apply default style for the current pseudo instance.
+					 */
+					applyDefaultStyleDeclaration(element, false,
+							styleWithPseudoInstance, pseudoInstance);
+				}
+
+				if (styleWithPseudoInstance != null) {
+					CSSRule parentRule = styleWithPseudoInstance.getParentRule();
+					if (parentRule instanceof ExtendedCSSRule) {
+						applyConditionalPseudoStyle((ExtendedCSSRule) parentRule, pseudoInstance, element, styleWithPseudoInstance);
+					} else {
+						//							applyStyleDeclaration(element, styleWithPseudoInstance,
+						//									pseudoInstance);
+						applyStyleDeclaration(elt, styleWithPseudoInstance, pseudoInstance);
+					}
+				}
+			}
+		}
+
+		if (style != null) {
+			//applyStyleDeclaration(element, style, null);
+			applyStyleDeclaration(elt, style, null);
+		}
+		try {
+			// Apply inline style
+			applyInlineStyle(elt, false);
+		} catch (Exception e) {
+			handleExceptions(e);
+		}
+	}
+
+	/**
+	 * Replace the resources referenced by the given element context with the
+	 * ones used by the last styling of the element. The engine does not reset
+	 * the properties which the new styles leave out, so the resources of the
+	 * properties which were not applied again are still used by the widget and
+	 * stay referenced. The new references are taken before the old ones are
+	 * released, so the resources used before and after are kept alive.
+	 */
+	private void updateUsedResources(CSSElementContext elementContext, UsedResources used) {
+		Map<String, Object[]> previous = getUsedResources(elementContext);
+		if (previous != null) {
+			for (Map.Entry<String, Object[]> entry : previous.entrySet()) {
+				if (!used.appliedProperties.contains(entry.getKey())) {
+					for (Object resource : entry.getValue()) {
+						used.add(entry.getKey(), resource);
+					}
+				}
+			}
+		}
+		Map<String, Object[]> current = new HashMap<>();
+		for (Map.Entry<String, List<Object>> entry : used.resources.entrySet()) {
+			current.put(entry.getKey(), entry.getValue().toArray());
+		}
+		IResourcesRegistry registry = getResourcesRegistry();
+		if (registry != null) {
+			for (Object[] resources : current.values()) {
+				for (Object resource : resources) {
+					registry.addReference(resource);
+				}
+			}
+			releaseUsedResources(registry, previous);
+		}
+		elementContext.setData(USED_RESOURCES_KEY, current.isEmpty() ? null : current);
+	}
+
+	/**
+	 * Release the resources referenced by the given element context.
+	 */
+	private void releaseUsedResources(CSSElementContext elementContext) {
+		IResourcesRegistry registry = getResourcesRegistry();
+		if (registry != null) {
+			releaseUsedResources(registry, getUsedResources(elementContext));
+		}
+		elementContext.setData(USED_RESOURCES_KEY, null);
+	}
+
+	private static void releaseUsedResources(IResourcesRegistry registry, Map<String, Object[]> usedResources) {
+		if (usedResources != null) {
+			for (Object[] resources : usedResources.values()) {
+				for (Object resource : resources) {
+					registry.removeReference(resource);
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object[]> getUsedResources(CSSElementContext elementContext) {
+		Object usedResources = elementContext.getData(USED_RESOURCES_KEY);
+		return usedResources instanceof Map ? (Map<String, Object[]>) usedResources : null;
+	}
+
+	/**
+	 * Return the property under which the resources converted while the given
+	 * property is applied are recorded.
+	 */
+	private static String getResourceProperty(String property, String pseudo) {
+		return pseudo != null ? property + ':' + pseudo : property;
+	}
+
+	/**
+	 * Return the style computed by the view CSS for the given element, shared
+	 * with all the elements which have the same style signature.
+	 *
+	 * @param elt
+	 * @param pseudoElt
+	 * @return the computed style or <code>null</code> if no rule matches
+	 */
+	protected CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
+		if (computedStyleCache != null) {
+			return computedStyleCache.getComputedStyle(elt, pseudoElt);
+		}
+		return viewCSS.getComputedStyle(elt, pseudoElt);
+	}
+
+	/**
+	 * Return the cache of computed styles, which exposes hit and miss
+	 * counters.
+	 *
+	 * @return the cache or <code>null</code> if the document CSS is not a
+	 *         {@link DocumentCSSImpl}
+	 */
+	public ComputedStyleCache getComputedStyleCache() {
+		return computedStyleCache;
+	}
+
 	/**
 	 * Allow the CSS engine to skip particular elements if they are not visible.
 	 * Elements need to be restyled when they become visible.
@@ -577,10 +749,19 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		}
 		if (handlers2 != null) {
 			for (ICSSPropertyHandler2 handler2 : handlers2) {
+				String previousProperty = currentResourceProperty;
+				// the resources converted once all the properties are applied,
+				// such as fonts, are recorded under the handler
+				currentResourceProperty = getResourceProperty(handler2.getClass().getName(), pseudo);
 				try {
 					handler2.onAllCSSPropertiesApplyed(element, this, pseudo);
+					if (usedResources != null) {
+						usedResources.appliedProperties.add(currentResourceProperty);
+					}
 				} catch (Exception e) {
 					handleExceptions(e);
+				} finally {
+					currentResourceProperty = previousProperty;
 				}
 			}
 		}
@@ -762,6 +943,8 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 				continue;
 			}
 			for (ICSSPropertyHandler handler : handlers) {
+				String previousProperty = currentResourceProperty;
+				currentResourceProperty = getResourceProperty(property, pseudo);
 				try {
 					boolean result = handler.applyCSSProperty(element,
 							property,
@@ -772,6 +955,9 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 						if (currentCSSPropertiesApplyed != null) {
 							currentCSSPropertiesApplyed.put(property, property);
 						}
+						if (usedResources != null) {
+							usedResources.appliedProperties.add(currentResourceProperty);
+						}
 						return handler;
 					}
 				} catch (Exception e) {
@@ -779,6 +965,8 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 							|| (!throwError && !(e instanceof UnsupportedPropertyException))) {
 						handleExceptions(e);
 					}
+				} finally {
+					currentResourceProperty = previousProperty;
 				}
 			}
 		}
@@ -939,7 +1127,10 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	 */
 	protected void handleWidgetDisposed(Object widget) {
 		if (elementsContext != null) {
-			elementsContext.remove(widget);
+			CSSElementContext elementContext = elementsContext.remove(widget);
+			if (elementContext != null) {
+				releaseUsedResources(elementContext);
+			}
 		}
 	}
 
@@ -1112,6 +1303,18 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		return null;
 	}
 
+	/**
+	 * Convert the given value, sharing the result with all the conversions of
+	 * an equal value to the same type through the resources registry.
+	 * <p>
+	 * While styles are applied to an element, the converted resources are
+	 * referenced by the element, and released when the property they were
+	 * converted for is applied again or the widget is disposed: the registry
+	 * disposes the resources no element references anymore. Resources
+	 * converted outside of the styling of an element have no known owner and
+	 * are kept until the registry is disposed.
+	 * </p>
+	 */
 	@Override
 	public Object convert(CSSValue value, Object toType, Object context)
 			throws Exception {
@@ -1126,9 +1329,27 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 				registerResource(toType, key, newValue);
 			}
 		}
+		if (key != null && newValue != null && getResourcesRegistry() != null) {
+			if (usedResources == null) {
+				getResourcesRegistry().pinResource(newValue);
+			} else {
+				// resources converted outside of a property handler are
+				// recorded under null, and kept until the widget is disposed
+				usedResources.add(currentResourceProperty, newValue);
+			}
+		}
 		return newValue;
 	}
 
+	private static boolean containsIdentical(List<Object> list, Object o) {
+		for (Object e : list) {
+			if (e == o) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private Object getResource(Object toType, Object key) {
 		if (key != null && getResourcesRegistry() != null) {
 			return getResourcesRegistry().getResource(toType, key);
@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.dom.CSSRuleIndex;
+import org.eclipse.e4.ui.css.core.impl.dom.DocumentCSSImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedCondition;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.w3c.css.sac.AttributeCondition;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.ElementSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.css.ViewCSS;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * Memoizes {@link ViewCSS#getComputedStyle(Element, String)} by the "style
+ * signature" of an element.
+ * <p>
+ * The signature of an element is made of everything the selectors of the
+ * current style sheets can test on the element and its ancestors: element
+ * name and namespace, CSS id and class, the attributes referenced by
+ * attribute conditions and the state of the pseudo classes referenced by
+ * pseudo class conditions. Elements with the same signature match the same
+ * rules, so they share the same computed style. The ids of the ancestors are
+ * only part of the signature when a selector tests the id of an ancestor, as
+ * most widgets of a workbench have an ancestor with an id of its own.
+ * </p>
+ * <p>
+ * The cache keeps the {@link #MAX_SIZE} most recently used signatures, so
+ * the signatures of disposed widgets are eventually dropped.
+ * </p>
+ * <p>
+ * The cache is dropped each time the style sheets of the document change.
+ * It is bypassed when the style sheets use selectors whose result depends on
+ * something else than the element and its ancestors, like sibling selectors,
+ * or when the document is not a {@link DocumentCSSImpl}.
+ * </p>
+ */
+public class ComputedStyleCache {
+
+	/**
+	 * Cached value for elements which are not matched by any rule.
+	 */
+	private static final Object NO_STYLE = new Object();
+
+	/**
+	 * The maximum number of signatures in the cache.
+	 */
+	static final int MAX_SIZE = 1024;
+
+	private final DocumentCSSImpl documentCSS;
+
+	private final ViewCSS viewCSS;
+
+	private final Map<List<Object>, Object> computedStyles = new LinkedHashMap<List<Object>, Object>(16, 0.75f,
+			true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	/**
+	 * The rule index the cached styles were computed from, used to detect
+	 * style sheet changes.
+	 */
+	private CSSRuleIndex ruleIndex;
+
+	private boolean cacheable;
+
+	private String[] attributeNames;
+
+	private String[] pseudoClasses;
+
+	/**
+	 * Whether a selector tests the id of the element it matches.
+	 */
+	private boolean idsUsed;
+
+	/**
+	 * Whether a selector tests the id of an ancestor of the element it
+	 * matches.
+	 */
+	private boolean ancestorIdsUsed;
+
+	private int hitCount;
+
+	private int missCount;
+
+	public ComputedStyleCache(DocumentCSSImpl documentCSS, ViewCSS viewCSS) {
+		this.documentCSS = documentCSS;
+		this.viewCSS = viewCSS;
+	}
+
+	/**
+	 * Return the computed style of the given element, from the cache when an
+	 * element with the same signature was already computed.
+	 */
+	public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
+		CSSRuleIndex currentIndex = documentCSS.getRuleIndex();
+		if (currentIndex != ruleIndex) {
+			clear();
+			ruleIndex = currentIndex;
+			analyzeSelectors(documentCSS.getStyleSheets());
+		}
+		if (!cacheable) {
+			return viewCSS.getComputedStyle(elt, pseudoElt);
+		}
+
+		List<Object> signature = computeSignature(elt, pseudoElt);
+		Object style = computedStyles.get(signature);
+		if (style != null) {
+			hitCount++;
+			return style == NO_STYLE ? null : (CSSStyleDeclaration) style;
+		}
+		missCount++;
+		CSSStyleDeclaration computedStyle = viewCSS.getComputedStyle(elt, pseudoElt);
+		computedStyles.put(signature, computedStyle == null ? NO_STYLE : computedStyle);
+		return computedStyle;
+	}
+
+	/**
+	 * Return the number of lookups answered from the cache.
+	 */
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Return the number of lookups which required a style computation.
+	 */
+	public int getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Return the number of distinct signatures in the cache.
+	 */
+	public int size() {
+		return computedStyles.size();
+	}
+
+	/**
+	 * Remove all the cached styles and reset the hit and miss counters.
+	 */
+	public void clear() {
+		computedStyles.clear();
+		ruleIndex = null;
+		hitCount = 0;
+		missCount = 0;
+	}
+
+	private List<Object> computeSignature(Element elt, String pseudoElt) {
+		List<Object> signature = new ArrayList<>();
+		signature.add(pseudoElt);
+		addElementSignature(signature, elt, idsUsed);
+		for (Node n = elt.getParentNode(); n != null; n = n.getParentNode()) {
+			if (n.getNodeType() == Node.ELEMENT_NODE) {
+				addElementSignature(signature, (Element) n, ancestorIdsUsed);
+			} else {
+				signature.add(Short.valueOf(n.getNodeType()));
+			}
+		}
+		return signature;
+	}
+
+	private void addElementSignature(List<Object> signature, Element elt, boolean withId) {
+		signature.add(elt.getPrefix() == null ? elt.getNodeName() : elt.getLocalName());
+		signature.add(elt.getNamespaceURI());
+		if (elt instanceof CSSStylableElement) {
+			CSSStylableElement stylableElement = (CSSStylableElement) elt;
+			if (withId) {
+				signature.add(stylableElement.getCSSId());
+			}
+			signature.add(stylableElement.getCSSClass());
+			for (String pseudoClass : pseudoClasses) {
+				// the matching also depends on whether the pseudo class is
+				// a static pseudo instance
+				int state = stylableElement.isPseudoInstanceOf(pseudoClass) ? 1 : 0;
+				if (stylableElement.isStaticPseudoInstance(pseudoClass)) {
+					state |= 2;
+				}
+				signature.add(Integer.valueOf(state));
+			}
+		} else {
+			if (withId) {
+				signature.add(elt.getAttribute("id"));
+			}
+			signature.add(elt.getAttribute("class"));
+		}
+		for (String attributeName : attributeNames) {
+			signature.add(Boolean.valueOf(elt.hasAttribute(attributeName)));
+			signature.add(elt.getAttribute(attributeName));
+		}
+	}
+
+	/**
+	 * Collect the attributes, pseudo classes and ids tested by the selectors of
+	 * the given style sheets, and check that all the selectors only depend on
+	 * the element and its ancestors.
+	 */
+	private void analyzeSelectors(StyleSheetList styleSheetList) {
+		Set<String> attributes = new TreeSet<>();
+		Set<String> pseudos = new TreeSet<>();
+		cacheable = true;
+		idsUsed = false;
+		ancestorIdsUsed = false;
+		int l = styleSheetList.getLength();
+		for (int i = 0; i < l && cacheable; i++) {
+			CSSStyleSheet styleSheet = (CSSStyleSheet) styleSheetList.item(i);
+			CSSRuleList ruleList = styleSheet.getCssRules();
+			int rulesSize = ruleList.getLength();
+			for (int j = 0; j < rulesSize && cacheable; j++) {
+				CSSRule rule = ruleList.item(j);
+				if (rule.getType() == CSSRule.STYLE_RULE && rule instanceof ExtendedCSSRule) {
+					SelectorList selectorList = ((ExtendedCSSRule) rule).getSelectorList();
+					for (int k = 0; k < selectorList.getLength() && cacheable; k++) {
+						cacheable = analyzeSelector(selectorList.item(k), false, attributes, pseudos);
+					}
+				}
+			}
+		}
+		attributeNames = attributes.toArray(new String[attributes.size()]);
+		pseudoClasses = pseudos.toArray(new String[pseudos.size()]);
+	}
+
+	/**
+	 * Analyze the given selector, which tests the matched element or, if
+	 * <code>ancestor</code> is true, one of its ancestors.
+	 */
+	private boolean analyzeSelector(Selector selector, boolean ancestor, Set<String> attributes,
+			Set<String> pseudos) {
+		if (!(selector instanceof ExtendedSelector)) {
+			// not matched by the view, the signature can ignore it
+			return true;
+		}
+		switch (selector.getSelectorType()) {
+		case Selector.SAC_ELEMENT_NODE_SELECTOR:
+		case Selector.SAC_PSEUDO_ELEMENT_SELECTOR:
+			return selector instanceof ElementSelector;
+		case Selector.SAC_CONDITIONAL_SELECTOR:
+			ConditionalSelector conditionalSelector = (ConditionalSelector) selector;
+			return analyzeSelector(conditionalSelector.getSimpleSelector(), ancestor, attributes, pseudos)
+					&& analyzeCondition(conditionalSelector.getCondition(), ancestor, attributes, pseudos);
+		case Selector.SAC_DESCENDANT_SELECTOR:
+		case Selector.SAC_CHILD_SELECTOR:
+			DescendantSelector descendantSelector = (DescendantSelector) selector;
+			return analyzeSelector(descendantSelector.getAncestorSelector(), true, attributes, pseudos)
+					&& analyzeSelector(descendantSelector.getSimpleSelector(), ancestor, attributes, pseudos);
+		default:
+			// sibling selectors depend on the previous siblings
+			return false;
+		}
+	}
+
+	private boolean analyzeCondition(Condition condition, boolean ancestor, Set<String> attributes,
+			Set<String> pseudos) {
+		if (!(condition instanceof ExtendedCondition)) {
+			return false;
+		}
+		switch (condition.getConditionType()) {
+		case Condition.SAC_AND_CONDITION:
+			CombinatorCondition combinatorCondition = (CombinatorCondition) condition;
+			return analyzeCondition(combinatorCondition.getFirstCondition(), ancestor, attributes, pseudos)
+					&& analyzeCondition(combinatorCondition.getSecondCondition(), ancestor, attributes, pseudos);
+		case Condition.SAC_ID_CONDITION:
+			if (ancestor) {
+				ancestorIdsUsed = true;
+			} else {
+				idsUsed = true;
+			}
+			return true;
+		case Condition.SAC_CLASS_CONDITION:
+			// always part of the signature
+			return true;
+		case Condition.SAC_PSEUDO_CLASS_CONDITION:
+			pseudos.add(((AttributeCondition) condition).getValue());
+			return true;
+		case Condition.SAC_ATTRIBUTE_CONDITION:
+		case Condition.SAC_ONE_OF_ATTRIBUTE_CONDITION:
+		case Condition.SAC_BEGIN_HYPHEN_ATTRIBUTE_CONDITION:
+		case Condition.SAC_LANG_CONDITION:
+			((ExtendedCondition) condition).fillAttributeSet(attributes);
+			return true;
+		default:
+			return false;
+		}
+	}
+}
@@ -13,12 +13,19 @@ package org.eclipse.e4.ui.css.core.resources;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 
 /**
  * Abstract class resources registry which implement basic cache with Map.
+ * <p>
+ * The registry counts the references added by the styled elements: a resource
+ * is disposed when its last reference is removed, unless it was pinned by a
+ * user which does not hold references.
+ * </p>
  *
  * @version 1.0.0
  * @author <a href="mailto:angelo.zerr@gmail.com">Angelo ZERR</a>
@@ -28,6 +35,19 @@ public abstract class AbstractResourcesRegistry implements IResourcesRegistry {
 
 	private Map<Object, Map<Object, Object>> allResourcesMap;
 
+	/**
+	 * The type and key under which the cached resources are registered, by
+	 * identity, so that a resource is removed from the cache without a scan.
+	 */
+	private Map<Object, Object[]> resourceKeys;
+
+	/**
+	 * Reference counts of the referenced resources, by identity.
+	 */
+	private Map<Object, int[]> referenceCounts;
+
+	private Map<Object, Boolean> pinnedResources;
+
 	@Override
 	public Object getResource(Object type, Object key) {
 		if (allResourcesMap == null) {
@@ -50,7 +70,14 @@ public abstract class AbstractResourcesRegistry implements IResourcesRegistry {
 			resourcesMap = new HashMap<>();
 			allResourcesMap.put(type, resourcesMap);
 		}
-		resourcesMap.put(key, resource);
+		Object oldResource = resourcesMap.put(key, resource);
+		if (oldResource != null && oldResource != resource) {
+			removeResourceKey(oldResource, type, key);
+		}
+		if (resourceKeys == null) {
+			resourceKeys = new IdentityHashMap<>();
+		}
+		resourceKeys.put(resource, new Object[] { type, key });
 	}
 
 	protected Map<Object, Object> getCacheByType(Object type) {
@@ -72,20 +99,133 @@ public abstract class AbstractResourcesRegistry implements IResourcesRegistry {
 		if (resourcesMap == null) {
 			return;
 		}
-		Object resource = resourcesMap.get(key);
+		Object resource = resourcesMap.remove(key);
 		if (resource != null) {
-			resourcesMap.remove(resource);
+			removeResourceKey(resource, type, key);
 		}
 	}
 
 	public void unregisterResource(Object resource) {
+		Object[] typeAndKey = resourceKeys != null ? resourceKeys.get(resource) : null;
+		if (typeAndKey != null) {
+			unregisterResource(typeAndKey[0], typeAndKey[1]);
+		}
+	}
+
+	/**
+	 * Forget the type and key of the given resource, if it is still registered
+	 * under them.
+	 */
+	private void removeResourceKey(Object resource, Object type, Object key) {
+		Object[] typeAndKey = resourceKeys != null ? resourceKeys.get(resource) : null;
+		if (typeAndKey != null && Objects.equals(typeAndKey[0], type) && Objects.equals(typeAndKey[1], key)) {
+			resourceKeys.remove(resource);
+		}
+	}
+
+	@Override
+	public void addReference(Object resource) {
+		if (resource == null) {
+			return;
+		}
+		if (referenceCounts == null) {
+			referenceCounts = new IdentityHashMap<>();
+		}
+		int[] count = referenceCounts.get(resource);
+		if (count == null) {
+			count = new int[1];
+			referenceCounts.put(resource, count);
+		}
+		count[0]++;
+	}
+
+	@Override
+	public void removeReference(Object resource) {
+		if (referenceCounts == null || resource == null) {
+			return;
+		}
+		int[] count = referenceCounts.get(resource);
+		if (count == null || --count[0] > 0) {
+			return;
+		}
+		referenceCounts.remove(resource);
+		if (isPinned(resource)) {
+			return;
+		}
+		// last reference: remove it from the cache and dispose it
 		Object type = getResourceType(resource);
-		if (type != null) {
-			Map<Object, Object> resourcesMap = allResourcesMap.get(type);
-			if (resourcesMap != null) {
-				resourcesMap.remove(resource);
+		Object key = null;
+		Object[] typeAndKey = resourceKeys != null ? resourceKeys.get(resource) : null;
+		if (typeAndKey != null) {
+			type = typeAndKey[0];
+			key = typeAndKey[1];
+			unregisterResource(type, key);
+		}
+		disposeResource(type, key, resource);
+	}
+
+	@Override
+	public void pinResource(Object resource) {
+		if (resource == null) {
+			return;
+		}
+		if (pinnedResources == null) {
+			pinnedResources = new IdentityHashMap<>();
+		}
+		pinnedResources.put(resource, Boolean.TRUE);
+	}
+
+	/**
+	 * Return true if the given resource was pinned, i.e. is only disposed with
+	 * the registry.
+	 */
+	public boolean isPinned(Object resource) {
+		return pinnedResources != null && pinnedResources.containsKey(resource);
+	}
+
+	/**
+	 * Return the number of references to the given resource.
+	 */
+	public int getReferenceCount(Object resource) {
+		int[] count = referenceCounts != null ? referenceCounts.get(resource) : null;
+		return count != null ? count[0] : 0;
+	}
+
+	/**
+	 * Return true if the given resource will be disposed when its last
+	 * reference is removed.
+	 */
+	public boolean isReferenceCounted(Object resource) {
+		return getReferenceCount(resource) > 0 && !isPinned(resource);
+	}
+
+	/**
+	 * Return the number of resources stored into cache.
+	 */
+	public int getResourceCount() {
+		int resourceCount = 0;
+		if (allResourcesMap != null) {
+			for (Map<Object, Object> resourcesMap : allResourcesMap.values()) {
+				resourceCount += resourcesMap.size();
 			}
 		}
+		return resourceCount;
+	}
+
+	/**
+	 * Return the number of resources of type <code>type</code> stored into
+	 * cache.
+	 */
+	public int getResourceCount(Object type) {
+		return getCacheByType(type).size();
+	}
+
+	/**
+	 * Return the number of resources which are referenced by at least one
+	 * styled element, including the ones which were removed from the cache.
+	 */
+	public int getReferencedResourceCount() {
+		return referenceCounts != null ? referenceCounts.size() : 0;
 	}
 
 	public Object getResourceType(Object resource) {
@@ -94,20 +234,33 @@ public abstract class AbstractResourcesRegistry implements IResourcesRegistry {
 
 	@Override
 	public void dispose() {
-		if (allResourcesMap == null) {
-			return;
+		if (allResourcesMap != null) {
+			// Loop for all resources stored into cache
+			Set<Entry<Object, Map<Object, Object>>> allResources = allResourcesMap.entrySet();
+			for (Entry<Object, Map<Object, Object>> entry : allResources) {
+				Object type = entry.getKey();
+				Set<Entry<Object, Object>> resources = entry.getValue().entrySet();
+				for (Entry<Object, Object> entry2 : resources) {
+					// Dispose the current resource.
+					disposeResource(type, entry2.getKey(), entry2.getValue());
+					if (referenceCounts != null) {
+						referenceCounts.remove(entry2.getValue());
+					}
+				}
+			}
 		}
-		// Loop for all resources stored into cache
-		Set<Entry<Object, Map<Object, Object>>> allResources = allResourcesMap.entrySet();
-		for (Entry<Object, Map<Object, Object>> entry : allResources) {
-			Object type = entry.getKey();
-			Set<Entry<Object, Object>> resources = entry.getValue().entrySet();
-			for (Entry<Object, Object> entry2 : resources) {
-				// Dispose the current resource.
-				disposeResource(type, entry2.getKey(), entry2.getValue());
+		if (referenceCounts != null) {
+			// referenced resources which were removed from the cache
+			for (Object resource : referenceCounts.keySet()) {
+				if (!isPinned(resource)) {
+					disposeResource(getResourceType(resource), null, resource);
+				}
 			}
 		}
 		allResourcesMap = null;
+		resourceKeys = null;
+		referenceCounts = null;
+		pinnedResources = null;
 	}
 
 	public abstract void disposeResource(Object type, Object key, Object resource);
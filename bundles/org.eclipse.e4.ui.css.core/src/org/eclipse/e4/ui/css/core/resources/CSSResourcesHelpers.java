@@ -30,6 +30,10 @@ public class CSSResourcesHelpers {
 		if (value.getCssValueType() == CSSValue.CSS_PRIMITIVE_VALUE) {
 			return getCSSPrimitiveValueKey((CSSPrimitiveValue) value);
 		}
+		if (value.getCssValueType() == CSSValue.CSS_VALUE_LIST) {
+			// e.g. gradients: the text of the parsed list identifies it
+			return value.getCssText();
+		}
 		return null;
 	}
 
@@ -54,4 +54,32 @@ public interface IResourcesRegistry {
 	 * Dispose all resources stored into cache.
 	 */
 	public void dispose();
+
+	/**
+	 * Add a reference to the resource <code>resource</code>, held by a styled
+	 * element which uses it.
+	 *
+	 * @param resource
+	 */
+	public default void addReference(Object resource) {
+	}
+
+	/**
+	 * Remove a reference to the resource <code>resource</code>. Registries
+	 * counting references may dispose the resource when its last reference is
+	 * removed, unless it was pinned.
+	 *
+	 * @param resource
+	 */
+	public default void removeReference(Object resource) {
+	}
+
+	/**
+	 * Mark the resource <code>resource</code> as used by an owner which does
+	 * not hold references, so that it is only disposed with the registry.
+	 *
+	 * @param resource
+	 */
+	public default void pinResource(Object resource) {
+	}
 }
@@ -42,6 +42,8 @@ public class CTabFolderElement extends CompositeElement implements ChildVisibili
 	private SelectionListener selectionListener = new SelectionAdapter() {
 		@Override
 		public void widgetSelected(SelectionEvent e) {
+			// restyle right away, so that the new selection is never painted
+			// with the styles of the old one
 			applyStyles(getWidget(), true);
 		}
 
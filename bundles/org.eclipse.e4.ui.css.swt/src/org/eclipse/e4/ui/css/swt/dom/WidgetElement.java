@@ -18,6 +18,8 @@ import org.eclipse.e4.ui.css.core.dom.ElementAdapter;
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
 import org.eclipse.e4.ui.css.core.utils.ClassUtils;
 import org.eclipse.e4.ui.css.swt.CSSSWTConstants;
+import org.eclipse.e4.ui.css.swt.engine.AbstractCSSSWTEngineImpl;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTRestyleScheduler;
 import org.eclipse.e4.ui.css.swt.helpers.SWTStyleHelpers;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Widget;
@@ -99,7 +101,8 @@ public class WidgetElement extends ElementAdapter implements NodeList {
 
 	/**
 	 * Convenience method for requesting the CSS engine to re-apply styles to a
-	 * widget.
+	 * widget. The queued requests of {@link #scheduleStyles(Widget, boolean)}
+	 * which this covers are dropped.
 	 *
 	 * @param widget
 	 *            widget to be restyled
@@ -109,7 +112,34 @@ public class WidgetElement extends ElementAdapter implements NodeList {
 	public static void applyStyles(Widget widget,
 			boolean applyStylesToChildNodes) {
 		CSSEngine engine = getEngine(widget);
-		if (engine != null) {
+		if (engine instanceof AbstractCSSSWTEngineImpl) {
+			((AbstractCSSSWTEngineImpl) engine).getRestyleScheduler()
+			.apply(widget, applyStylesToChildNodes);
+		} else if (engine != null) {
+			engine.applyStyles(widget, applyStylesToChildNodes);
+		}
+	}
+
+	/**
+	 * Convenience method for requesting the CSS engine to re-apply styles to a
+	 * widget during the next event loop turn. Several requests for the same
+	 * widget, or for widgets of the same subtree, are coalesced. Falls back to
+	 * {@link #applyStyles(Widget, boolean)} when the engine does not support
+	 * scheduling.
+	 *
+	 * @param widget
+	 *            widget to be restyled
+	 * @param applyStylesToChildNodes
+	 *            if true, apply styles to the child nodes
+	 * @see CSSSWTRestyleScheduler
+	 */
+	public static void scheduleStyles(Widget widget,
+			boolean applyStylesToChildNodes) {
+		CSSEngine engine = getEngine(widget);
+		if (engine instanceof AbstractCSSSWTEngineImpl) {
+			((AbstractCSSSWTEngineImpl) engine).getRestyleScheduler()
+			.schedule(widget, applyStylesToChildNodes);
+		} else if (engine != null) {
 			engine.applyStyles(widget, applyStylesToChildNodes);
 		}
 	}
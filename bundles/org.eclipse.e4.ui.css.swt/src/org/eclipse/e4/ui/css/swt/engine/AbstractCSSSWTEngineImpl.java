@@ -37,6 +37,8 @@ public abstract class AbstractCSSSWTEngineImpl extends CSSEngineImpl {
 
 	protected Display display;
 
+	private CSSSWTRestyleScheduler restyleScheduler;
+
 	public AbstractCSSSWTEngineImpl(Display display) {
 		this(display, false);
 	}
@@ -118,6 +120,26 @@ public abstract class AbstractCSSSWTEngineImpl extends CSSEngineImpl {
 				.getData("org.eclipse.e4.ui.css.disabled")); //$NON-NLS-1$
 	}
 
+	/**
+	 * Return the scheduler coalescing the restyle requests of this engine.
+	 *
+	 * @return the restyle scheduler, never <code>null</code>
+	 */
+	public CSSSWTRestyleScheduler getRestyleScheduler() {
+		if (restyleScheduler == null) {
+			restyleScheduler = new CSSSWTRestyleScheduler(display, this);
+		}
+		return restyleScheduler;
+	}
+
+	@Override
+	public void dispose() {
+		if (restyleScheduler != null) {
+			restyleScheduler.clear();
+		}
+		super.dispose();
+	}
+
 	@Override
 	public void reset() {
 		for (CSSElementContext elementContext : getElementsContext().values()) {
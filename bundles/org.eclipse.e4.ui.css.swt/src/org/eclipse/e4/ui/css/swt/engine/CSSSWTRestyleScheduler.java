@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.swt.engine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Widget;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Coalesces restyle requests and applies them once per event loop turn.
+ * <p>
+ * Requests are queued per widget. A request for a widget is dropped when an
+ * ancestor is already queued with its child nodes, and a request with child
+ * nodes absorbs the queued requests of the widget's descendants. The queue is
+ * flushed by a single {@link Display#asyncExec(Runnable)}, so a widget
+ * restyled several times during one user action is only styled once. The
+ * renderers schedule this way the restyles of the part stacks and parts whose
+ * active or focus state changed. Restyles which must be painted right away, like the ones of a tab folder
+ * whose selection changed or of a tab whose CSS classes changed, are made by
+ * {@link #apply(Widget, boolean)}.
+ * </p>
+ * <p>
+ * Must be used from the UI thread; requests made from other threads are
+ * forwarded to it.
+ * </p>
+ */
+public class CSSSWTRestyleScheduler {
+
+	private final Display display;
+
+	private final CSSEngine engine;
+
+	/**
+	 * The queued widgets, mapped to whether their child nodes must be styled
+	 * too.
+	 */
+	private final Map<Widget, Boolean> pendingRequests = new LinkedHashMap<>();
+
+	private final Runnable flushRunnable = this::flush;
+
+	private boolean flushScheduled;
+
+	private int requestCount;
+
+	private int applyCount;
+
+	public CSSSWTRestyleScheduler(Display display, CSSEngine engine) {
+		this.display = display;
+		this.engine = engine;
+	}
+
+	/**
+	 * Queue a request to apply the styles to the given widget. The styles are
+	 * applied during the next event loop turn, or by {@link #flush()}.
+	 *
+	 * @param widget
+	 *            the widget to restyle
+	 * @param applyStylesToChildNodes
+	 *            if true, apply styles to the child nodes
+	 */
+	public void schedule(Widget widget, boolean applyStylesToChildNodes) {
+		if (widget == null || widget.isDisposed() || display.isDisposed()) {
+			return;
+		}
+		if (display.getThread() != Thread.currentThread()) {
+			display.asyncExec(() -> schedule(widget, applyStylesToChildNodes));
+			return;
+		}
+		requestCount++;
+		if (isCovered(widget, applyStylesToChildNodes)) {
+			return;
+		}
+		if (applyStylesToChildNodes) {
+			removeDescendantRequests(widget);
+		}
+		pendingRequests.merge(widget, Boolean.valueOf(applyStylesToChildNodes), Boolean::logicalOr);
+		if (!flushScheduled) {
+			flushScheduled = true;
+			display.asyncExec(flushRunnable);
+		}
+	}
+
+	/**
+	 * Synchronously apply the styles to the given widget, for the restyles
+	 * which must not wait for the next event loop turn. The queued requests
+	 * which this covers are dropped.
+	 *
+	 * @param widget
+	 *            the widget to restyle
+	 * @param applyStylesToChildNodes
+	 *            if true, apply styles to the child nodes
+	 */
+	public void apply(Widget widget, boolean applyStylesToChildNodes) {
+		if (widget == null || widget.isDisposed()) {
+			return;
+		}
+		if (display.getThread() == Thread.currentThread()) {
+			Boolean queued = pendingRequests.get(widget);
+			if (queued != null && (applyStylesToChildNodes || !queued.booleanValue())) {
+				pendingRequests.remove(widget);
+			}
+			if (applyStylesToChildNodes) {
+				removeDescendantRequests(widget);
+			}
+		}
+		engine.applyStyles(widget, applyStylesToChildNodes);
+	}
+
+	/**
+	 * Synchronously apply the styles of all the queued requests. Requests made
+	 * while the styles are applied are queued for the next flush.
+	 */
+	public void flush() {
+		flushScheduled = false;
+		if (pendingRequests.isEmpty()) {
+			return;
+		}
+		List<Map.Entry<Widget, Boolean>> requests = new ArrayList<>(pendingRequests.entrySet());
+		pendingRequests.clear();
+		for (Map.Entry<Widget, Boolean> request : requests) {
+			Widget widget = request.getKey();
+			if (!widget.isDisposed()) {
+				applyCount++;
+				engine.applyStyles(widget, request.getValue().booleanValue());
+			}
+		}
+	}
+
+	/**
+	 * Drop all the queued requests without applying them.
+	 */
+	public void clear() {
+		pendingRequests.clear();
+	}
+
+	/**
+	 * Return the number of queued widgets.
+	 */
+	public int getPendingCount() {
+		return pendingRequests.size();
+	}
+
+	/**
+	 * Return the number of restyle requests received so far.
+	 */
+	public int getRequestCount() {
+		return requestCount;
+	}
+
+	/**
+	 * Return the number of times styles were actually applied so far. The
+	 * difference with {@link #getRequestCount()} is the number of coalesced
+	 * requests.
+	 */
+	public int getApplyCount() {
+		return applyCount;
+	}
+
+	private boolean isCovered(Widget widget, boolean applyStylesToChildNodes) {
+		Boolean queued = pendingRequests.get(widget);
+		if (queued != null && (queued.booleanValue() || !applyStylesToChildNodes)) {
+			return true;
+		}
+		for (Widget ancestor = getParentWidget(widget); ancestor != null; ancestor = getParentWidget(ancestor)) {
+			if (Boolean.TRUE.equals(pendingRequests.get(ancestor))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void removeDescendantRequests(Widget widget) {
+		for (Iterator<Widget> iterator = pendingRequests.keySet().iterator(); iterator.hasNext();) {
+			Widget queued = iterator.next();
+			for (Widget ancestor = getParentWidget(queued); ancestor != null; ancestor = getParentWidget(ancestor)) {
+				if (ancestor == widget) {
+					iterator.remove();
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the widget of the parent node of the given widget in the CSS
+	 * document, i.e. the widget whose child nodes include the given one.
+	 */
+	private Widget getParentWidget(Widget widget) {
+		if (widget.isDisposed()) {
+			return null;
+		}
+		Element element = engine.getElement(widget);
+		if (element == null) {
+			return null;
+		}
+		Node parent = element.getParentNode();
+		if (parent instanceof CSSStylableElement) {
+			Object nativeWidget = ((CSSStylableElement) parent).getNativeWidget();
+			if (nativeWidget instanceof Widget) {
+				return (Widget) nativeWidget;
+			}
+		}
+		return null;
+	}
+}
@@ -14,10 +14,16 @@ import org.eclipse.e4.ui.css.core.resources.ResourceRegistryKeyFactory;
 import org.eclipse.e4.ui.css.swt.helpers.CSSSWTColorHelper;
 import org.eclipse.e4.ui.css.swt.helpers.CSSSWTFontHelper;
 import org.w3c.dom.css.CSSValue;
+import org.w3c.dom.css.CSSValueList;
 
 public class SWTResourceRegistryKeyFactory extends ResourceRegistryKeyFactory {
 	@Override
 	public Object createKey(CSSValue value) {
+		if (value.getCssValueType() == CSSValue.CSS_VALUE_LIST && hasDefinitionAsItem((CSSValueList) value)) {
+			// converted values like gradients keep the RGB values of the
+			// definitions, they must be converted again when they change
+			return null;
+		}
 		Object key = super.createKey(value);
 		if (CSSSWTColorHelper.hasColorDefinitionAsValue(value)
 				|| CSSSWTFontHelper.hasFontDefinitionAsFamily(value)) {
@@ -25,4 +31,13 @@ public class SWTResourceRegistryKeyFactory extends ResourceRegistryKeyFactory {
 		}
 		return key;
 	}
+
+	private static boolean hasDefinitionAsItem(CSSValueList list) {
+		for (int i = 0; i < list.getLength(); i++) {
+			if (CSSSWTColorHelper.hasColorDefinitionAsValue(list.item(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
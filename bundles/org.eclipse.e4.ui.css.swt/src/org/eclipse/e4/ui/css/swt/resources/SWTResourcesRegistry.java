@@ -12,7 +12,6 @@
 package org.eclipse.e4.ui.css.swt.resources;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import org.eclipse.e4.ui.css.core.resources.AbstractResourcesRegistry;
@@ -130,14 +129,17 @@ public class SWTResourcesRegistry extends AbstractResourcesRegistry {
 	public List<Object> removeResourcesByKeyTypeAndType(Class<?> keyType, Class<?>... types) {
 		List<Object> removedResources = new ArrayList<Object>();
 		for (Class<?> cls : types) {
-			Iterator<Entry<Object, Object>> iter = getCacheByType(cls).entrySet().iterator();
-			while (iter.hasNext()) {
-				Entry<Object, Object> entry = iter.next();
+			List<Object> removedKeys = new ArrayList<Object>();
+			for (Entry<Object, Object> entry : getCacheByType(cls).entrySet()) {
 				if (keyType.isAssignableFrom(entry.getKey().getClass())) {
 					removedResources.add(entry.getValue());
-					iter.remove();
+					removedKeys.add(entry.getKey());
 				}
 			}
+			// unregister, so that the removed resources forget their keys
+			for (Object key : removedKeys) {
+				unregisterResource(cls, key);
+			}
 		}
 		return removedResources;
 	}
@@ -0,0 +1,393 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.model.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.application.impl.ApplicationPackageImpl;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * An index of the elements of an application model by their element id, tag
+ * and type, kept up to date by a content adapter on the application.
+ * <p>
+ * The index contains the {@link MApplicationElement}s which
+ * {@link ModelUtils#findElementById(MApplicationElement, String)} walks, that
+ * is, the elements whose containers are all {@link MApplicationElement}s. It
+ * also keeps track of the placeholders of the model, through which the
+ * searches of the model service reach the shared elements.
+ * </p>
+ */
+public class ElementIndex extends EContentAdapter {
+
+	private final EObject root;
+
+	/**
+	 * The elements by id. Most ids are unique, but some, such as the ids of
+	 * placeholders, are shared by several elements.
+	 */
+	private final Map<String, Collection<MApplicationElement>> elementsById = new HashMap<String, Collection<MApplicationElement>>();
+
+	private final Map<String, Collection<MApplicationElement>> elementsByTag = new HashMap<String, Collection<MApplicationElement>>();
+
+	/**
+	 * The elements by implementation class.
+	 */
+	private final Map<Class<?>, Collection<MApplicationElement>> elementsByType = new HashMap<Class<?>, Collection<MApplicationElement>>();
+
+	private final Set<MPlaceholder> placeholders = new HashSet<MPlaceholder>();
+
+	private int size;
+
+	private ElementIndex(EObject root) {
+		this.root = root;
+		addSubtree(root);
+	}
+
+	/**
+	 * Returns the index of the given application, creating it if needed.
+	 *
+	 * @param application
+	 *            the application
+	 * @return the index of the application
+	 */
+	public static ElementIndex getIndex(MApplication application) {
+		ElementIndex index = findIndex(application);
+		if (index == null) {
+			index = new ElementIndex((EObject) application);
+			((EObject) application).eAdapters().add(index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the index of the given application, if it has one. Copies of the
+	 * application, such as the ones which the workbench saves, are not indexed.
+	 *
+	 * @param application
+	 *            the application
+	 * @return the index of the application, or <code>null</code> if it has
+	 *         none
+	 */
+	public static ElementIndex findIndex(MApplication application) {
+		for (Adapter adapter : ((EObject) application).eAdapters()) {
+			if (adapter instanceof ElementIndex) {
+				return (ElementIndex) adapter;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the first element with the given id, in the order in which
+	 * {@link ModelUtils#findElementById(MApplicationElement, String)} walks
+	 * the model.
+	 *
+	 * @param id
+	 *            the id
+	 * @return the first element with the given id, or <code>null</code> if
+	 *         there is none
+	 */
+	public MApplicationElement findElement(String id) {
+		Collection<MApplicationElement> candidates = id == null ? null : elementsById.get(id);
+		if (candidates == null) {
+			return null;
+		}
+		MApplicationElement first = null;
+		for (MApplicationElement candidate : candidates) {
+			if (first == null || precedes((EObject) candidate, (EObject) first)) {
+				first = candidate;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Returns the elements with the given id, in no particular order. Elements
+	 * with an empty id are not indexed.
+	 *
+	 * @param id
+	 *            the id
+	 * @return the elements with the given id
+	 */
+	public Collection<MApplicationElement> getElementsById(String id) {
+		Collection<MApplicationElement> candidates = id == null ? null : elementsById.get(id);
+		if (candidates == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableCollection(candidates);
+	}
+
+	/**
+	 * Returns the elements with the given tag, in no particular order.
+	 *
+	 * @param tag
+	 *            the tag
+	 * @return the elements with the given tag
+	 */
+	public Collection<MApplicationElement> getElementsByTag(String tag) {
+		Collection<MApplicationElement> candidates = tag == null ? null : elementsByTag.get(tag);
+		if (candidates == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableCollection(candidates);
+	}
+
+	/**
+	 * Returns the elements which are instances of the given type, in no
+	 * particular order.
+	 *
+	 * @param type
+	 *            the type
+	 * @return the elements which are instances of the given type
+	 */
+	public Collection<MApplicationElement> getElementsByType(Class<?> type) {
+		List<MApplicationElement> result = new ArrayList<MApplicationElement>();
+		for (Map.Entry<Class<?>, Collection<MApplicationElement>> entry : elementsByType.entrySet()) {
+			if (type.isAssignableFrom(entry.getKey())) {
+				result.addAll(entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of elements which are instances of the given type,
+	 * without collecting them.
+	 *
+	 * @param type
+	 *            the type
+	 * @return the number of elements which are instances of the given type
+	 */
+	public int countElementsByType(Class<?> type) {
+		int count = 0;
+		for (Map.Entry<Class<?>, Collection<MApplicationElement>> entry : elementsByType.entrySet()) {
+			if (type.isAssignableFrom(entry.getKey())) {
+				count += entry.getValue().size();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the placeholders of the model, in no particular order.
+	 *
+	 * @return the placeholders
+	 */
+	public Collection<MPlaceholder> getPlaceholders() {
+		return Collections.unmodifiableSet(placeholders);
+	}
+
+	/**
+	 * Returns the number of elements in the index.
+	 *
+	 * @return the number of elements
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes the index from the application.
+	 */
+	public void dispose() {
+		root.eAdapters().remove(this);
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+
+		if (notification.isTouch() || notification.getEventType() == Notification.MOVE) {
+			return;
+		}
+		Object feature = notification.getFeature();
+		if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__ELEMENT_ID) {
+			EObject element = (EObject) notification.getNotifier();
+			if (isIndexed(element)) {
+				remove(elementsById, notification.getOldStringValue(), (MApplicationElement) element);
+				add(elementsById, notification.getNewStringValue(), (MApplicationElement) element);
+			}
+		} else if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__TAGS) {
+			EObject element = (EObject) notification.getNotifier();
+			if (isIndexed(element)) {
+				updateTags((MApplicationElement) element, notification.getOldValue());
+				updateTags((MApplicationElement) element, notification.getNewValue());
+			}
+		} else if (feature instanceof EReference && ((EReference) feature).isContainment()) {
+			// the removal of an element from its old container may be notified
+			// after its addition to the new one, so check where they are now
+			update(notification.getOldValue());
+			update(notification.getNewValue());
+		}
+	}
+
+	private void update(Object value) {
+		if (value instanceof Collection<?>) {
+			for (Object element : (Collection<?>) value) {
+				update(element);
+			}
+		} else if (value instanceof MApplicationElement) {
+			EObject element = (EObject) value;
+			if (isIndexed(element)) {
+				addSubtree(element);
+			} else {
+				removeSubtree(element);
+			}
+		}
+	}
+
+	/**
+	 * Indexes the given added or removed tags according to the current tags of
+	 * the element, which may contain the same tag more than once.
+	 */
+	private void updateTags(MApplicationElement element, Object tags) {
+		if (tags instanceof Collection<?>) {
+			for (Object tag : (Collection<?>) tags) {
+				updateTags(element, tag);
+			}
+		} else if (tags instanceof String) {
+			if (element.getTags().contains(tags)) {
+				add(elementsByTag, (String) tags, element);
+			} else {
+				remove(elementsByTag, (String) tags, element);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the given element and all its containers up to the root
+	 * are {@link MApplicationElement}s.
+	 */
+	private boolean isIndexed(EObject element) {
+		for (EObject current = element; current != root; current = current.eContainer()) {
+			if (!(current instanceof MApplicationElement)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void addSubtree(EObject element) {
+		MApplicationElement applicationElement = (MApplicationElement) element;
+		if (add(elementsByType, element.getClass(), applicationElement)) {
+			size++;
+		}
+		add(elementsById, applicationElement.getElementId(), applicationElement);
+		for (String tag : applicationElement.getTags()) {
+			add(elementsByTag, tag, applicationElement);
+		}
+		if (element instanceof MPlaceholder) {
+			placeholders.add((MPlaceholder) element);
+		}
+		for (EObject child : element.eContents()) {
+			if (child instanceof MApplicationElement) {
+				addSubtree(child);
+			}
+		}
+	}
+
+	private void removeSubtree(EObject element) {
+		MApplicationElement applicationElement = (MApplicationElement) element;
+		if (remove(elementsByType, element.getClass(), applicationElement)) {
+			size--;
+		}
+		remove(elementsById, applicationElement.getElementId(), applicationElement);
+		for (String tag : applicationElement.getTags()) {
+			remove(elementsByTag, tag, applicationElement);
+		}
+		if (element instanceof MPlaceholder) {
+			placeholders.remove((MPlaceholder) element);
+		}
+		for (EObject child : element.eContents()) {
+			if (child instanceof MApplicationElement) {
+				removeSubtree(child);
+			}
+		}
+	}
+
+	private <K> boolean add(Map<K, Collection<MApplicationElement>> map, K key, MApplicationElement element) {
+		if (key == null || (map == elementsById && "".equals(key))) { //$NON-NLS-1$
+			// elements with an empty id are not searched by id
+			return false;
+		}
+		Collection<MApplicationElement> elements = map.get(key);
+		if (elements == null) {
+			// ids are mostly unique, while tags and types are shared by many
+			// elements
+			if (map == elementsById) {
+				elements = new ArrayList<MApplicationElement>(1);
+			} else {
+				elements = new HashSet<MApplicationElement>();
+			}
+			map.put(key, elements);
+		} else if (elements.contains(element)) {
+			return false;
+		}
+		return elements.add(element);
+	}
+
+	private static <K> boolean remove(Map<K, Collection<MApplicationElement>> map, K key,
+			MApplicationElement element) {
+		Collection<MApplicationElement> elements = key == null ? null : map.get(key);
+		if (elements == null || !elements.remove(element)) {
+			return false;
+		}
+		if (elements.isEmpty()) {
+			map.remove(key);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether the first element comes before the second one in a
+	 * depth-first walk of the model.
+	 */
+	private static boolean precedes(EObject first, EObject second) {
+		List<EObject> firstPath = getPath(first);
+		List<EObject> secondPath = getPath(second);
+		int i = 0;
+		while (i < firstPath.size() && i < secondPath.size() && firstPath.get(i) == secondPath.get(i)) {
+			i++;
+		}
+		if (i == firstPath.size()) {
+			// the first element contains the second one
+			return true;
+		}
+		if (i == secondPath.size() || i == 0) {
+			return false;
+		}
+		List<EObject> siblings = firstPath.get(i - 1).eContents();
+		return siblings.indexOf(firstPath.get(i)) < siblings.indexOf(secondPath.get(i));
+	}
+
+	private static List<EObject> getPath(EObject element) {
+		LinkedList<EObject> path = new LinkedList<EObject>();
+		for (EObject current = element; current != null; current = current.eContainer()) {
+			path.addFirst(current);
+		}
+		return new ArrayList<EObject>(path);
+	}
+}
@@ -18,6 +18,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.ui.MContext;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
@@ -61,6 +62,13 @@ public class ModelUtils {
 		if (id == null || id.length() == 0) {
 			return null;
 		}
+		if (element instanceof MApplication) {
+			// look the element up instead of walking the whole application
+			ElementIndex index = ElementIndex.findIndex((MApplication) element);
+			if (index != null) {
+				return index.findElement(id);
+			}
+		}
 		// is it me?
 		if (id.equals(element.getElementId())) {
 			return element;
@@ -17,7 +17,6 @@ import java.util.List;
 import java.util.Map;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.log.Logger;
-import org.eclipse.e4.ui.css.core.engine.CSSEngine;
 import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
 import org.eclipse.e4.ui.internal.workbench.swt.AbstractPartRenderer;
 import org.eclipse.e4.ui.internal.workbench.swt.CSSConstants;
@@ -78,10 +77,30 @@ public abstract class SWTPartRenderer extends AbstractPartRenderer {
 			element.getTags().add(CSSConstants.CSS_ACTIVE_CLASS);
 
 		if (element.getWidget() != null)
-			setCSSInfo(element, element.getWidget());
+			scheduleCSSInfo(element, element.getWidget());
 	}
 
 	public void setCSSInfo(MUIElement me, Object widget) {
+		setCSSInfo(me, widget, false);
+	}
+
+	/**
+	 * Set the CSS class and id of the given widget like
+	 * {@link #setCSSInfo(MUIElement, Object)}, but restyle it during the next
+	 * event loop turn, so that the restyles made by one user action, like the
+	 * activation of a part, are coalesced.
+	 *
+	 * @param me
+	 *            the model element
+	 * @param widget
+	 *            the widget to restyle
+	 */
+	protected void scheduleCSSInfo(MUIElement me, Object widget) {
+		setCSSInfo(me, widget, true);
+	}
+
+	@SuppressWarnings("restriction")
+	private void setCSSInfo(MUIElement me, Object widget, boolean schedule) {
 		// No SWT widget, nothing to style...
 		if (widget == null)
 			return;
@@ -107,15 +126,26 @@ public abstract class SWTPartRenderer extends AbstractPartRenderer {
 		if (id != null) {
 			id = id.replace('.', '-');
 		}
+		if (schedule && widget instanceof Widget && WidgetElement.getEngine((Widget) widget) != null) {
+			Widget swtWidget = (Widget) widget;
+			WidgetElement.setCSSClass(swtWidget, cssClassStr);
+			WidgetElement.setID(swtWidget, id);
+			WidgetElement.scheduleStyles(swtWidget, true);
+			return;
+		}
 		engine.setClassnameAndId(widget, cssClassStr, id);
 	}
 
+	/**
+	 * Re-apply the styles of the given widget right away, so that the widget
+	 * is never painted with its old styles.
+	 *
+	 * @param widget
+	 *            the widget to restyle
+	 */
 	@SuppressWarnings("restriction")
 	protected void reapplyStyles(Widget widget) {
-		CSSEngine engine = WidgetElement.getEngine(widget);
-		if (engine != null) {
-			engine.applyStyles(widget, false);
-		}
+		WidgetElement.applyStyles(widget, false);
 	}
 
 	@Override
@@ -27,6 +27,7 @@ import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.core.resources.AbstractResourcesRegistry;
 import org.eclipse.e4.ui.css.core.resources.IResourcesRegistry;
 import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
 import org.eclipse.e4.ui.css.swt.resources.ResourceByDefinitionKey;
@@ -659,7 +660,7 @@ public class WBWRenderer extends SWTPartRenderer {
 			stack.getTags().add(CSSConstants.CSS_NO_FOCUS_CLASS);
 		}
 		if (tagsCount != stack.getTags().size()) {
-			setCSSInfo(stack, stack.getWidget());
+			scheduleCSSInfo(stack, stack.getWidget());
 		}
 	}
 
@@ -904,8 +905,10 @@ public class WBWRenderer extends SWTPartRenderer {
 			}
 
 			for (CSSEngine engine : engines) {
-				for (Object resource : removeResources(engine.getResourcesRegistry())) {
-					if (resource instanceof Resource && !((Resource) resource).isDisposed()) {
+				IResourcesRegistry registry = engine.getResourcesRegistry();
+				for (Object resource : removeResources(registry)) {
+					if (resource instanceof Resource && !((Resource) resource).isDisposed()
+							&& !isReferenceCounted(registry, resource)) {
 						unusedResources.add((Resource) resource);
 					}
 				}
@@ -917,6 +920,15 @@ public class WBWRenderer extends SWTPartRenderer {
 			return WidgetElement.getEngine((Widget) window.getWidget());
 		}
 
+		/**
+		 * Return true if the registry disposes the given resource once the
+		 * styled widgets using it are restyled or disposed.
+		 */
+		protected boolean isReferenceCounted(IResourcesRegistry registry, Object resource) {
+			return registry instanceof AbstractResourcesRegistry
+					&& ((AbstractResourcesRegistry) registry).isReferenceCounted(resource);
+		}
+
 		protected List<Object> removeResources(IResourcesRegistry registry) {
 			if (registry instanceof SWTResourcesRegistry) {
 				return ((SWTResourcesRegistry) registry)
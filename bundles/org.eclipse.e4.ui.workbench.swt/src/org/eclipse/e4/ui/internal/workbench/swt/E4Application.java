@@ -367,6 +367,14 @@ public class E4Application implements IApplication {
 				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
 		eclipseContext.set(IWorkbench.CLEAR_PERSISTED_STATE, clearPersistedState);
 
+		Boolean binaryPersistedState = getArgValue(E4Workbench.BINARY_PERSISTED_STATE, appContext, true)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.BINARY_PERSISTED_STATE, binaryPersistedState);
+
+		Boolean parallelFragmentLoading = getArgValue(E4Workbench.PARALLEL_FRAGMENT_LOADING, appContext, true)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.PARALLEL_FRAGMENT_LOADING, parallelFragmentLoading);
+
 		String resourceHandler = getArgValue(IWorkbench.MODEL_RESOURCE_HANDLER, appContext, false)
 				.orElse("bundleclass://org.eclipse.e4.ui.workbench/" + ResourceHandler.class.getName());
 
@@ -21,6 +21,8 @@ import static org.eclipse.e4.ui.internal.workbench.Policy.DEBUG_CONTEXTS_VERBOSE
 import static org.eclipse.e4.ui.internal.workbench.Policy.DEBUG_FLAG;
 import static org.eclipse.e4.ui.internal.workbench.Policy.DEBUG_MENUS;
 import static org.eclipse.e4.ui.internal.workbench.Policy.DEBUG_MENUS_FLAG;
+import static org.eclipse.e4.ui.internal.workbench.Policy.DEBUG_MODEL_ASSEMBLER;
+import static org.eclipse.e4.ui.internal.workbench.Policy.DEBUG_MODEL_ASSEMBLER_FLAG;
 import static org.eclipse.e4.ui.internal.workbench.Policy.DEBUG_RENDERER;
 import static org.eclipse.e4.ui.internal.workbench.Policy.DEBUG_RENDERER_FLAG;
 import static org.eclipse.e4.ui.internal.workbench.Policy.DEBUG_WORKBENCH;
@@ -142,6 +144,7 @@ public class Activator implements BundleActivator, DebugOptionsListener {
 		DEBUG_MENUS = options.getBooleanOption(PI_WORKBENCH + DEBUG_MENUS_FLAG, false);
 		DEBUG_RENDERER = options.getBooleanOption(PI_WORKBENCH + DEBUG_RENDERER_FLAG, false);
 		DEBUG_WORKBENCH = options.getBooleanOption(PI_WORKBENCH + DEBUG_WORKBENCH_FLAG, false);
+		DEBUG_MODEL_ASSEMBLER = options.getBooleanOption(PI_WORKBENCH + DEBUG_MODEL_ASSEMBLER_FLAG, false);
 	}
 
 	public DebugTrace getTrace() {
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream;
+
+/**
+ * An {@link E4XMIResource} saved in the compact binary format of EMF's
+ * {@link org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl}, which loads
+ * much faster than XMI as it is neither parsed as XML nor resolves its
+ * references by id.
+ * <p>
+ * The binary contents are followed by a table of the ids of the elements, in
+ * the order of {@link #getAllContents()}, so that the elements keep the same
+ * ids as in XMI and a model can be converted between both formats.
+ * </p>
+ */
+public class E4BinaryResource extends E4XMIResource {
+
+	/**
+	 * Whether the contents are being loaded, in which case the elements get
+	 * their ids from the id table instead of new ones when they are attached.
+	 */
+	private boolean loading;
+
+	public E4BinaryResource() {
+	}
+
+	public E4BinaryResource(URI uri) {
+		super(uri);
+	}
+
+	@Override
+	public void doSave(OutputStream outputStream, Map<?, ?> options) throws IOException {
+		EObjectOutputStream out = new EObjectOutputStream(outputStream, options);
+		out.saveResource(this);
+
+		List<String> ids = new ArrayList<>();
+		for (TreeIterator<EObject> it = getAllContents(); it.hasNext();) {
+			ids.add(getID(it.next()));
+		}
+		out.writeCompressedInt(ids.size());
+		for (String id : ids) {
+			out.writeString(id);
+		}
+		out.flush();
+	}
+
+	@Override
+	public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+		EObjectInputStream in = new EObjectInputStream(inputStream, options);
+		loading = true;
+		try {
+			in.loadResource(this);
+		} finally {
+			loading = false;
+		}
+
+		int count = in.readCompressedInt();
+		TreeIterator<EObject> it = getAllContents();
+		for (int i = 0; i < count; i++) {
+			if (!it.hasNext()) {
+				throw new IOException("The id table does not match the contents of " + getURI()); //$NON-NLS-1$
+			}
+			EObject eObject = it.next();
+			String id = in.readString();
+			if (id != null) {
+				setID(eObject, id);
+			}
+		}
+	}
+
+	@Override
+	protected void attachedHelper(EObject eObject) {
+		if (!loading) {
+			super.attachedHelper(eObject);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceFactoryImpl;
+
+/**
+ * Resource factory for {@link E4BinaryResource}.
+ */
+public class E4BinaryResourceFactory extends ResourceFactoryImpl {
+
+	/**
+	 * The file extension of binary models.
+	 */
+	public static final String EXTENSION = "e4bin"; //$NON-NLS-1$
+
+	@Override
+	public Resource createResource(URI uri) {
+		return new E4BinaryResource(uri);
+	}
+}
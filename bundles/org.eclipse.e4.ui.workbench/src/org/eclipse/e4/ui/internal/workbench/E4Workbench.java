@@ -83,6 +83,21 @@ public class E4Workbench implements IWorkbench {
 	 * Value is: <code>forcedShowLocation</code>
 	 */
 	public static final String FORCED_SHOW_LOCATION = "forcedShowLocation"; //$NON-NLS-1$
+	/**
+	 * The argument for whether the workbench should save its state in the
+	 * binary format of {@link E4BinaryResource} instead of XMI <br>
+	 * <br>
+	 * Value is: <code>binaryPersistedState</code>
+	 */
+	public static final String BINARY_PERSISTED_STATE = "binaryPersistedState"; //$NON-NLS-1$
+	/**
+	 * The argument for whether the resources of the model fragments should be
+	 * loaded in parallel before they are merged into the application model
+	 * <br>
+	 * <br>
+	 * Value is: <code>parallelFragmentLoading</code>
+	 */
+	public static final String PARALLEL_FRAGMENT_LOADING = "parallelFragmentLoading"; //$NON-NLS-1$
 
 	private final String id;
 	private ServiceRegistration<?> osgiRegistration;
@@ -0,0 +1,355 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.ECollections;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Maintains a copy of an application model which is updated incrementally.
+ * <p>
+ * The copy is created once, and a content adapter then records the elements
+ * of the model which change. {@link #update()} copies the changes of these
+ * elements only, instead of copying the whole model as
+ * {@link EcoreUtil#copy(EObject)} does, so that the copy can be taken on the
+ * UI thread periodically without walking a large model.
+ * </p>
+ * <p>
+ * The copy is equal to the copy {@link EcoreUtil#copy(EObject)} would have
+ * made of the model at the time of the last update. It must not be modified,
+ * and may be read in another thread between two updates, for example to
+ * serialize a copy of it.
+ * </p>
+ */
+public class IncrementalModelCopy {
+
+	private final EObject application;
+
+	private final EObject copy;
+
+	/**
+	 * The copies of the elements of the model.
+	 */
+	private final Map<EObject, EObject> copies = new HashMap<>();
+
+	/**
+	 * The elements whose features changed since the last update. Guarded by
+	 * the recorder.
+	 */
+	private final Set<EObject> changed = new HashSet<>();
+
+	/**
+	 * The elements added to a containment feature since the last update,
+	 * whose copies may have missed changes made while they were not in the
+	 * model. Guarded by the recorder.
+	 */
+	private final Set<EObject> added = new HashSet<>();
+
+	/**
+	 * The elements removed from a containment feature since the last update,
+	 * whose copies are forgotten if they are not back in the model. Guarded
+	 * by the recorder.
+	 */
+	private final Set<EObject> removed = new HashSet<>();
+
+	private final ChangeRecorder recorder = new ChangeRecorder();
+
+	/**
+	 * Copies the given application model, and starts recording its changes.
+	 *
+	 * @param application
+	 *            the application model
+	 */
+	public IncrementalModelCopy(MApplication application) {
+		this.application = (EObject) application;
+		ElementCopier copier = new ElementCopier(new ArrayList<>());
+		copy = copier.copy(this.application);
+		copier.copyReferences();
+		copies.putAll(copier);
+		this.application.eAdapters().add(recorder);
+	}
+
+	/**
+	 * Returns the copy of the application model, as of the last update.
+	 *
+	 * @return the copy
+	 */
+	public MApplication getCopy() {
+		return (MApplication) copy;
+	}
+
+	/**
+	 * Returns the number of elements changed since the last update.
+	 *
+	 * @return the number of changed elements
+	 */
+	public int getChangedCount() {
+		synchronized (recorder) {
+			return changed.size();
+		}
+	}
+
+	/**
+	 * Copies the changes of the application model since the last update. Must
+	 * be called in the thread which modifies the model, and not while the copy
+	 * is being read.
+	 *
+	 * @return the updated copy
+	 */
+	public MApplication update() {
+		Deque<EObject> pending;
+		List<EObject> addedElements;
+		List<EObject> removedElements;
+		synchronized (recorder) {
+			pending = new ArrayDeque<>(changed);
+			addedElements = new ArrayList<>(added);
+			removedElements = new ArrayList<>(removed);
+			changed.clear();
+			added.clear();
+			removed.clear();
+		}
+
+		for (EObject element : removedElements) {
+			if (!EcoreUtil.isAncestor(application, element)) {
+				copies.remove(element);
+				for (TreeIterator<EObject> it = element.eAllContents(); it.hasNext();) {
+					copies.remove(it.next());
+				}
+			}
+		}
+		for (EObject element : addedElements) {
+			if (copies.containsKey(element)) {
+				addSubtree(pending, element);
+			}
+		}
+
+		// Update the containment features first, copying the new subtrees of
+		// the model and moving the copies of the elements which moved
+		List<EObject> reused = new ArrayList<>();
+		ElementCopier copier = new ElementCopier(reused);
+		Set<EObject> updated = new HashSet<>();
+		while (!pending.isEmpty()) {
+			EObject element = pending.poll();
+			EObject elementCopy = copies.get(element);
+			if (elementCopy == null || updated.contains(element) || !EcoreUtil.isAncestor(application, element)) {
+				// new elements are copied along with their container
+				continue;
+			}
+			updated.add(element);
+			updateContainment(element, elementCopy, copier);
+			for (EObject moved : reused) {
+				addSubtree(pending, moved);
+			}
+			reused.clear();
+		}
+		copier.copyReferences();
+		copies.putAll(copier);
+
+		// Update the attributes before the references, as EcoreUtil.Copier
+		// does, since setting some references checks the attributes of the
+		// referenced element
+		for (EObject element : updated) {
+			updateAttributes(element, copies.get(element));
+		}
+		for (EObject element : updated) {
+			updateReferences(element, copies.get(element));
+		}
+		return (MApplication) copy;
+	}
+
+	/**
+	 * Stops recording the changes of the application model.
+	 */
+	public void dispose() {
+		application.eAdapters().remove(recorder);
+	}
+
+	private static void addSubtree(Collection<EObject> elements, EObject root) {
+		elements.add(root);
+		for (TreeIterator<EObject> it = root.eAllContents(); it.hasNext();) {
+			elements.add(it.next());
+		}
+	}
+
+	private static boolean isCopied(EStructuralFeature feature) {
+		// the features EcoreUtil.Copier copies
+		return feature.isChangeable() && !feature.isDerived();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void updateContainment(EObject element, EObject elementCopy, ElementCopier copier) {
+		for (EReference reference : element.eClass().getEAllContainments()) {
+			if (!isCopied(reference)) {
+				continue;
+			}
+			if (reference.isMany()) {
+				List<EObject> children = (List<EObject>) element.eGet(reference);
+				List<EObject> childCopies = new ArrayList<>(children.size());
+				for (EObject child : children) {
+					childCopies.add(getChildCopy(child, elementCopy, copier));
+				}
+				ECollections.setEList((EList<EObject>) elementCopy.eGet(reference), childCopies);
+			} else {
+				EObject child = (EObject) element.eGet(reference);
+				EObject childCopy = child == null ? null : getChildCopy(child, elementCopy, copier);
+				if (elementCopy.eGet(reference) != childCopy) {
+					elementCopy.eSet(reference, childCopy);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the copy of the given child of an element, copying it if it is
+	 * new.
+	 */
+	private EObject getChildCopy(EObject child, EObject elementCopy, ElementCopier copier) {
+		EObject childCopy = copies.get(child);
+		if (childCopy != null && childCopy.eContainer() == elementCopy) {
+			return childCopy;
+		}
+		// a new child, or one which moved from another element
+		return copier.copy(child);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void updateAttributes(EObject element, EObject elementCopy) {
+		for (EAttribute attribute : element.eClass().getEAllAttributes()) {
+			if (!isCopied(attribute)) {
+				continue;
+			}
+			if (attribute.isMany()) {
+				ECollections.setEList((EList<Object>) elementCopy.eGet(attribute),
+						(List<Object>) element.eGet(attribute));
+			} else if (element.eIsSet(attribute)) {
+				elementCopy.eSet(attribute, element.eGet(attribute));
+			} else if (elementCopy.eIsSet(attribute)) {
+				elementCopy.eUnset(attribute);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void updateReferences(EObject element, EObject elementCopy) {
+		for (EReference reference : element.eClass().getEAllReferences()) {
+			if (!isCopied(reference) || reference.isContainment() || reference.isContainer()) {
+				continue;
+			}
+			if (reference.isMany()) {
+				List<EObject> targets = (List<EObject>) element.eGet(reference, false);
+				List<EObject> targetCopies = new ArrayList<>(targets.size());
+				for (EObject target : targets) {
+					targetCopies.add(getCopy(target));
+				}
+				ECollections.setEList((EList<EObject>) elementCopy.eGet(reference, false), targetCopies);
+			} else if (element.eIsSet(reference)) {
+				EObject target = (EObject) element.eGet(reference, false);
+				elementCopy.eSet(reference, target == null ? null : getCopy(target));
+			} else if (elementCopy.eIsSet(reference)) {
+				elementCopy.eUnset(reference);
+			}
+		}
+	}
+
+	/**
+	 * Returns the copy of the given element, or the element itself if it is
+	 * not part of the model, as EcoreUtil.Copier does.
+	 */
+	private EObject getCopy(EObject element) {
+		EObject elementCopy = copies.get(element);
+		return elementCopy == null ? element : elementCopy;
+	}
+
+	/**
+	 * Copies new subtrees of the model, reusing the existing copies of the
+	 * elements which moved into them.
+	 */
+	private final class ElementCopier extends EcoreUtil.Copier {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<EObject> reused;
+
+		ElementCopier(List<EObject> reused) {
+			this.reused = reused;
+		}
+
+		@Override
+		public EObject copy(EObject eObject) {
+			EObject existing = copies.get(eObject);
+			if (existing != null) {
+				reused.add(eObject);
+				return existing;
+			}
+			return super.copy(eObject);
+		}
+
+		@Override
+		public EObject get(Object key) {
+			EObject result = super.get(key);
+			return result == null ? copies.get(key) : result;
+		}
+	}
+
+	/**
+	 * Records the elements of the model which change.
+	 */
+	private final class ChangeRecorder extends EContentAdapter {
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			super.notifyChanged(notification);
+
+			if (notification.isTouch() || !(notification.getNotifier() instanceof EObject)) {
+				return;
+			}
+			synchronized (this) {
+				changed.add((EObject) notification.getNotifier());
+				Object feature = notification.getFeature();
+				if (feature instanceof EReference && ((EReference) feature).isContainment()) {
+					collect(notification.getNewValue(), added);
+					collect(notification.getOldValue(), removed);
+				}
+			}
+		}
+
+		private void collect(Object value, Set<EObject> elements) {
+			if (value instanceof EObject) {
+				elements.add((EObject) value);
+			} else if (value instanceof Collection<?>) {
+				for (Object element : (Collection<?>) value) {
+					if (element instanceof EObject) {
+						elements.add((EObject) element);
+					}
+				}
+			}
+		}
+	}
+}
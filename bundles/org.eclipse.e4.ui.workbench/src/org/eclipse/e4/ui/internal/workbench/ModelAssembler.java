@@ -25,7 +25,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
+import javax.inject.Named;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IContributor;
 import org.eclipse.core.runtime.IExtension;
@@ -35,6 +39,7 @@ import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Execute;
+import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.contributions.IContributionFactory;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.ui.model.application.MApplication;
@@ -43,15 +48,20 @@ import org.eclipse.e4.ui.model.fragment.MModelFragment;
 import org.eclipse.e4.ui.model.fragment.MModelFragments;
 import org.eclipse.e4.ui.model.fragment.MStringModelFragment;
 import org.eclipse.e4.ui.model.fragment.impl.FragmentPackageImpl;
+import org.eclipse.e4.ui.model.internal.ElementIndex;
 import org.eclipse.e4.ui.model.internal.ModelUtils;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EFactory;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.ecore.util.EContentsEList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -82,6 +92,11 @@ public class ModelAssembler {
 	@Inject
 	private IExtensionRegistry registry;
 
+	@Inject
+	@Optional
+	@Named(E4Workbench.PARALLEL_FRAGMENT_LOADING)
+	private Boolean parallelFragmentLoading;
+
 	final private static String extensionPointID = "org.eclipse.e4.workbench.model"; //$NON-NLS-1$
 
 	// private static final String ALWAYS = "always"; //$NON-NLS-1$
@@ -96,7 +111,10 @@ public class ModelAssembler {
 	 * be used to retrieve the contributed fragments (with imports) and
 	 * processors.<br>
 	 * Extension points will be sorted based on the dependencies of their
-	 * contributors.
+	 * contributors.<br>
+	 * The application is indexed by element id while it is processed, so that
+	 * the fragments and imports do not walk the whole model to find the
+	 * elements they refer to.
 	 *
 	 * @param initial
 	 *            <code>true</code> if running from a non-persisted state
@@ -105,12 +123,21 @@ public class ModelAssembler {
 		IExtensionPoint extPoint = registry.getExtensionPoint(extensionPointID);
 		IExtension[] extensions = new ExtensionsSort().sort(extPoint.getExtensions());
 
-		// run processors which are marked to run before fragments
-		runProcessors(extensions, initial, false);
-		// process fragments (and resolve imports)
-		processFragments(extensions, initial);
-		// run processors which are marked to run after fragments
-		runProcessors(extensions, initial, true);
+		// keep an index which already exists, as the model service owns it
+		boolean indexed = ElementIndex.findIndex(application) != null;
+		ElementIndex index = ElementIndex.getIndex(application);
+		try {
+			// run processors which are marked to run before fragments
+			runProcessors(extensions, initial, false);
+			// process fragments (and resolve imports)
+			processFragments(extensions, initial);
+			// run processors which are marked to run after fragments
+			runProcessors(extensions, initial, true);
+		} finally {
+			if (!indexed) {
+				index.dispose();
+			}
+		}
 	}
 
 	/**
@@ -125,27 +152,160 @@ public class ModelAssembler {
 	 *
 	 */
 	private void processFragments(IExtension[] extensions, boolean initial) {
-		List<ModelFragmentWrapper> wrappers = new ArrayList<>();
+		List<IConfigurationElement> fragmentElements = new ArrayList<>();
 		for (IExtension extension : extensions) {
 			IConfigurationElement[] ces = extension.getConfigurationElements();
 			for (IConfigurationElement ce : ces) {
 				if ("fragment".equals(ce.getName()) && (initial || !INITIAL.equals(ce.getAttribute("apply")))) { //$NON-NLS-1$ //$NON-NLS-2$
-					MModelFragments fragmentsContainer = getFragmentsContainer(ce);
-					if (fragmentsContainer == null)
-						continue;
-					for (MModelFragment fragment : fragmentsContainer.getFragments()) {
-						boolean checkExist = !initial && NOTEXISTS.equals(ce.getAttribute("apply")); //$NON-NLS-1$
-						wrappers.add(new ModelFragmentWrapper(fragmentsContainer, fragment,
-								ce.getContributor().getName(), URIHelper.constructPlatformURI(ce.getContributor()),
-								checkExist)); // $NON-NLS-1$
-					}
+					fragmentElements.add(ce);
 				}
 			}
 		}
 
+		long start = System.nanoTime();
+		Map<IConfigurationElement, MModelFragments> fragmentsContainers = isParallelFragmentLoading()
+				? loadFragmentsContainersInParallel(fragmentElements)
+				: null;
+		List<ModelFragmentWrapper> wrappers = new ArrayList<>();
+		for (IConfigurationElement ce : fragmentElements) {
+			MModelFragments fragmentsContainer = fragmentsContainers != null ? fragmentsContainers.get(ce)
+					: getFragmentsContainer(ce);
+			if (fragmentsContainer == null)
+				continue;
+			for (MModelFragment fragment : fragmentsContainer.getFragments()) {
+				boolean checkExist = !initial && NOTEXISTS.equals(ce.getAttribute("apply")); //$NON-NLS-1$
+				wrappers.add(new ModelFragmentWrapper(fragmentsContainer, fragment, ce.getContributor().getName(),
+						URIHelper.constructPlatformURI(ce.getContributor()), checkExist)); // $NON-NLS-1$
+			}
+		}
+		if (Policy.DEBUG_MODEL_ASSEMBLER) {
+			trace("Loaded " + fragmentElements.size() + " model fragment extensions in " //$NON-NLS-1$ //$NON-NLS-2$
+					+ getMillis(start) + " ms"); //$NON-NLS-1$
+		}
+
 		processFragmentWrappers(wrappers);
 	}
 
+	private boolean isParallelFragmentLoading() {
+		return parallelFragmentLoading != null && parallelFragmentLoading.booleanValue();
+	}
+
+	/**
+	 * Loads the resources of the given fragment extensions on the common
+	 * fork-join pool, and adds them to the resource set of the application in
+	 * the order of the extensions.
+	 * <p>
+	 * Resource sets are not thread safe, so each resource is parsed in a
+	 * resource set of its own, which shares the resource factories and URI
+	 * converter of the resource set of the application. Its packages are
+	 * looked up in the package registry of the application one load at a
+	 * time, as the registry replaces a package descriptor by its package the
+	 * first time the package is resolved.
+	 * </p>
+	 *
+	 * @param fragmentElements
+	 *            the fragment extensions
+	 * @return the fragments containers of the extensions which could be loaded
+	 */
+	private Map<IConfigurationElement, MModelFragments> loadFragmentsContainersInParallel(
+			List<IConfigurationElement> fragmentElements) {
+		ResourceSet resourceSet = ((EObject) application).eResource().getResourceSet();
+		Map<URI, ForkJoinTask<Resource>> loads = new LinkedHashMap<>();
+		Map<IConfigurationElement, URI> uris = new LinkedHashMap<>();
+		for (IConfigurationElement ce : fragmentElements) {
+			URI uri = getFragmentURI(ce);
+			if (uri == null) {
+				continue;
+			}
+			uris.put(ce, uri);
+			if (!loads.containsKey(uri) && resourceSet.getResource(uri, false) == null) {
+				ResourceSet loadResourceSet = createResourceSet(resourceSet);
+				String bundleName = ce.getContributor().getName();
+				loads.put(uri, ForkJoinPool.commonPool().submit(() -> loadResource(loadResourceSet, uri, bundleName)));
+			}
+		}
+
+		Map<IConfigurationElement, MModelFragments> fragmentsContainers = new HashMap<>();
+		for (Map.Entry<IConfigurationElement, URI> entry : uris.entrySet()) {
+			URI uri = entry.getValue();
+			String bundleName = entry.getKey().getContributor().getName();
+			ForkJoinTask<Resource> load = loads.remove(uri);
+			if (load != null) {
+				try {
+					resourceSet.getResources().add(load.join());
+				} catch (RuntimeException e) {
+					logger.warn(e, "Unable to read model extension from \"" + uri.toString() + "\" of \"" //$NON-NLS-1$ //$NON-NLS-2$
+							+ bundleName + "\""); //$NON-NLS-1$
+					continue;
+				}
+			}
+			Resource resource = resourceSet.getResource(uri, false);
+			if (resource != null) {
+				fragmentsContainers.put(entry.getKey(), getFragmentsContainer(resource, bundleName));
+			}
+		}
+		return fragmentsContainers;
+	}
+
+	private static ResourceSet createResourceSet(ResourceSet applicationResourceSet) {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		resourceSet.setResourceFactoryRegistry(applicationResourceSet.getResourceFactoryRegistry());
+		resourceSet.setPackageRegistry(new LoadPackageRegistry(applicationResourceSet.getPackageRegistry()));
+		resourceSet.setURIConverter(applicationResourceSet.getURIConverter());
+		resourceSet.getLoadOptions().putAll(applicationResourceSet.getLoadOptions());
+		return resourceSet;
+	}
+
+	/**
+	 * A package registry for a parallel load, which keeps the packages
+	 * registered by the load to itself and serializes the lookups in the
+	 * shared registry it delegates to.
+	 */
+	private static class LoadPackageRegistry extends EPackageRegistryImpl {
+		private static final long serialVersionUID = 1L;
+
+		private final EPackage.Registry sharedRegistry;
+
+		LoadPackageRegistry(EPackage.Registry sharedRegistry) {
+			super(sharedRegistry);
+			this.sharedRegistry = sharedRegistry;
+		}
+
+		@Override
+		protected EPackage delegatedGetEPackage(String nsURI) {
+			synchronized (sharedRegistry) {
+				return super.delegatedGetEPackage(nsURI);
+			}
+		}
+
+		@Override
+		protected EFactory delegatedGetEFactory(String nsURI) {
+			synchronized (sharedRegistry) {
+				return super.delegatedGetEFactory(nsURI);
+			}
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			if (super.containsKey(key)) {
+				return true;
+			}
+			synchronized (sharedRegistry) {
+				return sharedRegistry.containsKey(key);
+			}
+		}
+	}
+
+	private static Resource loadResource(ResourceSet resourceSet, URI uri, String bundleName) {
+		long start = System.nanoTime();
+		Resource resource = resourceSet.getResource(uri, true);
+		if (Policy.DEBUG_MODEL_ASSEMBLER) {
+			trace("Loaded model extension from \"" + uri + "\" of \"" + bundleName + "\" in " + getMillis(start) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ " ms"); //$NON-NLS-1$
+		}
+		return resource;
+	}
+
 	/**
 	 * Processes the given list of fragments wrapped in
 	 * {@link ModelFragmentWrapper} elements.
@@ -215,9 +375,15 @@ public class ModelAssembler {
 
 	public void processFragments(Collection<ModelFragmentWrapper> fragmentList) {
 		for (ModelFragmentWrapper fragmentWrapper : fragmentList) {
+			long start = System.nanoTime();
 			processFragment(fragmentWrapper.getFragmentContainer(), fragmentWrapper.getModelFragment(),
 					fragmentWrapper.getContributorName(), fragmentWrapper.getContributorURI(),
 					fragmentWrapper.isCheckExists());
+			if (Policy.DEBUG_MODEL_ASSEMBLER) {
+				Resource resource = ((EObject) fragmentWrapper.getModelFragment()).eResource();
+				trace("Merged a model fragment from \"" + (resource == null ? null : resource.getURI()) + "\" of \"" //$NON-NLS-1$ //$NON-NLS-2$
+						+ fragmentWrapper.getContributorName() + "\" in " + getMillis(start) + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
 		}
 	}
 
@@ -276,6 +442,23 @@ public class ModelAssembler {
 	private MModelFragments getFragmentsContainer(IConfigurationElement ce) {
 		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
 		ResourceSet resourceSet = applicationResource.getResourceSet();
+		String bundleName = ce.getContributor().getName();
+		URI uri = getFragmentURI(ce);
+		if (uri == null) {
+			return null;
+		}
+
+		Resource resource;
+		try {
+			resource = loadResource(resourceSet, uri, bundleName);
+		} catch (RuntimeException e) {
+			logger.warn(e, "Unable to read model extension from \"" + uri.toString() + "\" of \"" + bundleName + "\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			return null;
+		}
+		return getFragmentsContainer(resource, bundleName);
+	}
+
+	private URI getFragmentURI(IConfigurationElement ce) {
 		IContributor contributor = ce.getContributor();
 		String attrURI = ce.getAttribute("uri"); //$NON-NLS-1$
 		String bundleName = contributor.getName();
@@ -284,28 +467,20 @@ public class ModelAssembler {
 			return null;
 		}
 
-		URI uri;
 		try {
 			// check if the attrURI is already a platform URI
 			if (URIHelper.isPlatformURI(attrURI)) {
-				uri = URI.createURI(attrURI);
-			} else {
-				String path = bundleName + '/' + attrURI;
-				uri = URI.createPlatformPluginURI(path, false);
+				return URI.createURI(attrURI);
 			}
+			String path = bundleName + '/' + attrURI;
+			return URI.createPlatformPluginURI(path, false);
 		} catch (RuntimeException e) {
 			logger.warn(e, "Invalid location \"" + attrURI + "\" of model extension \"" + bundleName + "\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			return null;
 		}
+	}
 
-		Resource resource;
-		try {
-			resource = resourceSet.getResource(uri, true);
-		} catch (RuntimeException e) {
-			logger.warn(e, "Unable to read model extension from \"" + uri.toString() + "\" of \"" + bundleName + "\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			return null;
-		}
-
+	private MModelFragments getFragmentsContainer(Resource resource, String bundleName) {
 		EList<?> contents = resource.getContents();
 		if (contents.isEmpty()) {
 			return null;
@@ -402,6 +577,7 @@ public class ModelAssembler {
 	}
 
 	private void runProcessor(IConfigurationElement ce) {
+		long start = System.nanoTime();
 		IEclipseContext localContext = EclipseContextFactory.create();
 		IContributionFactory factory = context.get(IContributionFactory.class);
 
@@ -437,6 +613,10 @@ public class ModelAssembler {
 		} catch (Exception e) {
 			logger.warn(e, "Could not run processor"); //$NON-NLS-1$
 		}
+		if (Policy.DEBUG_MODEL_ASSEMBLER) {
+			trace("Ran processor " + ce.getAttribute("class") + " of \"" + ce.getContributor().getName() + "\" in " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+					+ getMillis(start) + " ms"); //$NON-NLS-1$
+		}
 	}
 
 	/**
@@ -516,4 +696,12 @@ public class ModelAssembler {
 			cmd.run();
 		}
 	}
+
+	private static long getMillis(long startNanos) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
+	private static void trace(String message) {
+		Activator.trace(Policy.DEBUG_MODEL_ASSEMBLER_FLAG, message, null);
+	}
 }
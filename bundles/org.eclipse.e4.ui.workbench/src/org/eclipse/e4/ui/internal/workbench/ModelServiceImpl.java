@@ -13,9 +13,16 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -52,6 +59,7 @@ import org.eclipse.e4.ui.model.application.ui.basic.impl.BasicFactoryImpl;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolControl;
+import org.eclipse.e4.ui.model.internal.ElementIndex;
 import org.eclipse.e4.ui.model.internal.ModelUtils;
 import org.eclipse.e4.ui.workbench.IPresentationEngine;
 import org.eclipse.e4.ui.workbench.Selector;
@@ -61,6 +69,7 @@ import org.eclipse.e4.ui.workbench.modeling.EModelService;
 import org.eclipse.e4.ui.workbench.modeling.EPartService;
 import org.eclipse.e4.ui.workbench.modeling.EPlaceholderResolver;
 import org.eclipse.e4.ui.workbench.modeling.ElementMatcher;
+import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.osgi.service.event.Event;
@@ -146,11 +155,15 @@ public class ModelServiceImpl implements EModelService {
 	}
 
 	private <T> void findElementsRecursive(MApplicationElement searchRoot, Class<T> clazz,
-			Selector matcher, List<T> elements, int searchFlags) {
+			Selector matcher, List<T> elements, int searchFlags, Set<Object> scope) {
 		Assert.isLegal(searchRoot != null);
 		if (searchFlags == 0) {
 			return;
 		}
+		if (scope != null && !scope.contains(searchRoot)) {
+			// no match can be found below this element
+			return;
+		}
 
 		// are *we* a match ?
 		boolean classMatch = clazz == null ? true : clazz.isInstance(searchRoot);
@@ -185,21 +198,21 @@ public class ModelServiceImpl implements EModelService {
 			}
 
 			for (MApplicationElement child : children) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
 		if (searchRoot instanceof MBindingContext && (searchFlags == ANYWHERE)) {
 			MBindingContext bindingContext = (MBindingContext) searchRoot;
 			for (MBindingContext child : bindingContext.getChildren()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
 		if (searchRoot instanceof MBindingTable) {
 			MBindingTable bindingTable = (MBindingTable) searchRoot;
 			for (MKeyBinding child : bindingTable.getBindings()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
@@ -225,19 +238,19 @@ public class ModelServiceImpl implements EModelService {
 					MElementContainer<? extends MUIElement> container = searchContainer;
 					List<? extends MUIElement> children = container.getChildren();
 					for (MUIElement child : children) {
-						findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 					}
 				} else if ((searchFlags & IN_ACTIVE_PERSPECTIVE) != 0) {
 					// Only search the currently active perspective, if any
 					MPerspective active = ((MPerspectiveStack) searchContainer).getSelectedElement();
 					if (active != null) {
-						findElementsRecursive(active, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(active, clazz, matcher, elements, searchFlags, scope);
 					}
 				} else if ((searchFlags & IN_SHARED_AREA) != 0) {
 					// Only recurse through the shared areas
 					List<MArea> areas = findElements(searchContainer, null, MArea.class, null);
 					for (MArea area : areas) {
-						findElementsRecursive(area, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(area, clazz, matcher, elements, searchFlags, scope);
 					}
 				}
 			} else {
@@ -245,7 +258,7 @@ public class ModelServiceImpl implements EModelService {
 				MElementContainer<MUIElement> container = (MElementContainer<MUIElement>) searchRoot;
 				List<MUIElement> children = container.getChildren();
 				for (MUIElement child : children) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 				}
 			}
 		}
@@ -255,7 +268,7 @@ public class ModelServiceImpl implements EModelService {
 			MTrimmedWindow tw = (MTrimmedWindow) searchRoot;
 			List<MTrimBar> bars = tw.getTrimBars();
 			for (MTrimBar bar : bars) {
-				findElementsRecursive(bar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(bar, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
@@ -263,17 +276,17 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MWindow) {
 			MWindow window = (MWindow) searchRoot;
 			for (MWindow dw : window.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, elements, searchFlags, scope);
 			}
 
 			MMenu menu = window.getMainMenu();
 			if (menu != null && (searchFlags & IN_MAIN_MENU) != 0) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, elements, searchFlags, scope);
 			}
 			// Check for Handlers
 			if (searchFlags == ANYWHERE && MHandler.class.equals(clazz)) {
 				for (MHandler child : window.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 				}
 			}
 		}
@@ -281,7 +294,7 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MPerspective) {
 			MPerspective persp = (MPerspective) searchRoot;
 			for (MWindow dw : persp.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 		// Search shared elements
@@ -291,7 +304,7 @@ public class ModelServiceImpl implements EModelService {
 			// Don't search in shared areas unless the flag is set
 			if (ph.getRef() != null
 					&& (!(ph.getRef() instanceof MArea) || (searchFlags & IN_SHARED_AREA) != 0)) {
-				findElementsRecursive(ph.getRef(), clazz, matcher, elements, searchFlags);
+				findElementsRecursive(ph.getRef(), clazz, matcher, elements, searchFlags, scope);
 			}
 		}
 
@@ -299,16 +312,16 @@ public class ModelServiceImpl implements EModelService {
 			MPart part = (MPart) searchRoot;
 
 			for (MMenu menu : part.getMenus()) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, elements, searchFlags, scope);
 			}
 
 			MToolBar toolBar = part.getToolbar();
 			if (toolBar != null) {
-				findElementsRecursive(toolBar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(toolBar, clazz, matcher, elements, searchFlags, scope);
 			}
 			if (MHandler.class.equals(clazz)) {
 				for (MHandler child : part.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, scope);
 				}
 			}
 		}
@@ -398,19 +411,170 @@ public class ModelServiceImpl implements EModelService {
 	public <T> List<T> findElements(MApplicationElement searchRoot, Class<T> clazz,
 			int searchFlags, Selector matcher) {
 		List<T> elements = new ArrayList<>();
-		findElementsRecursive(searchRoot, clazz, matcher, elements, searchFlags);
+		findElementsRecursive(searchRoot, clazz, matcher, elements, searchFlags,
+				getSearchScope(searchRoot, clazz, matcher));
 		return elements;
 	}
 
+	/**
+	 * Returns the elements which a search for the elements selected by the
+	 * given matcher has to visit, that is, the elements which may be selected,
+	 * their containers up to the search root, and the placeholders through
+	 * which the search reaches them. The elements which may be selected are
+	 * looked up in the element index of the application, by the most selective
+	 * of the id, tags and classes of the search. Only the application of this
+	 * service is indexed, not the copies of it.
+	 *
+	 * @return the elements to visit, or <code>null</code> if the search has to
+	 *         visit all the elements
+	 */
+	private Set<Object> getSearchScope(MApplicationElement searchRoot, Class<?> clazz, Selector matcher) {
+		// subclasses of ElementMatcher may select other elements
+		if (matcher == null || matcher.getClass() != ElementMatcher.class) {
+			return null;
+		}
+		EObject application = (EObject) searchRoot;
+		while (application.eContainer() != null) {
+			application = application.eContainer();
+			if (!(application instanceof MApplicationElement)) {
+				// the elements below the search root are not indexed
+				return null;
+			}
+		}
+		if (!isIndexed(application)) {
+			return null;
+		}
+		ElementIndex index = ElementIndex.getIndex((MApplication) application);
+		Collection<MApplicationElement> candidates = getCandidates(index, searchRoot, clazz,
+				(ElementMatcher) matcher);
+		if (candidates == null) {
+			return null;
+		}
+
+		Map<MUIElement, List<MPlaceholder>> placeholders = new HashMap<>();
+		for (MPlaceholder placeholder : index.getPlaceholders()) {
+			MUIElement ref = placeholder.getRef();
+			if (ref == null) {
+				continue;
+			}
+			if (EcoreUtil.getRootContainer((EObject) ref) != application) {
+				// the selected elements may be outside of the application
+				return null;
+			}
+			placeholders.computeIfAbsent(ref, r -> new ArrayList<>()).add(placeholder);
+		}
+
+		Set<Object> scope = new HashSet<>();
+		Deque<EObject> pending = new ArrayDeque<>();
+		for (MApplicationElement candidate : candidates) {
+			pending.add((EObject) candidate);
+		}
+		while (!pending.isEmpty()) {
+			for (EObject current = pending.poll(); current != null && scope.add(current); current = current
+					.eContainer()) {
+				if (current == searchRoot) {
+					// the search does not visit the containers of its root
+					break;
+				}
+				List<MPlaceholder> refs = placeholders.get(current);
+				if (refs != null) {
+					for (MPlaceholder placeholder : refs) {
+						pending.add((EObject) placeholder);
+					}
+				}
+			}
+		}
+		return scope;
+	}
+
+	/**
+	 * Returns whether the given element is the application of this service,
+	 * whose elements are indexed.
+	 */
+	private boolean isIndexed(EObject application) {
+		return application instanceof MApplication && application == appContext.get(MApplication.class);
+	}
+
+	/**
+	 * Returns the elements of the index which may be selected by the given
+	 * matcher, or <code>null</code> if too many elements may be selected for
+	 * the index to be worth using for a search of the given root.
+	 */
+	private static Collection<MApplicationElement> getCandidates(ElementIndex index,
+			MApplicationElement searchRoot, Class<?> clazz, ElementMatcher matcher) {
+		String id = matcher.getId();
+		if (id != null && !id.isEmpty()) {
+			Collection<MApplicationElement> candidates = index.getElementsById(id);
+			return isSelective(index, searchRoot, candidates.size()) ? candidates : null;
+		}
+		Collection<MApplicationElement> candidates = null;
+		if (matcher.getTags() != null) {
+			for (String tag : matcher.getTags()) {
+				Collection<MApplicationElement> tagged = tag == null ? null : index.getElementsByTag(tag);
+				if (tagged != null && (candidates == null || tagged.size() < candidates.size())) {
+					candidates = tagged;
+				}
+			}
+		}
+		// count the instances of the classes before collecting the ones of the
+		// most selective class
+		Class<?> type = null;
+		int count = candidates == null ? Integer.MAX_VALUE : candidates.size();
+		for (Class<?> candidateType : Arrays.asList(clazz, matcher.getElementClass())) {
+			if (candidateType != null) {
+				int instances = index.countElementsByType(candidateType);
+				if (instances < count) {
+					type = candidateType;
+					count = instances;
+				}
+			}
+		}
+		if ((candidates == null && type == null) || !isSelective(index, searchRoot, count)) {
+			return null;
+		}
+		return type != null ? index.getElementsByType(type) : candidates;
+	}
+
+	/**
+	 * Returns whether the given number of candidates is at most half the
+	 * number of elements of the subtree of the search root. The elements are
+	 * counted until there are twice as many as the candidates.
+	 */
+	private static boolean isSelective(ElementIndex index, MApplicationElement searchRoot, int candidates) {
+		// walking the whole model is cheaper than pruning it to most of it
+		if (searchRoot instanceof MApplication) {
+			return candidates <= index.size() / 2;
+		}
+		int limit = 2 * candidates;
+		int size = 1;
+		for (TreeIterator<EObject> it = ((EObject) searchRoot).eAllContents(); it.hasNext() && size < limit;) {
+			if (it.next() instanceof MApplicationElement) {
+				size++;
+			} else {
+				it.prune();
+			}
+		}
+		return size >= limit;
+	}
+
 	private <T> List<T> findPerspectiveElements(MUIElement searchRoot, String id,
 			Class<T> clazz,
 			List<String> tagsToMatch) {
 		List<T> elements = new ArrayList<>();
 		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		findElementsRecursive(searchRoot, clazz, matcher, elements, PRESENTATION);
+		findElementsRecursive(searchRoot, clazz, matcher, elements, PRESENTATION,
+				getSearchScope(searchRoot, clazz, matcher));
 		return elements;
 	}
 
+	@Override
+	public MApplicationElement findElementById(MApplication application, String id) {
+		if (isIndexed((EObject) application)) {
+			ElementIndex.getIndex(application);
+		}
+		return ModelUtils.findElementById(application, id);
+	}
+
 	@Override
 	public MUIElement find(String id, MUIElement searchRoot) {
 		if (id == null || id.length() == 0) {
@@ -23,6 +23,7 @@ public class Policy {
 	public static final String DEBUG_CONTEXTS_VERBOSE_FLAG = "/trace/eclipse.context.verbose"; //$NON-NLS-1$
 	public static final String DEBUG_WORKBENCH_FLAG = "/trace/workbench"; //$NON-NLS-1$
 	public static final String DEBUG_RENDERER_FLAG = "/trace/renderer"; //$NON-NLS-1$
+	public static final String DEBUG_MODEL_ASSEMBLER_FLAG = "/trace/modelassembler"; //$NON-NLS-1$
 
 	/***/
 	public static boolean DEBUG;
@@ -38,4 +39,6 @@ public class Policy {
 	public static boolean DEBUG_WORKBENCH;
 	/***/
 	public static boolean DEBUG_RENDERER;
+	/***/
+	public static boolean DEBUG_MODEL_ASSEMBLER;
 }
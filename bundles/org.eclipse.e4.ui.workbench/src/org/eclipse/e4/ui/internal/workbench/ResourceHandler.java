@@ -22,6 +22,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -57,6 +58,10 @@ import org.osgi.framework.Bundle;
  */
 public class ResourceHandler implements IModelResourceHandler {
 
+	private static final String XMI_FILE_NAME = "workbench.xmi"; //$NON-NLS-1$
+
+	private static final String BINARY_FILE_NAME = "workbench." + E4BinaryResourceFactory.EXTENSION; //$NON-NLS-1$
+
 	private ResourceSetImpl resourceSetImpl;
 	private Resource resource;
 
@@ -75,6 +80,11 @@ public class ResourceHandler implements IModelResourceHandler {
 	@Named(E4Workbench.INSTANCE_LOCATION)
 	private Location instanceLocation;
 
+	@Inject
+	@Optional
+	@Named(E4Workbench.BINARY_PERSISTED_STATE)
+	private Boolean binaryPersistedState;
+
 	/**
 	 * Dictates whether the model should be stored using EMF or with the merging algorithm.
 	 * https://bugs.eclipse.org/bugs/show_bug.cgi?id=295524
@@ -101,6 +111,8 @@ public class ResourceHandler implements IModelResourceHandler {
 		resourceSetImpl = new ResourceSetImpl();
 		resourceSetImpl.getResourceFactoryRegistry().getExtensionToFactoryMap()
 				.put(Resource.Factory.Registry.DEFAULT_EXTENSION, new E4XMIResourceFactory());
+		resourceSetImpl.getResourceFactoryRegistry().getExtensionToFactoryMap()
+				.put(E4BinaryResourceFactory.EXTENSION, new E4BinaryResourceFactory());
 
 		resourceSetImpl.getPackageRegistry().put(ApplicationPackageImpl.eNS_URI,
 				ApplicationPackageImpl.eINSTANCE);
@@ -146,12 +158,13 @@ public class ResourceHandler implements IModelResourceHandler {
 		URI restoreLocation = null;
 
 		if (saveAndRestore) {
-			workbenchData = getWorkbenchSaveLocation();
+			workbenchData = getMostRecentSaveLocation();
 			restoreLocation = URI.createFileURI(workbenchData.getAbsolutePath());
 		}
 
-		if (clearPersistedState && workbenchData != null && workbenchData.exists()) {
-			workbenchData.delete();
+		if (clearPersistedState && workbenchData != null) {
+			new File(getBaseLocation(), XMI_FILE_NAME).delete();
+			new File(getBaseLocation(), BINARY_FILE_NAME).delete();
 		}
 
 		// last stored time-stamp
@@ -175,6 +188,8 @@ public class ResourceHandler implements IModelResourceHandler {
 							"The persisted application model has no top-level window. Reinitializing with the default application model."); //$NON-NLS-1$
 				}
 				resource = null;
+			} else if (resource instanceof E4BinaryResource != isBinaryPersistedState()) {
+				resource = migrateResource((E4XMIResource) resource);
 			}
 		}
 		if (resource == null) {
@@ -234,14 +249,50 @@ public class ResourceHandler implements IModelResourceHandler {
 			URI saveLocation = URI.createFileURI(getWorkbenchSaveLocation().getAbsolutePath());
 			return resourceSetImpl.createResource(saveLocation);
 		}
-		return resourceSetImpl.createResource(URI.createURI("workbench.xmi")); //$NON-NLS-1$
+		return resourceSetImpl.createResource(URI.createURI(getFileName()));
+	}
+
+	/**
+	 * Moves the contents of a model saved in the other format than the one in
+	 * use to a new resource, which saves the model in the format in use.
+	 */
+	private Resource migrateResource(E4XMIResource oldResource) {
+		Map<EObject, String> ids = new HashMap<>(oldResource.getEObjectToIDMap());
+		E4XMIResource newResource = (E4XMIResource) createResource();
+		newResource.getContents().addAll(oldResource.getContents());
+		for (Map.Entry<EObject, String> entry : ids.entrySet()) {
+			newResource.setID(entry.getKey(), entry.getValue());
+		}
+		resourceSetImpl.getResources().remove(oldResource);
+		return newResource;
+	}
+
+	private boolean isBinaryPersistedState() {
+		return binaryPersistedState != null && binaryPersistedState.booleanValue();
+	}
+
+	private String getFileName() {
+		return isBinaryPersistedState() ? BINARY_FILE_NAME : XMI_FILE_NAME;
 	}
 
 	private File getWorkbenchSaveLocation() {
-		File workbenchData = new File(getBaseLocation(), "workbench.xmi"); //$NON-NLS-1$
+		File workbenchData = new File(getBaseLocation(), getFileName());
 		return workbenchData;
 	}
 
+	/**
+	 * Returns the most recently saved of the XMI and the binary model, so that
+	 * the model is migrated when the format in use changes.
+	 */
+	private File getMostRecentSaveLocation() {
+		File xmiData = new File(getBaseLocation(), XMI_FILE_NAME);
+		File binaryData = new File(getBaseLocation(), BINARY_FILE_NAME);
+		if (binaryData.lastModified() > xmiData.lastModified()) {
+			return binaryData;
+		}
+		return xmiData;
+	}
+
 	private File getBaseLocation() {
 		File baseLocation;
 		try {
@@ -14,6 +14,7 @@ package org.eclipse.e4.ui.workbench.modeling;
 
 import java.util.List;
 import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.descriptor.basic.MPartDescriptor;
 import org.eclipse.e4.ui.model.application.ui.MElementContainer;
@@ -205,6 +206,28 @@ public interface EModelService {
 	 */
 	public MUIElement find(String id, MUIElement searchRoot);
 
+	/**
+	 * Returns the first element with the given id in the given application, in
+	 * the order of a depth-first walk of the application. Unlike
+	 * {@link #find(String, MUIElement)}, the elements searched include
+	 * commands, handlers, descriptors and the other non-UI elements of the
+	 * application.
+	 * <p>
+	 * The elements are looked up in an index of the application by element id,
+	 * which is kept up to date as the application changes, instead of walking
+	 * the whole application.
+	 * </p>
+	 *
+	 * @param application
+	 *            The application to search, must not be null
+	 * @param id
+	 *            The id to search for
+	 * @return The first element with a matching id or <code>null</code> if one
+	 *         is not found
+	 * @since 1.6
+	 */
+	public MApplicationElement findElementById(MApplication application, String id);
+
 	/**
 	 * Locate the context that is closest to the given element in the parent hierarchy. It does not
 	 * include the context of the supplied element (should it have one).
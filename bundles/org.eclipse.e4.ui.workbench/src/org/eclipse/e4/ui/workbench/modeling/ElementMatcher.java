@@ -63,6 +63,32 @@ public class ElementMatcher implements Selector {
 		this.tagsToMatch = tagsToMatch;
 	}
 
+	/**
+	 * @return the elementId of the desired element, or <code>null</code> if any id matches
+	 * @since 1.6
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return the class specification of the desired element, or <code>null</code> if any class
+	 *         matches
+	 * @since 1.6
+	 */
+	public Class<?> getElementClass() {
+		return clazz;
+	}
+
+	/**
+	 * @return the tags which must all be specified on the desired element, or <code>null</code>
+	 *         if no tag is required
+	 * @since 1.6
+	 */
+	public List<String> getTags() {
+		return tagsToMatch;
+	}
+
 	@Override
 	public boolean select(MApplicationElement element) {
 		if (id != null && !id.equals(element.getElementId())) {
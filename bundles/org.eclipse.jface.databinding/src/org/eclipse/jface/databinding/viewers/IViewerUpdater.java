@@ -85,4 +85,40 @@ public interface IViewerUpdater {
 	 *            the elements to remove
 	 */
 	public void remove(Object[] elements);
+
+	/**
+	 * Insert the elements into the viewer, the first one at the specified
+	 * position and the others after it. The default implementation inserts
+	 * the elements one by one; implementations should override it when the
+	 * viewer can insert them in a single call.
+	 *
+	 * @param elements
+	 *            the elements to add
+	 * @param position
+	 *            the position of the first element
+	 * @since 1.9
+	 */
+	public default void insert(Object[] elements, int position) {
+		for (int i = 0; i < elements.length; i++) {
+			insert(elements[i], position + i);
+		}
+	}
+
+	/**
+	 * Remove the elements, found at the specified position and after it, from
+	 * the viewer. The default implementation removes the elements one by one,
+	 * from the last to the first; implementations should override it when the
+	 * viewer can remove them in a single call.
+	 *
+	 * @param elements
+	 *            the elements to remove
+	 * @param position
+	 *            the position of the first element
+	 * @since 1.9
+	 */
+	public default void remove(Object[] elements, int position) {
+		for (int i = elements.length - 1; i >= 0; i--) {
+			remove(elements[i], position + i);
+		}
+	}
 }
\ No newline at end of file
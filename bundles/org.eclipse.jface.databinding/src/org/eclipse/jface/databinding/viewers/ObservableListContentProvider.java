@@ -14,13 +14,16 @@
 
 package org.eclipse.jface.databinding.viewers;
 
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.databinding.observable.IObservableCollection;
 import org.eclipse.core.databinding.observable.list.IListChangeListener;
 import org.eclipse.core.databinding.observable.list.IObservableList;
 import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiffRange;
 import org.eclipse.core.databinding.observable.list.ListDiffVisitor;
+import org.eclipse.core.databinding.observable.list.RangeListDiff;
 import org.eclipse.core.databinding.observable.set.IObservableSet;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.internal.databinding.viewers.ObservableCollectionContentProvider;
@@ -81,6 +84,11 @@ public class ObservableListContentProvider implements
 			if (isViewerDisposed())
 				return;
 
+			if (event.diff instanceof RangeListDiff) {
+				handleRanges(event, ((RangeListDiff<?>) event.diff).getRanges());
+				return;
+			}
+
 			// Determine which elements were added and removed
 			final Set knownElementAdditions = ViewerElementSet
 					.withComparer(comparer);
@@ -156,6 +164,61 @@ public class ObservableListContentProvider implements
 			}
 			knownElements.removeAll(knownElementRemovals);
 		}
+
+		/**
+		 * Applies each range of a {@link RangeListDiff} to the viewer in one
+		 * viewer updater call, instead of one call per element.
+		 */
+		private void handleRanges(ListChangeEvent event, List<? extends ListDiffRange<?>> ranges) {
+			final Set knownElementAdditions = ViewerElementSet
+					.withComparer(comparer);
+			final Set knownElementRemovals = ViewerElementSet
+					.withComparer(comparer);
+			boolean suspendRedraw = false;
+			for (ListDiffRange<?> range : ranges) {
+				knownElementAdditions.addAll(range.getAddedElements());
+				knownElementRemovals.addAll(range.getRemovedElements());
+				suspendRedraw |= range.isReplacement();
+			}
+			knownElementAdditions.removeAll(knownElements);
+			knownElementRemovals.removeAll(event.getObservableList());
+
+			knownElements.addAll(knownElementAdditions);
+			if (realizedElements != null) {
+				realizedElements.removeAll(knownElementRemovals);
+			}
+
+			if (suspendRedraw)
+				viewer.getControl().setRedraw(false);
+			try {
+				for (ListDiffRange<?> range : ranges) {
+					int position = range.getPosition();
+					if (range.getRemovedCount() == 1 && range.getAddedCount() == 1) {
+						viewerUpdater.replace(range.getRemovedElements().get(0), range.getAddedElements().get(0),
+								position);
+						continue;
+					}
+					if (range.getRemovedCount() == 1) {
+						viewerUpdater.remove(range.getRemovedElements().get(0), position);
+					} else if (range.getRemovedCount() > 0) {
+						viewerUpdater.remove(range.getRemovedElements().toArray(), position);
+					}
+					if (range.getAddedCount() == 1) {
+						viewerUpdater.insert(range.getAddedElements().get(0), position);
+					} else if (range.getAddedCount() > 0) {
+						viewerUpdater.insert(range.getAddedElements().toArray(), position);
+					}
+				}
+			} finally {
+				if (suspendRedraw)
+					viewer.getControl().setRedraw(true);
+			}
+
+			if (realizedElements != null) {
+				realizedElements.addAll(knownElementAdditions);
+			}
+			knownElements.removeAll(knownElementRemovals);
+		}
 	}
 
 	/**
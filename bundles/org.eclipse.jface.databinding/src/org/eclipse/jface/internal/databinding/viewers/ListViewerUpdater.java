@@ -47,4 +47,19 @@ class ListViewerUpdater extends ViewerUpdater {
 	public void remove(Object[] elements) {
 		viewer.remove(elements);
 	}
+
+	@Override
+	public void insert(Object[] elements, int position) {
+		// appending, or letting the viewer place the elements, takes a single
+		// call
+		if (!isElementOrderPreserved() || viewer.getElementAt(position) == null)
+			viewer.add(elements);
+		else
+			super.insert(elements, position);
+	}
+
+	@Override
+	public void remove(Object[] elements, int position) {
+		viewer.remove(elements);
+	}
 }
@@ -13,6 +13,7 @@
 package org.eclipse.jface.internal.databinding.viewers;
 
 import org.eclipse.jface.viewers.AbstractTableViewer;
+import org.eclipse.swt.SWT;
 
 /**
  * NON-API - A {@link ViewerUpdater} that updates {@link AbstractTableViewer}
@@ -56,4 +57,20 @@ class TableViewerUpdater extends ViewerUpdater {
 	public void remove(Object[] elements) {
 		viewer.remove(elements);
 	}
+
+	@Override
+	public void insert(Object[] elements, int position) {
+		// appending, or letting the viewer place the elements, takes a single
+		// call
+		if (!isElementOrderPreserved() || (viewer.getControl().getStyle() & SWT.VIRTUAL) == 0
+				&& viewer.getElementAt(position) == null)
+			viewer.add(elements);
+		else
+			super.insert(elements, position);
+	}
+
+	@Override
+	public void remove(Object[] elements, int position) {
+		viewer.remove(elements);
+	}
 }
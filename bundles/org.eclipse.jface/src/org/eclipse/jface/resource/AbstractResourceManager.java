@@ -10,10 +10,22 @@
  *******************************************************************************/
 package org.eclipse.jface.resource;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map.Entry;
 
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Rectangle;
+
 /**
  * Abstract implementation of ResourceManager. Maintains reference counts for all previously
  * allocated SWT resources. Delegates to the abstract method allocate(...) the first time a resource
@@ -29,15 +41,65 @@ abstract class AbstractResourceManager extends ResourceManager {
      */
     private HashMap<DeviceResourceDescriptor, RefCount> map = null;
 
+    /**
+     * Map of ImageDescriptor onto the RefCount of an image no longer
+     * referenced but kept for a later request, least recently released first.
+     * (null when empty)
+     */
+    private LinkedHashMap<DeviceResourceDescriptor, RefCount> cache = null;
+
+    /**
+     * The maximum number of bytes of the images kept in the cache, 0 when
+     * the unreferenced images are deallocated right away.
+     */
+    private long cacheSize = 0;
+
+    private long cachedBytes = 0;
+
+    /**
+     * The first and last handles of the resource managers created over this
+     * one and not disposed yet, in creation order. Local resource managers may
+     * be created and disposed from any thread, so the list is guarded by this
+     * resource manager. (null when empty)
+     */
+    private ChildHandle firstChild = null;
+
+    private ChildHandle lastChild = null;
+
+    /**
+     * The queue of the handles whose resource manager was garbage collected
+     * without being disposed. (null until a child is added)
+     */
+    private ReferenceQueue<AbstractResourceManager> collectedChildren = null;
+
+    /**
+     * The handle of a resource manager created over this one, in the doubly
+     * linked list of the children of this one. The child keeps its handle to
+     * unlink itself when it is disposed. The child is weakly referenced, so
+     * that the leaked ones can be garbage collected; their handles are then
+     * unlinked when the next child is added.
+     */
+    static final class ChildHandle extends WeakReference<AbstractResourceManager> {
+        ChildHandle previous;
+        ChildHandle next;
+        boolean removed;
+
+        ChildHandle(AbstractResourceManager child, ReferenceQueue<AbstractResourceManager> queue) {
+            super(child, queue);
+        }
+    }
+
     /**
      * Holds a reference count for a previously-allocated resource
      */
     private static class RefCount {
         Object resource;
         int count = 1;
+        long size;
 
         RefCount(Object resource) {
             this.resource = resource;
+            this.size = sizeOf(resource);
         }
     }
 
@@ -81,6 +143,20 @@ abstract class AbstractResourceManager extends ResourceManager {
             return count.resource;
         }
 
+        // Reuse a released image if it is still in the cache
+        if (cache != null) {
+            count = cache.remove(descriptor);
+            if (count != null) {
+                cachedBytes -= count.size;
+                if (cache.isEmpty()) {
+                    cache = null;
+                }
+                count.count = 1;
+                map.put(descriptor, count);
+                return count.resource;
+            }
+        }
+
         // Allocate and return a new resource (with ref count = 1)
         Object resource = allocate(descriptor);
 
@@ -103,9 +179,18 @@ abstract class AbstractResourceManager extends ResourceManager {
             // If the resource exists, decrement the reference count.
             count.count--;
             if (count.count == 0) {
-                // If this was the last reference, deallocate it.
-                deallocate(count.resource, descriptor);
+                // If this was the last reference, cache or deallocate it.
                 map.remove(descriptor);
+                if (cacheSize > 0 && count.resource instanceof Image && count.size <= cacheSize) {
+                    if (cache == null) {
+                        cache = new LinkedHashMap<>();
+                    }
+                    cache.put(descriptor, count);
+                    cachedBytes += count.size;
+                    trimCache();
+                } else {
+                    deallocate(count.resource, descriptor);
+                }
             }
         }
 
@@ -125,6 +210,14 @@ abstract class AbstractResourceManager extends ResourceManager {
 	public void dispose() {
         super.dispose();
 
+        if (cache != null) {
+            for (Entry<DeviceResourceDescriptor, RefCount> next : cache.entrySet()) {
+                deallocate(next.getValue().resource, next.getKey());
+            }
+            cache = null;
+            cachedBytes = 0;
+        }
+
         if (map == null) {
             return;
         }
@@ -151,4 +244,159 @@ abstract class AbstractResourceManager extends ResourceManager {
         	return null;
 		return refCount.resource;
     }
+
+    /**
+     * Sets the maximum number of bytes of the images kept after their last
+     * reference is destroyed, deallocating the least recently released ones
+     * if needed.
+     *
+     * @param bytes the maximum size of the cache, 0 to deallocate the images
+     * right away
+     */
+    void setCacheSize(long bytes) {
+        cacheSize = bytes;
+        trimCache();
+    }
+
+    /**
+     * Returns the maximum number of bytes of the images kept after their last
+     * reference is destroyed.
+     *
+     * @return the maximum size of the cache
+     */
+    long getCacheSize() {
+        return cacheSize;
+    }
+
+    private void trimCache() {
+        if (cache == null) {
+            return;
+        }
+        Iterator<Entry<DeviceResourceDescriptor, RefCount>> iterator = cache.entrySet().iterator();
+        while (cachedBytes > cacheSize && iterator.hasNext()) {
+            Entry<DeviceResourceDescriptor, RefCount> next = iterator.next();
+            iterator.remove();
+            cachedBytes -= next.getValue().size;
+            deallocate(next.getValue().resource, next.getKey());
+        }
+        if (cache.isEmpty()) {
+            cache = null;
+        }
+    }
+
+    /**
+     * Registers a resource manager allocating its resources through this one,
+     * for the statistics of this resource manager.
+     *
+     * @param child the resource manager created over this one
+     * @return the handle to pass to {@link #removeChild(ChildHandle)}
+     */
+    synchronized ChildHandle addChild(AbstractResourceManager child) {
+        if (collectedChildren == null) {
+            collectedChildren = new ReferenceQueue<>();
+        } else {
+            Reference<? extends AbstractResourceManager> collected;
+            while ((collected = collectedChildren.poll()) != null) {
+                removeChild((ChildHandle) collected);
+            }
+        }
+        ChildHandle handle = new ChildHandle(child, collectedChildren);
+        handle.previous = lastChild;
+        if (lastChild == null) {
+            firstChild = handle;
+        } else {
+            lastChild.next = handle;
+        }
+        lastChild = handle;
+        return handle;
+    }
+
+    /**
+     * Unregisters a resource manager registered with
+     * {@link #addChild(AbstractResourceManager)}. Removing a handle again has
+     * no effect.
+     *
+     * @param handle the handle of the disposed resource manager
+     */
+    synchronized void removeChild(ChildHandle handle) {
+        if (handle.removed) {
+            return;
+        }
+        handle.removed = true;
+        if (handle.previous == null) {
+            firstChild = handle.next;
+        } else {
+            handle.previous.next = handle.next;
+        }
+        if (handle.next == null) {
+            lastChild = handle.previous;
+        } else {
+            handle.next.previous = handle.previous;
+        }
+    }
+
+    /**
+     * Returns the resource managers created over this one, in creation order,
+     * dropping the ones which were garbage collected.
+     */
+    private synchronized List<AbstractResourceManager> getChildren() {
+        List<AbstractResourceManager> result = new ArrayList<>();
+        for (ChildHandle handle = firstChild; handle != null; handle = handle.next) {
+            AbstractResourceManager child = handle.get();
+            if (child == null) {
+                removeChild(handle);
+            } else {
+                result.add(child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a description of the owner of this resource manager for its
+     * statistics.
+     *
+     * @return the description of the owner
+     */
+    String getOwner() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+	public ResourceManagerStatistics getStatistics() {
+        int imageCount = 0;
+        long imageBytes = 0;
+        int fontCount = 0;
+        int colorCount = 0;
+        if (map != null) {
+            for (RefCount next : map.values()) {
+                if (next.resource instanceof Image) {
+                    imageCount++;
+                    imageBytes += next.size;
+                } else if (next.resource instanceof Font) {
+                    fontCount++;
+                } else if (next.resource instanceof Color) {
+                    colorCount++;
+                }
+            }
+        }
+        List<ResourceManagerStatistics> childStatistics = new ArrayList<>();
+        for (AbstractResourceManager child : getChildren()) {
+            childStatistics.add(child.getStatistics());
+        }
+        return new ResourceManagerStatistics(getOwner(), imageCount, imageBytes,
+                cache == null ? 0 : cache.size(), cachedBytes, fontCount, colorCount, childStatistics);
+    }
+
+    /**
+     * Returns the estimated number of bytes of the given resource, 0 if it is
+     * not an image.
+     */
+    private static long sizeOf(Object resource) {
+        if (!(resource instanceof Image) || ((Image) resource).isDisposed()) {
+            return 0;
+        }
+        Rectangle bounds = ((Image) resource).getBounds();
+        return (long) bounds.width * bounds.height * 4;
+    }
 }
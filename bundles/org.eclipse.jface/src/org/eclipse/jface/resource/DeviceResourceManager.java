@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.jface.resource;
 
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.graphics.Image;
 
@@ -57,6 +58,38 @@ public final class DeviceResourceManager extends AbstractResourceManager {
         descriptor.destroyResource(resource);
     }
 
+    /**
+     * Sets the maximum number of bytes of the images kept after their last
+     * reference is destroyed, so that they can be returned again without
+     * being allocated again. When the cache is full the least recently
+     * released images are deallocated. The number of bytes of an image is
+     * estimated from its size, with four bytes per pixel.
+     * <p>
+     * The cache is disabled by default: images are deallocated as soon as
+     * their last reference is destroyed.
+     * </p>
+     *
+     * @param bytes the maximum size of the cache, 0 to disable it
+     * @see #getStatistics()
+     * @since 3.14
+     */
+    public void setImageCacheSize(long bytes) {
+        Assert.isTrue(bytes >= 0);
+        setCacheSize(bytes);
+    }
+
+    /**
+     * Returns the maximum number of bytes of the images kept after their last
+     * reference is destroyed.
+     *
+     * @return the maximum size of the cache, 0 if it is disabled
+     * @see #setImageCacheSize(long)
+     * @since 3.14
+     */
+    public long getImageCacheSize() {
+        return getCacheSize();
+    }
+
     @Override
 	protected Image getDefaultImage() {
         if (missingImage == null) {
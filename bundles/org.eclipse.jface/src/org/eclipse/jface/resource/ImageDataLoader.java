@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.resource;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+
+/**
+ * Loads the image data of image descriptors in the background and keeps the
+ * decoded image data in a bounded cache, so that their images can then be
+ * created in the UI thread without any I/O.
+ * <p>
+ * {@link #load(ImageDescriptor, int...)} returns a future which completes with
+ * the given descriptor once its image data is decoded for the requested zoom
+ * levels. The image created from the descriptor after that, for example with
+ * a {@link ResourceManager}, uses the cached image data. A viewer or a tool
+ * bar may show a placeholder meanwhile and swap in the real image:
+ * </p>
+ *
+ * <pre>
+ * ImageDataLoader.getDefault().load(descriptor).thenAcceptAsync(
+ * 		loaded -&gt; item.setImage(resourceManager.createImage(loaded)), display::asyncExec);
+ * </pre>
+ * <p>
+ * Cancelling the future skips the decoding of the zoom levels not decoded
+ * yet. The cache is bounded by the bytes of the cached image data and evicts
+ * the least recently used entries first.
+ * </p>
+ * <p>
+ * Only the descriptors created with {@link ImageDescriptor#createFromURL}
+ * are decoded in the background. The futures of the other descriptors
+ * complete immediately, and their images are created as usual.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @since 3.14
+ */
+public final class ImageDataLoader {
+
+	/**
+	 * The default maximum number of bytes of image data the cache holds.
+	 */
+	public static final long DEFAULT_CACHE_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * The zoom levels decoded when none are given, the ones for which
+	 * plug-ins contribute images.
+	 */
+	private static final int[] DEFAULT_ZOOMS = { 100, 200 };
+
+	/**
+	 * The bytes accounted for an entry recording that there is no image data
+	 * for a zoom level.
+	 */
+	private static final int MISSING_ENTRY_SIZE = 64;
+
+	/**
+	 * The cached value recording that there is no image data for a zoom
+	 * level. Compared by identity.
+	 */
+	static final ImageData MISSING = new ImageData(1, 1, 1, new PaletteData(new RGB(0, 0, 0)));
+
+	private static final ImageDataLoader DEFAULT = new ImageDataLoader();
+
+	private final Executor executor;
+
+	/**
+	 * The cached image data by URL and zoom level, in access order. An
+	 * entry with the {@link #MISSING} value records that there is no image
+	 * data. Guarded by itself.
+	 */
+	private final LinkedHashMap<Key, ImageData> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+	private long cacheSize = DEFAULT_CACHE_SIZE;
+
+	private long cachedBytes;
+
+	private ImageDataLoader() {
+		int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 5, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "Image Data Loader"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				});
+		pool.allowCoreThreadTimeOut(true);
+		executor = pool;
+	}
+
+	/**
+	 * Returns the shared image data loader.
+	 *
+	 * @return the image data loader
+	 */
+	public static ImageDataLoader getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Decodes the image data of the given descriptor for zoom levels 100 and
+	 * 200 in the background.
+	 *
+	 * @param descriptor
+	 *            the image descriptor
+	 * @return a future completing with the descriptor once its image data is
+	 *         decoded
+	 * @see #load(ImageDescriptor, int...)
+	 */
+	public CompletableFuture<ImageDescriptor> load(ImageDescriptor descriptor) {
+		return load(descriptor, DEFAULT_ZOOMS);
+	}
+
+	/**
+	 * Decodes the image data of the given descriptor for the given zoom levels
+	 * in the background, and caches it for the images created from the
+	 * descriptor later on.
+	 *
+	 * @param descriptor
+	 *            the image descriptor
+	 * @param zooms
+	 *            the zoom levels, in percent
+	 * @return a future completing with the descriptor once its image data is
+	 *         decoded, which may be cancelled
+	 */
+	public CompletableFuture<ImageDescriptor> load(ImageDescriptor descriptor, int... zooms) {
+		Assert.isNotNull(descriptor);
+		if (!(descriptor instanceof URLImageDescriptor)) {
+			return CompletableFuture.completedFuture(descriptor);
+		}
+		String url = ((URLImageDescriptor) descriptor).getURLString();
+		if (isCached(url, zooms)) {
+			return CompletableFuture.completedFuture(descriptor);
+		}
+		CompletableFuture<ImageDescriptor> future = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				for (int zoom : zooms) {
+					if (future.isDone()) {
+						return;
+					}
+					Key key = new Key(url, zoom);
+					if (get(key) == null) {
+						put(key, URLImageDescriptor.decodeImageData(url, zoom));
+					}
+				}
+				future.complete(descriptor);
+			} catch (RuntimeException e) {
+				Policy.logException(e);
+				// the image is loaded as usual when created
+				future.complete(descriptor);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Sets the maximum number of bytes of image data the cache holds,
+	 * evicting the least recently used entries if needed.
+	 *
+	 * @param bytes
+	 *            the maximum size of the cache, <code>0</code> to disable it
+	 */
+	public void setCacheSize(long bytes) {
+		Assert.isTrue(bytes >= 0);
+		synchronized (cache) {
+			cacheSize = bytes;
+			evict();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of bytes of image data the cache holds.
+	 *
+	 * @return the maximum size of the cache
+	 */
+	public long getCacheSize() {
+		synchronized (cache) {
+			return cacheSize;
+		}
+	}
+
+	/**
+	 * Removes all the image data from the cache.
+	 */
+	public void clearCache() {
+		synchronized (cache) {
+			cache.clear();
+			cachedBytes = 0;
+		}
+	}
+
+	/**
+	 * Returns the cached image data of the given URL for the given zoom level.
+	 * The image data is shared and must not be modified.
+	 *
+	 * @param url
+	 *            the URL of the image
+	 * @param zoom
+	 *            the zoom level
+	 * @return <code>null</code> if the image data is not cached,
+	 *         {@link #MISSING} if it is known that there is no image data, or
+	 *         the image data
+	 */
+	ImageData getCachedImageData(String url, int zoom) {
+		return get(new Key(url, zoom));
+	}
+
+	private boolean isCached(String url, int[] zooms) {
+		synchronized (cache) {
+			for (int zoom : zooms) {
+				if (!cache.containsKey(new Key(url, zoom))) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private ImageData get(Key key) {
+		synchronized (cache) {
+			return cache.get(key);
+		}
+	}
+
+	private void put(Key key, ImageData data) {
+		if (data == null) {
+			data = MISSING;
+		}
+		int size = sizeOf(data);
+		synchronized (cache) {
+			if (size > cacheSize) {
+				return;
+			}
+			ImageData previous = cache.put(key, data);
+			if (previous != null) {
+				// a concurrent load of the same image
+				cachedBytes -= sizeOf(previous);
+			}
+			cachedBytes += size;
+			evict();
+		}
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<Key, ImageData>> iterator = cache.entrySet().iterator();
+		while (cachedBytes > cacheSize && iterator.hasNext()) {
+			cachedBytes -= sizeOf(iterator.next().getValue());
+			iterator.remove();
+		}
+	}
+
+	private static int sizeOf(ImageData data) {
+		if (data == MISSING) {
+			return MISSING_ENTRY_SIZE;
+		}
+		int size = MISSING_ENTRY_SIZE;
+		if (data.data != null) {
+			size += data.data.length;
+		}
+		if (data.alphaData != null) {
+			size += data.alphaData.length;
+		}
+		if (data.maskData != null) {
+			size += data.maskData.length;
+		}
+		return size;
+	}
+
+	private static final class Key {
+		final String url;
+
+		final int zoom;
+
+		Key(String url, int zoom) {
+			this.url = url;
+			this.zoom = zoom;
+		}
+
+		@Override
+		public int hashCode() {
+			return url.hashCode() * 31 + zoom;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return zoom == other.zoom && url.equals(other.url);
+		}
+	}
+}
@@ -32,6 +32,14 @@ public final class LocalResourceManager extends AbstractResourceManager {
 
     private ResourceManager parentRegistry;
 
+    private String owner;
+
+    /**
+     * The handle of this resource manager in the children of its parent, or
+     * <code>null</code> if the parent does not track its children.
+     */
+    private ChildHandle childHandle;
+
     /**
      * Creates a local registry that delegates to the given global registry
      * for all resource allocation and deallocation.
@@ -40,6 +48,9 @@ public final class LocalResourceManager extends AbstractResourceManager {
      */
     public LocalResourceManager(ResourceManager parentRegistry) {
         this.parentRegistry = parentRegistry;
+        if (parentRegistry instanceof AbstractResourceManager) {
+            childHandle = ((AbstractResourceManager) parentRegistry).addChild(this);
+        }
     }
 
     /**
@@ -54,6 +65,7 @@ public final class LocalResourceManager extends AbstractResourceManager {
      */
     public LocalResourceManager(ResourceManager parentRegistry, Control owner) {
         this(parentRegistry);
+        this.owner = owner.toString();
 
         owner.addDisposeListener(e -> LocalResourceManager.this.dispose());
     }
@@ -80,4 +92,20 @@ public final class LocalResourceManager extends AbstractResourceManager {
 	protected Image getDefaultImage() {
         return parentRegistry.getDefaultImage();
     }
+
+    @Override
+	public void dispose() {
+        super.dispose();
+        if (childHandle != null) {
+            ((AbstractResourceManager) parentRegistry).removeChild(childHandle);
+        }
+    }
+
+    @Override
+	String getOwner() {
+        if (owner == null) {
+            return super.getOwner();
+        }
+        return super.getOwner() + " (" + owner + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
 }
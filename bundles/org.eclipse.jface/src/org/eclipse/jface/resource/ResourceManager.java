@@ -11,6 +11,7 @@
 package org.eclipse.jface.resource;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.core.runtime.Assert;
@@ -340,6 +341,20 @@ public abstract class ResourceManager {
         }
     }
 
+    /**
+     * Returns statistics about the resources currently allocated by this
+     * resource manager and by the local resource managers created over it, for
+     * example to find the owners of many images or leaked resources.
+     *
+     * @return a snapshot of the statistics of this resource manager
+     *
+     * @since 3.14
+     */
+    public ResourceManagerStatistics getStatistics() {
+        return new ResourceManagerStatistics(getClass().getSimpleName(), 0, 0, 0, 0, 0, 0,
+                Collections.<ResourceManagerStatistics> emptyList());
+    }
+
     /**
      * Returns a previously allocated resource associated with the given descriptor, or
      * null if none exists yet.
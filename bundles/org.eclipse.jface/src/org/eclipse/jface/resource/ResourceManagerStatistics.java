@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.resource;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A snapshot of the resources allocated by a {@link ResourceManager}, as
+ * returned by {@link ResourceManager#getStatistics()}.
+ * <p>
+ * The statistics of a resource manager include the resources allocated on
+ * behalf of the {@link LocalResourceManager}s created over it. The
+ * statistics of these local resource managers, one per owner, are available
+ * with {@link #getChildren()}. A resource shared by several owners is counted
+ * once by the parent and once by each owner.
+ * </p>
+ * <p>
+ * The number of bytes of an image is estimated from its size, with four
+ * bytes per pixel.
+ * </p>
+ *
+ * @since 3.14
+ */
+public final class ResourceManagerStatistics {
+
+	private final String owner;
+
+	private final int imageCount;
+
+	private final long imageBytes;
+
+	private final int cachedImageCount;
+
+	private final long cachedImageBytes;
+
+	private final int fontCount;
+
+	private final int colorCount;
+
+	private final List<ResourceManagerStatistics> children;
+
+	ResourceManagerStatistics(String owner, int imageCount, long imageBytes, int cachedImageCount,
+			long cachedImageBytes, int fontCount, int colorCount, List<ResourceManagerStatistics> children) {
+		this.owner = owner;
+		this.imageCount = imageCount;
+		this.imageBytes = imageBytes;
+		this.cachedImageCount = cachedImageCount;
+		this.cachedImageBytes = cachedImageBytes;
+		this.fontCount = fontCount;
+		this.colorCount = colorCount;
+		this.children = Collections.unmodifiableList(children);
+	}
+
+	/**
+	 * Returns a description of the owner of the resource manager, such as the
+	 * control whose disposal disposes a {@link LocalResourceManager}.
+	 *
+	 * @return the description of the owner
+	 */
+	public String getOwner() {
+		return owner;
+	}
+
+	/**
+	 * Returns the number of referenced images.
+	 *
+	 * @return the number of live images
+	 */
+	public int getImageCount() {
+		return imageCount;
+	}
+
+	/**
+	 * Returns the estimated number of bytes of the referenced images.
+	 *
+	 * @return the bytes of the live images
+	 */
+	public long getImageBytes() {
+		return imageBytes;
+	}
+
+	/**
+	 * Returns the number of images no longer referenced but kept in the cache
+	 * of the resource manager.
+	 *
+	 * @return the number of cached images
+	 * @see DeviceResourceManager#setImageCacheSize(long)
+	 */
+	public int getCachedImageCount() {
+		return cachedImageCount;
+	}
+
+	/**
+	 * Returns the estimated number of bytes of the images no longer referenced
+	 * but kept in the cache of the resource manager.
+	 *
+	 * @return the bytes of the cached images
+	 * @see DeviceResourceManager#setImageCacheSize(long)
+	 */
+	public long getCachedImageBytes() {
+		return cachedImageBytes;
+	}
+
+	/**
+	 * Returns the number of referenced fonts.
+	 *
+	 * @return the number of live fonts
+	 */
+	public int getFontCount() {
+		return fontCount;
+	}
+
+	/**
+	 * Returns the number of referenced colors.
+	 *
+	 * @return the number of live colors
+	 */
+	public int getColorCount() {
+		return colorCount;
+	}
+
+	/**
+	 * Returns the statistics of the local resource managers created over the
+	 * resource manager and not disposed yet.
+	 *
+	 * @return the statistics per owner, never <code>null</code>
+	 */
+	public List<ResourceManagerStatistics> getChildren() {
+		return children;
+	}
+
+	/**
+	 * Returns a multi-line report of these statistics and of the statistics
+	 * of the children, for diagnostic purposes.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		append(buffer, 0);
+		return buffer.toString();
+	}
+
+	private void append(StringBuilder buffer, int depth) {
+		for (int i = 0; i < depth; i++) {
+			buffer.append("  "); //$NON-NLS-1$
+		}
+		buffer.append(owner);
+		buffer.append(": images=").append(imageCount); //$NON-NLS-1$
+		buffer.append(" (").append(imageBytes).append(" bytes)"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (cachedImageCount > 0) {
+			buffer.append(", cached images=").append(cachedImageCount); //$NON-NLS-1$
+			buffer.append(" (").append(cachedImageBytes).append(" bytes)"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		buffer.append(", fonts=").append(fontCount); //$NON-NLS-1$
+		buffer.append(", colors=").append(colorCount); //$NON-NLS-1$
+		buffer.append('\n');
+		for (ResourceManagerStatistics child : children) {
+			child.append(buffer, depth + 1);
+		}
+	}
+}
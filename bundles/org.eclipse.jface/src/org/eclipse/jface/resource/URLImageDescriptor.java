@@ -67,14 +67,24 @@ class URLImageDescriptor extends ImageDescriptor {
 
 		@Override
 		public ImageData getImageData(int zoom) {
-			URL tempURL = getURL(url);
-			if (tempURL != null) {
-				URL xUrl = getxURL(tempURL, zoom);
-				if (xUrl != null) {
-					return URLImageDescriptor.getImageData(xUrl);
-				}
+			return getImageData(zoom, false);
+		}
+
+		/**
+		 * Returns the image data for the given zoom level, from the cache of
+		 * the {@link ImageDataLoader} if it holds it. The shared image data of
+		 * the cache is copied if <code>copyCached</code> is true; whether the
+		 * data comes from the cache is decided by a single lookup.
+		 */
+		ImageData getImageData(int zoom, boolean copyCached) {
+			ImageData cached = ImageDataLoader.getDefault().getCachedImageData(url, zoom);
+			if (cached == ImageDataLoader.MISSING) {
+				return null;
 			}
-			return null;
+			if (cached != null) {
+				return copyCached ? (ImageData) cached.clone() : cached;
+			}
+			return decodeImageData(url, zoom);
 		}
 	}
 
@@ -112,7 +122,39 @@ class URLImageDescriptor extends ImageDescriptor {
 
 	@Override
 	public ImageData getImageData(int zoom) {
-		return new URLImageDataProvider(url).getImageData(zoom);
+		// don't let clients modify the shared image data of the cache
+		return new URLImageDataProvider(url).getImageData(zoom, true);
+	}
+
+	/**
+	 * Returns the URL of the image, as given to the constructor.
+	 *
+	 * @return the URL of the image
+	 */
+	String getURLString() {
+		return url;
+	}
+
+	/**
+	 * Reads and decodes the image data of the given URL for the given zoom
+	 * level, without using the cache of the {@link ImageDataLoader}.
+	 *
+	 * @param url
+	 *            the URL of the image for zoom level 100
+	 * @param zoom
+	 *            the zoom level
+	 * @return the image data, or <code>null</code> if there is none for the
+	 *         zoom level
+	 */
+	static ImageData decodeImageData(String url, int zoom) {
+		URL tempURL = getURL(url);
+		if (tempURL != null) {
+			URL xUrl = getxURL(tempURL, zoom);
+			if (xUrl != null) {
+				return getImageData(xUrl);
+			}
+		}
+		return null;
 	}
 
 	private static ImageData getImageData(URL url) {
@@ -255,6 +297,16 @@ class URLImageDescriptor extends ImageDescriptor {
 		}
 		try {
 
+			ImageData cached = ImageDataLoader.getDefault().getCachedImageData(url, 100);
+			if (cached != null && cached != ImageDataLoader.MISSING) {
+				// loaded in the background, avoid any I/O
+				try {
+					return new Image(device, new URLImageDataProvider(url));
+				} catch (SWTException | IllegalArgumentException exception) {
+					// If we fail fall back to loading the image again.
+				}
+			}
+
 			if (InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_2x) {
 				if (!InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY) {
 					try {
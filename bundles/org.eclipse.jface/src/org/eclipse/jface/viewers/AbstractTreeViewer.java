@@ -78,6 +78,13 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 */
 	public static final int ALL_LEVELS = -1;
 
+	/**
+	 * Maximum number of removed and inserted children up to which the items of
+	 * a parent are updated by matching their elements with the new children
+	 * instead of by position.
+	 */
+	private static final int MAX_MATCHED_CHILDREN_EDITS = 256;
+
 	/**
 	 * List of registered tree listeners (element type:
 	 * <code>TreeListener</code>).
@@ -2685,6 +2692,11 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 			}
 		}
 
+		if (items.length > 0 && elementChildren.length > 0 && (tree.getStyle() & SWT.VIRTUAL) == 0
+				&& updateMatchedChildren(widget, items, elementChildren, updateLabels, expanded)) {
+			return;
+		}
+
 		int min = Math.min(elementChildren.length, items.length);
 
 		// dispose of surplus items, optimizing for the case where elements have
@@ -2816,6 +2828,103 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Updates the items of the given widget to correspond to the given child
+	 * elements by matching the elements of the items with the children. Only
+	 * the items of the removed children are disposed and only the items of the
+	 * inserted children are created. The other items keep their subtree, and
+	 * their labels are only updated if <code>updateLabels</code> is
+	 * <code>true</code>. Since items cannot be moved, a moved child is removed
+	 * and inserted again.
+	 *
+	 * @param widget
+	 *            the parent widget
+	 * @param items
+	 *            the current items of the parent widget
+	 * @param elementChildren
+	 *            the child elements
+	 * @param updateLabels
+	 *            <code>true</code> to update labels for existing elements
+	 * @param expanded
+	 *            the expanded elements among the ones of the items
+	 * @return <code>false</code> if too many children changed and the items
+	 *         were left untouched, so that they must be updated by position
+	 */
+	private boolean updateMatchedChildren(Widget widget, Item[] items, Object[] elementChildren,
+			boolean updateLabels, CustomHashtable expanded) {
+		Object[] oldElements = new Object[items.length];
+		for (int i = 0; i < items.length; i++) {
+			oldElements[i] = items[i].getData();
+		}
+		int[] matches = ChildrenMatcher.match(this, oldElements, elementChildren, MAX_MATCHED_CHILDREN_EDITS);
+		if (matches == null) {
+			return false;
+		}
+
+		// dispose the items of the removed children first, so that their
+		// mappings are gone before the items of the other children are mapped
+		for (int i = 0; i < items.length; i++) {
+			if (matches[i] == -1) {
+				if (oldElements[i] != null) {
+					disassociate(items[i]);
+				}
+				items[i].dispose();
+			}
+		}
+
+		boolean[] matched = new boolean[elementChildren.length];
+		for (int i = 0; i < items.length; i++) {
+			if (matches[i] != -1) {
+				Item item = items[i];
+				Object newElement = elementChildren[matches[i]];
+				matched[matches[i]] = true;
+				if (newElement != oldElements[i]) {
+					// update the data to be the new element, since although
+					// the elements are equal, they may still have different
+					// labels or children
+					unmapElement(oldElements[i], item);
+					item.setData(newElement);
+					mapElement(newElement, item);
+				}
+				updatePlus(item, newElement);
+				if (updateLabels) {
+					updateItem(item, newElement);
+				} else {
+					associate(newElement, item);
+				}
+			}
+		}
+
+		// Make sure setExpanded is called after updatePlus, since
+		// setExpanded(false) fails if item has no children.
+		for (int i = 0; i < items.length; i++) {
+			if (matches[i] != -1) {
+				setExpanded(items[i], expanded.containsKey(elementChildren[matches[i]]));
+			}
+		}
+
+		// the children before an inserted child already have their items, so
+		// inserting in increasing order puts each item at its final index
+		boolean restoreExpanded = false;
+		for (int i = 0; i < elementChildren.length; i++) {
+			if (!matched[i]) {
+				createTreeItem(widget, elementChildren[i], i);
+				restoreExpanded |= expanded.containsKey(elementChildren[i]);
+			}
+		}
+
+		// restore the expanded state of moved children
+		if (restoreExpanded) {
+			Item[] newItems = getChildren(widget);
+			for (int i = 0; i < elementChildren.length; i++) {
+				if (!matched[i] && expanded.containsKey(elementChildren[i])) {
+					setExpanded(newItems[i], true);
+				}
+			}
+		}
+		return true;
+	}
+
 	/** Returns true if children were pruned */
 	/*package*/ boolean optionallyPruneChildren(Item item, Object element) {
 		// need a dummy node if element is expandable;
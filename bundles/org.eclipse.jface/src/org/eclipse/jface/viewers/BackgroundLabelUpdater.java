@@ -0,0 +1,487 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Item;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Scrollable;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+
+/**
+ * Computes the labels of the cells of a {@link ColumnViewer} whose label
+ * provider is a thread safe {@link ColumnLabelProvider} on a pool of worker
+ * threads shared by all the viewers.
+ * <p>
+ * A cell shows a placeholder until its label is computed, unless it already
+ * shows a label of the same element. The computed labels are applied to the
+ * cells in batches, at most once per {@link #FRAME_DELAY}. Only the labels of
+ * the visible cells are computed: the requests of the cells scrolled out of
+ * view are cancelled and submitted again when the cells are painted. Painting
+ * only looks at the rows in view and at the submitted requests, so that its
+ * cost does not depend on the number of rows of the viewer.
+ * </p>
+ * <p>
+ * All the methods of this class must be called from the UI thread.
+ * </p>
+ */
+/* package */final class BackgroundLabelUpdater {
+
+	/**
+	 * The delay in milliseconds between two batches of labels applied to the
+	 * cells.
+	 */
+	static final int FRAME_DELAY = 16;
+
+	/**
+	 * Key of the item data holding, by column index, the element whose label
+	 * or placeholder the cells of the item show.
+	 */
+	private static final String LABELLED_ELEMENTS_KEY = "org.eclipse.jface.viewers.labelledElements"; //$NON-NLS-1$
+
+	private static final ExecutorService EXECUTOR = createExecutor();
+
+	private final ColumnViewer viewer;
+
+	private final Display display;
+
+	/**
+	 * The requests of the cells waiting for their label, by cell. Only
+	 * accessed from the UI thread.
+	 */
+	private final Map<CellKey, Request> pending = new HashMap<>();
+
+	/**
+	 * The requests submitted to the executor and not completed yet, at most
+	 * those of the visible cells and of the cells scrolled out of view since
+	 * the last reconcile. Only accessed from the UI thread.
+	 */
+	private final Set<Request> submitted = new HashSet<>();
+
+	/**
+	 * The requests whose label has been computed, in the order they
+	 * completed.
+	 */
+	private final Queue<Request> completed = new ConcurrentLinkedQueue<>();
+
+	private final AtomicBoolean applyScheduled = new AtomicBoolean();
+
+	private boolean reconcileScheduled;
+
+	private boolean disposed;
+
+	private final Listener paintListener = event -> scheduleReconcile();
+
+	private final Listener itemDisposeListener = event -> itemDisposed((Item) event.widget);
+
+	BackgroundLabelUpdater(ColumnViewer viewer) {
+		this.viewer = viewer;
+		Control control = viewer.getControl();
+		this.display = control.getDisplay();
+		control.addListener(SWT.Paint, paintListener);
+	}
+
+	/**
+	 * Shows the placeholder of the given cell unless it already shows a label
+	 * of its element, and requests its label from the given label provider,
+	 * replacing the previous request of the cell. A reused or virtual item
+	 * which now shows another element does not keep the label of the previous
+	 * element.
+	 *
+	 * @param cell
+	 *            the cell, only valid during this call
+	 * @param labelProvider
+	 *            the thread safe label provider of the column of the cell
+	 */
+	void update(ViewerCell cell, ColumnLabelProvider labelProvider) {
+		Item item = (Item) cell.getItem();
+		Object element = cell.getElement();
+		if (item.getData(LABELLED_ELEMENTS_KEY) == null) {
+			item.addListener(SWT.Dispose, itemDisposeListener);
+		}
+		if (!isLabelledFor(item, cell.getColumnIndex(), element)) {
+			cell.setText(""); //$NON-NLS-1$
+			cell.setImage(null);
+			cell.setBackground(null);
+			cell.setForeground(null);
+			cell.setFont(null);
+			labelProvider.updatePlaceholder(cell);
+			setLabelledFor(item, cell.getColumnIndex(), element);
+		}
+		CellKey key = new CellKey(item, cell.getColumnIndex());
+		Request request = new Request(key, element, labelProvider);
+		Request previous = pending.put(key, request);
+		if (previous != null) {
+			previous.cancel();
+		}
+		if (isVisible(cell.getViewerRow().getBounds(cell.getColumnIndex()))) {
+			request.submit();
+		}
+	}
+
+	/**
+	 * Cancels all the requests and stops updating the cells of the viewer.
+	 */
+	void dispose() {
+		disposed = true;
+		for (Request request : pending.values()) {
+			request.cancel();
+		}
+		pending.clear();
+		submitted.clear();
+		completed.clear();
+		Control control = viewer.getControl();
+		if (!control.isDisposed()) {
+			control.removeListener(SWT.Paint, paintListener);
+		}
+	}
+
+	/**
+	 * Returns whether labels are still being computed for some cells.
+	 *
+	 * @return <code>true</code> if some cells are waiting for their label
+	 */
+	boolean isUpdating() {
+		return !pending.isEmpty();
+	}
+
+	private void scheduleReconcile() {
+		if (!reconcileScheduled && !pending.isEmpty()) {
+			reconcileScheduled = true;
+			display.asyncExec(this::reconcile);
+		}
+	}
+
+	/**
+	 * Submits the requests of the visible cells and cancels the submitted
+	 * requests of the cells no longer visible.
+	 */
+	private void reconcile() {
+		reconcileScheduled = false;
+		if (disposed || viewer.getControl().isDisposed()) {
+			return;
+		}
+		Set<Request> visible = new HashSet<>();
+		Control control = viewer.getControl();
+		if (control instanceof Table) {
+			Table table = (Table) control;
+			Rectangle clientArea = table.getClientArea();
+			int count = table.getItemCount();
+			for (int i = table.getTopIndex(); i < count; i++) {
+				TableItem item = table.getItem(i);
+				if (item.getBounds().y >= clientArea.y + clientArea.height) {
+					break;
+				}
+				reconcile(item, visible);
+			}
+		} else if (control instanceof Tree) {
+			Tree tree = (Tree) control;
+			Rectangle clientArea = tree.getClientArea();
+			TreeItem topItem = tree.getTopItem();
+			ViewerRow row = topItem == null ? null : viewer.getViewerRowFromItem(topItem);
+			while (row != null && row.getBounds().y < clientArea.y + clientArea.height) {
+				reconcile((Item) row.getItem(), visible);
+				row = row.getNeighbor(ViewerRow.BELOW, false);
+			}
+		}
+		for (Request request : submitted.toArray(new Request[submitted.size()])) {
+			if (!visible.contains(request)) {
+				request.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Submits the requests of the visible cells of the given item and adds
+	 * them to the given set.
+	 */
+	private void reconcile(Item item, Set<Request> visible) {
+		ViewerRow row = null;
+		int columnCount = Math.max(1, viewer.doGetColumnCount());
+		for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+			CellKey key = new CellKey(item, columnIndex);
+			Request request = pending.get(key);
+			if (request == null) {
+				continue;
+			}
+			if (!request.isValid()) {
+				request.cancel();
+				pending.remove(key);
+				continue;
+			}
+			if (row == null) {
+				row = viewer.getViewerRowFromItem(item);
+			}
+			if (isVisible(row.getBounds(columnIndex))) {
+				request.submit();
+				visible.add(request);
+			}
+		}
+	}
+
+	/**
+	 * Drops the requests of the cells of a disposed item.
+	 */
+	private void itemDisposed(Item item) {
+		if (disposed) {
+			return;
+		}
+		Object[] elements = (Object[]) item.getData(LABELLED_ELEMENTS_KEY);
+		if (elements == null) {
+			return;
+		}
+		for (int columnIndex = 0; columnIndex < elements.length; columnIndex++) {
+			Request request = pending.remove(new CellKey(item, columnIndex));
+			if (request != null) {
+				request.cancel();
+			}
+		}
+	}
+
+	private boolean isVisible(Rectangle bounds) {
+		if (bounds == null) {
+			return false;
+		}
+		Control control = viewer.getControl();
+		if (control instanceof Scrollable) {
+			return ((Scrollable) control).getClientArea().intersects(bounds);
+		}
+		Point size = control.getSize();
+		return bounds.intersects(0, 0, size.x, size.y);
+	}
+
+	private void completed(Request request) {
+		completed.add(request);
+		if (applyScheduled.compareAndSet(false, true)) {
+			display.asyncExec(() -> {
+				if (!display.isDisposed()) {
+					display.timerExec(FRAME_DELAY, this::applyLabels);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Applies the labels computed since the last batch to their cells.
+	 */
+	private void applyLabels() {
+		applyScheduled.set(false);
+		if (disposed || viewer.getControl().isDisposed()) {
+			return;
+		}
+		Request request;
+		while ((request = completed.poll()) != null) {
+			submitted.remove(request);
+			if (pending.get(request.key) != request) {
+				// replaced by a newer request
+				continue;
+			}
+			pending.remove(request.key);
+			if (request.label == null || !request.isValid()) {
+				continue;
+			}
+			ViewerRow row = viewer.getViewerRowFromItem(request.key.item);
+			ViewerCell cell = row == null ? null : row.getCell(request.key.columnIndex);
+			if (cell != null) {
+				request.label.applyTo(cell);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the cell of the given item and column shows the label,
+	 * or the placeholder, of the given element.
+	 */
+	private static boolean isLabelledFor(Item item, int columnIndex, Object element) {
+		Object[] elements = (Object[]) item.getData(LABELLED_ELEMENTS_KEY);
+		return elements != null && columnIndex < elements.length && elements[columnIndex] == element;
+	}
+
+	private static void setLabelledFor(Item item, int columnIndex, Object element) {
+		Object[] elements = (Object[]) item.getData(LABELLED_ELEMENTS_KEY);
+		if (elements == null || columnIndex >= elements.length) {
+			Object[] newElements = new Object[columnIndex + 1];
+			if (elements != null) {
+				System.arraycopy(elements, 0, newElements, 0, elements.length);
+			}
+			elements = newElements;
+			item.setData(LABELLED_ELEMENTS_KEY, elements);
+		}
+		elements[columnIndex] = element;
+	}
+
+	private static ExecutorService createExecutor() {
+		int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 5, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "Label Updater"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					thread.setPriority(Thread.NORM_PRIORITY - 1);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static final class CellKey {
+		final Item item;
+
+		final int columnIndex;
+
+		CellKey(Item item, int columnIndex) {
+			this.item = item;
+			this.columnIndex = columnIndex;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(item) * 31 + columnIndex;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CellKey)) {
+				return false;
+			}
+			CellKey other = (CellKey) obj;
+			return item == other.item && columnIndex == other.columnIndex;
+		}
+	}
+
+	/**
+	 * The request of the label of a cell.
+	 */
+	private final class Request implements Runnable {
+		final CellKey key;
+
+		final Object element;
+
+		final ColumnLabelProvider labelProvider;
+
+		/**
+		 * The future of the computation, <code>null</code> while the request
+		 * is not submitted. Only accessed from the UI thread.
+		 */
+		private Future<?> future;
+
+		private volatile boolean cancelled;
+
+		/**
+		 * The computed label, <code>null</code> if it could not be computed.
+		 * Published to the UI thread through the queue of completed requests.
+		 */
+		CellLabel label;
+
+		Request(CellKey key, Object element, ColumnLabelProvider labelProvider) {
+			this.key = key;
+			this.element = element;
+			this.labelProvider = labelProvider;
+		}
+
+		void submit() {
+			if (future == null) {
+				cancelled = false;
+				future = EXECUTOR.submit(this);
+				submitted.add(this);
+			}
+		}
+
+		void cancel() {
+			if (future != null) {
+				cancelled = true;
+				if (future.cancel(false)) {
+					future = null;
+					submitted.remove(this);
+				}
+			}
+		}
+
+		/**
+		 * Returns whether the cell still shows the element of this request
+		 * with the label provider of this request.
+		 */
+		boolean isValid() {
+			return !key.item.isDisposed() && key.item.getData() == element
+					&& viewer.getLabelProvider(key.columnIndex) == labelProvider;
+		}
+
+		@Override
+		public void run() {
+			if (cancelled) {
+				return;
+			}
+			try {
+				label = new CellLabel(labelProvider, element);
+			} catch (RuntimeException e) {
+				// the cell keeps its placeholder
+				Policy.logException(e);
+			}
+			completed(this);
+		}
+	}
+
+	/**
+	 * The label of a cell, as computed by {@link ColumnLabelProvider#update(ViewerCell)}.
+	 */
+	private static final class CellLabel {
+		private final String text;
+
+		private final Image image;
+
+		private final Color background;
+
+		private final Color foreground;
+
+		private final Font font;
+
+		CellLabel(ColumnLabelProvider labelProvider, Object element) {
+			text = labelProvider.getText(element);
+			image = labelProvider.getImage(element);
+			background = labelProvider.getBackground(element);
+			foreground = labelProvider.getForeground(element);
+			font = labelProvider.getFont(element);
+		}
+
+		void applyTo(ViewerCell cell) {
+			cell.setText(text);
+			cell.setImage(image);
+			cell.setBackground(background);
+			cell.setForeground(foreground);
+			cell.setFont(font);
+		}
+	}
+}
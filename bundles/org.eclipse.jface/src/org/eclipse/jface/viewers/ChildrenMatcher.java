@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.viewers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Matches the elements of the items of a viewer with the new children they
+ * must show, so that the items of the elements kept are reused and only the
+ * items of the removed and inserted elements are disposed and created.
+ * <p>
+ * The matching is a longest common subsequence of the old and new elements,
+ * computed with the O((N+M)D) algorithm of E. Myers, "An O(ND) Difference
+ * Algorithm and Its Variations". Elements are compared with the comparer of
+ * the viewer, after their hash codes.
+ * </p>
+ */
+/* package */final class ChildrenMatcher {
+
+	private ChildrenMatcher() {
+	}
+
+	/**
+	 * Matches the old elements with the new ones.
+	 *
+	 * @param viewer
+	 *            the viewer comparing the elements
+	 * @param oldElements
+	 *            the elements of the items, <code>null</code> for items
+	 *            without an element, which never match
+	 * @param newElements
+	 *            the new elements
+	 * @param maxEditDistance
+	 *            the maximum number of elements to remove and insert
+	 * @return for each old element, the index of the new element it matches,
+	 *         or <code>-1</code> if it is removed; or <code>null</code> if
+	 *         more than <code>maxEditDistance</code> elements are removed and
+	 *         inserted
+	 */
+	static int[] match(StructuredViewer viewer, Object[] oldElements, Object[] newElements, int maxEditDistance) {
+		int oldLength = oldElements.length;
+		int newLength = newElements.length;
+		int[] matches = new int[oldLength];
+		Arrays.fill(matches, -1);
+
+		int[] oldHashes = hashCodes(viewer.getComparer(), oldElements);
+		int[] newHashes = hashCodes(viewer.getComparer(), newElements);
+		Matcher matcher = (oldIndex, newIndex) -> oldElements[oldIndex] != null
+				&& oldHashes[oldIndex] == newHashes[newIndex]
+				&& viewer.equals(oldElements[oldIndex], newElements[newIndex]);
+
+		// common prefix and suffix
+		int start = 0;
+		while (start < oldLength && start < newLength && matcher.matches(start, start)) {
+			matches[start] = start;
+			start++;
+		}
+		int oldEnd = oldLength;
+		int newEnd = newLength;
+		while (oldEnd > start && newEnd > start && matcher.matches(oldEnd - 1, newEnd - 1)) {
+			oldEnd--;
+			newEnd--;
+			matches[oldEnd] = newEnd;
+		}
+
+		int n = oldEnd - start;
+		int m = newEnd - start;
+		if (n == 0 || m == 0) {
+			return n + m <= maxEditDistance ? matches : null;
+		}
+
+		int max = Math.min(n + m, maxEditDistance);
+		int offset = max + 1;
+		int[] v = new int[2 * max + 3];
+		List<int[]> trace = new ArrayList<>();
+		for (int d = 0; d <= max; d++) {
+			trace.add(v.clone());
+			for (int k = -d; k <= d; k += 2) {
+				int x;
+				if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+					x = v[offset + k + 1];
+				} else {
+					x = v[offset + k - 1] + 1;
+				}
+				int y = x - k;
+				while (x < n && y < m && matcher.matches(start + x, start + y)) {
+					x++;
+					y++;
+				}
+				v[offset + k] = x;
+				if (x >= n && y >= m) {
+					backtrack(trace, offset, n, m, start, matches);
+					return matches;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Follows the furthest reaching paths back from the end of the compared
+	 * ranges, recording the matched elements of their diagonals.
+	 */
+	private static void backtrack(List<int[]> trace, int offset, int n, int m, int start, int[] matches) {
+		int x = n;
+		int y = m;
+		for (int d = trace.size() - 1; d >= 0; d--) {
+			int[] v = trace.get(d);
+			int k = x - y;
+			int previousK;
+			if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+				previousK = k + 1;
+			} else {
+				previousK = k - 1;
+			}
+			int previousX = d == 0 ? 0 : v[offset + previousK];
+			int previousY = d == 0 ? 0 : previousX - previousK;
+			while (x > previousX && y > previousY) {
+				x--;
+				y--;
+				matches[start + x] = start + y;
+			}
+			x = previousX;
+			y = previousY;
+		}
+	}
+
+	private static int[] hashCodes(IElementComparer comparer, Object[] elements) {
+		int[] hashCodes = new int[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			Object element = elements[i];
+			if (element != null) {
+				hashCodes[i] = comparer == null ? element.hashCode() : comparer.hashCode(element);
+			}
+		}
+		return hashCodes;
+	}
+
+	@FunctionalInterface
+	private interface Matcher {
+		boolean matches(int oldIndex, int newIndex);
+	}
+}
@@ -40,6 +40,48 @@ public class ColumnLabelProvider extends CellLabelProvider implements
 
 	}
 
+	/**
+	 * Returns whether {@link #getText(Object)}, {@link #getImage(Object)},
+	 * {@link #getFont(Object)}, {@link #getForeground(Object)} and
+	 * {@link #getBackground(Object)} may be called concurrently from any
+	 * thread. The labels of the columns whose label provider is thread safe
+	 * are computed in the background when
+	 * {@link ColumnViewer#setUseBackgroundLabels(boolean) background labels}
+	 * are enabled. The label of a cell is then set from these methods, so a
+	 * subclass overriding {@link #update(ViewerCell)} should not be thread
+	 * safe.
+	 * <p>
+	 * The default implementation returns <code>false</code>. Subclasses may
+	 * override.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the label of an element may be computed
+	 *         from any thread
+	 * @since 3.14
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+
+	/**
+	 * Updates the given cell, which has no label of its element yet, with a
+	 * placeholder shown while its label is computed in the background. The
+	 * cell is cleared before this method is called. This method is
+	 * called from the UI thread.
+	 * <p>
+	 * The default implementation leaves the cell blank. Subclasses may
+	 * override.
+	 * </p>
+	 *
+	 * @param cell
+	 *            the cell waiting for its label
+	 * @see #isThreadSafe()
+	 * @since 3.14
+	 */
+	public void updatePlaceholder(ViewerCell cell) {
+		// blank by default
+	}
+
 	@Override
 	public Font getFont(Object element) {
 		return null;
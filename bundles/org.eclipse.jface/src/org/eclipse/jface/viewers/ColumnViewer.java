@@ -60,6 +60,10 @@ public abstract class ColumnViewer extends StructuredViewer {
 
 	private MouseListener mouseListener;
 
+	private boolean useBackgroundLabels;
+
+	private BackgroundLabelUpdater backgroundLabelUpdater;
+
 	// after logging for the first
 	// time
 
@@ -654,12 +658,73 @@ public abstract class ColumnViewer extends StructuredViewer {
 		}
 	}
 
+	/**
+	 * Sets whether the labels of the columns whose label provider is a
+	 * {@link ColumnLabelProvider#isThreadSafe() thread safe}
+	 * {@link ColumnLabelProvider} are computed in the background. The cells
+	 * without a label show a
+	 * {@link ColumnLabelProvider#updatePlaceholder(ViewerCell) placeholder}
+	 * until their label is computed, and the computed labels are applied in
+	 * batches. Only the labels of the visible cells are computed. The default
+	 * is <code>false</code>.
+	 * <p>
+	 * This setting applies to the cells updated after this call.
+	 * </p>
+	 *
+	 * @param useBackgroundLabels
+	 *            <code>true</code> to compute the labels of thread safe label
+	 *            providers in the background, <code>false</code> to compute
+	 *            all the labels in the UI thread
+	 * @since 3.14
+	 */
+	public void setUseBackgroundLabels(boolean useBackgroundLabels) {
+		this.useBackgroundLabels = useBackgroundLabels;
+		if (!useBackgroundLabels && backgroundLabelUpdater != null) {
+			backgroundLabelUpdater.dispose();
+			backgroundLabelUpdater = null;
+		}
+	}
+
+	/**
+	 * Returns whether the labels of thread safe label providers are computed
+	 * in the background.
+	 *
+	 * @return <code>true</code> if the labels of thread safe label providers
+	 *         are computed in the background
+	 * @see #setUseBackgroundLabels(boolean)
+	 * @since 3.14
+	 */
+	public boolean isUseBackgroundLabels() {
+		return useBackgroundLabels;
+	}
+
+	/**
+	 * Returns the updater computing the labels in the background, creating it
+	 * if needed.
+	 *
+	 * @return the updater, or <code>null</code> if the labels are computed in
+	 *         the UI thread
+	 */
+	/* package */BackgroundLabelUpdater getBackgroundLabelUpdater() {
+		if (backgroundLabelUpdater == null && useBackgroundLabels) {
+			Control control = getControl();
+			if (control != null && !control.isDisposed()) {
+				backgroundLabelUpdater = new BackgroundLabelUpdater(this);
+			}
+		}
+		return backgroundLabelUpdater;
+	}
+
 	@Override
 	protected void handleDispose(DisposeEvent event) {
 		if (mouseListener != null && event.widget instanceof Control) {
 			((Control)event.widget).removeMouseListener(mouseListener);
 			mouseListener = null;
 		}
+		if (backgroundLabelUpdater != null) {
+			backgroundLabelUpdater.dispose();
+			backgroundLabelUpdater = null;
+		}
 		super.handleDispose(event);
 	}
 
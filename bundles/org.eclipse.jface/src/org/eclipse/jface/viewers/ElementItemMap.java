@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+/**
+ * ElementItemMap associates the elements of a structured viewer with their
+ * widgets. Keys and values cannot be null. A value is either a single widget or
+ * an array of widgets, for elements shown by several items.
+ * <p>
+ * The map uses open addressing with linear probing over parallel arrays of
+ * keys and values, so that it needs no entry object per element, unlike
+ * {@link CustomHashtable}. Removals shift the following entries of a cluster
+ * back instead of leaving tombstones. Keys are compared and hashed with an
+ * optional {@link IElementComparer}.
+ * </p>
+ */
+/* package */final class ElementItemMap {
+
+	/**
+	 * The default number of entries the map can hold before growing.
+	 */
+	static final int DEFAULT_CAPACITY = 12;
+
+	private static final int MAXIMUM_TABLE_LENGTH = 1 << 30;
+
+	private final IElementComparer comparer;
+
+	private Object[] keys;
+
+	private Object[] values;
+
+	private int size;
+
+	/**
+	 * The number of bits of the table length.
+	 */
+	private int bits;
+
+	/**
+	 * The size above which the table grows, three quarters of its length.
+	 */
+	private int threshold;
+
+	/**
+	 * Constructs a new map able to hold the given number of entries without
+	 * growing.
+	 *
+	 * @param capacity
+	 *            the initial capacity
+	 * @param comparer
+	 *            the element comparer to use to compare keys and obtain hash
+	 *            codes for keys, or <code>null</code> to use the normal
+	 *            <code>equals</code> and <code>hashCode</code> methods
+	 */
+	ElementItemMap(int capacity, IElementComparer comparer) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.comparer = comparer;
+		int length = 2;
+		while (length < MAXIMUM_TABLE_LENGTH && length * 3 / 4 < capacity) {
+			length <<= 1;
+		}
+		allocate(length);
+	}
+
+	/**
+	 * Constructs a new map holding all the entries of the given map, using the
+	 * given element comparer.
+	 *
+	 * @param map
+	 *            the map to copy from
+	 * @param comparer
+	 *            the element comparer to use to compare keys and obtain hash
+	 *            codes for keys, or <code>null</code> to use the normal
+	 *            <code>equals</code> and <code>hashCode</code> methods
+	 */
+	ElementItemMap(ElementItemMap map, IElementComparer comparer) {
+		this(map.size, comparer);
+		for (int i = 0; i < map.keys.length; i++) {
+			if (map.keys[i] != null) {
+				put(map.keys[i], map.values[i]);
+			}
+		}
+	}
+
+	private void allocate(int length) {
+		keys = new Object[length];
+		values = new Object[length];
+		bits = Integer.numberOfTrailingZeros(length);
+		threshold = length / 4 * 3;
+	}
+
+	/**
+	 * Returns the widget or widgets of the given element.
+	 *
+	 * @param key
+	 *            the element
+	 * @return the widget or the array of widgets, or <code>null</code> if the
+	 *         element is not in the map
+	 */
+	Object get(Object key) {
+		int index = indexOf(key);
+		return index < 0 ? null : values[index];
+	}
+
+	/**
+	 * Returns whether the given element is in the map.
+	 *
+	 * @param key
+	 *            the element
+	 * @return <code>true</code> if the element is in the map
+	 */
+	boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Associates the given widget or widgets with the given element. If the
+	 * element is already in the map, its key is replaced by the given element
+	 * to avoid hanging onto keys that are equal but "old" (see bug 30607).
+	 *
+	 * @param key
+	 *            the element
+	 * @param value
+	 *            the widget or the array of widgets
+	 * @return the previous widget or widgets of the element, or
+	 *         <code>null</code> if the element was not in the map
+	 */
+	Object put(Object key, Object value) {
+		if (key == null || value == null) {
+			throw new NullPointerException();
+		}
+		int mask = keys.length - 1;
+		int index = slot(hashCode(key));
+		Object current;
+		while ((current = keys[index]) != null) {
+			if (current == key || keyEquals(key, current)) {
+				Object result = values[index];
+				keys[index] = key;
+				values[index] = value;
+				return result;
+			}
+			index = (index + 1) & mask;
+		}
+		keys[index] = key;
+		values[index] = value;
+		if (++size > threshold) {
+			grow();
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the given element from the map.
+	 *
+	 * @param key
+	 *            the element
+	 * @return the widget or widgets of the element, or <code>null</code> if the
+	 *         element was not in the map
+	 */
+	Object remove(Object key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		Object result = values[index];
+		int mask = keys.length - 1;
+		int hole = index;
+		int next = index;
+		// shift back the entries of the cluster which would no longer be
+		// found once their probe sequence crosses the hole
+		while (true) {
+			next = (next + 1) & mask;
+			Object key2 = keys[next];
+			if (key2 == null) {
+				break;
+			}
+			int home = slot(hashCode(key2));
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = key2;
+				values[hole] = values[next];
+				hole = next;
+			}
+		}
+		keys[hole] = null;
+		values[hole] = null;
+		size--;
+		return result;
+	}
+
+	/**
+	 * Returns the number of elements in the map.
+	 *
+	 * @return the number of elements
+	 */
+	int size() {
+		return size;
+	}
+
+	private int indexOf(Object key) {
+		int mask = keys.length - 1;
+		int index = slot(hashCode(key));
+		Object current;
+		while ((current = keys[index]) != null) {
+			if (current == key || keyEquals(key, current)) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void grow() {
+		if (keys.length == MAXIMUM_TABLE_LENGTH) {
+			threshold = Integer.MAX_VALUE;
+			return;
+		}
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(oldKeys.length << 1);
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			Object key = oldKeys[i];
+			if (key != null) {
+				int index = slot(hashCode(key));
+				while (keys[index] != null) {
+					index = (index + 1) & mask;
+				}
+				keys[index] = key;
+				values[index] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Spreads the given hash code over the table with a Fibonacci hash, so
+	 * that sequential hash codes do not form long clusters.
+	 */
+	private int slot(int hashCode) {
+		return (hashCode * 0x9E3779B9) >>> (32 - bits);
+	}
+
+	private int hashCode(Object key) {
+		if (comparer == null) {
+			return key.hashCode();
+		}
+		return comparer.hashCode(key);
+	}
+
+	private boolean keyEquals(Object a, Object b) {
+		if (comparer == null) {
+			return a.equals(b);
+		}
+		return comparer.equals(a, b);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append('{');
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null) {
+				if (buffer.length() > 1) {
+					buffer.append(", "); //$NON-NLS-1$
+				}
+				buffer.append(keys[i]);
+				buffer.append('=');
+				buffer.append(values[i]);
+			}
+		}
+		buffer.append('}');
+		return buffer.toString();
+	}
+}
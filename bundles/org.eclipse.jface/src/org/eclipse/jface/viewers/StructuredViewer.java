@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
@@ -66,7 +67,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * <code>Object</code>, value type: <code>Widget</code>, or <code>Widget[]</code>).
 	 * <code>null</code> means that the element map is disabled.
 	 */
-	private CustomHashtable elementMap;
+	private ElementItemMap elementMap;
 
 	/**
 	 * The comparer to use for comparing elements, or <code>null</code> to use
@@ -86,6 +87,19 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	private List<ViewerFilter> filters;
 
+	/**
+	 * The default minimum number of children filtered or sorted in parallel.
+	 */
+	private static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+	/**
+	 * Minimum number of children which thread-safe filters and comparators
+	 * process in parallel.
+	 *
+	 * @see #setParallelThreshold(int)
+	 */
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
 	/**
 	 * Indicates whether the viewer should attempt to preserve the selection
 	 * across update operations.
@@ -1068,10 +1082,16 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * Returns the sorted and filtered set of children of the given element. The
 	 * resulting array must not be modified, as it may come directly from the
 	 * model's internal state.
+	 * <p>
+	 * The children are sorted with {@link ViewerComparator#sort(Viewer, Object[])},
+	 * which computes the category and label of each child only once if the
+	 * comparator uses sort keys.
+	 * </p>
 	 *
 	 * @param parent
 	 *            the parent element
 	 * @return a sorted and filtered array of child elements
+	 * @see ViewerComparator#setUseSortKeys(boolean)
 	 */
 	protected Object[] getSortedChildren(Object parent) {
 		Object[] result = getFilteredChildren(parent);
@@ -1802,6 +1822,49 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		}
 	}
 
+	/**
+	 * Sets the minimum number of children which are filtered and sorted in
+	 * parallel, using the common fork-join pool, by the filters and the
+	 * comparator of this viewer declaring themselves thread-safe. The
+	 * comparator must also use sort keys. Smaller arrays of children are
+	 * processed by the calling thread only.
+	 * <p>
+	 * The default threshold is 10000 children. Passing
+	 * <code>Integer.MAX_VALUE</code> disables parallel processing.
+	 * </p>
+	 *
+	 * @param threshold
+	 *            the minimum number of children processed in parallel
+	 * @see ViewerFilter#isThreadSafe()
+	 * @see ViewerComparator#isThreadSafe()
+	 * @since 3.14
+	 */
+	public void setParallelThreshold(int threshold) {
+		Assert.isTrue(threshold > 0, "The threshold must be positive"); //$NON-NLS-1$
+		parallelThreshold = threshold;
+	}
+
+	/**
+	 * Returns the minimum number of children which are filtered and sorted in
+	 * parallel by thread-safe filters and comparators.
+	 *
+	 * @return the minimum number of children processed in parallel
+	 * @see #setParallelThreshold(int)
+	 * @since 3.14
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Returns whether the given number of children of the given viewer should
+	 * be filtered or sorted in parallel by a thread-safe filter or comparator.
+	 */
+	static boolean isParallel(Viewer viewer, int count) {
+		return viewer instanceof StructuredViewer && count >= ((StructuredViewer) viewer).parallelThreshold
+				&& ForkJoinPool.getCommonPoolParallelism() > 1;
+	}
+
 	/**
 	 * Configures whether this structured viewer uses an internal hash table to
 	 * speeds up the mapping between elements and SWT items. This must be called
@@ -1815,7 +1878,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		Assert.isTrue(getInput() == null,
 				"Can only enable the hash look up before input has been set");//$NON-NLS-1$
 		if (enable) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = new ElementItemMap(ElementItemMap.DEFAULT_CAPACITY, getComparer());
 		} else {
 			elementMap = null;
 		}
@@ -1833,7 +1896,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	public void setComparer(IElementComparer comparer) {
 		this.comparer = comparer;
 		if (elementMap != null) {
-			elementMap = new CustomHashtable(elementMap, comparer);
+			elementMap = new ElementItemMap(elementMap, comparer);
 		}
 	}
 
@@ -1902,7 +1965,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	protected void unmapAllElements() {
 		if (elementMap != null) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = new ElementItemMap(ElementItemMap.DEFAULT_CAPACITY, getComparer());
 		}
 	}
 
@@ -2320,7 +2383,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		comparer = null;
 		if (filters != null)
 			filters.clear();
-		elementMap = newHashtable(1);
+		elementMap = new ElementItemMap(1, getComparer());
 		openListeners.clear();
 		doubleClickListeners.clear();
 		colorAndFontCollector.clear();
@@ -138,6 +138,12 @@ public abstract class ViewerColumn {
 			Assert.isTrue(false, "Column " + cell.getColumnIndex() + //$NON-NLS-1$
 			" has no label provider."); //$NON-NLS-1$
 		}
+		BackgroundLabelUpdater labelUpdater = viewer.getBackgroundLabelUpdater();
+		if (labelUpdater != null && labelProvider instanceof ColumnLabelProvider
+				&& ((ColumnLabelProvider) labelProvider).isThreadSafe()) {
+			labelUpdater.update(cell, (ColumnLabelProvider) labelProvider);
+			return;
+		}
 		labelProvider.update(cell);
 	}
 
@@ -13,8 +13,11 @@
 
 package org.eclipse.jface.viewers;
 
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.stream.IntStream;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -38,6 +41,16 @@ import org.eclipse.jface.util.Policy;
  * categorization; and they may override the <code>compare</code> methods
  * to provide a totally different way of sorting elements.
  * </p>
+ * <p>
+ * Sorting large numbers of elements can be sped up by enabling sort keys with
+ * {@link #setUseSortKeys(boolean)}. The category and label of each element are
+ * then only computed once per sort, instead of once per comparison.
+ * </p>
+ * <p>
+ * Subclasses using sort keys whose <code>category</code> method and label
+ * provider can be called concurrently may override <code>isThreadSafe</code>,
+ * letting structured viewers sort large arrays of elements in parallel.
+ * </p>
  * @see IStructuredContentProvider
  * @see StructuredViewer
  *
@@ -50,6 +63,12 @@ public class ViewerComparator {
 	 */
 	private Comparator<? super String> comparator;
 
+	/**
+	 * Whether {@link #sort(Viewer, Object[])} precomputes the category and
+	 * label of the elements.
+	 */
+	private boolean useSortKeys;
+
 	/**
      * Creates a new {@link ViewerComparator}, which uses the default comparator
      * to sort strings.
@@ -84,6 +103,68 @@ public class ViewerComparator {
 		return comparator;
 	}
 
+	/**
+	 * Sets whether {@link #sort(Viewer, Object[])} computes the category and
+	 * the label of each element once and sorts the elements by these keys,
+	 * instead of calling {@link #compare(Viewer, Object, Object)} for each
+	 * comparison. If the comparator used to sort strings is a {@link Collator},
+	 * the labels are compared through their {@link CollationKey}s.
+	 * <p>
+	 * The elements are sorted in the same order as with the default
+	 * <code>compare</code> method. Subclasses overriding
+	 * <code>compare</code> must not enable sort keys, as the keys bypass that
+	 * method; they may still override <code>category</code>. Sort keys are
+	 * disabled by default.
+	 * </p>
+	 *
+	 * @param enable
+	 *            <code>true</code> to sort by precomputed keys,
+	 *            <code>false</code> to compare the elements with
+	 *            <code>compare</code>
+	 * @since 3.14
+	 */
+	public void setUseSortKeys(boolean enable) {
+		useSortKeys = enable;
+	}
+
+	/**
+	 * Returns whether {@link #sort(Viewer, Object[])} sorts the elements by
+	 * precomputed keys.
+	 *
+	 * @return <code>true</code> if sort keys are enabled
+	 * @see #setUseSortKeys(boolean)
+	 * @since 3.14
+	 */
+	public boolean isUseSortKeys() {
+		return useSortKeys;
+	}
+
+	/**
+	 * Returns whether this comparator can be called concurrently from any
+	 * thread to sort the elements of a viewer. This requires the
+	 * <code>category</code> method, the comparator used to sort strings and
+	 * the label provider of the viewer to only read state which is not
+	 * modified while sorting, and not to access any widget. A {@link Collator}
+	 * used to sort strings is supported, as each thread uses its own copy.
+	 * <p>
+	 * Only sorts by sort keys run in parallel, since the <code>compare</code>
+	 * method shares the comparator used to sort strings between threads. The
+	 * elements are sorted by the calling thread if sort keys are disabled.
+	 * </p>
+	 * <p>
+	 * The default implementation of this method returns <code>false</code>.
+	 * Subclasses may reimplement.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the elements may be sorted in parallel
+	 * @see #setUseSortKeys(boolean)
+	 * @see StructuredViewer#setParallelThreshold(int)
+	 * @since 3.14
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+
     /**
      * Returns the category of the given element. The category is a
      * number used to allocate elements to bins; the bins are arranged
@@ -191,16 +272,33 @@ public class ViewerComparator {
 	 * given array, calling {@link #compare(Viewer, Object, Object)} to compare
 	 * elements.
      * </p>
+     * <p>
+	 * If sort keys are enabled, the elements are instead sorted by their
+	 * category and label, each computed once.
+     * </p>
+     * <p>
+	 * If sort keys are enabled, this comparator is thread-safe and the viewer
+	 * is a {@link StructuredViewer} with at least
+	 * {@link StructuredViewer#getParallelThreshold()} elements to sort, the
+	 * elements are sorted in parallel by the threads of the common fork-join
+	 * pool.
+     * </p>
      * <p>
      * Subclasses may reimplement this method to provide a more optimized implementation.
      * </p>
      *
      * @param viewer the viewer
      * @param elements the elements to sort
+     * @see #setUseSortKeys(boolean)
      */
 	public void sort(final Viewer viewer, Object[] elements) {
 		try {
-			Arrays.sort(elements, (a, b) -> ViewerComparator.this.compare(viewer, a, b));
+			if (useSortKeys) {
+				sortByKeys(viewer, elements,
+						isThreadSafe() && StructuredViewer.isParallel(viewer, elements.length));
+			} else {
+				Arrays.sort(elements, (a, b) -> ViewerComparator.this.compare(viewer, a, b));
+			}
 		} catch (IllegalArgumentException e) {
 			String msg = e.toString()
 					+ "\nWorkaround for comparator violation:\n\tSet system property -Djava.util.Arrays.useLegacyMergeSort=true" //$NON-NLS-1$
@@ -225,4 +323,63 @@ public class ViewerComparator {
 			throw e;
 		}
 	}
+
+	private void sortByKeys(Viewer viewer, Object[] elements, boolean parallel) {
+		if (elements.length < 2) {
+			return;
+		}
+		Comparator<? super String> stringComparator = getComparator();
+		Collator collator = stringComparator instanceof Collator ? (Collator) stringComparator : null;
+		SortKey[] keys = new SortKey[elements.length];
+		if (parallel) {
+			// collators are not thread-safe, each thread uses its own copy
+			ThreadLocal<Collator> collators = ThreadLocal
+					.withInitial(() -> collator != null ? (Collator) collator.clone() : null);
+			IntStream.range(0, elements.length).parallel()
+					.forEach(i -> keys[i] = createSortKey(viewer, elements[i], collators.get()));
+		} else {
+			for (int i = 0; i < elements.length; i++) {
+				keys[i] = createSortKey(viewer, elements[i], collator);
+			}
+		}
+		Comparator<SortKey> keyComparator;
+		if (collator != null) {
+			keyComparator = (k1, k2) -> k1.category != k2.category ? k1.category - k2.category
+					: k1.collationKey.compareTo(k2.collationKey);
+		} else {
+			keyComparator = (k1, k2) -> k1.category != k2.category ? k1.category - k2.category
+					: stringComparator.compare(k1.label, k2.label);
+		}
+		if (parallel) {
+			Arrays.parallelSort(keys, keyComparator);
+		} else {
+			Arrays.sort(keys, keyComparator);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			elements[i] = keys[i].element;
+		}
+	}
+
+	private SortKey createSortKey(Viewer viewer, Object element, Collator collator) {
+		String label = getLabel(viewer, element);
+		return new SortKey(element, category(element), label,
+				collator != null ? collator.getCollationKey(label) : null);
+	}
+
+	/**
+	 * The precomputed category and label of an element.
+	 */
+	private static final class SortKey {
+		final Object element;
+		final int category;
+		final String label;
+		final CollationKey collationKey;
+
+		SortKey(Object element, int category, String label, CollationKey collationKey) {
+			this.element = element;
+			this.category = category;
+			this.label = label;
+			this.collationKey = collationKey;
+		}
+	}
 }
@@ -12,6 +12,7 @@
 package org.eclipse.jface.viewers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * A viewer filter is used by a structured viewer to extract a subset of
@@ -20,6 +21,11 @@ import java.util.ArrayList;
  * Subclasses must implement the <code>select</code> method and may implement
  * the <code>isFilterProperty</code> method.
  * </p>
+ * <p>
+ * Subclasses whose <code>select</code> method can be called concurrently may
+ * override <code>isThreadSafe</code>, letting structured viewers filter large
+ * arrays of elements in parallel.
+ * </p>
  *
  * @see IStructuredContentProvider
  * @see StructuredViewer
@@ -37,7 +43,11 @@ public abstract class ViewerFilter {
 	 * <p>
 	 * The default implementation of this method calls <code>select</code> on
 	 * each element in the array, and returns only those elements for which
-	 * <code>select</code> returns <code>true</code>.
+	 * <code>select</code> returns <code>true</code>. If this filter is
+	 * thread-safe and the viewer is a {@link StructuredViewer} with at least
+	 * {@link StructuredViewer#getParallelThreshold()} elements to filter,
+	 * <code>select</code> is called in parallel by the threads of the common
+	 * fork-join pool.
 	 * </p>
 	 *
 	 * @param viewer
@@ -49,6 +59,9 @@ public abstract class ViewerFilter {
 	 * @return the filtered elements
 	 */
 	public Object[] filter(Viewer viewer, Object parent, Object[] elements) {
+		if (isThreadSafe() && StructuredViewer.isParallel(viewer, elements.length)) {
+			return Arrays.stream(elements).parallel().filter(element -> select(viewer, parent, element)).toArray();
+		}
 		int size = elements.length;
 		ArrayList<Object> out = new ArrayList<>(size);
 		for (int i = 0; i < size; ++i) {
@@ -101,6 +114,24 @@ public abstract class ViewerFilter {
 		return false;
 	}
 
+	/**
+	 * Returns whether the <code>select</code> method of this filter can be
+	 * called concurrently from any thread, with the viewer and the elements
+	 * being filtered. This is the case if it only reads state which is not
+	 * modified while filtering, and does not access any widget.
+	 * <p>
+	 * The default implementation of this method returns <code>false</code>.
+	 * Subclasses may reimplement.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the elements may be filtered in parallel
+	 * @see StructuredViewer#setParallelThreshold(int)
+	 * @since 3.14
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * Returns whether the given element makes it through this filter.
 	 *
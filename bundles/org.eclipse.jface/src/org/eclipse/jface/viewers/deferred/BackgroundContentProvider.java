@@ -44,7 +44,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
  * </ol>
  *
  * <p>
- * Internally, sorting is done using a <code>LazySortedCollection</code>. This data structure
+ * Internally, sorting is done using a <code>ChunkedSortedCollection</code>. This data structure
  * allows the content provider to locate and sort the visible range without fully sorting
  * all elements in the table. It also supports fast cancellation, allowing the visible range
  * to change in the middle of a sort without discarding partially-sorted information from
@@ -179,10 +179,10 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 
        	mon.beginTask(SORTING, 100);
 
-        // Create a LazySortedCollection
+        // Create a ChunkedSortedCollection
         Comparator order = sortOrder;
         IFilter f = filter;
-        LazySortedCollection collection = new LazySortedCollection(order);
+        ChunkedSortedCollection collection = new ChunkedSortedCollection(order);
 
         // Fill it in with all existing known objects
         Object[] knownObjects = updator.getKnownObjects();
@@ -198,13 +198,13 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 
 		// Start processing changes
         while(true) {
-        	// If the sort order has changed, build a new LazySortedCollection with
+        	// If the sort order has changed, build a new ChunkedSortedCollection with
         	// the new comparator
         	if (order != sortOrder) {
         		dirty = true;
         		order = sortOrder;
         		// Copy all elements from the old collection to the new one
-        		LazySortedCollection newCollection = new LazySortedCollection(order);
+        		ChunkedSortedCollection newCollection = new ChunkedSortedCollection(order);
 
         		Object[] items = collection.getItems(false);
         		for (int j = 0; j < items.length && order == sortOrder; j++) {
@@ -352,7 +352,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 	 * @param collection
 	 * @param toAdd
 	 */
-	private static void filteredAdd(LazySortedCollection collection, Object[] toAdd, IFilter filter) {
+	private static void filteredAdd(ChunkedSortedCollection collection, Object[] toAdd, IFilter filter) {
 		if (filter != AcceptAllFilter.getInstance()) {
 			for (Object object : toAdd) {
 				if (filter.select(object)) {
@@ -538,7 +538,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
      * @param toFlush changed elements
      * @param collection collection of currently-known elements
      */
-    private void flush(Object[] toFlush, LazySortedCollection collection) {
+    private void flush(Object[] toFlush, ChunkedSortedCollection collection) {
         for (Object item : toFlush) {
             if (collection.contains(item)) {
                 updator.clear(item);
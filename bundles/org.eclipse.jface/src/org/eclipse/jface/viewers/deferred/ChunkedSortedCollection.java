@@ -0,0 +1,1013 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * This object maintains a collection of elements, sorted by a comparator
+ * given in the constructor. Like {@link LazySortedCollection}, the collection
+ * is lazily sorted and allows elements to be queried by their position in the
+ * sorted collection, but it stores its elements in primitive arrays and
+ * locates positions in logarithmic time.
+ *
+ * <p>
+ * The elements are stored in an ordered sequence of chunks: every element of
+ * a chunk is greater than or equal to every element of the previous chunks,
+ * but the elements within a chunk are only sorted once some operation needs
+ * to know their order. A Fenwick tree over the chunk sizes maps a position in
+ * the sorted collection onto a chunk. Initially all the elements are in a
+ * single unsorted chunk. When a query needs the exact set of elements at some
+ * position, the chunk containing that position is partitioned around a
+ * random pivot, quickselect style, until the position is at a chunk boundary
+ * or the chunk is small enough to be sorted.
+ * </p>
+ * <p>
+ * Adding an element compares it with the lower bounds of O(log n) chunks and
+ * appends it to its chunk, or inserts it if the chunk is small and sorted.
+ * Removing an element finds it in a hash table and takes it out of its chunk
+ * in constant time, or in time proportional to the chunk size if the chunk is
+ * small and sorted. Adding or removing k elements thus takes O(k log n) time.
+ * </p>
+ */
+class ChunkedSortedCollection {
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * Unsorted chunks up to this size are sorted rather than partitioned, and
+     * sorted chunks up to this size keep their order when elements are added
+     * or removed.
+     */
+    private static final int MAX_SORTED_CHUNK_SIZE = 256;
+
+    private static final float loadFactor = 0.75f;
+
+    /**
+     * Disables randomization and enables additional runtime error checking.
+     * Severely degrades performance if set to true. Intended for use in test
+     * suites only.
+     */
+    boolean enableDebug = false;
+
+    private final Comparator comparator;
+
+    /**
+     * The elements, by handle. Handles are indices into the arrays of
+     * elements, chunks and slots; the chunks refer to their elements by
+     * handle, so that moving an element does not need to update the map of
+     * elements onto handles.
+     */
+    private Object[] contents = new Object[MIN_CAPACITY];
+    private Chunk[] chunkOf = new Chunk[MIN_CAPACITY];
+    private int[] slotOf = new int[MIN_CAPACITY];
+    private int lastHandle = 0;
+    private int[] freeHandles = new int[MIN_CAPACITY];
+    private int freeHandleCount = 0;
+
+    /**
+     * The chunks, in sort order.
+     */
+    private Chunk[] chunks = new Chunk[MIN_CAPACITY];
+    private int chunkCount = 0;
+    private int emptyChunkCount = 0;
+
+    /**
+     * Fenwick tree of the chunk sizes, 1-based. Rebuilt lazily after chunks
+     * are inserted or removed.
+     */
+    private int[] chunkSizeTree = new int[MIN_CAPACITY + 1];
+    private boolean chunkSizeTreeValid = true;
+
+    /**
+     * The offset within its chunk of the position located by the last call
+     * to {@link #locate(int)}.
+     */
+    private int locatedOffset;
+
+    private int size = 0;
+
+    /**
+     * Map of elements onto handles. Only constructed as needed, by the first
+     * removal or lookup.
+     */
+    private IntHashMap objectHandles;
+
+    private final Random random = new Random();
+
+    /**
+     * A run of elements, all greater than or equal to the elements of the
+     * previous chunks and less than or equal to the elements of the next
+     * chunks.
+     */
+    private static final class Chunk {
+        int[] handles;
+        int size;
+        boolean sorted;
+
+        /**
+         * Less than or equal to every element of this chunk and greater than
+         * or equal to every element of the previous chunks. Unused for the
+         * first chunk.
+         */
+        Object lowerBound;
+
+        /**
+         * The index of this chunk in the chunks array.
+         */
+        int index;
+
+        Chunk(Object lowerBound, int[] handles, int size) {
+            this.lowerBound = lowerBound;
+            this.handles = handles;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Creates a new sorted collection using the given comparator to determine
+     * sort order.
+     *
+     * @param c comparator that determines the sort order
+     */
+    ChunkedSortedCollection(Comparator c) {
+        this.comparator = c;
+    }
+
+    /**
+     * Tests if this object's internal state is valid. Throws a runtime
+     * exception if the state is invalid, indicating a programming error
+     * in this class. This method is intended for use in test
+     * suites and should not be called by clients.
+     */
+    void testInvariants() {
+        if (!enableDebug) {
+            return;
+        }
+
+        int totalSize = 0;
+        int emptyChunks = 0;
+        for (int index = 0; index < chunkCount; index++) {
+            Chunk chunk = chunks[index];
+            Assert.isTrue(chunk.index == index, "invalid chunk index"); //$NON-NLS-1$
+            for (int slot = 0; slot < chunk.size; slot++) {
+                int handle = chunk.handles[slot];
+                Assert.isTrue(chunkOf[handle] == chunk, "invalid chunk of element"); //$NON-NLS-1$
+                Assert.isTrue(slotOf[handle] == slot, "invalid slot of element"); //$NON-NLS-1$
+                Object element = contents[handle];
+                Assert.isTrue(element != null, "null element"); //$NON-NLS-1$
+                if (index > 0) {
+                    Assert.isTrue(isLessOrEqual(chunk.lowerBound, element), "element less than chunk lower bound"); //$NON-NLS-1$
+                }
+                if (index + 1 < chunkCount) {
+                    Assert.isTrue(isLessOrEqual(element, chunks[index + 1].lowerBound), "element greater than next chunk"); //$NON-NLS-1$
+                }
+                if (chunk.sorted && slot > 0) {
+                    Assert.isTrue(isLessOrEqual(contents[chunk.handles[slot - 1]], element), "sorted chunk is not sorted"); //$NON-NLS-1$
+                }
+                if (objectHandles != null) {
+                    Assert.isTrue(objectHandles.containsKey(element), "element missing from the map"); //$NON-NLS-1$
+                }
+            }
+            totalSize += chunk.size;
+            if (chunk.size == 0) {
+                emptyChunks++;
+            }
+        }
+        Assert.isTrue(totalSize == size, "invalid size"); //$NON-NLS-1$
+        Assert.isTrue(emptyChunks == emptyChunkCount, "invalid number of empty chunks"); //$NON-NLS-1$
+        Assert.isTrue(lastHandle - freeHandleCount == size, "invalid number of handles"); //$NON-NLS-1$
+        if (objectHandles != null) {
+            Assert.isTrue(objectHandles.size() <= size, "invalid map size"); //$NON-NLS-1$
+        }
+        if (chunkSizeTreeValid) {
+            for (int index = 0, start = 0; index < chunkCount; index++) {
+                if (chunks[index].size > 0) {
+                    Assert.isTrue(locate(start) == index && locatedOffset == 0, "invalid chunk size tree"); //$NON-NLS-1$
+                }
+                start += chunks[index].size;
+            }
+        }
+    }
+
+    private boolean isLessOrEqual(Object element1, Object element2) {
+        return comparator.compare(element1, element2) <= 0;
+    }
+
+    /**
+     * Returns the number of elements in the collection
+     *
+     * @return the number of elements in the collection
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Increases the capacity of this collection, if necessary, so that it can hold the
+     * given number of elements. This can be used prior to a sequence of additions to
+     * avoid memory reallocation. This cannot be used to reduce the amount
+     * of memory used by the collection.
+     *
+     * @param newSize capacity for this collection
+     */
+    public final void setCapacity(int newSize) {
+        if (newSize > contents.length) {
+            contents = Arrays.copyOf(contents, newSize);
+            chunkOf = Arrays.copyOf(chunkOf, newSize);
+            slotOf = Arrays.copyOf(slotOf, newSize);
+        }
+    }
+
+    /**
+     * Adds the given object to the collection. Runs in O(log n) amortized time,
+     * and without any comparison as long as the collection has not been
+     * queried.
+     *
+     * @param toAdd object to add
+     */
+    public final void add(Object toAdd) {
+        Assert.isNotNull(toAdd);
+        internalAdd(toAdd);
+
+        testInvariants();
+    }
+
+    /**
+     * Adds all items from the given collection to this collection
+     *
+     * @param toAdd objects to add
+     */
+    public final void addAll(Collection toAdd) {
+        Assert.isNotNull(toAdd);
+        setCapacity(size + toAdd.size());
+        Iterator iter = toAdd.iterator();
+        while (iter.hasNext()) {
+            Object next = iter.next();
+            Assert.isNotNull(next);
+            internalAdd(next);
+        }
+
+        testInvariants();
+    }
+
+    /**
+     * Adds all items from the given array to the collection
+     *
+     * @param toAdd objects to add
+     */
+    public final void addAll(Object[] toAdd) {
+        Assert.isNotNull(toAdd);
+        setCapacity(size + toAdd.length);
+        for (Object object : toAdd) {
+            Assert.isNotNull(object);
+            internalAdd(object);
+        }
+
+        testInvariants();
+    }
+
+    private void internalAdd(Object toAdd) {
+        int handle = createHandle(toAdd);
+        if (chunkCount == 0) {
+            insertChunks(0, new Chunk(null, new int[MIN_CAPACITY], 0));
+        }
+        insert(findChunk(toAdd), handle);
+        size++;
+    }
+
+    /**
+     * Returns true iff the collection is empty
+     *
+     * @return true iff the collection contains no elements
+     */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes the given object from the collection. Has no effect if
+     * the element does not exist in this collection.
+     *
+     * @param toRemove element to remove
+     */
+    public final void remove(Object toRemove) {
+        internalRemove(toRemove);
+
+        testInvariants();
+    }
+
+    private void internalRemove(Object toRemove) {
+        int handle = getHandle(toRemove);
+
+        if (handle != -1) {
+            removeHandle(handle);
+        }
+    }
+
+    /**
+     * Removes all elements in the given array from this collection.
+     *
+     * @param toRemove elements to remove
+     */
+    public final void removeAll(Object[] toRemove) {
+        Assert.isNotNull(toRemove);
+
+        for (Object object : toRemove) {
+            internalRemove(object);
+        }
+
+        testInvariants();
+    }
+
+    /**
+     * Retains the n smallest items in the collection, removing the rest. When
+     * this method returns, the size of the collection will be n. Note that
+     * this is a no-op if n > the current size of the collection.
+     *
+     * @param n number of items to retain
+     * @param mon progress monitor
+     * @throws InterruptedException if the progress monitor is cancelled in another thread
+     */
+    /* package */ final void retainFirst(int n, FastProgressReporter mon) throws InterruptedException {
+        int sz = size();
+
+        if (n >= sz) {
+            return;
+        }
+
+        removeRange(n, sz - n, mon);
+
+        testInvariants();
+    }
+
+    /**
+     * Retains the n smallest items in the collection, removing the rest. When
+     * this method returns, the size of the collection will be n. Note that
+     * this is a no-op if n > the current size of the collection.
+     *
+     * @param n number of items to retain
+     */
+    public final void retainFirst(int n) {
+        try {
+            retainFirst(n, new FastProgressReporter());
+        } catch (InterruptedException e) {
+        }
+
+        testInvariants();
+    }
+
+    /**
+     * Removes all elements in the given range from this collection.
+     * For example, removeRange(10, 3) would remove the 11th through 13th
+     * smallest items from the collection.
+     *
+     * @param first 0-based index of the smallest item to remove
+     * @param length number of items to remove
+     */
+    public final void removeRange(int first, int length) {
+        try {
+            removeRange(first, length, new FastProgressReporter());
+        } catch (InterruptedException e) {
+        }
+
+        testInvariants();
+    }
+
+    /**
+     * Removes all elements in the given range from this collection.
+     * For example, removeRange(10, 3) would remove the 11th through 13th
+     * smallest items from the collection.
+     *
+     * @param first 0-based index of the smallest item to remove
+     * @param length number of items to remove
+     * @param mon progress monitor
+     * @throws InterruptedException if the progress monitor is cancelled in another thread
+     */
+    /* package */ final void removeRange(int first, int length, FastProgressReporter mon) throws InterruptedException {
+        if (first < 0 || first >= size || length <= 0) {
+            return;
+        }
+        length = Math.min(length, size - first);
+
+        split(first, mon);
+        split(first + length, mon);
+
+        int index = locate(first);
+        int offset = locatedOffset;
+        int remaining = length;
+        while (remaining > 0) {
+            Chunk chunk = chunks[index++];
+            int count = Math.min(chunk.size - offset, remaining);
+            if (count == 0) {
+                continue;
+            }
+            int[] handles = chunk.handles;
+            for (int slot = offset; slot < offset + count; slot++) {
+                destroyHandle(handles[slot]);
+            }
+            // The chunk is sorted unless all of its elements are removed
+            int moved = chunk.size - offset - count;
+            System.arraycopy(handles, offset + count, handles, offset, moved);
+            for (int slot = offset; slot < offset + moved; slot++) {
+                slotOf[handles[slot]] = slot;
+            }
+            chunk.size -= count;
+            if (chunk.size == 0) {
+                emptyChunkCount++;
+            }
+            size -= count;
+            remaining -= count;
+            offset = 0;
+        }
+        chunkSizeTreeValid = false;
+        removeEmptyChunks();
+
+        testInvariants();
+    }
+
+    /**
+     * Removes all elements from the collection
+     */
+    public final void clear() {
+        contents = new Object[MIN_CAPACITY];
+        chunkOf = new Chunk[MIN_CAPACITY];
+        slotOf = new int[MIN_CAPACITY];
+        lastHandle = 0;
+        freeHandles = new int[MIN_CAPACITY];
+        freeHandleCount = 0;
+        chunks = new Chunk[MIN_CAPACITY];
+        chunkCount = 0;
+        emptyChunkCount = 0;
+        chunkSizeTreeValid = false;
+        size = 0;
+        objectHandles = null;
+
+        testInvariants();
+    }
+
+    /**
+     * Returns the comparator that is determining the sort order for this collection
+     *
+     * @return comparator for this collection
+     */
+    public Comparator getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Fills in an array of size n with the n smallest elements from the collection.
+     * Can compute the result in sorted or unsorted order.
+     *
+     * @param result array to be filled
+     * @param sorted if true, the result array will be sorted. If false, the result array
+     * may be unsorted. This does not affect which elements appear in the result, only their
+     * order.
+     * @param mon monitor used to report progress and check for cancellation
+     * @return the number of items inserted into the result array. This will be equal to the minimum
+     * of result.length and container.size()
+     * @throws InterruptedException if the progress monitor is cancelled
+     */
+    /* package */ final int getFirst(Object[] result, boolean sorted, FastProgressReporter mon) throws InterruptedException {
+        int returnValue = getRange(result, 0, sorted, mon);
+
+        testInvariants();
+
+        return returnValue;
+    }
+
+    /**
+     * Fills in an array of size n with the n smallest elements from the collection.
+     * Can compute the result in sorted or unsorted order.
+     *
+     * @param result array to be filled
+     * @param sorted if true, the result array will be sorted. If false, the result array
+     * may be unsorted. This does not affect which elements appear in the result. It only
+     * affects their order. Computing an unsorted result is asymptotically faster.
+     * @return the number of items inserted into the result array. This will be equal to the minimum
+     * of result.length and container.size()
+     */
+    public final int getFirst(Object[] result, boolean sorted) {
+        int returnValue = 0;
+
+        try {
+            returnValue = getFirst(result, sorted, new FastProgressReporter());
+        } catch (InterruptedException e) {
+        }
+
+        testInvariants();
+
+        return returnValue;
+    }
+
+    /**
+     * Given a position defined by k and an array of size n, this fills in the array with
+     * the kth smallest element through to the (k+n)th smallest element. The result can be
+     * computed in sorted or unsorted order. Computing the result in unsorted order is more
+     * efficient.
+     *
+     * @param result array to be filled in
+     * @param rangeStart index of the smallest element to appear in the result
+     * @param sorted true iff the result array should be sorted
+     * @param mon progress monitor used to cancel the operation
+     * @return the number of items actually inserted into the result array
+     * @throws InterruptedException if the progress monitor was cancelled in another thread
+     */
+    /* package */ final int getRange(Object[] result, int rangeStart, boolean sorted, FastProgressReporter mon) throws InterruptedException {
+        if (rangeStart < 0 || rangeStart >= size) {
+            return 0;
+        }
+        int count = Math.min(result.length, size - rangeStart);
+        if (count == 0) {
+            return 0;
+        }
+        int end = rangeStart + count;
+
+        // Make sure that both ends of the range are either at chunk boundaries
+        // or in sorted chunks
+        split(rangeStart, mon);
+        split(end, mon);
+
+        if (sorted) {
+            sortRange(rangeStart, end, mon);
+        }
+
+        int index = locate(rangeStart);
+        int offset = locatedOffset;
+        int filled = 0;
+        while (filled < count) {
+            Chunk chunk = chunks[index++];
+            int n = Math.min(chunk.size - offset, count - filled);
+            int[] handles = chunk.handles;
+            for (int i = 0; i < n; i++) {
+                result[filled + i] = contents[handles[offset + i]];
+            }
+            filled += n;
+            offset = 0;
+        }
+
+        return count;
+    }
+
+    /**
+     * Computes the n through n+k items in this collection.
+     * Computing the result in unsorted order is more efficient. Sorting the result will
+     * not change which elements actually show up in the result. That is, even if the result is
+     * unsorted, it will still contain the same elements as would have been at that range in
+     * a fully sorted collection.
+     *
+     * @param result array containing the result
+     * @param rangeStart index of the first element to be inserted into the result array
+     * @param sorted true iff the result will be computed in sorted order
+     * @return the number of items actually inserted into the result array (will be the minimum
+     * of result.length and this.size())
+     */
+    public final int getRange(Object[] result, int rangeStart, boolean sorted) {
+        int returnValue = 0;
+
+        try {
+            returnValue = getRange(result, rangeStart, sorted, new FastProgressReporter());
+        } catch (InterruptedException e) {
+        }
+
+        testInvariants();
+
+        return returnValue;
+    }
+
+    /**
+     * Returns the item at the given index. Indexes are based on sorted order.
+     *
+     * @param index index to test
+     * @return the item at the given index
+     */
+    public final Object getItem(int index) {
+        Object[] result = new Object[1];
+        try {
+            getRange(result, index, false, new FastProgressReporter());
+        } catch (InterruptedException e) {
+            // shouldn't happen
+        }
+        Object returnValue = result[0];
+
+        testInvariants();
+
+        return returnValue;
+    }
+
+    /**
+     * Returns the contents of this collection as a sorted or unsorted
+     * array. Computing an unsorted array is more efficient.
+     *
+     * @param sorted if true, the result will be in sorted order. If false,
+     * the result may be in unsorted order.
+     * @return the contents of this collection as an array.
+     */
+    public final Object[] getItems(boolean sorted) {
+        Object[] result = new Object[size()];
+
+        getRange(result, 0, sorted);
+
+        return result;
+    }
+
+    /**
+     * Returns true iff this collection contains the given item
+     *
+     * @param item item to test
+     * @return true iff this collection contains the given item
+     */
+    public boolean contains(Object item) {
+        Assert.isNotNull(item);
+        boolean returnValue = (getHandle(item) != -1);
+
+        testInvariants();
+
+        return returnValue;
+    }
+
+    private int createHandle(Object value) {
+        int handle;
+        if (freeHandleCount > 0) {
+            handle = freeHandles[--freeHandleCount];
+        } else {
+            if (lastHandle == contents.length) {
+                setCapacity(lastHandle * 2);
+            }
+            handle = lastHandle++;
+        }
+        contents[handle] = value;
+
+        if (objectHandles != null) {
+            objectHandles.put(value, handle);
+        }
+
+        return handle;
+    }
+
+    private void destroyHandle(int handle) {
+        Object value = contents[handle];
+        if (objectHandles != null && objectHandles.get(value, -1) == handle) {
+            objectHandles.remove(value);
+        }
+        contents[handle] = null;
+        chunkOf[handle] = null;
+
+        if (freeHandleCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeHandleCount * 2);
+        }
+        freeHandles[freeHandleCount++] = handle;
+    }
+
+    /**
+     * Returns the handle of the given element, or -1 if it is not in this collection.
+     */
+    private int getHandle(Object value) {
+        // If we don't have a map of values onto handles, build the map now.
+        if (objectHandles == null) {
+            objectHandles = new IntHashMap((int) (size / loadFactor) + 1, loadFactor);
+
+            for (int index = 0; index < chunkCount; index++) {
+                Chunk chunk = chunks[index];
+                for (int slot = 0; slot < chunk.size; slot++) {
+                    int handle = chunk.handles[slot];
+                    objectHandles.put(contents[handle], handle);
+                }
+            }
+        }
+
+        return objectHandles.get(value, -1);
+    }
+
+    /**
+     * Returns the last chunk whose lower bound is less than or equal to the given
+     * element.
+     */
+    private Chunk findChunk(Object value) {
+        int result = 0;
+        int low = 1;
+        int high = chunkCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (isLessOrEqual(chunks[mid].lowerBound, value)) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return chunks[result];
+    }
+
+    /**
+     * Adds the element with the given handle to the given chunk. Small sorted
+     * chunks remain sorted.
+     */
+    private void insert(Chunk chunk, int handle) {
+        int n = chunk.size;
+        if (n == chunk.handles.length) {
+            chunk.handles = Arrays.copyOf(chunk.handles, n * 2);
+        }
+        int[] handles = chunk.handles;
+        int slot = n;
+        if (chunk.sorted && n > 0) {
+            if (n < MAX_SORTED_CHUNK_SIZE) {
+                Object value = contents[handle];
+                int low = 0;
+                int high = n;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (isLessOrEqual(contents[handles[mid]], value)) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                slot = low;
+                System.arraycopy(handles, slot, handles, slot + 1, n - slot);
+                for (int i = slot + 1; i <= n; i++) {
+                    slotOf[handles[i]] = i;
+                }
+            } else {
+                chunk.sorted = false;
+            }
+        }
+        handles[slot] = handle;
+        chunkOf[handle] = chunk;
+        slotOf[handle] = slot;
+        chunk.size = n + 1;
+        if (n == 0) {
+            emptyChunkCount--;
+        }
+        chunkSizeChanged(chunk, 1);
+    }
+
+    private void removeHandle(int handle) {
+        Chunk chunk = chunkOf[handle];
+        int slot = slotOf[handle];
+        int[] handles = chunk.handles;
+        int n = chunk.size - 1;
+        if (chunk.sorted && n < MAX_SORTED_CHUNK_SIZE) {
+            System.arraycopy(handles, slot + 1, handles, slot, n - slot);
+            for (int i = slot; i < n; i++) {
+                slotOf[handles[i]] = i;
+            }
+        } else {
+            chunk.sorted = false;
+            int last = handles[n];
+            handles[slot] = last;
+            slotOf[last] = slot;
+        }
+        chunk.size = n;
+        chunkSizeChanged(chunk, -1);
+        destroyHandle(handle);
+        size--;
+
+        if (n == 0) {
+            emptyChunkCount++;
+            removeEmptyChunks();
+        }
+    }
+
+    private void chunkSizeChanged(Chunk chunk, int delta) {
+        if (chunkSizeTreeValid) {
+            for (int i = chunk.index + 1; i <= chunkCount; i += i & -i) {
+                chunkSizeTree[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the chunk containing the element at the given position
+     * in sort order, and sets {@link #locatedOffset} to its offset in the chunk.
+     */
+    private int locate(int position) {
+        if (!chunkSizeTreeValid) {
+            rebuildChunkSizeTree();
+        }
+        int index = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(chunkCount); step != 0; step >>= 1) {
+            int next = index + step;
+            if (next <= chunkCount && chunkSizeTree[next] <= remaining) {
+                index = next;
+                remaining -= chunkSizeTree[next];
+            }
+        }
+        locatedOffset = remaining;
+        return index;
+    }
+
+    private void rebuildChunkSizeTree() {
+        if (chunkSizeTree.length <= chunkCount) {
+            chunkSizeTree = new int[chunks.length + 1];
+        }
+        chunkSizeTree[0] = 0;
+        for (int i = 1; i <= chunkCount; i++) {
+            chunkSizeTree[i] = chunks[i - 1].size;
+        }
+        for (int i = 1; i <= chunkCount; i++) {
+            int parent = i + (i & -i);
+            if (parent <= chunkCount) {
+                chunkSizeTree[parent] += chunkSizeTree[i];
+            }
+        }
+        chunkSizeTreeValid = true;
+    }
+
+    /**
+     * Partitions or sorts the chunk containing the given position until the position
+     * is at a chunk boundary or in a sorted chunk.
+     */
+    private void split(int position, FastProgressReporter mon) throws InterruptedException {
+        while (position < size) {
+            int index = locate(position);
+            Chunk chunk = chunks[index];
+            if (locatedOffset == 0 || chunk.sorted) {
+                return;
+            }
+            if (mon.isCanceled()) {
+                throw new InterruptedException();
+            }
+            if (chunk.size <= MAX_SORTED_CHUNK_SIZE) {
+                sort(chunk);
+                return;
+            }
+            partition(index);
+        }
+    }
+
+    /**
+     * Sorts all the chunks between the given positions, which must be at chunk
+     * boundaries or in sorted chunks.
+     */
+    private void sortRange(int start, int end, FastProgressReporter mon) throws InterruptedException {
+        int index = locate(start);
+        int remaining = end - start + locatedOffset;
+        while (remaining > 0) {
+            Chunk chunk = chunks[index];
+            if (!chunk.sorted) {
+                if (mon.isCanceled()) {
+                    throw new InterruptedException();
+                }
+                if (chunk.size > MAX_SORTED_CHUNK_SIZE) {
+                    partition(index);
+                    continue;
+                }
+                sort(chunk);
+            }
+            remaining -= chunk.size;
+            index++;
+        }
+    }
+
+    /**
+     * Sorts the elements of the given chunk. Rather than moving the handles,
+     * this moves the elements between the handles of the chunk.
+     */
+    private void sort(Chunk chunk) {
+        int n = chunk.size;
+        int[] handles = chunk.handles;
+        Object[] values = new Object[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = contents[handles[i]];
+        }
+        Arrays.sort(values, comparator);
+        for (int i = 0; i < n; i++) {
+            contents[handles[i]] = values[i];
+        }
+        if (objectHandles != null) {
+            for (int i = 0; i < n; i++) {
+                objectHandles.put(values[i], handles[i]);
+            }
+        }
+        chunk.sorted = true;
+    }
+
+    /**
+     * Partitions the chunk at the given index around a random pivot into the
+     * elements less than, equal to and greater than the pivot. The elements less
+     * than the pivot stay in the chunk, the others move to new chunks following
+     * it.
+     */
+    private void partition(int index) {
+        Chunk chunk = chunks[index];
+        int[] handles = chunk.handles;
+        int n = chunk.size;
+        Object pivot = contents[handles[enableDebug ? n / 2 : random.nextInt(n)]];
+
+        // The greater elements are collected from the start of this array and the
+        // equal ones from its end
+        int[] others = new int[n];
+        int less = 0;
+        int greater = 0;
+        int equal = 0;
+        for (int i = 0; i < n; i++) {
+            int handle = handles[i];
+            int result = comparator.compare(contents[handle], pivot);
+            if (result < 0) {
+                handles[less] = handle;
+                slotOf[handle] = less;
+                less++;
+            } else if (result > 0) {
+                others[greater++] = handle;
+            } else {
+                others[n - 1 - equal++] = handle;
+            }
+        }
+
+        chunk.size = less;
+        chunk.sorted = less <= 1;
+        if (less < handles.length / 4) {
+            chunk.handles = Arrays.copyOf(handles, Math.max(less, MIN_CAPACITY));
+        }
+
+        Chunk equalChunk = createChunk(pivot, others, n - equal, equal);
+        equalChunk.sorted = true;
+        Chunk greaterChunk = createChunk(pivot, others, 0, greater);
+        greaterChunk.sorted = greater <= 1;
+
+        if (greater == 0) {
+            insertChunks(index + 1, equalChunk);
+        } else {
+            insertChunks(index + 1, equalChunk, greaterChunk);
+        }
+        if (less == 0) {
+            removeChunk(index);
+        }
+    }
+
+    private Chunk createChunk(Object lowerBound, int[] handles, int from, int length) {
+        int[] chunkHandles = Arrays.copyOfRange(handles, from, from + Math.max(length, MIN_CAPACITY));
+        Chunk chunk = new Chunk(lowerBound, chunkHandles, length);
+        for (int slot = 0; slot < length; slot++) {
+            int handle = chunkHandles[slot];
+            chunkOf[handle] = chunk;
+            slotOf[handle] = slot;
+        }
+        return chunk;
+    }
+
+    private void insertChunks(int index, Chunk... toInsert) {
+        int count = toInsert.length;
+        if (chunkCount + count > chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(chunks.length * 2, chunkCount + count));
+        }
+        System.arraycopy(chunks, index, chunks, index + count, chunkCount - index);
+        System.arraycopy(toInsert, 0, chunks, index, count);
+        chunkCount += count;
+        for (Chunk chunk : toInsert) {
+            if (chunk.size == 0) {
+                emptyChunkCount++;
+            }
+        }
+        for (int i = index; i < chunkCount; i++) {
+            chunks[i].index = i;
+        }
+        chunkSizeTreeValid = false;
+    }
+
+    private void removeChunk(int index) {
+        chunkCount--;
+        System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index);
+        chunks[chunkCount] = null;
+        for (int i = index; i < chunkCount; i++) {
+            chunks[i].index = i;
+        }
+        chunkSizeTreeValid = false;
+    }
+
+    /**
+     * Removes the empty chunks once they make up half of the chunks.
+     */
+    private void removeEmptyChunks() {
+        if (emptyChunkCount <= chunkCount / 2) {
+            return;
+        }
+        int count = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            Chunk chunk = chunks[i];
+            if (chunk.size > 0) {
+                chunk.index = count;
+                chunks[count++] = chunk;
+            }
+        }
+        Arrays.fill(chunks, count, chunkCount, null);
+        chunkCount = count;
+        emptyChunkCount = 0;
+        chunkSizeTreeValid = false;
+    }
+}
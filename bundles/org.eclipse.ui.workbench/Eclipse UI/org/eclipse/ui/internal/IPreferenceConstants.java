@@ -245,6 +245,18 @@ public interface IPreferenceConstants {
 	 */
 	public static final String WORKBENCH_SAVE_INTERVAL = "WORKBENCH_SAVE_INTERVAL"; //$NON-NLS-1$
 
+	/**
+	 * Preference value that specifies whether workbench auto-saves copy only
+	 * the parts of the workbench model which changed since the previous
+	 * auto-save, instead of copying the whole model in the UI thread.
+	 * <p>
+	 * The boolean default value for this preference is: <code>false</code>.
+	 * </p>
+	 *
+	 * @since 3.111
+	 */
+	public static final String WORKBENCH_SAVE_INCREMENTAL = "WORKBENCH_SAVE_INCREMENTAL"; //$NON-NLS-1$
+
 	/**
 	 * This preference is the threshold value to determine whether a document is
 	 * large or not. When the user tries to open a file larger than the
@@ -32,6 +32,11 @@ import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -78,6 +83,7 @@ import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.InjectionException;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.IncrementalModelCopy;
 import org.eclipse.e4.ui.internal.workbench.renderers.swt.IUpdateService;
 import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
 import org.eclipse.e4.ui.internal.workbench.swt.IEventLoopAdvisor;
@@ -472,6 +478,12 @@ public final class Workbench extends EventManager implements IWorkbench,
 
 	private Job autoSaveJob;
 
+	/**
+	 * The copy of the application model updated by each auto-save, if
+	 * auto-saves are incremental.
+	 */
+	private IncrementalModelCopy incrementalModelCopy;
+
 	private String id;
 	private ServiceRegistration<?> e4WorkbenchService;
 
@@ -1109,6 +1121,7 @@ public final class Workbench extends EventManager implements IWorkbench,
 			autoSaveJob.cancel();
 			autoSaveJob = null;
 		}
+		disposeIncrementalModelCopy();
 
 		boolean closeEditors = !force
 				&& PrefUtil.getAPIPreferenceStore().getBoolean(
@@ -1291,8 +1304,15 @@ public final class Workbench extends EventManager implements IWorkbench,
 		if (Job.getJobManager().find(WORKBENCH_AUTO_SAVE_JOB).length > 0) {
 			return;
 		}
-		final MApplication appCopy = (MApplication) EcoreUtil.copy((EObject) application);
-		if (detectWorkbenchCorruption(appCopy)) {
+		final boolean incremental = getPreferenceStore().getBoolean(IPreferenceConstants.WORKBENCH_SAVE_INCREMENTAL);
+		final MApplication snapshot;
+		if (incremental) {
+			snapshot = updateIncrementalModelCopy();
+		} else {
+			disposeIncrementalModelCopy();
+			snapshot = (MApplication) EcoreUtil.copy((EObject) application);
+		}
+		if (detectWorkbenchCorruption(snapshot)) {
 			return;
 		}
 		final IModelResourceHandler handler = e4Context.get(IModelResourceHandler.class);
@@ -1300,11 +1320,15 @@ public final class Workbench extends EventManager implements IWorkbench,
 		Job cleanAndSaveJob = new Job(WORKBENCH_AUTO_SAVE_BACKGROUND_JOB) {
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
+				// the incremental copy is only updated when this job is done,
+				// so it can be copied outside of the UI thread
+				final MApplication appCopy = incremental ? (MApplication) EcoreUtil.copy((EObject) snapshot)
+						: snapshot;
 				final Resource res = handler.createResourceWithApp(appCopy);
 				cleanUpCopy(appCopy, e4Context);
 				try {
 					if (!detectWorkbenchCorruption((MApplication) res.getContents().get(0))) {
-						res.save(null);
+						saveAtomically(res);
 					}
 				} catch (IOException e) {
 					// Just auto-save, we don't really care
@@ -1326,6 +1350,58 @@ public final class Workbench extends EventManager implements IWorkbench,
 		cleanAndSaveJob.schedule();
 	}
 
+	/**
+	 * Updates the incremental copy of the model with the changes since the
+	 * last auto-save, copying only the changed elements.
+	 */
+	private MApplication updateIncrementalModelCopy() {
+		if (incrementalModelCopy == null) {
+			incrementalModelCopy = new IncrementalModelCopy(application);
+			return incrementalModelCopy.getCopy();
+		}
+		try {
+			return incrementalModelCopy.update();
+		} catch (RuntimeException e) {
+			// start over with a full copy
+			WorkbenchPlugin.log("Unable to update the copy of the workbench model", e); //$NON-NLS-1$
+			incrementalModelCopy.dispose();
+			incrementalModelCopy = new IncrementalModelCopy(application);
+			return incrementalModelCopy.getCopy();
+		}
+	}
+
+	private void disposeIncrementalModelCopy() {
+		if (incrementalModelCopy != null) {
+			incrementalModelCopy.dispose();
+			incrementalModelCopy = null;
+		}
+	}
+
+	/**
+	 * Saves the resource to a temporary file which then replaces the file of
+	 * the resource, so that a crash while saving does not leave a truncated
+	 * model behind.
+	 */
+	private static void saveAtomically(Resource res) throws IOException {
+		if (!res.getURI().isFile()) {
+			res.save(null);
+			return;
+		}
+		Path target = Paths.get(res.getURI().toFileString());
+		res.setURI(res.getURI().appendFileExtension("tmp")); //$NON-NLS-1$
+		Path temp = Paths.get(res.getURI().toFileString());
+		try {
+			res.save(null);
+		} finally {
+			res.setURI(res.getURI().trimFileExtension());
+		}
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
 	private static void cleanUpCopy(MApplication appCopy, IEclipseContext context) {
 		// clean up all trim bars that come from trim bar contributions
 		// the trim elements that need to be removed are stored in the trimBar.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.e4.ui.internal.workbench.E4BinaryResourceFactory;
 import org.eclipse.ui.internal.preferences.WorkbenchSettingsTransfer;
 
 /**
@@ -31,6 +32,10 @@ import org.eclipse.ui.internal.preferences.WorkbenchSettingsTransfer;
  */
 public class WorkbenchLayoutSettingsTransfer extends WorkbenchSettingsTransfer {
 
+	private static final String XMI_FILE_NAME = "workbench.xmi"; //$NON-NLS-1$
+
+	private static final String BINARY_FILE_NAME = "workbench." + E4BinaryResourceFactory.EXTENSION; //$NON-NLS-1$
+
 	/**
 	 * Create a new instance of the receiver.
 	 */
@@ -52,32 +57,15 @@ public class WorkbenchLayoutSettingsTransfer extends WorkbenchSettingsTransfer {
 
 			File deltas = new File(currentLocation.toOSString(), "deltas.xml"); //$NON-NLS-1$
 			if (deltas.exists()) {
-				byte[] bytes = new byte[8192];
-				FileInputStream inputStream = new FileInputStream(deltas);
-				FileOutputStream outputStream = new FileOutputStream(new File(workspaceFile,
-						"deltas.xml")); //$NON-NLS-1$
-				int read = inputStream.read(bytes, 0, 8192);
-				while (read != -1) {
-					outputStream.write(bytes, 0, read);
-					read = inputStream.read(bytes, 0, 8192);
-				}
-				inputStream.close();
-				outputStream.close();
+				copyFile(deltas, new File(workspaceFile, "deltas.xml")); //$NON-NLS-1$
 			}
 
-			File workbenchModel = new File(currentLocation.toOSString(), "workbench.xmi"); //$NON-NLS-1$
+			// the layout is saved in XMI or binary form depending on
+			// -binaryPersistedState, and the most recent of the two is
+			// restored
+			File workbenchModel = getMostRecentWorkbenchModel(currentLocation);
 			if (workbenchModel.exists()) {
-				byte[] bytes = new byte[8192];
-				FileInputStream inputStream = new FileInputStream(workbenchModel);
-				FileOutputStream outputStream = new FileOutputStream(new File(workspaceFile,
-						"workbench.xmi")); //$NON-NLS-1$
-				int read = inputStream.read(bytes, 0, 8192);
-				while (read != -1) {
-					outputStream.write(bytes, 0, read);
-					read = inputStream.read(bytes, 0, 8192);
-				}
-				inputStream.close();
-				outputStream.close();
+				copyFile(workbenchModel, new File(workspaceFile, workbenchModel.getName()));
 			}
 		} catch (IOException e) {
 			return new Status(IStatus.ERROR, WorkbenchPlugin.PI_WORKBENCH,
@@ -88,6 +76,34 @@ public class WorkbenchLayoutSettingsTransfer extends WorkbenchSettingsTransfer {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Return the file of the workbench model saved last in the given
+	 * location, as restored by the workbench.
+	 *
+	 * @param location
+	 * @return File the XMI or binary workbench model, which may not exist
+	 */
+	private File getMostRecentWorkbenchModel(IPath location) {
+		File xmiModel = new File(location.toOSString(), XMI_FILE_NAME);
+		File binaryModel = new File(location.toOSString(), BINARY_FILE_NAME);
+		if (binaryModel.lastModified() > xmiModel.lastModified()) {
+			return binaryModel;
+		}
+		return xmiModel;
+	}
+
+	private void copyFile(File source, File target) throws IOException {
+		byte[] bytes = new byte[8192];
+		try (FileInputStream inputStream = new FileInputStream(source);
+				FileOutputStream outputStream = new FileOutputStream(target)) {
+			int read = inputStream.read(bytes, 0, 8192);
+			while (read != -1) {
+				outputStream.write(bytes, 0, read);
+				read = inputStream.read(bytes, 0, 8192);
+			}
+		}
+	}
+
 	/**
 	 * Create the parent directories for the workbench layout file and then
 	 * return the File.
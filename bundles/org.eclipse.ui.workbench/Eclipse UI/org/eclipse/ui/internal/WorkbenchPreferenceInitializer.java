@@ -69,6 +69,7 @@ public class WorkbenchPreferenceInitializer extends AbstractPreferenceInitialize
 
 		// 5 minute workbench save interval
 		node.putInt(IPreferenceConstants.WORKBENCH_SAVE_INTERVAL, 5);
+		node.putBoolean(IPreferenceConstants.WORKBENCH_SAVE_INCREMENTAL, false);
 
 		node.putBoolean(IPreferenceConstants.USE_IPERSISTABLE_EDITORS, true);
 
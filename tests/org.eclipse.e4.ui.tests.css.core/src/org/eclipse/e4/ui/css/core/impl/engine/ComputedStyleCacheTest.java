@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.eclipse.e4.ui.tests.css.core.util.TestElement;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.css.CSSStyleDeclaration;
+
+public class ComputedStyleCacheTest {
+
+	private CSSEngineImpl engine;
+
+	private ComputedStyleCache cache;
+
+	@Before
+	public void setUp() {
+		engine = new CSSEngineImpl() {
+			@Override
+			public void reapply() {
+			}
+		};
+		cache = engine.getComputedStyleCache();
+		assertNotNull(cache);
+	}
+
+	@Test
+	public void testSameSignatureIsComputedOnce() throws Exception {
+		parse("Shell Button.primary { color: red; }\nButton { color: blue; }");
+
+		TestElement shell = new TestElement("Shell", engine);
+		for (int i = 0; i < 100; i++) {
+			TestElement button = new TestElement("Button", shell, engine);
+			button.setClass("primary");
+			assertEquals("color: red;", cache.getComputedStyle(button, null).getCssText());
+		}
+		assertEquals(1, cache.getMissCount());
+		assertEquals(99, cache.getHitCount());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testSignatureContainsClassIdAndAncestors() throws Exception {
+		parse("Shell > Button { color: red; }\n.primary { color: green; }\n#ok { color: yellow; }\n");
+
+		TestElement shell = new TestElement("Shell", engine);
+		TestElement composite = new TestElement("Composite", shell, engine);
+		TestElement button = new TestElement("Button", shell, engine);
+		TestElement nestedButton = new TestElement("Button", composite, engine);
+
+		assertEquals("color: red;", cache.getComputedStyle(button, null).getCssText());
+		assertNull(cache.getComputedStyle(nestedButton, null));
+
+		nestedButton.setClass("primary");
+		assertEquals("color: green;", cache.getComputedStyle(nestedButton, null).getCssText());
+
+		nestedButton.setId("ok");
+		assertEquals("color: yellow;", cache.getComputedStyle(nestedButton, null).getCssText());
+		assertEquals(4, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+	}
+
+	@Test
+	public void testSignatureContainsSelectorAttributes() throws Exception {
+		parse("Button[state='on'] { color: red; }\nButton { color: blue; }");
+
+		TestElement button = new TestElement("Button", engine);
+		assertEquals("color: blue;", cache.getComputedStyle(button, null).getCssText());
+		button.setAttribute("state", "on");
+		assertEquals("color: red;", cache.getComputedStyle(button, null).getCssText());
+		button.setAttribute("state", "off");
+		assertEquals("color: blue;", cache.getComputedStyle(button, null).getCssText());
+		assertEquals(3, cache.getMissCount());
+	}
+
+	@Test
+	public void testCacheIsClearedWhenStyleSheetsChange() throws Exception {
+		parse("Button { color: blue; }");
+		TestElement button = new TestElement("Button", engine);
+		assertEquals("color: blue;", cache.getComputedStyle(button, null).getCssText());
+		assertEquals("color: blue;", cache.getComputedStyle(button, null).getCssText());
+		assertEquals(1, cache.getHitCount());
+
+		parse("Button { color: red; }");
+		assertEquals("color: red;", cache.getComputedStyle(button, null).getCssText());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+
+		engine.reset();
+		assertNull(cache.getComputedStyle(button, null));
+	}
+
+	@Test
+	public void testSiblingSelectorsBypassTheCache() throws Exception {
+		parse("Label + Button { color: red; }\nButton { color: blue; }");
+
+		TestElement button = new TestElement("Button", engine);
+		CSSStyleDeclaration style = cache.getComputedStyle(button, null);
+		assertEquals("color: blue;", style.getCssText());
+		cache.getComputedStyle(button, null);
+		assertEquals(0, cache.getHitCount());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testAncestorIdsOnlyInSignatureWhenTested() throws Exception {
+		parse("Shell Button { color: red; }\n#ok { color: green; }");
+
+		for (int i = 0; i < 10; i++) {
+			TestElement shell = new TestElement("Shell", engine);
+			shell.setId("shell" + i);
+			TestElement button = new TestElement("Button", shell, engine);
+			assertEquals("color: red;", cache.getComputedStyle(button, null).getCssText());
+		}
+		assertEquals(1, cache.getMissCount());
+		assertEquals(9, cache.getHitCount());
+
+		parse("#shell1 Button { color: red; }\nButton { color: blue; }");
+		TestElement shell = new TestElement("Shell", engine);
+		shell.setId("shell1");
+		TestElement button = new TestElement("Button", shell, engine);
+		assertEquals("color: red;", cache.getComputedStyle(button, null).getCssText());
+		shell.setId("shell2");
+		assertEquals("color: blue;", cache.getComputedStyle(button, null).getCssText());
+	}
+
+	@Test
+	public void testCacheKeepsMostRecentlyUsedSignatures() throws Exception {
+		parse("Button.first { color: red; }\nButton { color: blue; }");
+
+		TestElement first = new TestElement("Button", engine);
+		first.setClass("first");
+		cache.getComputedStyle(first, null);
+		for (int i = 0; i < ComputedStyleCache.MAX_SIZE * 2; i++) {
+			TestElement button = new TestElement("Button", engine);
+			button.setClass("button" + i);
+			cache.getComputedStyle(button, null);
+			// keep the first signature in use
+			cache.getComputedStyle(first, null);
+		}
+		assertEquals(ComputedStyleCache.MAX_SIZE, cache.size());
+		int misses = cache.getMissCount();
+		assertEquals("color: red;", cache.getComputedStyle(first, null).getCssText());
+		assertEquals(misses, cache.getMissCount());
+	}
+
+	private void parse(String css) throws IOException {
+		engine.parseStyleSheet(new StringReader(css));
+	}
+}
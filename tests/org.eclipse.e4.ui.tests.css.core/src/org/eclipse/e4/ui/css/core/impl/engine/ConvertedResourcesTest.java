@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.e4.ui.css.core.dom.properties.ICSSPropertyHandler;
+import org.eclipse.e4.ui.css.core.dom.properties.ICSSPropertyHandlerProvider;
+import org.eclipse.e4.ui.css.core.dom.properties.converters.AbstractCSSValueConverter;
+import org.eclipse.e4.ui.css.core.dom.properties.converters.ICSSValueConverterConfig;
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.core.resources.AbstractResourcesRegistry;
+import org.eclipse.e4.ui.css.swt.resources.SWTResourcesRegistry;
+import org.eclipse.e4.ui.tests.css.core.util.TestElement;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSValue;
+
+public class ConvertedResourcesTest {
+
+	/**
+	 * Element with its own native widget, so that each element gets its own
+	 * element context.
+	 */
+	private static class WidgetTestElement extends TestElement {
+		private final Object widget = new Object();
+
+		public WidgetTestElement(String type, TestElement parent, CSSEngine engine) {
+			super(type, parent, engine);
+		}
+
+		@Override
+		public Object getNativeWidget() {
+			return widget;
+		}
+	}
+
+	/**
+	 * The converted "resource": a new instance for each conversion.
+	 */
+	private static class TestResource {
+		final String value;
+
+		TestResource(String value) {
+			this.value = value;
+		}
+	}
+
+	private CSSEngineImpl engine;
+
+	private AbstractResourcesRegistry registry;
+
+	private final List<Object> disposedResources = new ArrayList<>();
+
+	private final List<Object> appliedResources = new ArrayList<>();
+
+	private TestElement shell;
+
+	@Before
+	public void setUp() throws Exception {
+		engine = new CSSEngineImpl() {
+			@Override
+			public void reapply() {
+			}
+		};
+		registry = new AbstractResourcesRegistry() {
+			@Override
+			public void disposeResource(Object type, Object key, Object resource) {
+				disposedResources.add(resource);
+			}
+		};
+		engine.setResourcesRegistry(registry);
+		engine.registerCSSValueConverter(new AbstractCSSValueConverter(TestResource.class) {
+			@Override
+			public Object convert(CSSValue value, CSSEngine engine, Object context) {
+				return new TestResource(value.getCssText());
+			}
+
+			@Override
+			public String convert(Object value, CSSEngine engine, Object context, ICSSValueConverterConfig config) {
+				return ((TestResource) value).value;
+			}
+		});
+		ICSSPropertyHandler handler = (element, property, value, pseudo, engine) -> {
+			appliedResources.add(engine.convert(value, TestResource.class, null));
+			return true;
+		};
+		engine.registerCSSPropertyHandlerProvider(new ICSSPropertyHandlerProvider() {
+			@Override
+			public Collection<ICSSPropertyHandler> getCSSPropertyHandlers(String property) {
+				return Collections.singletonList(handler);
+			}
+
+			@Override
+			public Collection<ICSSPropertyHandler> getCSSPropertyHandlers(Object element, String property) {
+				return Collections.singletonList(handler);
+			}
+
+			@Override
+			public CSSStyleDeclaration getDefaultCSSStyleDeclaration(CSSEngine engine, Object element,
+					CSSStyleDeclaration newStyle, String pseudoE) {
+				return null;
+			}
+
+			@Override
+			public Collection<String> getCSSProperties(Object element) {
+				return Collections.emptyList();
+			}
+		});
+		engine.parseStyleSheet(new StringReader(
+				"Button { color: red; }\n.other { color: blue; }\n.first { color: red; }\n.second { background-color: green; }"));
+		shell = new TestElement("Shell", engine);
+	}
+
+	@Test
+	public void testEqualValuesShareOneResource() {
+		TestElement button1 = new WidgetTestElement("Button", shell, engine);
+		TestElement button2 = new WidgetTestElement("Button", shell, engine);
+		engine.applyStyles(button1, false);
+		engine.applyStyles(button2, false);
+
+		assertEquals(2, appliedResources.size());
+		Object red = appliedResources.get(0);
+		assertSame(red, appliedResources.get(1));
+		assertEquals(1, registry.getResourceCount());
+		assertEquals(2, registry.getReferenceCount(red));
+
+		// restyling the same element does not add references
+		engine.applyStyles(button1, false);
+		assertEquals(2, registry.getReferenceCount(red));
+	}
+
+	@Test
+	public void testResourceIsDisposedWithLastWidget() {
+		TestElement button1 = new WidgetTestElement("Button", shell, engine);
+		TestElement button2 = new WidgetTestElement("Button", shell, engine);
+		engine.applyStyles(button1, false);
+		engine.applyStyles(button2, false);
+		Object red = appliedResources.get(0);
+
+		engine.handleWidgetDisposed(button1.getNativeWidget());
+		assertEquals(1, registry.getReferenceCount(red));
+		assertTrue(disposedResources.isEmpty());
+
+		engine.handleWidgetDisposed(button2.getNativeWidget());
+		assertEquals(Collections.singletonList(red), disposedResources);
+		assertEquals(0, registry.getResourceCount());
+		assertEquals(0, registry.getReferencedResourceCount());
+	}
+
+	@Test
+	public void testRestyleReleasesPreviousResource() {
+		TestElement button = new WidgetTestElement("Button", shell, engine);
+		engine.applyStyles(button, false);
+		Object red = appliedResources.get(0);
+
+		button.setClass("other");
+		engine.applyStyles(button, false);
+		Object blue = appliedResources.get(1);
+		assertEquals(Collections.singletonList(red), disposedResources);
+		assertEquals(1, registry.getReferenceCount(blue));
+		assertEquals(1, registry.getResourceCount());
+	}
+
+	@Test
+	public void testRestyleKeepsResourceOfPropertyNotAppliedAgain() {
+		TestElement label = new WidgetTestElement("Label", shell, engine);
+		label.setClass("first");
+		engine.applyStyles(label, false);
+		Object red = appliedResources.get(0);
+
+		// the engine does not reset the color, so the widget still uses red
+		label.setClass("second");
+		engine.applyStyles(label, false);
+		Object green = appliedResources.get(1);
+		assertTrue(disposedResources.isEmpty());
+		assertEquals(1, registry.getReferenceCount(red));
+		assertEquals(1, registry.getReferenceCount(green));
+
+		// restyling again does not add references to the kept resource
+		engine.applyStyles(label, false);
+		assertEquals(1, registry.getReferenceCount(red));
+
+		engine.handleWidgetDisposed(label.getNativeWidget());
+		assertEquals(2, disposedResources.size());
+		assertTrue(disposedResources.contains(red));
+		assertTrue(disposedResources.contains(green));
+		assertEquals(0, registry.getReferencedResourceCount());
+	}
+
+	@Test
+	public void testReleasedResourceOnlyRemovesItsOwnCacheEntry() {
+		TestResource first = new TestResource("red");
+		TestResource second = new TestResource("red");
+		registry.registerResource(TestResource.class, "red", first);
+		registry.addReference(first);
+		// a resource registered again under the same key replaces the first
+		registry.registerResource(TestResource.class, "red", second);
+
+		registry.removeReference(first);
+		assertEquals(Collections.singletonList(first), disposedResources);
+		assertSame(second, registry.getResource(TestResource.class, "red"));
+
+		registry.addReference(second);
+		registry.removeReference(second);
+		assertEquals(2, disposedResources.size());
+		assertEquals(0, registry.getResourceCount());
+	}
+
+	@Test
+	public void testReleasedResourceRemovedByThemeChangeKeepsReplacement() {
+		SWTResourcesRegistry registry = new SWTResourcesRegistry(null) {
+			@Override
+			public void disposeResource(Object type, Object key, Object resource) {
+				disposedResources.add(resource);
+			}
+		};
+		TestResource first = new TestResource("red");
+		TestResource second = new TestResource("red");
+		registry.registerResource(TestResource.class, "definition", first);
+		registry.addReference(first);
+
+		// the theme definition changes: its resources are removed from the
+		// cache, and the new theme registers a replacement under the same key
+		assertEquals(Collections.singletonList(first),
+				registry.removeResourcesByKeyTypeAndType(String.class, TestResource.class));
+		registry.registerResource(TestResource.class, "definition", second);
+
+		registry.removeReference(first);
+		assertEquals(Collections.singletonList(first), disposedResources);
+		assertSame(second, registry.getResource(TestResource.class, "definition"));
+
+		registry.dispose();
+		assertEquals(Arrays.asList(first, second), disposedResources);
+	}
+
+	@Test
+	public void testResourceConvertedOutsideStylingIsPinned() throws Exception {
+		Object red = engine.convert(engine.parsePropertyValue("red"), TestResource.class, null);
+		TestElement button = new WidgetTestElement("Button", shell, engine);
+		engine.applyStyles(button, false);
+		assertSame(red, appliedResources.get(0));
+
+		engine.handleWidgetDisposed(button.getNativeWidget());
+		assertTrue(disposedResources.isEmpty());
+		assertEquals(1, registry.getResourceCount());
+
+		registry.dispose();
+		assertEquals(Collections.singletonList(red), disposedResources);
+	}
+}
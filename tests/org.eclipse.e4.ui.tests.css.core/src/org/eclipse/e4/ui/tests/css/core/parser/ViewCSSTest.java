@@ -108,6 +108,88 @@ public class ViewCSSTest {
 		assertEquals("color: blue;", buttonStyle.getCssText());
 	}
 
+	@Test
+	public void testRuleIndexKeepsCascadeOrderAcrossBuckets() throws Exception {
+		String css = "* { color: black; }\n" + ".primary { color: red; }\n" + "#okButton { color: yellow; }\n"
+				+ "Button { color: blue; }\n" + ".secondary { color: green; }\n" + "Label { color: white; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		TestElement button = new TestElement("Button", engine);
+		button.setClass("primary  secondary primary");
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals("color: green;", buttonStyle.getCssText());
+
+		button.setId("okButton");
+		buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertEquals("color: yellow;", buttonStyle.getCssText());
+
+		TestElement label = new TestElement("Label", engine);
+		label.setClass("secondary");
+		CSSStyleDeclaration labelStyle = viewCSS.getComputedStyle(label, null);
+		assertEquals("color: green;", labelStyle.getCssText());
+
+		TestElement shell = new TestElement("Shell", engine);
+		CSSStyleDeclaration shellStyle = viewCSS.getComputedStyle(shell, null);
+		assertEquals("color: black;", shellStyle.getCssText());
+	}
+
+	@Test
+	public void testRuleIndexWithCombinators() throws Exception {
+		String css = "Shell .primary { color: red; }\n" + "Composite > Button.primary { color: blue; }\n"
+				+ "Label + Button#okButton { color: green; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		final TestElement shell = new TestElement("Shell", engine);
+		final TestElement composite = new TestElement("Composite", shell, engine);
+		final TestElement button = new TestElement("Button", composite, engine);
+		button.setClass("primary");
+
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals("color: blue;", buttonStyle.getCssText());
+
+		composite.setClass("primary");
+		CSSStyleDeclaration compositeStyle = viewCSS.getComputedStyle(composite, null);
+		assertNotNull(compositeStyle);
+		assertEquals("color: red;", compositeStyle.getCssText());
+
+		assertNull(viewCSS.getComputedStyle(shell, null));
+	}
+
+	@Test
+	public void testRuleIndexIsRebuiltWhenStyleSheetsChange() throws Exception {
+		DocumentCSSImpl docCss = new DocumentCSSImpl();
+		docCss.addStyleSheet(ParserTestUtil.parseCss("Button { color: blue; }"));
+		ViewCSS viewCSS = new ViewCSSImpl(docCss);
+
+		TestElement button = new TestElement("Button", engine);
+		assertEquals("color: blue;", viewCSS.getComputedStyle(button, null).getCssText());
+
+		docCss.addStyleSheet(ParserTestUtil.parseCss("Button { color: red; }"));
+		assertEquals("color: red;", viewCSS.getComputedStyle(button, null).getCssText());
+
+		docCss.removeAllStyleSheets();
+		assertNull(viewCSS.getComputedStyle(button, null));
+	}
+
+	@Test
+	public void testRuleIndexIsRebuiltWhenRuleIsDeleted() throws Exception {
+		CSSStyleSheet styleSheet = ParserTestUtil.parseCss("Button { color: blue; }\nButton { color: red; }");
+		DocumentCSSImpl docCss = new DocumentCSSImpl();
+		docCss.addStyleSheet(styleSheet);
+		ViewCSS viewCSS = new ViewCSSImpl(docCss);
+
+		TestElement button = new TestElement("Button", engine);
+		assertEquals("color: red;", viewCSS.getComputedStyle(button, null).getCssText());
+
+		styleSheet.deleteRule(1);
+		assertEquals("color: blue;", viewCSS.getComputedStyle(button, null).getCssText());
+
+		styleSheet.deleteRule(0);
+		assertNull(viewCSS.getComputedStyle(button, null));
+	}
+
 	private static ViewCSS createViewCss(String css) throws IOException {
 		CSSStyleSheet styleSheet = ParserTestUtil.parseCss(css);
 		DocumentCSSImpl docCss = new DocumentCSSImpl();
@@ -41,6 +41,7 @@ import org.eclipse.e4.ui.tests.css.swt.LabelTest;
 import org.eclipse.e4.ui.tests.css.swt.LabelTextTransformTest;
 import org.eclipse.e4.ui.tests.css.swt.LinkTest;
 import org.eclipse.e4.ui.tests.css.swt.MarginTest;
+import org.eclipse.e4.ui.tests.css.swt.RestyleSchedulerTest;
 import org.eclipse.e4.ui.tests.css.swt.ShellActiveTest;
 import org.eclipse.e4.ui.tests.css.swt.ShellTest;
 import org.eclipse.e4.ui.tests.css.swt.StyledTextScrollbarTest;
@@ -90,6 +91,7 @@ import org.junit.runners.Suite;
 	StyledTextScrollbarTest.class,
 	TableTest.class,
 	TreeTest.class,
+	RestyleSchedulerTest.class,
 	TabbedPropertiesListTest.class,
 	TabbedPropertiesTitleTest.class})
 public class CssSwtTestSuite {
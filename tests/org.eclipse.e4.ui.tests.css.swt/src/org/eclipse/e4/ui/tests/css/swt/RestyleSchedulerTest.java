@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
+import org.eclipse.e4.ui.css.swt.engine.AbstractCSSSWTEngineImpl;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTRestyleScheduler;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.Test;
+
+public class RestyleSchedulerTest extends CSSSWTTestCase {
+
+	private static final String CSS = "Label { color: #FF0000; }\n" + ".blue { color: #0000FF; }\n"
+			+ ".green Label { color: #00FF00; }";
+
+	private Composite panel;
+
+	private Label label1;
+
+	private Label label2;
+
+	private CSSSWTRestyleScheduler createScheduler() {
+		engine = createEngine(CSS, display);
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		shell.setLayout(new FillLayout());
+		panel = new Composite(shell, SWT.NONE);
+		panel.setLayout(new FillLayout());
+		label1 = new Label(panel, SWT.NONE);
+		label2 = new Label(panel, SWT.NONE);
+		engine.applyStyles(shell, true);
+		return ((AbstractCSSSWTEngineImpl) engine).getRestyleScheduler();
+	}
+
+	@Test
+	public void testRequestsForSameWidgetAreCoalesced() {
+		CSSSWTRestyleScheduler scheduler = createScheduler();
+		assertEquals(RED, label1.getForeground().getRGB());
+
+		WidgetElement.setCSSClass(label1, "blue");
+		scheduler.schedule(label1, false);
+		scheduler.schedule(label1, false);
+		scheduler.schedule(label1, false);
+		assertEquals(1, scheduler.getPendingCount());
+		assertEquals(RED, label1.getForeground().getRGB());
+
+		scheduler.flush();
+		assertEquals(0, scheduler.getPendingCount());
+		assertEquals(3, scheduler.getRequestCount());
+		assertEquals(1, scheduler.getApplyCount());
+		assertEquals(BLUE, label1.getForeground().getRGB());
+	}
+
+	@Test
+	public void testSubtreeRequestAbsorbsDescendants() {
+		CSSSWTRestyleScheduler scheduler = createScheduler();
+
+		scheduler.schedule(label1, false);
+		scheduler.schedule(label2, false);
+		assertEquals(2, scheduler.getPendingCount());
+
+		WidgetElement.setCSSClass(panel, "green");
+		scheduler.schedule(panel, true);
+		assertEquals(1, scheduler.getPendingCount());
+
+		// already covered by the queued ancestor
+		scheduler.schedule(label1, false);
+		assertEquals(1, scheduler.getPendingCount());
+
+		scheduler.flush();
+		assertEquals(1, scheduler.getApplyCount());
+		assertEquals(GREEN, label1.getForeground().getRGB());
+		assertEquals(GREEN, label2.getForeground().getRGB());
+	}
+
+	@Test
+	public void testApplyDropsCoveredRequests() {
+		CSSSWTRestyleScheduler scheduler = createScheduler();
+
+		scheduler.schedule(label1, false);
+		scheduler.schedule(panel, false);
+		WidgetElement.setCSSClass(panel, "green");
+		scheduler.apply(panel, true);
+		// applied right away, without waiting for a flush
+		assertEquals(GREEN, label1.getForeground().getRGB());
+		assertEquals(GREEN, label2.getForeground().getRGB());
+		assertEquals(0, scheduler.getPendingCount());
+
+		// a restyle of the widget alone does not cover its child nodes
+		scheduler.schedule(panel, true);
+		scheduler.apply(panel, false);
+		assertEquals(1, scheduler.getPendingCount());
+	}
+
+	@Test
+	public void testFlushOnEventLoop() {
+		CSSSWTRestyleScheduler scheduler = createScheduler();
+
+		WidgetElement.setCSSClass(label2, "blue");
+		scheduler.schedule(label2, false);
+		while (display.readAndDispatch()) {
+			;
+		}
+		assertEquals(0, scheduler.getPendingCount());
+		assertEquals(BLUE, label2.getForeground().getRGB());
+	}
+
+	@Test
+	public void testDisposedWidgetsAreSkipped() {
+		CSSSWTRestyleScheduler scheduler = createScheduler();
+
+		scheduler.schedule(label1, false);
+		scheduler.schedule(label2, false);
+		label1.dispose();
+		scheduler.flush();
+		assertEquals(1, scheduler.getApplyCount());
+	}
+}
@@ -15,6 +15,7 @@ package org.eclipse.e4.ui.tests;
 import org.eclipse.e4.ui.tests.application.Bug299755Test;
 import org.eclipse.e4.ui.tests.application.Bug308220Test;
 import org.eclipse.e4.ui.tests.application.Bug320857Test;
+import org.eclipse.e4.ui.tests.application.E4BinaryResourceTest;
 import org.eclipse.e4.ui.tests.application.E4ResourceTest;
 import org.eclipse.e4.ui.tests.application.ModelElementTest;
 import org.eclipse.e4.ui.tests.application.ModelRobustnessTest;
@@ -23,9 +24,11 @@ import org.eclipse.e4.ui.tests.application.StartupTestSuite;
 import org.eclipse.e4.ui.tests.application.UIEventTypesTest;
 import org.eclipse.e4.ui.tests.workbench.Bug308317Test;
 import org.eclipse.e4.ui.tests.workbench.ContextTest;
+import org.eclipse.e4.ui.tests.workbench.ElementIndexTest;
 import org.eclipse.e4.ui.tests.workbench.ExtensionsSortTests;
 import org.eclipse.e4.ui.tests.workbench.HandlerActivationTest;
 import org.eclipse.e4.ui.tests.workbench.HandlerTest;
+import org.eclipse.e4.ui.tests.workbench.IncrementalModelCopyTest;
 import org.eclipse.e4.ui.tests.workbench.InjectionEventTest;
 import org.eclipse.e4.ui.tests.workbench.MApplicationCommandAccessTest;
 import org.eclipse.e4.ui.tests.workbench.MMenuItemTest;
@@ -86,7 +89,8 @@ import org.junit.runners.Suite;
 		ExtensionsSortTests.class,
 		HandlerActivationTest.class,
 		ModelAssemblerTests.class,
-		ModelAssemblerFragmentOrderingTests.class, E4ResourceTest.class
+		ModelAssemblerFragmentOrderingTests.class, E4ResourceTest.class,
+		IncrementalModelCopyTest.class, E4BinaryResourceTest.class, ElementIndexTest.class
 		// SWTPartRendererTest.class,
 })
 public class UIAllTests {
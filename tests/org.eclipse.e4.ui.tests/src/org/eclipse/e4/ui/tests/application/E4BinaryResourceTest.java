@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.e4.ui.internal.workbench.E4BinaryResource;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MAdvancedFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.Test;
+
+public class E4BinaryResourceTest {
+
+	private static MApplication createApplication() {
+		MApplication application = MApplicationFactory.INSTANCE.createApplication();
+		application.setElementId("application"); //$NON-NLS-1$
+		MTrimmedWindow window = MBasicFactory.INSTANCE.createTrimmedWindow();
+		window.setElementId("window"); //$NON-NLS-1$
+		window.setLabel("Window"); //$NON-NLS-1$
+		window.setX(10);
+		window.setWidth(800);
+		application.getChildren().add(window);
+
+		MPart shared = MBasicFactory.INSTANCE.createPart();
+		shared.setElementId("shared"); //$NON-NLS-1$
+		shared.getTags().addAll(Arrays.asList("one", "two")); //$NON-NLS-1$ //$NON-NLS-2$
+		shared.getPersistedState().put("key", "value"); //$NON-NLS-1$ //$NON-NLS-2$
+		window.getSharedElements().add(shared);
+
+		MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+		window.getChildren().add(stack);
+		window.setSelectedElement(stack);
+		MPlaceholder placeholder = MAdvancedFactory.INSTANCE.createPlaceholder();
+		placeholder.setRef(shared);
+		stack.getChildren().add(placeholder);
+		stack.setSelectedElement(placeholder);
+		return application;
+	}
+
+	private static byte[] save(Resource resource) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		resource.save(out, null);
+		return out.toByteArray();
+	}
+
+	private static E4BinaryResource load(byte[] bytes) throws IOException {
+		E4BinaryResource resource = new E4BinaryResource(URI.createURI("workbench.e4bin")); //$NON-NLS-1$
+		resource.load(new ByteArrayInputStream(bytes), null);
+		return resource;
+	}
+
+	private static void assertSameIds(E4XMIResource expected, E4XMIResource actual) {
+		TreeIterator<EObject> expectedIt = expected.getAllContents();
+		TreeIterator<EObject> actualIt = actual.getAllContents();
+		while (expectedIt.hasNext()) {
+			assertTrue(actualIt.hasNext());
+			assertEquals(expected.getID(expectedIt.next()), actual.getID(actualIt.next()));
+		}
+		assertTrue(!actualIt.hasNext());
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		E4BinaryResource resource = new E4BinaryResource(URI.createURI("workbench.e4bin")); //$NON-NLS-1$
+		resource.getContents().add((EObject) createApplication());
+
+		E4BinaryResource loaded = load(save(resource));
+		assertTrue(EcoreUtil.equals(resource.getContents(), loaded.getContents()));
+		assertSameIds(resource, loaded);
+
+		MApplication application = (MApplication) loaded.getContents().get(0);
+		MTrimmedWindow window = (MTrimmedWindow) application.getChildren().get(0);
+		MPartStack stack = (MPartStack) window.getChildren().get(0);
+		assertSame(window.getSharedElements().get(0), ((MPlaceholder) stack.getChildren().get(0)).getRef());
+		assertSame(stack.getChildren().get(0), stack.getSelectedElement());
+		assertEquals("value", window.getSharedElements().get(0).getPersistedState().get("key")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testConvertFromXMI() throws IOException {
+		E4XMIResource xmiResource = new E4XMIResource(URI.createURI("workbench.xmi")); //$NON-NLS-1$
+		xmiResource.getContents().add((EObject) createApplication());
+		byte[] xmi = save(xmiResource);
+		E4XMIResource expected = new E4XMIResource(URI.createURI("workbench.xmi")); //$NON-NLS-1$
+		expected.load(new ByteArrayInputStream(xmi), null);
+		xmiResource = new E4XMIResource(URI.createURI("workbench.xmi")); //$NON-NLS-1$
+		xmiResource.load(new ByteArrayInputStream(xmi), null);
+
+		// as the resource handler migrates a model
+		Map<EObject, String> ids = new HashMap<>(xmiResource.getEObjectToIDMap());
+		E4BinaryResource resource = new E4BinaryResource(URI.createURI("workbench.e4bin")); //$NON-NLS-1$
+		resource.getContents().addAll(xmiResource.getContents());
+		for (Map.Entry<EObject, String> entry : ids.entrySet()) {
+			resource.setID(entry.getKey(), entry.getValue());
+		}
+
+		E4BinaryResource loaded = load(save(resource));
+		assertTrue(EcoreUtil.equals(expected.getContents(), loaded.getContents()));
+		assertSameIds(expected, loaded);
+	}
+
+	@Test(expected = IOException.class)
+	public void testLoadTruncated() throws IOException {
+		E4BinaryResource resource = new E4BinaryResource(URI.createURI("workbench.e4bin")); //$NON-NLS-1$
+		resource.getContents().add((EObject) createApplication());
+		byte[] bytes = save(resource);
+		load(Arrays.copyOf(bytes, bytes.length / 2));
+	}
+}
@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.workbench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.commands.MCommand;
+import org.eclipse.e4.ui.model.application.commands.MCommandsFactory;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MAdvancedFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MArea;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenuFactory;
+import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
+import org.eclipse.e4.ui.model.internal.ElementIndex;
+import org.eclipse.e4.ui.model.internal.ModelUtils;
+import org.eclipse.e4.ui.workbench.Selector;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.e4.ui.workbench.modeling.ElementMatcher;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the searches of elements by id, tag and type which use the element
+ * index find the same elements in the same order as walking the model.
+ */
+public class ElementIndexTest {
+
+	private static final int[] SEARCH_FLAGS = { EModelService.ANYWHERE, EModelService.PRESENTATION,
+			EModelService.GLOBAL, EModelService.IN_ACTIVE_PERSPECTIVE | EModelService.OUTSIDE_PERSPECTIVE,
+			EModelService.IN_ANY_PERSPECTIVE | EModelService.IN_SHARED_AREA, EModelService.IN_TRIM,
+			EModelService.IN_MAIN_MENU | EModelService.IN_PART | EModelService.OUTSIDE_PERSPECTIVE };
+
+	private IEclipseContext appContext;
+
+	private EModelService modelService;
+
+	private MApplication application;
+
+	private MTrimmedWindow window;
+
+	private MPerspectiveStack perspectiveStack;
+
+	private MPart sharedPart;
+
+	private MPart taggedPart;
+
+	@Before
+	public void setUp() {
+		appContext = E4Application.createDefaultContext();
+		modelService = appContext.get(EModelService.class);
+		application = createApplication();
+		appContext.set(MApplication.class, application);
+	}
+
+	@After
+	public void tearDown() {
+		appContext.dispose();
+	}
+
+	private static MPart createPart(String id, String... tags) {
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		part.setElementId(id);
+		part.getTags().addAll(Arrays.asList(tags));
+		return part;
+	}
+
+	private static MPlaceholder createPlaceholder(MUIElement ref) {
+		MPlaceholder placeholder = MAdvancedFactory.INSTANCE.createPlaceholder();
+		placeholder.setElementId(ref.getElementId());
+		placeholder.setRef(ref);
+		return placeholder;
+	}
+
+	private MPerspective createPerspective(String id, MArea area) {
+		MPerspective perspective = MAdvancedFactory.INSTANCE.createPerspective();
+		perspective.setElementId(id);
+		MPartSashContainer sash = MBasicFactory.INSTANCE.createPartSashContainer();
+		sash.setElementId("sash"); //$NON-NLS-1$
+		perspective.getChildren().add(sash);
+		MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+		stack.setElementId("stack"); //$NON-NLS-1$
+		stack.getChildren().add(createPart("dup", "View")); //$NON-NLS-1$ //$NON-NLS-2$
+		stack.getChildren().add(createPart(id + ".part", "View", "Editor")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		stack.getChildren().add(createPlaceholder(sharedPart));
+		sash.getChildren().add(stack);
+		sash.getChildren().add(createPlaceholder(area));
+		MTrimmedWindow detached = MBasicFactory.INSTANCE.createTrimmedWindow();
+		detached.setElementId(id + ".detached"); //$NON-NLS-1$
+		detached.getChildren().add(createPart("dup", "Editor")); //$NON-NLS-1$ //$NON-NLS-2$
+		perspective.getWindows().add(detached);
+		return perspective;
+	}
+
+	private MApplication createApplication() {
+		MApplication result = MApplicationFactory.INSTANCE.createApplication();
+		result.setElementId("application"); //$NON-NLS-1$
+		for (String id : Arrays.asList("command", "dup", "command")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			MCommand command = MCommandsFactory.INSTANCE.createCommand();
+			command.setElementId(id);
+			result.getCommands().add(command);
+		}
+
+		window = MBasicFactory.INSTANCE.createTrimmedWindow();
+		window.setElementId("window"); //$NON-NLS-1$
+		result.getChildren().add(window);
+		MTrimBar trimBar = MBasicFactory.INSTANCE.createTrimBar();
+		trimBar.setElementId("trim"); //$NON-NLS-1$
+		MToolBar toolBar = MMenuFactory.INSTANCE.createToolBar();
+		toolBar.setElementId("dup"); //$NON-NLS-1$
+		trimBar.getChildren().add(toolBar);
+		window.getTrimBars().add(trimBar);
+		MMenu mainMenu = MMenuFactory.INSTANCE.createMenu();
+		mainMenu.setElementId("menu"); //$NON-NLS-1$
+		MMenu subMenu = MMenuFactory.INSTANCE.createMenu();
+		subMenu.setElementId("dup"); //$NON-NLS-1$
+		mainMenu.getChildren().add(subMenu);
+		window.setMainMenu(mainMenu);
+
+		sharedPart = createPart("shared", "View", "shared"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		MPart partWithMenu = createPart("dup", "View"); //$NON-NLS-1$ //$NON-NLS-2$
+		MMenu partMenu = MMenuFactory.INSTANCE.createMenu();
+		partMenu.setElementId("dup"); //$NON-NLS-1$
+		partWithMenu.getMenus().add(partMenu);
+		window.getSharedElements().add(sharedPart);
+		MArea area = MAdvancedFactory.INSTANCE.createArea();
+		area.setElementId("area"); //$NON-NLS-1$
+		MPartStack areaStack = MBasicFactory.INSTANCE.createPartStack();
+		areaStack.setElementId("stack"); //$NON-NLS-1$
+		areaStack.getChildren().add(partWithMenu);
+		area.getChildren().add(areaStack);
+		window.getSharedElements().add(area);
+
+		perspectiveStack = MAdvancedFactory.INSTANCE.createPerspectiveStack();
+		perspectiveStack.getChildren().add(createPerspective("first", area)); //$NON-NLS-1$
+		perspectiveStack.getChildren().add(createPerspective("second", area)); //$NON-NLS-1$
+		perspectiveStack.setSelectedElement(perspectiveStack.getChildren().get(1));
+		window.getChildren().add(perspectiveStack);
+		taggedPart = createPart("dup", "View"); //$NON-NLS-1$ //$NON-NLS-2$
+		window.getChildren().add(taggedPart);
+
+		MWindow other = MBasicFactory.INSTANCE.createWindow();
+		other.setElementId("other"); //$NON-NLS-1$
+		other.getChildren().add(createPart("dup")); //$NON-NLS-1$
+		other.getChildren().add(createPart("", "Editor")); //$NON-NLS-1$ //$NON-NLS-2$
+		result.getChildren().add(other);
+		return result;
+	}
+
+	private Set<String> getIds() {
+		Set<String> ids = new LinkedHashSet<>();
+		for (TreeIterator<EObject> it = EcoreUtil.<EObject> getAllContents((EObject) application, true); it.hasNext();) {
+			EObject element = it.next();
+			if (element instanceof MApplicationElement) {
+				ids.add(((MApplicationElement) element).getElementId());
+			}
+		}
+		ids.add("missing"); //$NON-NLS-1$
+		ids.remove(null);
+		// elements are not searched by an empty id
+		ids.remove(""); //$NON-NLS-1$
+		return ids;
+	}
+
+	private Set<String> getTags() {
+		Set<String> tags = new LinkedHashSet<>();
+		for (TreeIterator<EObject> it = EcoreUtil.<EObject> getAllContents((EObject) application, true); it.hasNext();) {
+			EObject element = it.next();
+			if (element instanceof MApplicationElement) {
+				tags.addAll(((MApplicationElement) element).getTags());
+			}
+		}
+		tags.add("missing"); //$NON-NLS-1$
+		return tags;
+	}
+
+	private List<ElementMatcher> getMatchers() {
+		List<ElementMatcher> matchers = new ArrayList<>();
+		for (String id : getIds()) {
+			matchers.add(new ElementMatcher(id, null, (List<String>) null));
+			matchers.add(new ElementMatcher(id, MPart.class, (List<String>) null));
+		}
+		for (Class<?> clazz : Arrays.asList(MPart.class, MPlaceholder.class, MPartStack.class, MWindow.class,
+				MMenu.class, MCommand.class, MUIElement.class)) {
+			matchers.add(new ElementMatcher(null, clazz, (List<String>) null));
+		}
+		for (String tag : getTags()) {
+			matchers.add(new ElementMatcher(null, null, tag));
+			matchers.add(new ElementMatcher(null, MPart.class, tag));
+		}
+		matchers.add(new ElementMatcher(null, null, Arrays.asList("View", "Editor"))); //$NON-NLS-1$ //$NON-NLS-2$
+		matchers.add(new ElementMatcher("dup", MPart.class, Arrays.asList("View"))); //$NON-NLS-1$ //$NON-NLS-2$
+		matchers.add(new ElementMatcher(null, null, new ArrayList<>()));
+		// unless a selector is given
+		matchers.add(new ElementMatcher("", null, (List<String>) null)); //$NON-NLS-1$
+		return matchers;
+	}
+
+	/**
+	 * Returns the first element with the given id, walking the model.
+	 */
+	private static MApplicationElement walk(MApplicationElement element, String id) {
+		if (id.equals(element.getElementId())) {
+			return element;
+		}
+		for (EObject child : ((EObject) element).eContents()) {
+			if (child instanceof MApplicationElement) {
+				MApplicationElement result = walk((MApplicationElement) child, id);
+				if (result != null) {
+					return result;
+				}
+			}
+		}
+		return null;
+	}
+
+	private List<MUIElement> getSearchRoots() {
+		List<MUIElement> roots = new ArrayList<>();
+		for (TreeIterator<EObject> it = EcoreUtil.<EObject> getAllContents((EObject) application, true); it.hasNext();) {
+			EObject element = it.next();
+			if (element instanceof MUIElement) {
+				roots.add((MUIElement) element);
+			}
+		}
+		return roots;
+	}
+
+	private void assertFindElementById() {
+		for (String id : getIds()) {
+			// the model service indexes its application
+			assertSame(id, walk(application, id), modelService.findElementById(application, id));
+			assertSame(id, walk(application, id), ModelUtils.findElementById(application, id));
+		}
+	}
+
+	private void assertFindElements() {
+		for (MUIElement root : getSearchRoots()) {
+			for (int flags : SEARCH_FLAGS) {
+				for (ElementMatcher matcher : getMatchers()) {
+					// a selector which is not an ElementMatcher walks the model
+					Selector selector = element -> matcher.select(element);
+					Class<?> clazz = matcher.getElementClass();
+					List<?> expected = modelService.findElements(root, clazz, flags, selector);
+					assertEquals(expected, modelService.findElements(root, clazz, flags, matcher));
+					assertEquals(expected,
+							modelService.findElements(root, matcher.getId(), clazz, matcher.getTags(), flags));
+					assertEquals(modelService.findElements(root, MUIElement.class, flags, selector),
+							modelService.findElements(root, MUIElement.class, flags, matcher));
+				}
+			}
+			for (String id : getIds()) {
+				List<MUIElement> expected = modelService.findElements(root, MUIElement.class,
+						EModelService.ANYWHERE, new ElementMatcher(id, null, (List<String>) null)::select);
+				assertSame(expected.isEmpty() ? null : expected.get(0), modelService.find(id, root));
+			}
+		}
+	}
+
+	@Test
+	public void testFindElementById() {
+		assertFindElementById();
+		assertNull(ModelUtils.findElementById(application, null));
+		assertNull(ModelUtils.findElementById(application, "")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testFindElements() {
+		assertFindElements();
+	}
+
+	@Test
+	public void testChangeIds() {
+		assertFindElementById();
+		window.setElementId("renamed"); //$NON-NLS-1$
+		sharedPart.setElementId("dup"); //$NON-NLS-1$
+		application.getCommands().get(0).setElementId(null);
+		assertFindElementById();
+		assertFindElements();
+	}
+
+	@Test
+	public void testMoveElements() {
+		assertFindElementById();
+		MPerspective first = perspectiveStack.getChildren().get(0);
+		MPartStack stack = (MPartStack) ((MPartSashContainer) first.getChildren().get(0)).getChildren().get(0);
+		// move a part to another window and the perspective to the end
+		application.getChildren().get(1).getChildren().add(0, (MPart) stack.getChildren().get(1));
+		((EList<MPerspective>) perspectiveStack.getChildren()).move(1, 0);
+		// move a command before the other commands with the same id
+		application.getCommands().add(0, application.getCommands().remove(2));
+		assertFindElementById();
+		assertFindElements();
+	}
+
+	@Test
+	public void testRemoveAndAddElements() {
+		assertFindElementById();
+		MWindow other = application.getChildren().remove(1);
+		MPerspective first = perspectiveStack.getChildren().remove(0);
+		assertFindElementById();
+		assertFindElements();
+
+		// elements changed while they were not in the application
+		first.setElementId("dup"); //$NON-NLS-1$
+		other.getChildren().get(0).setElementId("first.part"); //$NON-NLS-1$
+		perspectiveStack.getChildren().add(first);
+		window.getWindows().add(other);
+		assertFindElementById();
+		assertFindElements();
+	}
+
+	@Test
+	public void testChangeTags() {
+		taggedPart.getTags().add("Editor"); //$NON-NLS-1$
+		sharedPart.getTags().remove("View"); //$NON-NLS-1$
+		window.getTags().addAll(Arrays.asList("View", "other")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFindElements();
+
+		// a tag is indexed as long as the element has it
+		taggedPart.getTags().add("View"); //$NON-NLS-1$
+		taggedPart.getTags().remove("View"); //$NON-NLS-1$
+		sharedPart.getTags().set(0, "Editor"); //$NON-NLS-1$
+		window.getTags().clear();
+		assertFindElements();
+
+		// tags changed while the element was not in the application
+		MPerspective first = perspectiveStack.getChildren().remove(0);
+		first.getTags().add("View"); //$NON-NLS-1$
+		perspectiveStack.getChildren().add(first);
+		assertFindElements();
+	}
+
+	@Test
+	public void testCopyIsNotIndexed() {
+		// copies, such as the ones the workbench saves, are walked
+		MApplication copy = (MApplication) EcoreUtil.copy((EObject) application);
+		ElementMatcher matcher = new ElementMatcher("dup", MPart.class, (List<String>) null); //$NON-NLS-1$
+		assertEquals(modelService.findElements(copy, MPart.class, EModelService.ANYWHERE, matcher::select),
+				modelService.findElements(copy, MPart.class, EModelService.ANYWHERE, matcher));
+		assertSame(walk(copy, "dup"), modelService.findElementById(copy, "dup")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(ElementIndex.findIndex(copy));
+
+		modelService.findElements(application, "dup", MPart.class, null); //$NON-NLS-1$
+		assertNotNull(ElementIndex.findIndex(application));
+	}
+
+	@Test
+	public void testElementMatcherSubclass() {
+		// subclasses may select other elements than their id, class and tags
+		ElementMatcher matcher = new ElementMatcher("dup", MPart.class, (List<String>) null) { //$NON-NLS-1$
+			@Override
+			public boolean select(MApplicationElement element) {
+				return element instanceof MPart && element.getTags().contains("Editor"); //$NON-NLS-1$
+			}
+		};
+		List<MPart> parts = modelService.findElements(application, MPart.class, EModelService.ANYWHERE, matcher);
+		assertEquals(5, parts.size());
+		assertEquals(modelService.findElements(application, MPart.class, EModelService.ANYWHERE,
+				element -> matcher.select(element)), parts);
+	}
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.workbench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.e4.ui.internal.workbench.IncrementalModelCopy;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MAdvancedFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MStackElement;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link IncrementalModelCopy} keeps a copy equal to a full copy of
+ * the model.
+ */
+public class IncrementalModelCopyTest {
+
+	private MApplication application;
+
+	private MTrimmedWindow window;
+
+	private MPartStack stack;
+
+	private MPart part;
+
+	private IncrementalModelCopy copy;
+
+	@Before
+	public void setUp() {
+		application = MApplicationFactory.INSTANCE.createApplication();
+		window = MBasicFactory.INSTANCE.createTrimmedWindow();
+		window.setElementId("window"); //$NON-NLS-1$
+		application.getChildren().add(window);
+		stack = MBasicFactory.INSTANCE.createPartStack();
+		window.getChildren().add(stack);
+		part = createPart("part"); //$NON-NLS-1$
+		stack.getChildren().add(part);
+		stack.setSelectedElement(part);
+		window.setSelectedElement(stack);
+		copy = new IncrementalModelCopy(application);
+	}
+
+	@After
+	public void tearDown() {
+		copy.dispose();
+	}
+
+	private static MPart createPart(String id) {
+		MPart result = MBasicFactory.INSTANCE.createPart();
+		result.setElementId(id);
+		result.setLabel(id);
+		return result;
+	}
+
+	private void assertCopyValid() {
+		MApplication result = copy.update();
+		assertEquals(0, copy.getChangedCount());
+		assertTrue(EcoreUtil.equals((EObject) EcoreUtil.copy((EObject) application), (EObject) result));
+		// all references of the copy are to elements of the copy
+		assertTrue(EcoreUtil.ExternalCrossReferencer.find((EObject) result).isEmpty());
+	}
+
+	private MPart getPartCopy() {
+		return (MPart) ((MPartStack) ((MTrimmedWindow) copy.getCopy().getChildren().get(0)).getChildren().get(0))
+				.getChildren().get(0);
+	}
+
+	@Test
+	public void testInitialCopy() {
+		assertCopyValid();
+	}
+
+	@Test
+	public void testAttributes() {
+		part.setLabel("changed"); //$NON-NLS-1$
+		part.getTags().add("tag"); //$NON-NLS-1$
+		part.getPersistedState().put("key", "value"); //$NON-NLS-1$ //$NON-NLS-2$
+		window.setX(42);
+		assertEquals(2, copy.getChangedCount());
+		assertCopyValid();
+
+		part.getPersistedState().put("key", "other value"); //$NON-NLS-1$ //$NON-NLS-2$
+		part.getTags().clear();
+		assertCopyValid();
+	}
+
+	@Test
+	public void testUnchangedElementsKeepTheirCopies() {
+		MPart partCopy = getPartCopy();
+		part.setLabel("changed"); //$NON-NLS-1$
+		copy.update();
+		assertSame(partCopy, getPartCopy());
+		assertEquals("changed", partCopy.getLabel()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testAddSubtree() {
+		MPartSashContainer sash = MBasicFactory.INSTANCE.createPartSashContainer();
+		MPartStack newStack = MBasicFactory.INSTANCE.createPartStack();
+		MPart newPart = createPart("newPart"); //$NON-NLS-1$
+		newStack.getChildren().add(newPart);
+		newStack.setSelectedElement(newPart);
+		sash.getChildren().add(newStack);
+		window.getChildren().add(sash);
+		window.setSelectedElement(sash);
+		assertCopyValid();
+	}
+
+	@Test
+	public void testSharedElements() {
+		MPart shared = createPart("shared"); //$NON-NLS-1$
+		window.getSharedElements().add(shared);
+		MPlaceholder placeholder = MAdvancedFactory.INSTANCE.createPlaceholder();
+		placeholder.setRef(shared);
+		stack.getChildren().add(placeholder);
+		assertCopyValid();
+
+		MPlaceholder placeholderCopy = (MPlaceholder) ((MPartStack) ((MTrimmedWindow) copy.getCopy().getChildren()
+				.get(0)).getChildren().get(0)).getChildren().get(1);
+		assertSame(((MTrimmedWindow) copy.getCopy().getChildren().get(0)).getSharedElements().get(0),
+				placeholderCopy.getRef());
+	}
+
+	@Test
+	public void testMoveIntoNewSubtree() {
+		MPart partCopy = getPartCopy();
+		MPartSashContainer sash = MBasicFactory.INSTANCE.createPartSashContainer();
+		MPartStack newStack = MBasicFactory.INSTANCE.createPartStack();
+		sash.getChildren().add(newStack);
+		// moves the part, which changes while it is not in the model
+		stack.setSelectedElement(null);
+		newStack.getChildren().add(part);
+		part.setLabel("moved"); //$NON-NLS-1$
+		newStack.setSelectedElement(part);
+		window.getChildren().add(sash);
+		assertCopyValid();
+
+		MPartStack newStackCopy = (MPartStack) ((MPartSashContainer) ((MTrimmedWindow) copy.getCopy().getChildren()
+				.get(0)).getChildren().get(1)).getChildren().get(0);
+		assertSame(partCopy, newStackCopy.getChildren().get(0));
+		assertSame(partCopy, newStackCopy.getSelectedElement());
+	}
+
+	@Test
+	public void testReorder() {
+		MPart other = createPart("other"); //$NON-NLS-1$
+		stack.getChildren().add(other);
+		assertCopyValid();
+
+		((EList<MStackElement>) stack.getChildren()).move(0, other);
+		assertCopyValid();
+	}
+
+	@Test
+	public void testRemoveAndAddBack() {
+		stack.setSelectedElement(null);
+		stack.getChildren().remove(part);
+		assertCopyValid();
+
+		part.setLabel("changed while removed"); //$NON-NLS-1$
+		stack.getChildren().add(part);
+		stack.setSelectedElement(part);
+		assertCopyValid();
+	}
+
+	@Test
+	public void testSelectRenderedElement() {
+		MPart other = createPart("other"); //$NON-NLS-1$
+		other.setToBeRendered(false);
+		stack.getChildren().add(other);
+		assertCopyValid();
+
+		other.setToBeRendered(true);
+		stack.setSelectedElement(other);
+		part.setToBeRendered(false);
+		assertCopyValid();
+	}
+
+	@Test
+	public void testRemoveWindow() {
+		application.getChildren().remove(window);
+		assertCopyValid();
+	}
+
+	@Test
+	public void testDispose() {
+		copy.dispose();
+		part.setLabel("changed"); //$NON-NLS-1$
+		assertEquals(0, copy.getChangedCount());
+	}
+}
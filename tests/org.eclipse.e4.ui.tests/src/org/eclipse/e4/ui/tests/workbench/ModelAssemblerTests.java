@@ -13,9 +13,16 @@
 package org.eclipse.e4.ui.tests.workbench;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.io.IOException;
@@ -32,6 +39,7 @@ import org.eclipse.core.runtime.RegistryFactory;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.log.Logger;
+import org.eclipse.e4.ui.internal.workbench.E4Workbench;
 import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
 import org.eclipse.e4.ui.internal.workbench.E4XMIResourceFactory;
 import org.eclipse.e4.ui.internal.workbench.ExtensionsSort;
@@ -52,11 +60,15 @@ import org.eclipse.e4.ui.model.fragment.MFragmentFactory;
 import org.eclipse.e4.ui.model.fragment.MModelFragment;
 import org.eclipse.e4.ui.model.fragment.MModelFragments;
 import org.eclipse.e4.ui.model.fragment.MStringModelFragment;
+import org.eclipse.e4.ui.model.internal.ElementIndex;
 import org.eclipse.e4.ui.workbench.Selector;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.junit.Before;
@@ -316,6 +328,8 @@ public class ModelAssemblerTests {
 	 */
 	@Test
 	public void testModelProcessingOrder() throws Exception {
+		List<Resource> addedLoadedResources = recordAddedLoadedResources();
+
 		/* setup application model */
 		/* this creates a window, containing a part and an area */
 		MTrimmedWindow trimmedWindow = MBasicFactory.INSTANCE.createTrimmedWindow();
@@ -348,6 +362,176 @@ public class ModelAssemblerTests {
 		// the testing was done in the post-processor; if we didn't fail there,
 		// everything went fine.
 		verifyZeroInteractions(logger);
+		// the fragment was loaded in the resource set of the application
+		assertEquals(2, resourceSet.getResources().size());
+		assertTrue(addedLoadedResources.isEmpty());
+	}
+
+	/**
+	 * Tests that the fragments are merged while the application is indexed by
+	 * element id, so that the lookups of their parents and imports do not walk
+	 * the model, and that the index is removed afterwards.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testModelProcessingOrder_indexedLookups() throws Exception {
+		MTrimmedWindow trimmedWindow = createProcessingOrderWindow();
+		MPart part = (MPart) trimmedWindow.getChildren().get(0);
+		MArea area = (MArea) trimmedWindow.getChildren().get(1);
+		final List<ElementIndex> indexes = new ArrayList<ElementIndex>();
+		((EObject) area).eAdapters().add(new AdapterImpl() {
+			@Override
+			public void notifyChanged(Notification msg) {
+				if (msg.getEventType() == Notification.ADD && msg.getNewValue() instanceof MPlaceholder) {
+					indexes.add(ElementIndex.findIndex(application));
+				}
+			}
+		});
+
+		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
+		IExtensionRegistry registry = createTestExtensionRegistry();
+		String dataFilePath = "org.eclipse.e4.ui.tests/data/ModelAssembler/modelProcessingOrder.xml";
+		registry.addContribution(getContentsAsInputStream(dataFilePath), contributor, false, null, null, null);
+
+		assertNull(ElementIndex.findIndex(application));
+		assembler.processModel(true);
+
+		// the placeholder was merged into the area and its part was imported
+		// while the index was in place
+		assertEquals(1, indexes.size());
+		assertNotNull(indexes.get(0));
+		assertSame(part, ((MPlaceholder) area.getChildren().get(0)).getRef());
+		assertSame(area, indexes.get(0).findElement("testModelProcessingOrder-area"));
+		assertNull(ElementIndex.findIndex(application));
+		verifyZeroInteractions(logger);
+	}
+
+	/**
+	 * Tests that an index which the application already has is kept after the
+	 * model is processed.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testModelProcessingOrder_existingIndex() throws Exception {
+		MTrimmedWindow trimmedWindow = createProcessingOrderWindow();
+		MArea area = (MArea) trimmedWindow.getChildren().get(1);
+		ElementIndex index = ElementIndex.getIndex(application);
+
+		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
+		IExtensionRegistry registry = createTestExtensionRegistry();
+		String dataFilePath = "org.eclipse.e4.ui.tests/data/ModelAssembler/modelProcessingOrder.xml";
+		registry.addContribution(getContentsAsInputStream(dataFilePath), contributor, false, null, null, null);
+
+		assembler.processModel(true);
+
+		assertSame(index, ElementIndex.findIndex(application));
+		// the index followed the merge of the fragment
+		assertSame(area.getChildren().get(0), index.findElement("testModelProcessingOrder-placeholder"));
+		verifyZeroInteractions(logger);
+	}
+
+	/**
+	 * Tests that fragments loaded in parallel are merged like fragments loaded
+	 * sequentially, and that their imports are resolved before the
+	 * post-processors run.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testModelProcessingOrder_parallelFragmentLoading() throws Exception {
+		appContext.set(E4Workbench.PARALLEL_FRAGMENT_LOADING, Boolean.TRUE);
+		MTrimmedWindow trimmedWindow = createProcessingOrderWindow();
+		MPart part = (MPart) trimmedWindow.getChildren().get(0);
+		MArea area = (MArea) trimmedWindow.getChildren().get(1);
+		List<Resource> addedLoadedResources = recordAddedLoadedResources();
+
+		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
+		IExtensionRegistry registry = createTestExtensionRegistry();
+		String dataFilePath = "org.eclipse.e4.ui.tests/data/ModelAssembler/modelProcessingOrder.xml";
+		registry.addContribution(getContentsAsInputStream(dataFilePath), contributor, false, null, null, null);
+
+		assembler.processModel(true);
+
+		assertEquals(1, area.getChildren().size());
+		MPlaceholder placeholder = (MPlaceholder) area.getChildren().get(0);
+		assertEquals("testModelProcessingOrder-placeholder", placeholder.getElementId());
+		assertSame(part, placeholder.getRef());
+		// the fragment was loaded in a resource set of its own, and then
+		// moved to the resource set of the application
+		assertEquals(2, resourceSet.getResources().size());
+		assertEquals(1, addedLoadedResources.size());
+		assertSame(resourceSet.getResources().get(1), addedLoadedResources.get(0));
+		assertEquals(URI.createPlatformPluginURI(
+				BUNDLE_SYMBOLIC_NAME + "/data/ModelAssembler/modelProcessingOrder-fragment.e4xmi", false),
+				addedLoadedResources.get(0).getURI());
+		verifyZeroInteractions(logger);
+	}
+
+	/**
+	 * Tests that a fragment file which cannot be loaded in parallel is logged
+	 * and skipped, without preventing the other fragments from being merged.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testParallelFragmentLoading_missingFile() throws Exception {
+		appContext.set(E4Workbench.PARALLEL_FRAGMENT_LOADING, Boolean.TRUE);
+		MTrimmedWindow trimmedWindow = createProcessingOrderWindow();
+		MPart part = (MPart) trimmedWindow.getChildren().get(0);
+		MArea area = (MArea) trimmedWindow.getChildren().get(1);
+		List<Resource> addedLoadedResources = recordAddedLoadedResources();
+
+		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
+		IExtensionRegistry registry = createTestExtensionRegistry();
+		String dataFilePath = "org.eclipse.e4.ui.tests/data/ModelAssembler/fragments_missingFile.xml";
+		registry.addContribution(getContentsAsInputStream(dataFilePath), contributor, false, null, null, null);
+
+		assembler.processModel(true);
+
+		assertEquals(1, area.getChildren().size());
+		assertSame(part, ((MPlaceholder) area.getChildren().get(0)).getRef());
+		// the resource which could not be loaded is not kept
+		assertEquals(2, resourceSet.getResources().size());
+		assertEquals(1, addedLoadedResources.size());
+		verify(logger).warn(any(Throwable.class),
+				eq("Unable to read model extension from \"platform:/plugin/" + BUNDLE_SYMBOLIC_NAME
+						+ "/data/ModelAssembler/missing.e4xmi\" of \"" + BUNDLE_SYMBOLIC_NAME + "\""));
+		verifyNoMoreInteractions(logger);
+	}
+
+	/**
+	 * Tests that a fragment file shared by several extensions is loaded once
+	 * in parallel, and that its fragments are processed for each extension.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testParallelFragmentLoading_sharedUri() throws Exception {
+		appContext.set(E4Workbench.PARALLEL_FRAGMENT_LOADING, Boolean.TRUE);
+		MTrimmedWindow trimmedWindow = createProcessingOrderWindow();
+		MPart part = (MPart) trimmedWindow.getChildren().get(0);
+		MArea area = (MArea) trimmedWindow.getChildren().get(1);
+		List<Resource> addedLoadedResources = recordAddedLoadedResources();
+
+		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
+		IExtensionRegistry registry = createTestExtensionRegistry();
+		String dataFilePath = "org.eclipse.e4.ui.tests/data/ModelAssembler/fragments_sharedUri.xml";
+		registry.addContribution(getContentsAsInputStream(dataFilePath), contributor, false, null, null, null);
+
+		assembler.processModel(true);
+
+		assertEquals(2, registry.getConfigurationElementsFor(EXTENSION_POINT_ID).length);
+		assertEquals(2, resourceSet.getResources().size());
+		assertEquals(1, addedLoadedResources.size());
+		// the first extension merges the placeholder, which leaves nothing to
+		// merge for the second one
+		assertEquals(1, area.getChildren().size());
+		assertSame(part, ((MPlaceholder) area.getChildren().get(0)).getRef());
+		verify(logger).debug(eq("Nothing to merge for fragment \"{0}\" of \"{1}\""), anyObject(),
+				eq(BUNDLE_SYMBOLIC_NAME));
+		verifyNoMoreInteractions(logger);
 	}
 
 	/**
@@ -518,6 +702,43 @@ public class ModelAssemblerTests {
 		assembler.runProcessors(extensions, initial, afterFragments);
 	}
 
+	/**
+	 * Creates a window containing a part and an area, to which the
+	 * modelProcessingOrder fragment contributes a placeholder of the part.
+	 */
+	private MTrimmedWindow createProcessingOrderWindow() {
+		MTrimmedWindow trimmedWindow = MBasicFactory.INSTANCE.createTrimmedWindow();
+		trimmedWindow.setElementId("testModelProcessingOrder-trimmedWindow");
+		application.getChildren().add(trimmedWindow);
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		part.setElementId("testModelProcessingOrder-part");
+		trimmedWindow.getChildren().add(part);
+		MArea area = MAdvancedFactory.INSTANCE.createArea();
+		area.setElementId("testModelProcessingOrder-area");
+		trimmedWindow.getChildren().add(area);
+		return trimmedWindow;
+	}
+
+	/**
+	 * Records the resources which are already loaded when they are added to
+	 * the resource set of the application. Fragments loaded sequentially are
+	 * added before they are loaded, fragments loaded in parallel once they are
+	 * loaded.
+	 */
+	private List<Resource> recordAddedLoadedResources() {
+		final List<Resource> resources = new ArrayList<Resource>();
+		resourceSet.eAdapters().add(new AdapterImpl() {
+			@Override
+			public void notifyChanged(Notification msg) {
+				if (msg.getFeatureID(ResourceSet.class) == ResourceSet.RESOURCE_SET__RESOURCES
+						&& msg.getEventType() == Notification.ADD && ((Resource) msg.getNewValue()).isLoaded()) {
+					resources.add((Resource) msg.getNewValue());
+				}
+			}
+		});
+		return resources;
+	}
+
 	private IExtensionRegistry createTestExtensionRegistry() {
 		IExtensionRegistry defaultRegistry = RegistryFactory.getRegistry();
 		IExtensionPoint extensionPoint = defaultRegistry.getExtensionPoint(EXTENSION_POINT_ID);
@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.benchmarks.databinding;
+
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Realm without a display, current in any thread. The benchmarks create their
+ * observables in it and access them from the JMH worker threads.
+ */
+public class BenchmarkRealm extends Realm {
+
+	@Override
+	public boolean isCurrent() {
+		return true;
+	}
+
+	/**
+	 * Runs the given runnable with a new benchmark realm as the default realm.
+	 *
+	 * @param runnable
+	 *            the runnable creating the observables
+	 * @return the realm
+	 */
+	public static Realm runWithDefault(Runnable runnable) {
+		Realm realm = new BenchmarkRealm();
+		Realm.runWithDefault(realm, runnable);
+		return realm;
+	}
+}
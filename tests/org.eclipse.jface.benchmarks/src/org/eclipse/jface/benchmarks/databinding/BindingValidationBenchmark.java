@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.benchmarks.databinding;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.databinding.AggregateValidationStatus;
+import org.eclipse.core.databinding.Binding;
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.UpdateValueStrategy;
+import org.eclipse.core.databinding.conversion.IConverter;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.core.databinding.validation.ValidationStatus;
+import org.eclipse.core.runtime.IStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the validation pipeline of a value {@link Binding}: getting,
+ * validating, converting and setting target values which are alternately
+ * valid and invalid, with an {@link AggregateValidationStatus} tracking the
+ * status of all the bindings of the context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingValidationBenchmark {
+
+	private static final Pattern NUMBER = Pattern.compile("-?\\d+"); //$NON-NLS-1$
+
+	private static final String[] TARGET_VALUES = { "42", "-1", "4x2", "7" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	@Param({ "1", "100" })
+	public int bindings;
+
+	private WritableValue<String> target;
+
+	private AggregateValidationStatus status;
+
+	private int counter;
+
+	@Setup
+	public void setUp() {
+		BenchmarkRealm.runWithDefault(() -> {
+			DataBindingContext context = new DataBindingContext();
+			for (int i = 0; i < bindings; i++) {
+				WritableValue<String> bindingTarget = new WritableValue<>("0", String.class); //$NON-NLS-1$
+				context.bindValue(bindingTarget, new WritableValue<>(Integer.valueOf(0), Integer.class),
+						createTargetToModel(), new UpdateValueStrategy());
+				if (target == null) {
+					target = bindingTarget;
+				}
+			}
+			status = new AggregateValidationStatus(context, AggregateValidationStatus.MAX_SEVERITY);
+		});
+		status.addChangeListener(event -> {
+		});
+	}
+
+	private static UpdateValueStrategy createTargetToModel() {
+		return new UpdateValueStrategy()
+				.setAfterGetValidator(value -> NUMBER.matcher((String) value).matches() ? ValidationStatus.ok()
+						: ValidationStatus.error("Not a number")) //$NON-NLS-1$
+				.setConverter(IConverter.create(String.class, Integer.class, value -> Integer.valueOf((String) value)))
+				.setAfterConvertValidator(value -> ((Integer) value).intValue() >= 0 ? ValidationStatus.ok()
+						: ValidationStatus.error("Negative")) //$NON-NLS-1$
+				.setBeforeSetValidator(value -> ValidationStatus.ok());
+	}
+
+	@Benchmark
+	public IStatus setTargetValue() {
+		target.setValue(TARGET_VALUES[counter++ & 3]);
+		return (IStatus) status.getValue();
+	}
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.benchmarks.databinding;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.observable.IChangeListener;
+import org.eclipse.core.databinding.observable.value.ComputedValue;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the propagation of a change through {@link ComputedValue}s: a chain
+ * of computed values each depending on the previous one, and a computed value
+ * depending on many writable values. The computed values are listened to, as
+ * they would be by bindings. The allocations per operation of
+ * {@link #recompute()} are those of the dependency tracking of a computed
+ * value recomputed with unchanged dependencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComputedValueBenchmark {
+
+	@Param({ "10", "100" })
+	public int dependencies;
+
+	private WritableValue<Integer> chainRoot;
+
+	private IObservableValue<Integer> chainEnd;
+
+	private WritableValue<Integer>[] fanInValues;
+
+	private IObservableValue<Integer> fanIn;
+
+	private WritableValue<Boolean> trigger;
+
+	private IObservableValue<Object> recomputed;
+
+	private int counter;
+
+	@Setup
+	public void setUp() {
+		BenchmarkRealm.runWithDefault(() -> {
+			chainRoot = new WritableValue<>(Integer.valueOf(0), Integer.class);
+			IObservableValue<Integer> previous = chainRoot;
+			for (int i = 0; i < dependencies; i++) {
+				final IObservableValue<Integer> source = previous;
+				previous = ComputedValue.create(() -> Integer.valueOf(source.getValue().intValue() + 1));
+			}
+			chainEnd = previous;
+
+			@SuppressWarnings("unchecked")
+			WritableValue<Integer>[] values = new WritableValue[dependencies];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = new WritableValue<>(Integer.valueOf(i), Integer.class);
+			}
+			fanInValues = values;
+			fanIn = ComputedValue.create(() -> {
+				int sum = 0;
+				for (WritableValue<Integer> value : values) {
+					sum += value.getValue().intValue();
+				}
+				return Integer.valueOf(sum);
+			});
+
+			trigger = new WritableValue<>(Boolean.FALSE, Boolean.class);
+			recomputed = ComputedValue.create(() -> {
+				trigger.getValue();
+				for (WritableValue<Integer> value : values) {
+					value.getValue();
+				}
+				return null;
+			});
+		});
+		IChangeListener listener = event -> {
+		};
+		chainEnd.addChangeListener(listener);
+		fanIn.addChangeListener(listener);
+		recomputed.addChangeListener(listener);
+	}
+
+	@Benchmark
+	public Integer chain() {
+		chainRoot.setValue(Integer.valueOf(counter++));
+		return chainEnd.getValue();
+	}
+
+	@Benchmark
+	public Integer fanIn() {
+		WritableValue<Integer> value = fanInValues[counter++ % fanInValues.length];
+		value.setValue(Integer.valueOf(counter));
+		return fanIn.getValue();
+	}
+
+	@Benchmark
+	public Object recompute() {
+		trigger.setValue(Boolean.valueOf((counter++ & 1) == 0));
+		return recomputed.getValue();
+	}
+}
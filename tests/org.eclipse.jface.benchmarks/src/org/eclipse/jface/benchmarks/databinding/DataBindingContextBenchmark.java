@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.benchmarks.databinding;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.UpdateValueStrategy;
+import org.eclipse.core.databinding.conversion.IConverter;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link DataBindingContext#updateModels()} for a context holding
+ * many value bindings whose targets are converted from strings to integers
+ * when the models are updated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataBindingContextBenchmark {
+
+	@Param({ "100", "1000" })
+	public int bindings;
+
+	private DataBindingContext context;
+
+	@Setup
+	public void setUp() {
+		BenchmarkRealm.runWithDefault(() -> {
+			context = new DataBindingContext();
+			IConverter converter = IConverter.create(String.class, Integer.class,
+					value -> Integer.valueOf((String) value));
+			for (int i = 0; i < bindings; i++) {
+				WritableValue<String> target = new WritableValue<>(Integer.toString(i), String.class);
+				WritableValue<Integer> model = new WritableValue<>(null, Integer.class);
+				context.bindValue(target, model,
+						new UpdateValueStrategy(UpdateValueStrategy.POLICY_CONVERT).setConverter(converter),
+						new UpdateValueStrategy(UpdateValueStrategy.POLICY_NEVER));
+			}
+		});
+	}
+
+	@Benchmark
+	public void updateModels() {
+		context.updateModels();
+	}
+}
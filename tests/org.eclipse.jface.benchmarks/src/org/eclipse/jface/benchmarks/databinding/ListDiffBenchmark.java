@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.benchmarks.databinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Diffs#computeListDiff(List, List)} for lists differing by a
+ * number of scattered insertions and removals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListDiffBenchmark {
+
+	@Param({ "100", "10000", "100000" })
+	public int size;
+
+	@Param({ "0", "10", "100" })
+	public int edits;
+
+	private List<Integer> oldList;
+
+	private List<Integer> newList;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(size * 31 + edits);
+		oldList = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			oldList.add(Integer.valueOf(i));
+		}
+		newList = new ArrayList<>(oldList);
+		for (int i = 0; i < edits; i++) {
+			if ((i & 1) == 0) {
+				newList.remove(random.nextInt(newList.size()));
+			} else {
+				newList.add(random.nextInt(newList.size() + 1), Integer.valueOf(size + i));
+			}
+		}
+	}
+
+	@Benchmark
+	public ListDiff<Integer> computeListDiff() {
+		return Diffs.computeListDiff(oldList, newList);
+	}
+
+	@Benchmark
+	public Object computeListDiffEntries() {
+		return Diffs.computeListDiff(oldList, newList).getDifferences();
+	}
+}
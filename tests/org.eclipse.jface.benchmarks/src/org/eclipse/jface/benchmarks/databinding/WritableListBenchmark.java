@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.benchmarks.databinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.IListChangeListener;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures bulk operations of a {@link WritableList} with a list change
+ * listener reading the differences of each event. Each operation leaves the
+ * list empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WritableListBenchmark {
+
+	@Param({ "100", "10000" })
+	public int size;
+
+	private Realm realm;
+
+	private WritableList<Integer> list;
+
+	private List<Integer> elements;
+
+	private Blackhole blackhole;
+
+	@Setup
+	public void setUp(Blackhole blackhole) {
+		this.blackhole = blackhole;
+		elements = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			elements.add(Integer.valueOf(i));
+		}
+		realm = BenchmarkRealm.runWithDefault(() -> list = new WritableList<>());
+		list.addListChangeListener(
+				(IListChangeListener<Integer>) event -> this.blackhole.consume(event.diff.getDifferences()));
+	}
+
+	@Benchmark
+	public void addAllAndClear() {
+		list.addAll(elements);
+		list.clear();
+	}
+
+	@Benchmark
+	public void addAndRemoveEach() {
+		for (Integer element : elements) {
+			list.add(element);
+		}
+		for (int i = list.size() - 1; i >= 0; i--) {
+			list.remove(i);
+		}
+	}
+
+	@Benchmark
+	public void addAndRemoveEachInBatch() {
+		realm.batch(() -> {
+			for (Integer element : elements) {
+				list.add(element);
+			}
+		});
+		realm.batch(() -> {
+			for (int i = list.size() - 1; i >= 0; i--) {
+				list.remove(i);
+			}
+		});
+	}
+
+	@Benchmark
+	public void retainHalf() {
+		list.addAll(elements);
+		list.retainAll(elements.subList(0, size / 2));
+		list.clear();
+	}
+}
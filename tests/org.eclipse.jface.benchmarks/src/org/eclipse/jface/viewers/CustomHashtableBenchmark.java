@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the lookups of the element map of structured viewers,
+ * {@link CustomHashtable}, with and without an {@link IElementComparer}. It is
+ * in the package of the viewers as the table is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomHashtableBenchmark {
+
+	@Param({ "1000", "100000" })
+	public int size;
+
+	@Param({ "false", "true" })
+	public boolean comparer;
+
+	private Object[] elements;
+
+	private Object[] missingElements;
+
+	private CustomHashtable table;
+
+	@Setup
+	public void setUp() {
+		elements = new Object[size];
+		missingElements = new Object[size];
+		for (int i = 0; i < size; i++) {
+			elements[i] = new Element(i);
+			missingElements[i] = new Element(size + i);
+		}
+		table = fill();
+	}
+
+	private CustomHashtable fill() {
+		CustomHashtable result = comparer ? new CustomHashtable(new ElementComparer()) : new CustomHashtable();
+		for (Object element : elements) {
+			result.put(element, element);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public CustomHashtable put() {
+		return fill();
+	}
+
+	@Benchmark
+	public void get(Blackhole blackhole) {
+		for (Object element : elements) {
+			blackhole.consume(table.get(element));
+		}
+	}
+
+	@Benchmark
+	public void getMissing(Blackhole blackhole) {
+		for (Object element : missingElements) {
+			blackhole.consume(table.get(element));
+		}
+	}
+
+	private static final class Element {
+		final int id;
+
+		Element(int id) {
+			this.id = id;
+		}
+	}
+
+	private static final class ElementComparer implements IElementComparer {
+		@Override
+		public boolean equals(Object a, Object b) {
+			return ((Element) a).id == ((Element) b).id;
+		}
+
+		@Override
+		public int hashCode(Object element) {
+			return ((Element) element).id * 31;
+		}
+	}
+}
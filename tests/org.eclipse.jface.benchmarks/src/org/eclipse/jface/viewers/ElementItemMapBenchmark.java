@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the element map of structured viewers, {@link ElementItemMap}, with
+ * the {@link CustomHashtable} it replaces. The allocations per operation of
+ * {@link #putPresized()} are the memory footprint of a map of
+ * <code>size</code> elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ElementItemMapBenchmark {
+
+	@Param({ "1000000" })
+	public int size;
+
+	@Param({ "CustomHashtable", "ElementItemMap" })
+	public String map;
+
+	private Object[] elements;
+
+	private Object[] missingElements;
+
+	private boolean custom;
+
+	private CustomHashtable table;
+
+	private ElementItemMap elementItemMap;
+
+	@Setup
+	public void setUp() {
+		elements = new Object[size];
+		missingElements = new Object[size];
+		for (int i = 0; i < size; i++) {
+			elements[i] = new Element(i);
+			missingElements[i] = new Element(size + i);
+		}
+		custom = "CustomHashtable".equals(map);
+		if (custom) {
+			table = fillTable(CustomHashtable.DEFAULT_CAPACITY);
+		} else {
+			elementItemMap = fillMap(ElementItemMap.DEFAULT_CAPACITY);
+		}
+	}
+
+	private CustomHashtable fillTable(int capacity) {
+		CustomHashtable result = new CustomHashtable(capacity, null);
+		for (Object element : elements) {
+			result.put(element, element);
+		}
+		return result;
+	}
+
+	private ElementItemMap fillMap(int capacity) {
+		ElementItemMap result = new ElementItemMap(capacity, null);
+		for (Object element : elements) {
+			result.put(element, element);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public Object put() {
+		return custom ? fillTable(CustomHashtable.DEFAULT_CAPACITY) : fillMap(ElementItemMap.DEFAULT_CAPACITY);
+	}
+
+	@Benchmark
+	public Object putPresized() {
+		// the capacity of CustomHashtable is its table length, with a load
+		// factor of 0.75
+		return custom ? fillTable(size * 4 / 3 + 1) : fillMap(size);
+	}
+
+	@Benchmark
+	public void get(Blackhole blackhole) {
+		if (custom) {
+			for (Object element : elements) {
+				blackhole.consume(table.get(element));
+			}
+		} else {
+			for (Object element : elements) {
+				blackhole.consume(elementItemMap.get(element));
+			}
+		}
+	}
+
+	@Benchmark
+	public void getMissing(Blackhole blackhole) {
+		if (custom) {
+			for (Object element : missingElements) {
+				blackhole.consume(table.get(element));
+			}
+		} else {
+			for (Object element : missingElements) {
+				blackhole.consume(elementItemMap.get(element));
+			}
+		}
+	}
+
+	private static final class Element {
+		final int id;
+
+		Element(int id) {
+			this.id = id;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.viewers.deferred;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link LazySortedCollection} as used by the deferred content
+ * provider: adding unsorted elements, then reading the first elements in
+ * sorted order, or all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazySortedCollectionBenchmark {
+
+	private static final int VISIBLE_ELEMENTS = 100;
+
+	private static final Comparator<Object> COMPARATOR = (a, b) -> ((Integer) a).compareTo((Integer) b);
+
+	@Param({ "1000", "100000" })
+	public int size;
+
+	private Integer[] elements;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(size);
+		elements = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			elements[i] = Integer.valueOf(random.nextInt());
+		}
+	}
+
+	@Benchmark
+	public Object[] addAllAndGetFirst() {
+		LazySortedCollection collection = new LazySortedCollection(COMPARATOR);
+		collection.addAll(elements);
+		Object[] result = new Object[VISIBLE_ELEMENTS];
+		collection.getFirst(result, true);
+		return result;
+	}
+
+	@Benchmark
+	public Object[] addAllAndGetItems() {
+		LazySortedCollection collection = new LazySortedCollection(COMPARATOR);
+		collection.addAll(elements);
+		return collection.getItems(true);
+	}
+
+	@Benchmark
+	public Object[] addRemoveAndGetFirst() {
+		LazySortedCollection collection = new LazySortedCollection(COMPARATOR);
+		collection.addAll(elements);
+		Object[] result = new Object[VISIBLE_ELEMENTS];
+		collection.getFirst(result, true);
+		for (int i = 0; i < elements.length; i += 2) {
+			collection.remove(elements[i]);
+		}
+		collection.getFirst(result, true);
+		return result;
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.viewers.deferred;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link ChunkedSortedCollection} with {@link LazySortedCollection}
+ * for the tables of a deferred content provider with a million elements:
+ * filling the table, reading the visible elements at a random scroll
+ * position, and updating a batch of elements before reading the visible
+ * elements again, as the background sorting job of a concurrently updated
+ * table does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SortedCollectionBenchmark {
+
+	private static final int VISIBLE_ELEMENTS = 100;
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static final Comparator<Object> COMPARATOR = (a, b) -> ((Integer) a).compareTo((Integer) b);
+
+	@Param({ "1000000" })
+	public int size;
+
+	@Param({ "LazySortedCollection", "ChunkedSortedCollection" })
+	public String collection;
+
+	private Integer[] elements;
+
+	private Random random;
+
+	private boolean chunked;
+
+	private LazySortedCollection lazyCollection;
+
+	private ChunkedSortedCollection chunkedCollection;
+
+	private int batchStart;
+
+	@Setup
+	public void setUp() {
+		random = new Random(size);
+		elements = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			elements[i] = Integer.valueOf(random.nextInt());
+		}
+		chunked = "ChunkedSortedCollection".equals(collection);
+	}
+
+	/**
+	 * Fills a collection and scrolls through it once, so that the update
+	 * benchmarks start from a partially sorted collection.
+	 */
+	@Setup(Level.Iteration)
+	public void fill() {
+		lazyCollection = null;
+		chunkedCollection = null;
+		if (chunked) {
+			chunkedCollection = new ChunkedSortedCollection(COMPARATOR);
+			chunkedCollection.addAll(elements);
+		} else {
+			lazyCollection = new LazySortedCollection(COMPARATOR);
+			lazyCollection.addAll(elements);
+		}
+		Object[] result = new Object[VISIBLE_ELEMENTS];
+		for (int start = 0; start < size; start += size / 10) {
+			getRange(result, start);
+		}
+		batchStart = 0;
+	}
+
+	private void getRange(Object[] result, int start) {
+		if (chunked) {
+			chunkedCollection.getRange(result, start, true);
+		} else {
+			lazyCollection.getRange(result, start, true);
+		}
+	}
+
+	@Benchmark
+	public Object[] addAllAndGetFirst() {
+		Object[] result = new Object[VISIBLE_ELEMENTS];
+		if (chunked) {
+			ChunkedSortedCollection sorted = new ChunkedSortedCollection(COMPARATOR);
+			sorted.addAll(elements);
+			sorted.getFirst(result, true);
+		} else {
+			LazySortedCollection sorted = new LazySortedCollection(COMPARATOR);
+			sorted.addAll(elements);
+			sorted.getFirst(result, true);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public Object[] addAllAndGetItems() {
+		if (chunked) {
+			ChunkedSortedCollection sorted = new ChunkedSortedCollection(COMPARATOR);
+			sorted.addAll(elements);
+			return sorted.getItems(true);
+		}
+		LazySortedCollection sorted = new LazySortedCollection(COMPARATOR);
+		sorted.addAll(elements);
+		return sorted.getItems(true);
+	}
+
+	@Benchmark
+	public Object[] scroll() {
+		Object[] result = new Object[VISIBLE_ELEMENTS];
+		getRange(result, random.nextInt(size - VISIBLE_ELEMENTS));
+		return result;
+	}
+
+	@Benchmark
+	public Object[] updateAndScroll() {
+		Object[] batch = new Object[BATCH_SIZE];
+		System.arraycopy(elements, batchStart, batch, 0, BATCH_SIZE);
+		batchStart = (batchStart + BATCH_SIZE) % (size - BATCH_SIZE);
+		if (chunked) {
+			chunkedCollection.removeAll(batch);
+			chunkedCollection.addAll(batch);
+		} else {
+			lazyCollection.removeAll(batch);
+			lazyCollection.addAll(batch);
+		}
+		return scroll();
+	}
+}
@@ -14,6 +14,7 @@ package org.eclipse.core.tests.databinding.observable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import junit.framework.TestCase;
@@ -215,7 +216,7 @@ public class Diffs_ListDiffTests extends TestCase {
 		assertEntry(diff.getDifferences()[2], true, 0, "c");
 	}
 
-	private static void assertEntry(ListDiffEntry entry, boolean addition, int position, String element) {
+	private static void assertEntry(ListDiffEntry entry, boolean addition, int position, Object element) {
 		assertEquals("addition", addition, entry.isAddition());
 		assertEquals("position", position, entry.getPosition());
 		assertEquals("element", element, entry.getElement());
@@ -253,6 +254,145 @@ public class Diffs_ListDiffTests extends TestCase {
 				Arrays.asList(new Object[] { "c", "a", "b" }));
 	}
 
+	public void testComputeListDiff_LargeInsertRun() {
+		List<Object> oldList = createList(0, 2000);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		newList.addAll(1000, createList(5000, 100));
+
+		ListDiff diff = Diffs.computeListDiff(oldList, newList);
+		assertEquals(100, diff.getDifferences().length);
+		for (int i = 0; i < 100; i++) {
+			assertEntry(diff.getDifferences()[i], true, 1000 + i, Integer.valueOf(5000 + i));
+		}
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeRemoveRun() {
+		List<Object> oldList = createList(0, 2000);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		newList.subList(500, 600).clear();
+
+		ListDiff diff = Diffs.computeListDiff(oldList, newList);
+		assertEquals(100, diff.getDifferences().length);
+		for (ListDiffEntry entry : diff.getDifferences()) {
+			assertFalse(entry.isAddition());
+		}
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeScatteredEdits() {
+		List<Object> oldList = createList(0, 3000);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		for (int i = 0; i < 50; i++) {
+			newList.remove(i * 40);
+		}
+		for (int i = 0; i < 50; i++) {
+			newList.add(i * 50 + 7, Integer.valueOf(10000 + i));
+		}
+
+		ListDiff diff = Diffs.computeListDiff(oldList, newList);
+		assertEquals(100, diff.getDifferences().length);
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeUnrelatedLists() {
+		List<Object> oldList = createList(0, 3000);
+		List<Object> newList = createList(5000, 2500);
+
+		ListDiff diff = Diffs.computeListDiff(oldList, newList);
+		assertEquals(5500, diff.getDifferences().length);
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeEditDistanceLimit() {
+		List<Object> oldList = createList(0, 5000);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		// 500 replaced elements, an edit distance of 1000
+		for (int i = 0; i < 500; i++) {
+			newList.set(i * 10 + 5, Integer.valueOf(10000 + i));
+		}
+
+		ListDiff diff = Diffs.computeListDiff(oldList, newList);
+		assertEquals(1000, diff.getDifferences().length);
+		checkComputedListDiff(oldList, newList);
+
+		// one more removed element exceeds the limit, the changed region is
+		// replaced as a whole
+		newList.remove(newList.size() - 1);
+		diff = Diffs.computeListDiff(oldList, newList);
+		assertEquals(4995 + 4994, diff.getDifferences().length);
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeMove() {
+		List<Object> oldList = createList(0, 2000);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		newList.add(1500, newList.remove(100));
+
+		ListDiff diff = Diffs.computeListDiff(oldList, newList);
+		assertEquals(2, diff.getDifferences().length);
+		assertEntry(diff.getDifferences()[0], false, 100, Integer.valueOf(100));
+		assertEntry(diff.getDifferences()[1], true, 1500, Integer.valueOf(100));
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeReorderReportsMoves() {
+		List<Object> oldList = createList(0, 100);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		newList.add(80, newList.remove(10));
+		newList.add(5, newList.remove(60));
+
+		final List<String> moves = new ArrayList<String>();
+		Diffs.computeListDiff(oldList, newList).accept(new ListDiffVisitor() {
+			@Override
+			public void handleAdd(int index, Object element) {
+				fail("unexpected add of " + element);
+			}
+
+			@Override
+			public void handleRemove(int index, Object element) {
+				fail("unexpected remove of " + element);
+			}
+
+			@Override
+			public void handleMove(int oldIndex, int newIndex, Object element) {
+				moves.add(element + ": " + oldIndex + " -> " + newIndex);
+			}
+		});
+		assertEquals(2, moves.size());
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeReversedList() {
+		List<Object> oldList = createList(0, 100);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		Collections.reverse(newList);
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeIdentityListDiff() {
+		String a = new String("a");
+		String a2 = new String("a");
+		List<Object> oldList = Arrays.asList(new Object[] { a, "b", "c" });
+		List<Object> newList = Arrays.asList(new Object[] { a2, "b", "c" });
+
+		assertTrue(Diffs.computeListDiff(oldList, newList).isEmpty());
+
+		ListDiff diff = Diffs.computeIdentityListDiff(oldList, newList);
+		assertEquals(2, diff.getDifferences().length);
+		assertSame(a, diff.getDifferences()[0].getElement());
+		assertSame(a2, diff.getDifferences()[1].getElement());
+		checkComputedListDiff(oldList, newList);
+	}
+
+	private static List<Object> createList(int first, int size) {
+		List<Object> list = new ArrayList<Object>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(Integer.valueOf(first + i));
+		}
+		return list;
+	}
+
 	private static void checkComputedListDiff(List<Object> oldList, List<Object> newList) {
 		ListDiff diff = Diffs.computeListDiff(oldList, newList);
 
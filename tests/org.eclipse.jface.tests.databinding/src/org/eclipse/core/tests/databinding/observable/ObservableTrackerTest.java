@@ -42,6 +42,88 @@ public class ObservableTrackerTest extends AbstractDefaultRealmTestCase {
 		assertSame(observable, result[0]);
 	}
 
+	public void testRunAndMonitor_SameDependenciesReturnPreviousArray() throws Exception {
+		final IObservable observable1 = new ObservableStub();
+		final IObservable observable2 = new ObservableStub();
+		Runnable runnable = () -> {
+			ObservableTracker.getterCalled(observable1);
+			ObservableTracker.getterCalled(observable2);
+			ObservableTracker.getterCalled(observable1);
+		};
+		IObservable[] first = ObservableTracker.runAndMonitor(runnable, null);
+		assertEquals(2, first.length);
+		assertSame(observable1, first[0]);
+		assertSame(observable2, first[1]);
+		assertSame(first, ObservableTracker.runAndMonitor(runnable, first));
+		assertFalse(((ObservableStub) observable1).hasListeners());
+	}
+
+	public void testRunAndMonitor_ChangedDependenciesReturnNewArray() throws Exception {
+		final IObservable observable1 = new ObservableStub();
+		final IObservable observable2 = new ObservableStub();
+		IObservable[] previous = { observable1, observable2 };
+		IObservable[] result = ObservableTracker.runAndMonitor(() -> ObservableTracker.getterCalled(observable2),
+				previous);
+		assertNotSame(previous, result);
+		assertEquals(1, result.length);
+		assertSame(observable2, result[0]);
+	}
+
+	public void testRunAndMonitor_ManyDependencies() throws Exception {
+		final IObservable[] observables = new IObservable[100];
+		for (int i = 0; i < observables.length; i++) {
+			observables[i] = new ObservableStub();
+		}
+		IObservable[] result = ObservableTracker.runAndMonitor(() -> {
+			for (int j = 0; j < 2; j++) {
+				for (IObservable observable : observables) {
+					ObservableTracker.getterCalled(observable);
+				}
+			}
+		}, null);
+		assertTrue(Arrays.equals(observables, result));
+	}
+
+	public void testRunAndMonitor_RepeatedRunsReuseFrame() throws Exception {
+		final IObservable[] observables = new IObservable[50];
+		for (int i = 0; i < observables.length; i++) {
+			observables[i] = new ObservableStub();
+		}
+		final IObservable inner = new ObservableStub();
+		final IObservable[][] innerResult = new IObservable[1][];
+		Runnable runnable = () -> {
+			for (IObservable observable : observables) {
+				ObservableTracker.getterCalled(observable);
+			}
+			// the collector of the nested run comes from the same frame
+			innerResult[0] = ObservableTracker.runAndMonitor(() -> ObservableTracker.getterCalled(inner),
+					innerResult[0]);
+		};
+		IObservable[] first = ObservableTracker.runAndMonitor(runnable, null);
+		IObservable[] firstInner = innerResult[0];
+		assertTrue(Arrays.equals(observables, first));
+		for (int i = 0; i < 100; i++) {
+			assertSame(first, ObservableTracker.runAndMonitor(runnable, first));
+			assertSame(firstInner, innerResult[0]);
+		}
+		assertEquals(1, firstInner.length);
+		assertSame(inner, firstInner[0]);
+	}
+
+	public void testRunAndMonitor_Nested() throws Exception {
+		final IObservable outer = new ObservableStub();
+		final IObservable inner = new ObservableStub();
+		final IObservable[][] innerResult = new IObservable[1][];
+		IObservable[] outerResult = ObservableTracker.runAndMonitor(() -> {
+			ObservableTracker.getterCalled(outer);
+			innerResult[0] = ObservableTracker.runAndMonitor(() -> ObservableTracker.getterCalled(inner), null);
+		}, null);
+		assertEquals(1, outerResult.length);
+		assertSame(outer, outerResult[0]);
+		assertEquals(1, innerResult[0].length);
+		assertSame(inner, innerResult[0][0]);
+	}
+
 	public void testGetterCalled_ObservableDisposed() throws Exception {
 		try {
 			IObservable observable = new ObservableStub();
@@ -253,5 +335,10 @@ public class ObservableTrackerTest extends AbstractDefaultRealmTestCase {
 		public boolean isStale() {
 			return false;
 		}
+
+		@Override
+		protected boolean hasListeners() {
+			return super.hasListeners();
+		}
 	}
 }
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTransaction;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.IListChangeListener;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.map.IMapChangeListener;
+import org.eclipse.core.databinding.observable.map.MapDiff;
+import org.eclipse.core.databinding.observable.map.WritableMap;
+import org.eclipse.core.databinding.observable.set.ISetChangeListener;
+import org.eclipse.core.databinding.observable.set.SetDiff;
+import org.eclipse.core.databinding.observable.set.WritableSet;
+import org.eclipse.jface.databinding.conformance.util.ChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link Realm#batch(Runnable)} and {@link ObservableTransaction}.
+ */
+public class ObservableTransactionTest extends TestCase {
+
+	private Realm realm;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		realm = new CurrentRealm(true);
+		RealmTester.setDefault(realm);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testListChangesAreMerged() {
+		WritableList<Integer> list = new WritableList<>();
+		list.add(Integer.valueOf(-1));
+		List<Integer> oldList = new ArrayList<>(list);
+		List<ListDiff<Integer>> diffs = new ArrayList<>();
+		list.addListChangeListener(
+				(IListChangeListener<Integer>) event -> diffs.add(Diffs.unmodifiableDiff(event.diff)));
+		ChangeEventTracker changes = ChangeEventTracker.observe(list);
+
+		realm.batch(() -> {
+			assertNotNull(ObservableTransaction.getCurrent(realm));
+			for (int i = 0; i < 10000; i++) {
+				list.add(Integer.valueOf(i));
+			}
+			list.remove(0);
+			assertTrue(diffs.isEmpty());
+		});
+
+		assertNull(ObservableTransaction.getCurrent(realm));
+		assertEquals(1, diffs.size());
+		assertEquals(1, changes.count);
+		diffs.get(0).applyTo(oldList);
+		assertEquals(list, oldList);
+	}
+
+	public void testUnchangedListDoesNotNotify() {
+		WritableList<String> list = new WritableList<>();
+		ChangeEventTracker changes = ChangeEventTracker.observe(list);
+
+		realm.batch(() -> {
+			list.add("a");
+			list.clear();
+		});
+
+		assertEquals(0, changes.count);
+	}
+
+	public void testSetChangesAreMerged() {
+		WritableSet<String> set = new WritableSet<>();
+		set.add("a");
+		List<SetDiff<? extends String>> diffs = new ArrayList<>();
+		set.addSetChangeListener((ISetChangeListener<String>) event -> diffs.add(event.diff));
+
+		realm.batch(() -> {
+			set.add("b");
+			set.remove("b");
+			set.remove("a");
+			set.addAll(Arrays.asList("c", "d"));
+		});
+
+		assertEquals(1, diffs.size());
+		assertEquals(Collections.singleton("a"), diffs.get(0).getRemovals());
+		assertEquals(new HashSet<>(Arrays.asList("c", "d")), diffs.get(0).getAdditions());
+	}
+
+	public void testMapChangesAreMerged() {
+		WritableMap<String, String> map = new WritableMap<>();
+		map.put("a", "1");
+		map.put("b", "2");
+		List<MapDiff<? extends String, ? extends String>> diffs = new ArrayList<>();
+		map.addMapChangeListener((IMapChangeListener<String, String>) event -> diffs.add(event.diff));
+
+		realm.batch(() -> {
+			map.put("a", "3");
+			map.put("a", "4");
+			map.remove("b");
+			map.put("c", "5");
+			map.put("d", "6");
+			map.remove("d");
+		});
+
+		assertEquals(1, diffs.size());
+		MapDiff<? extends String, ? extends String> diff = diffs.get(0);
+		assertEquals(Collections.singleton("c"), diff.getAddedKeys());
+		assertEquals(Collections.singleton("b"), diff.getRemovedKeys());
+		assertEquals(Collections.singleton("a"), diff.getChangedKeys());
+		assertEquals("1", diff.getOldValue("a"));
+		assertEquals("4", diff.getNewValue("a"));
+		assertEquals("2", diff.getOldValue("b"));
+		assertEquals("5", diff.getNewValue("c"));
+	}
+
+	public void testMapChangesOfNullValuesAreMerged() {
+		WritableMap<String, String> map = new WritableMap<>();
+		map.put("a", null);
+		map.put("b", null);
+		List<MapDiff<? extends String, ? extends String>> diffs = new ArrayList<>();
+		map.addMapChangeListener((IMapChangeListener<String, String>) event -> diffs.add(event.diff));
+
+		realm.batch(() -> {
+			map.put("a", "1");
+			map.put("a", "2");
+			map.put("b", "3");
+			map.remove("b");
+		});
+
+		assertEquals(1, diffs.size());
+		MapDiff<? extends String, ? extends String> diff = diffs.get(0);
+		assertEquals(Collections.emptySet(), diff.getAddedKeys());
+		assertEquals(Collections.singleton("b"), diff.getRemovedKeys());
+		assertEquals(Collections.singleton("a"), diff.getChangedKeys());
+		assertNull(diff.getOldValue("a"));
+		assertEquals("2", diff.getNewValue("a"));
+		assertNull(diff.getOldValue("b"));
+
+		diffs.clear();
+		realm.batch(() -> {
+			map.put("a", null);
+			map.put("a", "2");
+		});
+		assertTrue(diffs.isEmpty());
+	}
+
+	public void testNestedBatchesNotifyOnce() {
+		WritableList<String> list = new WritableList<>();
+		ChangeEventTracker changes = ChangeEventTracker.observe(list);
+
+		realm.batch(() -> {
+			list.add("a");
+			realm.batch(() -> list.add("b"));
+			assertEquals(0, changes.count);
+		});
+
+		assertEquals(1, changes.count);
+	}
+
+	public void testListenersChangingObservablesNotifyImmediately() {
+		WritableList<String> source = new WritableList<>();
+		WritableList<String> target = new WritableList<>();
+		source.addListChangeListener(event -> target.add("changed"));
+		ChangeEventTracker changes = ChangeEventTracker.observe(target);
+
+		realm.batch(() -> {
+			source.add("a");
+			source.add("b");
+		});
+
+		assertEquals(Collections.singletonList("changed"), target);
+		assertEquals(1, changes.count);
+	}
+
+	public void testObservablesWithoutListenersAreNotTracked() {
+		WritableList<String> list = new WritableList<>();
+		realm.batch(() -> {
+			list.add("a");
+			ChangeEventTracker changes = ChangeEventTracker.observe(list);
+			list.add("b");
+			assertEquals(0, changes.count);
+		});
+		assertEquals(Arrays.asList("a", "b"), list);
+	}
+}
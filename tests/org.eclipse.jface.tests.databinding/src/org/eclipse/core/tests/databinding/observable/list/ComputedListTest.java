@@ -91,9 +91,42 @@ public class ComputedListTest extends AbstractDefaultRealmTestCase {
 				2, tracker.count);
 	}
 
+	public void testLastListenerRemovedWhileDirty_StopsListeningToDependency() {
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		list.dependency.fireChange();
+		assertTrue(list.dependency.hasListeners());
+
+		list.removeListChangeListener(tracker);
+		assertFalse(
+				"ComputedList should stop listening to its dependencies when its last listener is removed",
+				list.dependency.hasListeners());
+	}
+
+	public void testCalculateThrowsWhileDirty_StillStopsListeningToDependency() {
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		list.dependency.fireChange();
+		RuntimeException exception = new RuntimeException();
+		list.nextException = exception;
+		try {
+			list.size();
+			fail("calculate() should have thrown");
+		} catch (RuntimeException e) {
+			assertSame(exception, e);
+		}
+		assertTrue(list.dependency.hasListeners());
+
+		list.removeListChangeListener(tracker);
+		assertFalse(
+				"ComputedList should stop listening to its dependencies after a failed computation",
+				list.dependency.hasListeners());
+	}
+
 	static class ComputedListStub extends ComputedList {
 		List nextComputation = new ArrayList();
 		ObservableStub dependency;
+		RuntimeException nextException;
 
 		ComputedListStub() {
 			this(Realm.getDefault());
@@ -107,6 +140,9 @@ public class ComputedListTest extends AbstractDefaultRealmTestCase {
 		@Override
 		protected List calculate() {
 			ObservableTracker.getterCalled(dependency);
+			if (nextException != null) {
+				throw nextException;
+			}
 			return new ArrayList(nextComputation);
 		}
 	}
@@ -133,6 +169,11 @@ public class ComputedListTest extends AbstractDefaultRealmTestCase {
 		protected void fireChange() {
 			super.fireChange();
 		}
+
+		@Override
+		public boolean hasListeners() {
+			return super.hasListeners();
+		}
 	}
 
 	public static Test suite() {
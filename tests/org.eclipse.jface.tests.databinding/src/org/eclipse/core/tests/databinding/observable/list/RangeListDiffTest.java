@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.list.IListChangeListener;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.list.ListDiffRange;
+import org.eclipse.core.databinding.observable.list.RangeListDiff;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for RangeListDiff class
+ */
+public class RangeListDiffTest extends TestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testGetDifferences_Insertion() {
+		ListDiff<String> diff = new RangeListDiff<>(ListDiffRange.insert(1, Arrays.asList("b", "c")));
+		ListDiffEntry<String>[] entries = diff.getDifferences();
+		assertEquals(2, entries.length);
+		assertEntry(entries[0], true, 1, "b");
+		assertEntry(entries[1], true, 2, "c");
+	}
+
+	public void testGetDifferences_Removal() {
+		ListDiff<String> diff = new RangeListDiff<>(ListDiffRange.remove(1, Arrays.asList("b", "c")));
+		ListDiffEntry<String>[] entries = diff.getDifferences();
+		assertEquals(2, entries.length);
+		assertEntry(entries[0], false, 2, "c");
+		assertEntry(entries[1], false, 1, "b");
+	}
+
+	public void testGetDifferences_Replacement() {
+		ListDiff<String> diff = new RangeListDiff<>(
+				new ListDiffRange<>(0, Arrays.asList("a", "b"), Collections.singletonList("x")));
+		ListDiffEntry<String>[] entries = diff.getDifferences();
+		assertEquals(3, entries.length);
+		assertEntry(entries[0], false, 1, "b");
+		assertEntry(entries[1], false, 0, "a");
+		assertEntry(entries[2], true, 0, "x");
+	}
+
+	public void testGetDifferences_IsCreatedOnce() {
+		ListDiff<String> diff = new RangeListDiff<>(ListDiffRange.insert(0, Arrays.asList("a")));
+		assertSame(diff.getDifferences(), diff.getDifferences());
+	}
+
+	public void testIsEmpty() {
+		assertTrue(new RangeListDiff<>(Collections.<ListDiffRange<String>> emptyList()).isEmpty());
+		assertTrue(new RangeListDiff<>(ListDiffRange.insert(0, Collections.<String> emptyList())).isEmpty());
+		assertFalse(new RangeListDiff<>(ListDiffRange.insert(0, Arrays.asList("a"))).isEmpty());
+	}
+
+	public void testApplyTo() {
+		List<ListDiffRange<String>> ranges = new ArrayList<>();
+		ranges.add(ListDiffRange.remove(0, Arrays.asList("a", "b")));
+		ranges.add(ListDiffRange.insert(1, Arrays.asList("x", "y")));
+		ranges.add(new ListDiffRange<>(3, Arrays.asList("d"), Arrays.asList("z")));
+		RangeListDiff<String> diff = new RangeListDiff<>(ranges);
+
+		List<String> list = new ArrayList<>(Arrays.asList("a", "b", "c", "d"));
+		List<String> expected = diff.simulateOn(new ArrayList<>(list));
+		diff.applyTo(list);
+		assertEquals(Arrays.asList("c", "x", "y", "z"), list);
+		assertEquals(expected, list);
+	}
+
+	public void testWritableListAddAll() {
+		WritableList<String> list = new WritableList<>();
+		list.add("a");
+		List<ListDiff<? extends String>> diffs = new ArrayList<>();
+		list.addListChangeListener(
+				(IListChangeListener<String>) event -> diffs.add(event.diff));
+
+		list.addAll(Arrays.asList("b", "c"));
+		list.addAll(0, Arrays.asList("x"));
+
+		assertEquals(2, diffs.size());
+		ListDiffRange<? extends String> range = ((RangeListDiff<? extends String>) diffs.get(0)).getRanges()
+				.get(0);
+		assertTrue(range.isInsertion());
+		assertEquals(1, range.getPosition());
+		assertEquals(Arrays.asList("b", "c"), range.getAddedElements());
+		assertEntry(diffs.get(1).getDifferences()[0], true, 0, "x");
+		assertEquals(Arrays.asList("x", "a", "b", "c"), list);
+	}
+
+	public void testWritableListClear() {
+		WritableList<String> list = new WritableList<>();
+		list.addAll(Arrays.asList("a", "b", "c"));
+		List<ListDiff<? extends String>> diffs = new ArrayList<>();
+		list.addListChangeListener(
+				(IListChangeListener<String>) event -> diffs.add(event.diff));
+
+		list.clear();
+
+		ListDiffRange<? extends String> range = ((RangeListDiff<? extends String>) diffs.get(0)).getRanges()
+				.get(0);
+		assertTrue(range.isRemoval());
+		assertEquals(3, range.getRemovedCount());
+		ListDiffEntry<? extends String>[] entries = diffs.get(0).getDifferences();
+		assertEntry(entries[0], false, 2, "c");
+		assertEntry(entries[1], false, 1, "b");
+		assertEntry(entries[2], false, 0, "a");
+	}
+
+	private static void assertEntry(ListDiffEntry<?> entry, boolean addition, int position, Object element) {
+		assertEquals(addition, entry.isAddition());
+		assertEquals(position, entry.getPosition());
+		assertEquals(element, entry.getElement());
+	}
+}
@@ -89,9 +89,42 @@ public class ComputedSetTest extends AbstractDefaultRealmTestCase {
 				2, tracker.count);
 	}
 
+	public void testLastListenerRemovedWhileDirty_StopsListeningToDependency() {
+		SetChangeEventTracker tracker = SetChangeEventTracker.observe(set);
+
+		set.dependency.fireChange();
+		assertTrue(set.dependency.hasListeners());
+
+		set.removeSetChangeListener(tracker);
+		assertFalse(
+				"ComputedSet should stop listening to its dependencies when its last listener is removed",
+				set.dependency.hasListeners());
+	}
+
+	public void testCalculateThrowsWhileDirty_StillStopsListeningToDependency() {
+		SetChangeEventTracker tracker = SetChangeEventTracker.observe(set);
+
+		set.dependency.fireChange();
+		RuntimeException exception = new RuntimeException();
+		set.nextException = exception;
+		try {
+			set.size();
+			fail("calculate() should have thrown");
+		} catch (RuntimeException e) {
+			assertSame(exception, e);
+		}
+		assertTrue(set.dependency.hasListeners());
+
+		set.removeSetChangeListener(tracker);
+		assertFalse(
+				"ComputedSet should stop listening to its dependencies after a failed computation",
+				set.dependency.hasListeners());
+	}
+
 	static class ComputedSetStub extends ComputedSet {
 		Set nextComputation = new HashSet();
 		ObservableStub dependency;
+		RuntimeException nextException;
 
 		ComputedSetStub() {
 			this(Realm.getDefault());
@@ -105,6 +138,9 @@ public class ComputedSetTest extends AbstractDefaultRealmTestCase {
 		@Override
 		protected Set calculate() {
 			ObservableTracker.getterCalled(dependency);
+			if (nextException != null) {
+				throw nextException;
+			}
 			return new HashSet(nextComputation);
 		}
 	}
@@ -131,6 +167,11 @@ public class ComputedSetTest extends AbstractDefaultRealmTestCase {
 		protected void fireChange() {
 			super.fireChange();
 		}
+
+		@Override
+		public boolean hasListeners() {
+			return super.hasListeners();
+		}
 	}
 
 	public static Test suite() {
@@ -17,8 +17,10 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.eclipse.core.databinding.observable.IChangeListener;
 import org.eclipse.core.databinding.observable.value.ComputedValue;
 import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
 import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
 
 /**
@@ -124,6 +126,127 @@ public class ComputedValueTest extends AbstractDefaultRealmTestCase {
         assertFalse("because value2 is not a part of the calculation the listeners should have been removed", value2.hasListeners());
     }
 
+    public void testUnchangedDependenciesKeepTheirListeners() throws Exception {
+        final CountingWritableValue value1 = new CountingWritableValue(Integer.valueOf(1));
+        final CountingWritableValue value2 = new CountingWritableValue(Integer.valueOf(2));
+        final WritableValue useValue2 = new WritableValue(Boolean.TRUE, Boolean.TYPE);
+
+        ComputedValue cv = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                int sum = ((Integer) value1.getValue()).intValue();
+                if (((Boolean) useValue2.getValue()).booleanValue()) {
+                    sum += ((Integer) value2.getValue()).intValue();
+                }
+                return Integer.valueOf(sum);
+            }
+        };
+        ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(cv);
+        assertEquals(Integer.valueOf(3), cv.getValue());
+        assertEquals(1, value1.added);
+        assertEquals(1, value2.added);
+
+        value1.setValue(Integer.valueOf(5));
+        assertEquals(1, tracker.count);
+        assertEquals(Integer.valueOf(7), cv.getValue());
+        assertEquals("listeners of unchanged dependencies should not be added again", 1, value1.added);
+        assertEquals(0, value1.removed);
+        assertEquals(1, value2.added);
+        assertEquals(0, value2.removed);
+
+        useValue2.setValue(Boolean.FALSE);
+        assertEquals(Integer.valueOf(5), cv.getValue());
+        assertEquals(1, value1.added);
+        assertEquals(0, value1.removed);
+        assertEquals(1, value2.removed);
+        assertFalse(value2.hasListeners());
+
+        value2.setValue(Integer.valueOf(10));
+        assertEquals(2, tracker.count);
+        value1.setValue(Integer.valueOf(6));
+        assertEquals(3, tracker.count);
+        assertEquals(Integer.valueOf(6), cv.getValue());
+
+        cv.dispose();
+        assertFalse(value1.hasListeners());
+    }
+
+    private static class CountingWritableValue extends WritableValue {
+        int added;
+        int removed;
+
+        CountingWritableValue(Object initialValue) {
+            super(initialValue, Integer.TYPE);
+        }
+
+        @Override
+        public synchronized void addChangeListener(IChangeListener listener) {
+            added++;
+            super.addChangeListener(listener);
+        }
+
+        @Override
+        public synchronized void removeChangeListener(IChangeListener listener) {
+            removed++;
+            super.removeChangeListener(listener);
+        }
+
+        @Override
+		public boolean hasListeners() {
+            return super.hasListeners();
+        }
+    }
+
+    public void testLastListenerRemovedWhileDirtyStopsListening() throws Exception {
+        final CountingWritableValue value = new CountingWritableValue(Integer.valueOf(1));
+        ComputedValue cv = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                return value.getValue();
+            }
+        };
+        ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(cv);
+        assertEquals(Integer.valueOf(1), cv.getValue());
+
+        value.setValue(Integer.valueOf(2));
+        assertEquals(1, tracker.count);
+        assertTrue("the dependencies should be kept while dirty for the listeners", value.hasListeners());
+
+        cv.removeValueChangeListener(tracker);
+        assertFalse("the dependencies should be released with the last listener", value.hasListeners());
+        assertEquals(Integer.valueOf(2), cv.getValue());
+    }
+
+    public void testCalculateThrowsWhileDirtyStillStopsListening() throws Exception {
+        final CountingWritableValue value = new CountingWritableValue(Integer.valueOf(1));
+        final RuntimeException exception = new RuntimeException();
+        ComputedValue cv = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                Object result = value.getValue();
+                if (((Integer) result).intValue() < 0) {
+                    throw exception;
+                }
+                return result;
+            }
+        };
+        ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(cv);
+        assertEquals(Integer.valueOf(1), cv.getValue());
+
+        value.setValue(Integer.valueOf(-1));
+        try {
+            cv.getValue();
+            fail("calculate() should have thrown");
+        } catch (RuntimeException e) {
+            assertSame(exception, e);
+        }
+        assertTrue(value.hasListeners());
+
+        cv.removeValueChangeListener(tracker);
+        assertFalse("the dependencies of a failed computation should be released with the last listener",
+                value.hasListeners());
+    }
+
     public void testSetValueUnsupportedOperationException() throws Exception {
         ComputedValue cv = new ComputedValue() {
             @Override
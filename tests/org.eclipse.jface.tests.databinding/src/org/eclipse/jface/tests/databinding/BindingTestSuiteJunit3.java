@@ -48,6 +48,7 @@ import org.eclipse.core.tests.databinding.observable.DecoratingObservableTest;
 import org.eclipse.core.tests.databinding.observable.DiffsTest;
 import org.eclipse.core.tests.databinding.observable.Diffs_ListDiffTests;
 import org.eclipse.core.tests.databinding.observable.ObservableTrackerTest;
+import org.eclipse.core.tests.databinding.observable.ObservableTransactionTest;
 import org.eclipse.core.tests.databinding.observable.ObservablesTest;
 import org.eclipse.core.tests.databinding.observable.RealmTest;
 import org.eclipse.core.tests.databinding.observable.list.AbstractObservableListTest;
@@ -57,6 +58,7 @@ import org.eclipse.core.tests.databinding.observable.list.ListDiffTest;
 import org.eclipse.core.tests.databinding.observable.list.ListDiffVisitorTest;
 import org.eclipse.core.tests.databinding.observable.list.MultiListTest;
 import org.eclipse.core.tests.databinding.observable.list.ObservableListTest;
+import org.eclipse.core.tests.databinding.observable.list.RangeListDiffTest;
 import org.eclipse.core.tests.databinding.observable.list.WritableListTest;
 import org.eclipse.core.tests.databinding.observable.map.AbstractObservableMapTest;
 import org.eclipse.core.tests.databinding.observable.map.BidiObservableMapTest;
@@ -279,6 +281,7 @@ public class BindingTestSuiteJunit3 extends TestSuite {
 		addTestSuite(DiffsTest.class);
 		addTestSuite(ObservablesTest.class);
 		addTestSuite(ObservableTrackerTest.class);
+		addTestSuite(ObservableTransactionTest.class);
 		addTestSuite(RealmTest.class);
 
 		// org.eclipse.core.tests.databinding.observable.list
@@ -289,6 +292,7 @@ public class BindingTestSuiteJunit3 extends TestSuite {
 		addTestSuite(ListDiffVisitorTest.class);
 		addTest(MultiListTest.suite());
 		addTest(ObservableListTest.suite());
+		addTestSuite(RangeListDiffTest.class);
 		addTest(WritableListTest.suite());
 
 		// org.eclipse.core.tests.databinding.observable.map
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import org.eclipse.jface.viewers.deferred.ChunkedSortedCollectionTest;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * Test suite for the package-private classes of
+ * {@code org.eclipse.jface.viewers} and its subpackages. This bundle is a
+ * fragment of {@code org.eclipse.jface}, so that its tests can access them.
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({ ElementItemMapTest.class, ChunkedSortedCollectionTest.class })
+public class AllTests {
+}
@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the element map of structured viewers, {@link ElementItemMap}. It is
+ * in the package of the viewers as the map is package-private.
+ */
+public class ElementItemMapTest {
+
+	/**
+	 * Hashes all the elements to the same slot, so that they form a single
+	 * collision chain.
+	 */
+	private static final IElementComparer COLLIDING = new IElementComparer() {
+		@Override
+		public boolean equals(Object a, Object b) {
+			return a.equals(b);
+		}
+
+		@Override
+		public int hashCode(Object element) {
+			return 0;
+		}
+	};
+
+	/**
+	 * Compares the elements by identity, hashing them with their ids.
+	 */
+	private static final IElementComparer IDENTITY = new IElementComparer() {
+		@Override
+		public boolean equals(Object a, Object b) {
+			return a == b;
+		}
+
+		@Override
+		public int hashCode(Object element) {
+			return element.hashCode();
+		}
+	};
+
+	@Test
+	public void testPutGetRemove() {
+		ElementItemMap map = new ElementItemMap(ElementItemMap.DEFAULT_CAPACITY, null);
+		Element a = new Element(1);
+		assertNull(map.put(a, "a"));
+		assertEquals(1, map.size());
+		assertEquals("a", map.get(new Element(1)));
+		assertTrue(map.containsKey(new Element(1)));
+		assertNull(map.get(new Element(2)));
+		assertFalse(map.containsKey(new Element(2)));
+
+		assertEquals("a", map.put(new Element(1), "b"));
+		assertEquals(1, map.size());
+		assertEquals("b", map.get(a));
+
+		assertNull(map.remove(new Element(2)));
+		assertEquals("b", map.remove(new Element(1)));
+		assertEquals(0, map.size());
+		assertNull(map.get(a));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testPutNullKey() {
+		new ElementItemMap(ElementItemMap.DEFAULT_CAPACITY, null).put(null, "a");
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testPutNullValue() {
+		new ElementItemMap(ElementItemMap.DEFAULT_CAPACITY, null).put(new Element(1), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeCapacity() {
+		new ElementItemMap(-1, null);
+	}
+
+	@Test
+	public void testRemoveInCollisionChain() {
+		ElementItemMap map = new ElementItemMap(ElementItemMap.DEFAULT_CAPACITY, COLLIDING);
+		Element[] elements = new Element[8];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new Element(i);
+			map.put(elements[i], Integer.valueOf(i));
+		}
+
+		// the entries following the removed ones are shifted back and can
+		// still be found
+		assertEquals(Integer.valueOf(0), map.remove(new Element(0)));
+		assertEquals(Integer.valueOf(3), map.remove(new Element(3)));
+		assertEquals(Integer.valueOf(7), map.remove(new Element(7)));
+		assertEquals(5, map.size());
+		for (int i = 0; i < elements.length; i++) {
+			if (i == 0 || i == 3 || i == 7) {
+				assertFalse(map.containsKey(elements[i]));
+			} else {
+				assertEquals(Integer.valueOf(i), map.get(elements[i]));
+			}
+		}
+
+		// the freed slots are reused
+		map.put(elements[3], Integer.valueOf(30));
+		assertEquals(Integer.valueOf(30), map.get(elements[3]));
+		for (int i = 1; i < elements.length; i++) {
+			if (i != 3 && i != 7) {
+				assertEquals(Integer.valueOf(i), map.remove(elements[i]));
+			}
+		}
+		assertEquals(1, map.size());
+		assertEquals(Integer.valueOf(30), map.get(elements[3]));
+	}
+
+	@Test
+	public void testRemoveInClusters() {
+		// few distinct hash codes, so that the clusters overlap and wrap around
+		// the end of the table
+		IElementComparer comparer = new IElementComparer() {
+			@Override
+			public boolean equals(Object a, Object b) {
+				return a.equals(b);
+			}
+
+			@Override
+			public int hashCode(Object element) {
+				return element.hashCode() % 5;
+			}
+		};
+		ElementItemMap map = new ElementItemMap(0, comparer);
+		Map<Element, Integer> expected = new HashMap<>();
+		Random random = new Random(0);
+		for (int i = 0; i < 2000; i++) {
+			Element element = new Element(random.nextInt(40));
+			if (random.nextBoolean()) {
+				assertEquals(expected.put(element, Integer.valueOf(i)), map.put(element, Integer.valueOf(i)));
+			} else {
+				assertEquals(expected.remove(element), map.remove(element));
+			}
+			assertEquals(expected.size(), map.size());
+			for (int id = 0; id < 40; id++) {
+				assertEquals(expected.get(new Element(id)), map.get(new Element(id)));
+			}
+		}
+	}
+
+	@Test
+	public void testComparer() {
+		IElementComparer comparer = new IElementComparer() {
+			@Override
+			public boolean equals(Object a, Object b) {
+				return ((StrictElement) a).id % 10 == ((StrictElement) b).id % 10;
+			}
+
+			@Override
+			public int hashCode(Object element) {
+				return ((StrictElement) element).id % 10;
+			}
+		};
+		ElementItemMap map = new ElementItemMap(ElementItemMap.DEFAULT_CAPACITY, comparer);
+		StrictElement element = new StrictElement(1);
+		map.put(element, "a");
+		assertEquals("a", map.get(new StrictElement(11)));
+		assertTrue(map.containsKey(new StrictElement(21)));
+		assertNull(map.get(new StrictElement(2)));
+		assertEquals("a", map.put(new StrictElement(31), "b"));
+		assertEquals(1, map.size());
+		assertEquals("b", map.remove(new StrictElement(41)));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	public void testPutReplacesEqualKey() {
+		// see bug 30607
+		ElementItemMap map = new ElementItemMap(ElementItemMap.DEFAULT_CAPACITY, null);
+		Element oldElement = new Element(1);
+		Element newElement = new Element(1);
+		map.put(oldElement, "a");
+		assertEquals("a", map.put(newElement, "b"));
+
+		// the map keeps the new key and no longer the old one
+		ElementItemMap copy = new ElementItemMap(map, IDENTITY);
+		assertEquals(1, copy.size());
+		assertEquals("b", copy.get(newElement));
+		assertNull(copy.get(oldElement));
+	}
+
+	@Test
+	public void testCopyWithComparer() {
+		ElementItemMap map = new ElementItemMap(ElementItemMap.DEFAULT_CAPACITY, null);
+		for (int i = 0; i < 100; i++) {
+			map.put(new Element(i), Integer.valueOf(i));
+		}
+		ElementItemMap copy = new ElementItemMap(map, COLLIDING);
+		assertEquals(100, copy.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Integer.valueOf(i), copy.get(new Element(i)));
+		}
+	}
+
+	@Test
+	public void testGrow() {
+		ElementItemMap map = new ElementItemMap(0, null);
+		Element[] elements = new Element[10000];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new Element(i);
+			assertNull(map.put(elements[i], Integer.valueOf(i)));
+			assertEquals(i + 1, map.size());
+		}
+		for (int i = 0; i < elements.length; i++) {
+			assertEquals(Integer.valueOf(i), map.get(new Element(i)));
+		}
+		assertNull(map.get(new Element(elements.length)));
+
+		for (int i = 0; i < elements.length; i += 2) {
+			assertEquals(Integer.valueOf(i), map.remove(elements[i]));
+		}
+		assertEquals(elements.length / 2, map.size());
+		for (int i = 0; i < elements.length; i++) {
+			assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), map.get(elements[i]));
+		}
+	}
+
+	@Test
+	public void testGrowInCollisionChain() {
+		ElementItemMap map = new ElementItemMap(0, COLLIDING);
+		for (int i = 0; i < 100; i++) {
+			map.put(new Element(i), Integer.valueOf(i));
+		}
+		assertEquals(100, map.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Integer.valueOf(i), map.get(new Element(i)));
+		}
+	}
+
+	private static class Element {
+		final int id;
+
+		Element(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Element && ((Element) obj).id == id;
+		}
+
+		@Override
+		public String toString() {
+			return "Element(" + id + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * An element which may only be hashed and compared by a comparer.
+	 */
+	private static final class StrictElement {
+		final int id;
+
+		StrictElement(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link ChunkedSortedCollection} against a sorted list, with enough
+ * elements to partition the collection into many chunks.
+ */
+public class ChunkedSortedCollectionTest {
+
+	private static final int SIZE = 5000;
+
+	private TestComparator comparator;
+
+	private ChunkedSortedCollection collection;
+
+	private List<Object> expected;
+
+	private Random random;
+
+	@Before
+	public void setUp() {
+		random = new Random(SIZE);
+		comparator = new TestComparator();
+		collection = new ChunkedSortedCollection(comparator);
+		collection.enableDebug = true;
+		expected = new ArrayList<>();
+		addAll(SIZE);
+	}
+
+	private void addAll(int count) {
+		Object[] elements = new Object[count];
+		for (int i = 0; i < count; i++) {
+			elements[i] = new Element(random.nextInt(SIZE / 2));
+		}
+		collection.addAll(elements);
+		expected.addAll(Arrays.asList(elements));
+		Collections.sort(expected, new TestComparator());
+	}
+
+	/**
+	 * Returns the values of the given elements, as equal elements may be in any
+	 * order.
+	 */
+	private static String[] toStrings(Object[] elements) {
+		String[] result = new String[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			result[i] = elements[i].toString();
+		}
+		return result;
+	}
+
+	private void assertRange(int start, int length, boolean sorted) {
+		Object[] result = new Object[length];
+		int count = Math.max(0, Math.min(length, expected.size() - start));
+		assertEquals(count, collection.getRange(result, start, sorted));
+		String[] expectedResult = toStrings(expected.subList(start, start + count).toArray());
+		String[] actualResult = toStrings(Arrays.copyOf(result, count));
+		if (!sorted) {
+			Arrays.sort(actualResult);
+		}
+		assertArrayEquals(expectedResult, actualResult);
+		collection.testInvariants();
+	}
+
+	private void assertContentsValid() {
+		assertEquals(expected.size(), collection.size());
+		assertEquals(expected.isEmpty(), collection.isEmpty());
+		assertRange(0, expected.size(), true);
+	}
+
+	@Test
+	public void testComparisonCount() {
+		// the invariant checks compare elements
+		collection.enableDebug = false;
+		assertEquals("additions should not require any comparisons", 0, comparator.comparisons);
+
+		assertRange(0, SIZE, false);
+
+		assertEquals("requesting the complete set of unsorted elements should not require any comparisons", 0,
+				comparator.comparisons);
+	}
+
+	@Test
+	public void testSortAll() {
+		collection.enableDebug = false;
+		assertRange(0, SIZE, true);
+
+		int comparisons = comparator.comparisons;
+		assertRange(SIZE - 10, 10, true);
+		assertRange(0, 10, false);
+
+		assertEquals("Once the collection is fully sorted, it should not require further comparisons", comparisons,
+				comparator.comparisons);
+	}
+
+	@Test
+	public void testGetRange() {
+		for (int i = 0; i < 100; i++) {
+			assertRange(random.nextInt(SIZE), random.nextInt(200), random.nextBoolean());
+		}
+		assertRange(SIZE - 5, 10, true);
+		assertRange(SIZE, 10, true);
+		assertContentsValid();
+	}
+
+	@Test
+	public void testGetItem() {
+		assertRange(SIZE / 3, 50, false);
+		for (int i = 0; i < 100; i++) {
+			int index = random.nextInt(SIZE);
+			assertEquals(expected.get(index).toString(), collection.getItem(index).toString());
+		}
+	}
+
+	@Test
+	public void testAddAfterQuery() {
+		assertRange(SIZE / 2, 100, true);
+		addAll(SIZE);
+		assertRange(SIZE / 2, 100, true);
+		addAll(1);
+		assertContentsValid();
+	}
+
+	@Test
+	public void testRemove() {
+		assertRange(SIZE / 2, 100, true);
+		for (int i = 0; i < SIZE / 2; i++) {
+			Object element = expected.remove(random.nextInt(expected.size()));
+			assertTrue(collection.contains(element));
+			collection.remove(element);
+			assertFalse(collection.contains(element));
+			if (i % 100 == 0) {
+				assertRange(random.nextInt(expected.size()), 100, true);
+			}
+		}
+		assertContentsValid();
+	}
+
+	@Test
+	public void testRemoveAll() {
+		assertRange(SIZE / 4, 100, true);
+		Object[] toRemove = new Object[SIZE / 2];
+		for (int i = 0; i < toRemove.length; i++) {
+			toRemove[i] = expected.remove(random.nextInt(expected.size()));
+		}
+		collection.removeAll(toRemove);
+		assertContentsValid();
+	}
+
+	@Test
+	public void testRemoveUnknown() {
+		collection.remove("some unknown element"); //$NON-NLS-1$
+		assertContentsValid();
+	}
+
+	@Test
+	public void testRemoveRange() {
+		assertRange(SIZE / 3, 10, false);
+		collection.removeRange(SIZE / 4, SIZE / 2);
+		expected.subList(SIZE / 4, SIZE / 4 + SIZE / 2).clear();
+		assertContentsValid();
+	}
+
+	@Test
+	public void testRemoveFullRange() {
+		collection.removeRange(0, SIZE);
+		expected.clear();
+		assertContentsValid();
+		addAll(10);
+		assertContentsValid();
+	}
+
+	@Test
+	public void testRetainFirst() {
+		collection.retainFirst(SIZE / 10);
+		expected.subList(SIZE / 10, SIZE).clear();
+		assertContentsValid();
+	}
+
+	@Test
+	public void testClear() {
+		assertRange(0, SIZE, true);
+		collection.clear();
+		expected.clear();
+		assertContentsValid();
+		addAll(SIZE);
+		assertContentsValid();
+	}
+
+	/**
+	 * Compares the values of the elements and counts the comparisons.
+	 */
+	private static final class TestComparator implements Comparator<Object> {
+		int comparisons;
+
+		@Override
+		public int compare(Object o1, Object o2) {
+			comparisons++;
+			return o1.toString().compareTo(o2.toString());
+		}
+	}
+
+	/**
+	 * An element whose value may be shared with other elements.
+	 */
+	private static final class Element {
+		private final String value;
+
+		Element(int value) {
+			this.value = "v" + value; //$NON-NLS-1$
+		}
+
+		@Override
+		public String toString() {
+			return value;
+		}
+	}
+}
@@ -17,7 +17,7 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ ImageRegistryTest.class, ResourceManagerTest.class, FileImageDescriptorTest.class,
-		DecorationOverlayIconTest.class })
+		DecorationOverlayIconTest.class, ImageDataLoaderTest.class })
 public class AllTests {
 
 	public static void main(String[] args) {
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.images;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jface.resource.ImageDataLoader;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests loading the image data of image descriptors in the background.
+ */
+public class ImageDataLoaderTest {
+
+	private ImageDataLoader loader;
+
+	@Before
+	public void setUp() {
+		loader = ImageDataLoader.getDefault();
+		loader.clearCache();
+	}
+
+	@After
+	public void tearDown() {
+		loader.setCacheSize(ImageDataLoader.DEFAULT_CACHE_SIZE);
+		loader.clearCache();
+	}
+
+	@Test
+	public void testLoad() throws Exception {
+		ImageDescriptor descriptor = ImageDescriptor
+				.createFromURL(ImageDataLoaderTest.class.getResource("anything.gif"));
+		ImageDescriptor loaded = loader.load(descriptor).get(10, TimeUnit.SECONDS);
+		assertSame(descriptor, loaded);
+
+		ImageData data = descriptor.getImageData(100);
+		assertNotNull(data);
+		// clients get a copy of the cached image data
+		assertTrue(data != descriptor.getImageData(100));
+		Image image = descriptor.createImage();
+		assertNotNull(image);
+		assertEquals(data.width, image.getBounds().width);
+		image.dispose();
+
+		// already cached
+		assertTrue(loader.load(descriptor).isDone());
+	}
+
+	@Test
+	public void testLoadMissing() throws Exception {
+		ImageDescriptor descriptor = ImageDescriptor.createFromURL(new URL("file:/missing/missing.gif"));
+		loader.load(descriptor).get(10, TimeUnit.SECONDS);
+		assertNull(descriptor.getImageData(100));
+		assertNull(descriptor.createImage(false));
+	}
+
+	@Test
+	public void testLoadOtherDescriptor() {
+		ImageData data = new ImageData(1, 1, 1, new PaletteData(new RGB[] { new RGB(0, 0, 0) }));
+		ImageDescriptor descriptor = ImageDescriptor.createFromImageData(data);
+		CompletableFuture<ImageDescriptor> future = loader.load(descriptor);
+		assertTrue(future.isDone());
+	}
+
+	@Test
+	public void testCacheSize() throws Exception {
+		loader.setCacheSize(0);
+		assertEquals(0, loader.getCacheSize());
+		ImageDescriptor descriptor = ImageDescriptor
+				.createFromURL(ImageDataLoaderTest.class.getResource("anything.gif"));
+		loader.load(descriptor).get(10, TimeUnit.SECONDS);
+		Image image = descriptor.createImage();
+		assertNotNull(image);
+		image.dispose();
+	}
+}
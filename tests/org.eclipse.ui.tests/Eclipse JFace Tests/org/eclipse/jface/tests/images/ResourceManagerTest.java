@@ -17,6 +17,7 @@ import org.eclipse.jface.resource.DeviceResourceManager;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.LocalResourceManager;
 import org.eclipse.jface.resource.ResourceManager;
+import org.eclipse.jface.resource.ResourceManagerStatistics;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.graphics.Image;
@@ -286,4 +287,60 @@ public class ResourceManagerTest extends TestCase {
     	// Destroy the resource we created
     	globalResourceManager.destroy(descriptor);
     }
+
+    public void testStatistics() throws Exception {
+        LocalResourceManager lm1 = new LocalResourceManager(globalResourceManager);
+        LocalResourceManager lm2 = new LocalResourceManager(globalResourceManager);
+
+        // Two distinct images and a color through lm1, one of the images through lm2
+        allocateResources(lm1, new int[] {0, 2, 12});
+        allocateResources(lm2, new int[] {1});
+
+        ResourceManagerStatistics statistics = globalResourceManager.getStatistics();
+        Assert.assertEquals(2, statistics.getImageCount());
+        Assert.assertEquals(1, statistics.getColorCount());
+        Assert.assertTrue(statistics.getImageBytes() > 0);
+        Assert.assertEquals(2, statistics.getChildren().size());
+        Assert.assertEquals(2, statistics.getChildren().get(0).getImageCount());
+        Assert.assertEquals(1, statistics.getChildren().get(1).getImageCount());
+
+        // Disposed managers are no longer reported
+        lm2.dispose();
+        statistics = globalResourceManager.getStatistics();
+        Assert.assertEquals(1, statistics.getChildren().size());
+        lm1.dispose();
+        statistics = globalResourceManager.getStatistics();
+        Assert.assertEquals(0, statistics.getImageCount());
+        Assert.assertEquals(0, statistics.getColorCount());
+        Assert.assertEquals(0, statistics.getChildren().size());
+    }
+
+    public void testImageCache() throws Exception {
+        globalResourceManager.setImageCacheSize(1024 * 1024);
+
+        Object image = globalResourceManager.create(descriptors[0]);
+        int count = TestDescriptor.refCount;
+        globalResourceManager.destroy(descriptors[0]);
+
+        // The unreferenced image is kept and returned again
+        Assert.assertEquals(count, TestDescriptor.refCount);
+        Assert.assertNull(globalResourceManager.find(descriptors[0]));
+        ResourceManagerStatistics statistics = globalResourceManager.getStatistics();
+        Assert.assertEquals(0, statistics.getImageCount());
+        Assert.assertEquals(1, statistics.getCachedImageCount());
+        Assert.assertSame(image, globalResourceManager.create(descriptors[1]));
+        Assert.assertEquals(count, TestDescriptor.refCount);
+        Assert.assertEquals(0, globalResourceManager.getStatistics().getCachedImageCount());
+        globalResourceManager.destroy(descriptors[1]);
+
+        // Colors are not cached
+        globalResourceManager.create(descriptors[12]);
+        globalResourceManager.destroy(descriptors[12]);
+        Assert.assertEquals(count, TestDescriptor.refCount);
+
+        // Shrinking the cache deallocates the cached images
+        globalResourceManager.setImageCacheSize(0);
+        Assert.assertEquals(count - 1, TestDescriptor.refCount);
+        Assert.assertEquals(0, globalResourceManager.getStatistics().getCachedImageCount());
+    }
 }
@@ -12,8 +12,13 @@
 
 package org.eclipse.jface.tests.viewers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.TreeItem;
 
 import org.eclipse.jface.viewers.ILabelProviderListener;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
@@ -166,7 +171,47 @@ public class SimpleTreeViewerTest extends ViewerTestCase {
 		treeViewer.setFilters(filter);
 		int i= treeViewer.getTree().getItemCount();
 
-		assertEquals(4, i); // 4 because the filter doesn't work due to equal nodes
+		// the items of the equal nodes are matched with the nodes in order
+		assertEquals(1, i);
+	}
+
+	public void testRefreshKeepsItemsOfUnchangedElements() {
+		final List<String> elements = new ArrayList<>(Arrays.asList("b", "c", "d"));
+		treeViewer.setContentProvider(new ITreeContentProvider() {
+			@Override
+			public Object[] getElements(Object inputElement) {
+				return elements.toArray();
+			}
+
+			@Override
+			public Object[] getChildren(Object parentElement) {
+				return new Object[0];
+			}
+
+			@Override
+			public Object getParent(Object element) {
+				return null;
+			}
+
+			@Override
+			public boolean hasChildren(Object element) {
+				return false;
+			}
+		});
+		treeViewer.setInput(elements);
+		TreeItem[] oldItems = treeViewer.getTree().getItems();
+
+		elements.add(0, "a");
+		elements.remove("c");
+		treeViewer.refresh();
+
+		TreeItem[] items = treeViewer.getTree().getItems();
+		assertEquals(3, items.length);
+		assertEquals("a", items[0].getText());
+		assertSame(oldItems[0], items[1]);
+		assertSame(oldItems[2], items[2]);
+		assertTrue(oldItems[1].isDisposed());
+		assertSame(items[2], (TreeItem) treeViewer.testFindItem("d"));
 	}
 
 }
@@ -23,6 +23,7 @@ import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TableTreeViewer;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.jface.viewers.ViewerSorter;
 import org.eclipse.swt.graphics.Image;
@@ -46,6 +47,13 @@ public abstract class StructuredViewerTest extends ViewerTestCase {
         }
     }
 
+    public static class ThreadSafeTestLabelFilter extends TestLabelFilter {
+        @Override
+		public boolean isThreadSafe() {
+            return true;
+        }
+    }
+
     public static class TestLabelFilter2 extends ViewerFilter {
         @Override
 		public boolean select(Viewer viewer, Object parent, Object element) {
@@ -189,6 +197,15 @@ public abstract class StructuredViewerTest extends ViewerTestCase {
 
     }
 
+    public void testThreadSafeFilterInParallel() {
+        fViewer.setParallelThreshold(1);
+        fViewer.addFilter(new ThreadSafeTestLabelFilter());
+        assertEquals("filtered count", 5, getItemCount());
+        for (int i = 0; i < 5; i++) {
+            assertTrue("filtered order", getItemText(i).endsWith("-" + (i * 2)));
+        }
+    }
+
     public void testSetFilters() {
     	ViewerFilter filter = new TestLabelFilter();
 		fViewer.setFilters(filter, new TestLabelFilter2());
@@ -472,6 +489,30 @@ public abstract class StructuredViewerTest extends ViewerTestCase {
 				fRootElement));
     }
 
+    public void testThreadSafeComparatorInParallel() {
+        TestElement first = fRootElement.getFirstChild();
+        TestElement last = fRootElement.getLastChild();
+        int size = fRootElement.getChildCount();
+
+        fViewer.setParallelThreshold(1);
+        ViewerComparator comparator = new ViewerComparator() {
+            @Override
+			public boolean isThreadSafe() {
+                return true;
+            }
+
+            @Override
+			public int category(Object element) {
+                String label = ((TestElement) element).getLabel();
+                return -Integer.parseInt(label.substring(label.lastIndexOf('-') + 1));
+            }
+        };
+        comparator.setUseSortKeys(true);
+        fViewer.setComparator(comparator);
+        assertEquals("reverse sorted", first.toString(), getItemText(size - 1));
+        assertEquals("reverse sorted", last.toString(), getItemText(0));
+    }
+
     public void testSorter() {
         TestElement first = fRootElement.getFirstChild();
         TestElement last = fRootElement.getLastChild();
@@ -86,6 +86,35 @@ public class TableViewerComparatorTest extends ViewerComparatorTest {
 		assertSortedResult(TEAM1_SORTED_WITH_INSERT);
 	}
 
+	public void testViewerComparatorWithSortKeys(){
+		ViewerComparator comparator = new ViewerComparator();
+		comparator.setUseSortKeys(true);
+		fViewer.setComparator(comparator);
+		assertSortedResult(TEAM1_SORTED);
+		team1.addMember("Duong");
+		assertSortedResult(TEAM1_SORTED_WITH_INSERT);
+	}
+
+	public void testViewerSorterWithSortKeys(){
+		ViewerSorter sorter = new ViewerSorter();
+		sorter.setUseSortKeys(true);
+		fViewer.setComparator(sorter);
+		assertSortedResult(TEAM1_SORTED);
+	}
+
+	public void testViewerComparatorWithSortKeysAndCategories(){
+		ViewerComparator comparator = new ViewerComparator() {
+			@Override
+			public int category(Object element) {
+				return ((TeamMember) element).name.startsWith("M") ? 0 : 1;
+			}
+		};
+		comparator.setUseSortKeys(true);
+		fViewer.setComparator(comparator);
+		assertSortedResult(new String[] { "Michael", "Mike", "Andrea", "Boris", "Eric", "Karice", "Kim", "Paul",
+				"Susan", "Tod" });
+	}
+
 	private void assertSortedResult(String[] expected){
 		TableItem[] items = getTableViewer().getTable().getItems();
 		for (int i = 0; i < items.length; i++){
@@ -11,7 +11,11 @@
 package org.eclipse.jface.tests.viewers;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
+import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.ColumnLayoutData;
 import org.eclipse.jface.viewers.ColumnViewer;
 import org.eclipse.jface.viewers.ColumnWeightData;
@@ -19,7 +23,10 @@ import org.eclipse.jface.viewers.ITableLabelProvider;
 import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.TableLayout;
 import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerCell;
 import org.eclipse.jface.viewers.ViewerColumn;
+import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Composite;
@@ -183,6 +190,82 @@ public class TableViewerTest extends StructuredItemViewerTest {
 		fViewer.refresh();
 	}
 
+	public void testBackgroundLabels() {
+		TableViewer viewer = (TableViewer) fViewer;
+		final Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+		viewer.setUseBackgroundLabels(true);
+		viewer.setLabelProvider(new ColumnLabelProvider() {
+			@Override
+			public boolean isThreadSafe() {
+				return true;
+			}
+
+			@Override
+			public String getText(Object element) {
+				threads.add(Thread.currentThread());
+				return "background " + element;
+			}
+
+			@Override
+			public void updatePlaceholder(ViewerCell cell) {
+				cell.setText("...");
+			}
+		});
+		viewer.setInput(null);
+		viewer.setInput(fRootElement);
+		assertEquals("...", getItemText(0));
+
+		waitForBackgroundLabel(0);
+		assertEquals("background " + fRootElement.getFirstChild(), getItemText(0));
+		assertFalse(threads.isEmpty());
+		assertFalse(threads.contains(Thread.currentThread()));
+	}
+
+	public void testBackgroundLabelsOfReusedItems() {
+		TableViewer viewer = (TableViewer) fViewer;
+		viewer.setUseBackgroundLabels(true);
+		viewer.setLabelProvider(new ColumnLabelProvider() {
+			@Override
+			public boolean isThreadSafe() {
+				return true;
+			}
+
+			@Override
+			public String getText(Object element) {
+				return "background " + element;
+			}
+
+			@Override
+			public void updatePlaceholder(ViewerCell cell) {
+				cell.setText("...");
+			}
+		});
+		viewer.setInput(null);
+		viewer.setInput(fRootElement);
+		waitForBackgroundLabel(0);
+		assertEquals("background " + fRootElement.getFirstChild(), getItemText(0));
+
+		// the first item now shows the last element, and must not keep the
+		// label of the first one until its new label is computed
+		viewer.setComparator(new ViewerComparator() {
+			@Override
+			public int compare(Viewer v, Object e1, Object e2) {
+				return -super.compare(v, e1, e2);
+			}
+		});
+		assertEquals("...", getItemText(0));
+		waitForBackgroundLabel(0);
+		assertEquals("background " + viewer.getElementAt(0), getItemText(0));
+	}
+
+	private void waitForBackgroundLabel(int at) {
+		long start = System.currentTimeMillis();
+		while (getItemText(at).equals("...") && System.currentTimeMillis() - start < 5000) {
+			processEvents();
+			sleep(10);
+		}
+	}
+
 	public void testRemove() {
 		TableViewer tableviewer = (TableViewer) fViewer;
 		TestElement first = fRootElement.getFirstChild();